@@ -2,6 +2,7 @@ package pl.allegro.tech.hermes.api;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.google.common.base.MoreObjects;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import java.util.Map;
 import java.util.Objects;
@@ -15,6 +16,10 @@ public class BatchSubscriptionPolicy {
   private static final int DEFAULT_BATCH_SIZE = 100;
   private static final int DEFAULT_BATCH_TIME = 30 * 1000;
   private static final int DEFAULT_BATCH_VOLUME = 64 * 1000;
+  private static final int DEFAULT_INFLIGHT_BATCHES = 1;
+
+  // every in-flight batch takes a delivery thread and a buffer of the consumer
+  public static final int MAX_INFLIGHT_BATCHES = 16;
 
   @Min(0)
   private int messageTtl;
@@ -36,6 +41,10 @@ public class BatchSubscriptionPolicy {
   @Min(1)
   private int batchVolume;
 
+  @Min(1)
+  @Max(MAX_INFLIGHT_BATCHES)
+  private int inflightBatches = DEFAULT_INFLIGHT_BATCHES;
+
   private BatchSubscriptionPolicy() {}
 
   public BatchSubscriptionPolicy(
@@ -46,6 +55,26 @@ public class BatchSubscriptionPolicy {
       int batchSize,
       int batchTime,
       int batchVolume) {
+    this(
+        messageTtl,
+        retryClientErrors,
+        messageBackoff,
+        requestTimeout,
+        batchSize,
+        batchTime,
+        batchVolume,
+        DEFAULT_INFLIGHT_BATCHES);
+  }
+
+  public BatchSubscriptionPolicy(
+      int messageTtl,
+      boolean retryClientErrors,
+      int messageBackoff,
+      int requestTimeout,
+      int batchSize,
+      int batchTime,
+      int batchVolume,
+      int inflightBatches) {
     this.messageTtl = messageTtl;
     this.retryClientErrors = retryClientErrors;
     this.messageBackoff = messageBackoff;
@@ -53,6 +82,7 @@ public class BatchSubscriptionPolicy {
     this.batchSize = batchSize;
     this.batchTime = batchTime;
     this.batchVolume = batchVolume;
+    this.inflightBatches = inflightBatches;
   }
 
   @JsonCreator
@@ -64,7 +94,8 @@ public class BatchSubscriptionPolicy {
         (Integer) properties.getOrDefault("requestTimeout", DEFAULT_REQUEST_TIMEOUT),
         (Integer) properties.getOrDefault("batchSize", DEFAULT_BATCH_SIZE),
         (Integer) properties.getOrDefault("batchTime", DEFAULT_BATCH_TIME),
-        (Integer) properties.getOrDefault("batchVolume", DEFAULT_BATCH_VOLUME));
+        (Integer) properties.getOrDefault("batchVolume", DEFAULT_BATCH_VOLUME),
+        (Integer) properties.getOrDefault("inflightBatches", DEFAULT_INFLIGHT_BATCHES));
   }
 
   @Override
@@ -76,7 +107,8 @@ public class BatchSubscriptionPolicy {
         requestTimeout,
         batchSize,
         batchTime,
-        batchVolume);
+        batchVolume,
+        inflightBatches);
   }
 
   @Override
@@ -94,7 +126,8 @@ public class BatchSubscriptionPolicy {
         && Objects.equals(this.requestTimeout, other.requestTimeout)
         && Objects.equals(this.batchSize, other.batchSize)
         && Objects.equals(this.batchTime, other.batchTime)
-        && Objects.equals(this.batchVolume, other.batchVolume);
+        && Objects.equals(this.batchVolume, other.batchVolume)
+        && Objects.equals(this.inflightBatches, other.inflightBatches);
   }
 
   @Override
@@ -107,6 +140,7 @@ public class BatchSubscriptionPolicy {
         .add("batchTime", batchTime)
         .add("batchVolume", batchVolume)
         .add("requestTimeout", requestTimeout)
+        .add("inflightBatches", inflightBatches)
         .toString();
   }
 
@@ -138,6 +172,10 @@ public class BatchSubscriptionPolicy {
     return requestTimeout;
   }
 
+  public Integer getInflightBatches() {
+    return inflightBatches;
+  }
+
   public static class Builder {
 
     private BatchSubscriptionPolicy subscriptionPolicy;
@@ -185,6 +223,11 @@ public class BatchSubscriptionPolicy {
       return this;
     }
 
+    public Builder withInflightBatches(int inflightBatches) {
+      subscriptionPolicy.inflightBatches = inflightBatches;
+      return this;
+    }
+
     public BatchSubscriptionPolicy build() {
       return new BatchSubscriptionPolicy(
           subscriptionPolicy.messageTtl,
@@ -193,7 +236,8 @@ public class BatchSubscriptionPolicy {
           subscriptionPolicy.requestTimeout,
           subscriptionPolicy.batchSize,
           subscriptionPolicy.batchTime,
-          subscriptionPolicy.batchVolume);
+          subscriptionPolicy.batchVolume,
+          subscriptionPolicy.inflightBatches);
     }
 
     public Builder applyDefaults() {
@@ -0,0 +1,150 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.consumers.supervisor.ConsumerThreadFactory;
+
+/**
+ * Compares how many consumer processes a node can run on platform threads (a thread per process
+ * and a retry executor thread per subscription) and on virtual threads.
+ *
+ * <p>Every process waits for a message and delivers it with a blocking call taking {@code
+ * sendMillis}. One operation delivers a message in every process, so score multiplied by {@code
+ * processes} is the number of messages the node delivers per second. Memory taken by the processes
+ * (growth of resident set size of the JVM while they were started) is logged per process at the
+ * end of each trial, together with the number of live platform threads.
+ */
+@Fork(value = 1, jvmArgs = {"-Xmx2g", "-Xms2g"})
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConsumerThreadsBenchmark {
+
+  private static final Logger logger = LoggerFactory.getLogger(ConsumerThreadsBenchmark.class);
+
+  @State(Scope.Benchmark)
+  public static class Node {
+
+    @Param({"100", "1000", "5000"})
+    int processes;
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    @Param({"1"})
+    int sendMillis;
+
+    ExecutorService consumersExecutor;
+    List<ScheduledThreadPoolExecutor> retryExecutors;
+    List<Semaphore> messages;
+    volatile CountDownLatch delivered;
+    long residentBytesPerProcess;
+
+    @Setup
+    public void setup() throws InterruptedException {
+      long residentBytesBefore = residentBytes();
+      ConsumerThreadFactory threadFactory = new ConsumerThreadFactory(virtualThreads);
+      consumersExecutor =
+          virtualThreads
+              ? Executors.newThreadPerTaskExecutor(threadFactory.create("Consumer-"))
+              : Executors.newFixedThreadPool(processes, threadFactory.create("Consumer-"));
+      retryExecutors = new ArrayList<>(processes);
+      messages = new ArrayList<>(processes);
+      CountDownLatch started = new CountDownLatch(processes);
+      for (int i = 0; i < processes; i++) {
+        Semaphore processMessages = new Semaphore(0);
+        messages.add(processMessages);
+        consumersExecutor.execute(new ConsumerProcess(this, processMessages, started));
+        ScheduledThreadPoolExecutor retryExecutor =
+            new ScheduledThreadPoolExecutor(
+                1, threadFactory.create("subscription-" + i + "-retry-executor-"));
+        // a node running for a while has retried messages of most of its subscriptions
+        retryExecutor.prestartAllCoreThreads();
+        retryExecutors.add(retryExecutor);
+      }
+      started.await();
+      residentBytesPerProcess = (residentBytes() - residentBytesBefore) / processes;
+    }
+
+    @TearDown
+    public void tearDown() {
+      logger.info(
+          "processes={}, virtualThreads={}, residentKbPerProcess={}, liveThreads={}",
+          processes,
+          virtualThreads,
+          residentBytesPerProcess / 1024,
+          ManagementFactory.getThreadMXBean().getThreadCount());
+      retryExecutors.forEach(ScheduledThreadPoolExecutor::shutdownNow);
+      consumersExecutor.shutdownNow();
+    }
+  }
+
+  @Benchmark
+  public void deliverMessageInEveryProcess(Node node) throws InterruptedException {
+    CountDownLatch delivered = new CountDownLatch(node.processes);
+    node.delivered = delivered;
+    node.messages.forEach(Semaphore::release);
+    delivered.await();
+  }
+
+  private static long residentBytes() {
+    try {
+      // VmRSS line of /proc/self/status, in kB
+      return Files.readAllLines(Path.of("/proc/self/status")).stream()
+              .filter(line -> line.startsWith("VmRSS:"))
+              .map(line -> line.replaceAll("[^0-9]", ""))
+              .mapToLong(Long::parseLong)
+              .findFirst()
+              .orElse(0)
+          * 1024;
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
+  private record ConsumerProcess(Node node, Semaphore messages, CountDownLatch started)
+      implements Runnable {
+
+    @Override
+    public void run() {
+      started.countDown();
+      try {
+        while (!Thread.currentThread().isInterrupted()) {
+          messages.acquire();
+          // blocking delivery to the subscriber
+          Thread.sleep(node.sendMillis);
+          node.delivered.countDown();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static pl.allegro.tech.hermes.common.message.converter.AvroRecordToBytesConverter.recordToBytes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.api.MessageFilterSpecification;
+import pl.allegro.tech.hermes.domain.filtering.FilterableMessage;
+import pl.allegro.tech.hermes.domain.filtering.MessageFilters;
+import pl.allegro.tech.hermes.domain.filtering.avro.AvroPathSubscriptionMessageFilterCompiler;
+import pl.allegro.tech.hermes.domain.filtering.chain.FilterChain;
+import pl.allegro.tech.hermes.domain.filtering.chain.FilterChainFactory;
+import pl.allegro.tech.hermes.domain.filtering.chain.FilterResult;
+import pl.allegro.tech.hermes.domain.filtering.json.JsonPathSubscriptionMessageFilterCompiler;
+import pl.allegro.tech.hermes.schema.CompiledSchema;
+
+@Fork(1)
+@Warmup(iterations = 4, time = 10)
+@Measurement(iterations = 4, time = 10)
+@Threads(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FilterChainBenchmark {
+
+  private static final int FIELDS = 20;
+
+  @State(Scope.Benchmark)
+  public static class Chains {
+
+    @Param({"1", "5", "20"})
+    int filters;
+
+    @Param({"JSON", "AVRO"})
+    ContentType contentType;
+
+    @Param({"true", "false"})
+    boolean parseOnce;
+
+    FilterChain filterChain;
+    FilterableMessage message;
+
+    @Setup
+    public void setup() throws IOException {
+      MessageFilters messageFilters =
+          new MessageFilters(
+              emptyList(),
+              Arrays.asList(
+                  new JsonPathSubscriptionMessageFilterCompiler(),
+                  new AvroPathSubscriptionMessageFilterCompiler()));
+      filterChain =
+          new FilterChainFactory(messageFilters, parseOnce).create(filterSpecifications());
+      message =
+          contentType == ContentType.JSON
+              ? new BenchmarkFilterableMessage(contentType, jsonPayload(), null)
+              : avroMessage();
+    }
+
+    private List<MessageFilterSpecification> filterSpecifications() {
+      boolean json = contentType == ContentType.JSON;
+      List<MessageFilterSpecification> specifications = new ArrayList<>();
+      for (int i = 0; i < filters; i++) {
+        String field = "field" + (i % FIELDS);
+        Map<String, Object> specification = new HashMap<>();
+        specification.put("type", json ? "jsonpath" : "avropath");
+        specification.put("path", json ? "$." + field : "." + field);
+        specification.put("matcher", "value-.*");
+        specifications.add(new MessageFilterSpecification(specification));
+      }
+      return specifications;
+    }
+
+    private byte[] jsonPayload() {
+      return IntStream.range(0, FIELDS)
+          .mapToObj(i -> String.format("\"field%d\": \"value-%d\"", i, i))
+          .collect(Collectors.joining(", ", "{", "}"))
+          .getBytes(UTF_8);
+    }
+
+    private FilterableMessage avroMessage() throws IOException {
+      SchemaBuilder.FieldAssembler<Schema> fields =
+          SchemaBuilder.record("BenchmarkRecord").namespace("pl.allegro.tech.hermes").fields();
+      for (int i = 0; i < FIELDS; i++) {
+        fields = fields.requiredString("field" + i);
+      }
+      Schema schema = fields.endRecord();
+
+      GenericRecord record = new GenericData.Record(schema);
+      for (int i = 0; i < FIELDS; i++) {
+        record.put("field" + i, "value-" + i);
+      }
+      return new BenchmarkFilterableMessage(
+          contentType, recordToBytes(record, schema), CompiledSchema.of(schema, 1, 1));
+    }
+  }
+
+  @Benchmark
+  public FilterResult applyFilterChain(Chains chains) {
+    return chains.filterChain.apply(chains.message);
+  }
+
+  private static class BenchmarkFilterableMessage implements FilterableMessage {
+    private final ContentType contentType;
+    private final byte[] data;
+    private final CompiledSchema<Schema> schema;
+
+    BenchmarkFilterableMessage(
+        ContentType contentType, byte[] data, CompiledSchema<Schema> schema) {
+      this.contentType = contentType;
+      this.data = data;
+      this.schema = schema;
+    }
+
+    @Override
+    public ContentType getContentType() {
+      return contentType;
+    }
+
+    @Override
+    public Map<String, String> getExternalMetadata() {
+      return emptyMap();
+    }
+
+    @Override
+    public byte[] getData() {
+      return data;
+    }
+
+    @Override
+    public Optional<CompiledSchema<Schema>> getSchema() {
+      return Optional.ofNullable(schema);
+    }
+  }
+}
@@ -0,0 +1,183 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import static pl.allegro.tech.hermes.api.ContentType.JSON;
+import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.benchmark.environment.InMemoryTopicsCache;
+import pl.allegro.tech.hermes.common.metric.MetricsFacade;
+import pl.allegro.tech.hermes.frontend.config.HTTPHeadersProperties;
+import pl.allegro.tech.hermes.frontend.config.KafkaHeaderNameProperties;
+import pl.allegro.tech.hermes.frontend.config.KafkaProducerProperties;
+import pl.allegro.tech.hermes.frontend.config.KafkaProperties;
+import pl.allegro.tech.hermes.frontend.metric.CachedTopic;
+import pl.allegro.tech.hermes.frontend.producer.BrokerLatencyReporter;
+import pl.allegro.tech.hermes.frontend.producer.kafka.KafkaHeaderFactory;
+import pl.allegro.tech.hermes.frontend.producer.kafka.KafkaMessageSenders;
+import pl.allegro.tech.hermes.frontend.producer.kafka.KafkaMessageSendersFactory;
+import pl.allegro.tech.hermes.frontend.producer.kafka.LocalDatacenterMessageProducer;
+import pl.allegro.tech.hermes.frontend.producer.kafka.MessageToKafkaProducerRecordConverter;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.message.JsonMessage;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.test.helper.containers.KafkaContainerCluster;
+
+/**
+ * Measures publishing throughput of frontend Kafka producers depending on the number of producers
+ * per ack level. Single operation publishes {@code MESSAGES_PER_OPERATION} messages with random
+ * partition keys and waits until all of them are acknowledged, many threads publish concurrently as
+ * Undertow workers do. Requires Docker to start a Kafka broker.
+ */
+@Fork(1)
+@Warmup(iterations = 4, time = 10)
+@Measurement(iterations = 4, time = 10)
+@Threads(16)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class KafkaProducerPoolBenchmark {
+
+  private static final int MESSAGES_PER_OPERATION = 100;
+  private static final int PARTITIONS = 12;
+  private static final Topic TOPIC = topic("bench.producerPool").withContentType(JSON).build();
+
+  @State(Scope.Benchmark)
+  public static class Producers {
+
+    @Param({"1", "2", "4"})
+    int poolSize;
+
+    LocalDatacenterMessageProducer producer;
+    CachedTopic cachedTopic;
+    byte[] payload;
+
+    private KafkaContainerCluster kafka;
+    private AdminClient adminClient;
+    private KafkaMessageSendersFactory sendersFactory;
+    private KafkaMessageSenders senders;
+    private ScheduledExecutorService chaosScheduler;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      kafka = new KafkaContainerCluster(1);
+      kafka.start();
+      adminClient =
+          AdminClient.create(
+              Map.of(
+                  AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG,
+                  kafka.getBootstrapServersForExternalClients()));
+      adminClient
+          .createTopics(List.of(new NewTopic(TOPIC.getQualifiedName(), PARTITIONS, (short) 1)))
+          .all()
+          .get();
+
+      MetricsFacade metricsFacade = new MetricsFacade(new SimpleMeterRegistry());
+      InMemoryTopicsCache topicsCache = new InMemoryTopicsCache(metricsFacade, TOPIC);
+      cachedTopic = topicsCache.getTopic(TOPIC.getQualifiedName()).orElseThrow();
+
+      KafkaProperties kafkaProperties = new KafkaProperties();
+      kafkaProperties.setBrokerList(kafka.getBootstrapServersForExternalClients());
+      KafkaProducerProperties producerProperties = new KafkaProducerProperties();
+      producerProperties.setPoolSize(poolSize);
+      chaosScheduler = Executors.newSingleThreadScheduledExecutor();
+      sendersFactory =
+          new KafkaMessageSendersFactory(
+              kafkaProperties,
+              List.of(),
+              new BrokerLatencyReporter(false, metricsFacade, Duration.ofSeconds(1), null),
+              metricsFacade,
+              adminClient,
+              topicsCache,
+              2,
+              Duration.ofSeconds(1),
+              2,
+              256 * 1024 * 1024L,
+              Duration.ofMinutes(5),
+              chaosScheduler);
+      senders = sendersFactory.provide(producerProperties, "benchmark");
+      producer =
+          new LocalDatacenterMessageProducer(
+              senders,
+              new MessageToKafkaProducerRecordConverter(
+                  new KafkaHeaderFactory(
+                      new KafkaHeaderNameProperties(),
+                      new HTTPHeadersProperties.PropagationAsKafkaHeadersProperties()),
+                  false));
+      payload = new byte[512];
+      ThreadLocalRandom.current().nextBytes(payload);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      senders.close();
+      sendersFactory.close();
+      chaosScheduler.shutdown();
+      adminClient.close();
+      kafka.stop();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES_PER_OPERATION)
+  public int publish(Producers producers) throws InterruptedException {
+    CountDownLatch acknowledged = new CountDownLatch(MESSAGES_PER_OPERATION);
+    AtomicInteger failed = new AtomicInteger();
+    PublishingCallback callback =
+        new PublishingCallback() {
+          @Override
+          public void onUnpublished(Message message, Topic topic, Exception exception) {
+            failed.incrementAndGet();
+            acknowledged.countDown();
+          }
+
+          @Override
+          public void onPublished(Message message, Topic topic) {
+            acknowledged.countDown();
+          }
+
+          @Override
+          public void onEachPublished(Message message, Topic topic, String datacenter) {}
+        };
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < MESSAGES_PER_OPERATION; i++) {
+      Message message =
+          new JsonMessage(
+              UUID.randomUUID().toString(),
+              producers.payload,
+              System.currentTimeMillis(),
+              "key-" + random.nextInt(10_000),
+              Map.of());
+      producers.producer.send(message, producers.cachedTopic, callback);
+    }
+    acknowledged.await();
+    return failed.get();
+  }
+}
@@ -0,0 +1,101 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.commons.jxpath.JXPathContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.api.OwnerId;
+import pl.allegro.tech.hermes.api.Query;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.management.infrastructure.query.parser.json.JsonQueryParser;
+
+/**
+ * Compares management queries evaluated with compiled attribute paths with the previous evaluation,
+ * which converted every object to a map and resolved attributes with JXPath.
+ */
+@Fork(1)
+@Warmup(iterations = 4, time = 10)
+@Measurement(iterations = 4, time = 10)
+@Threads(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ManagementQueryBenchmark {
+
+  private static final String QUERY =
+      """
+      {"query": {"and": [{"owner.id": "team-7"}, {"state": "ACTIVE"}, {"contentType": "AVRO"}]}}
+      """;
+
+  private static final Map<String, Object> CONDITIONS =
+      Map.of("owner/id", "team-7", "state", "ACTIVE", "contentType", "AVRO");
+
+  @State(Scope.Benchmark)
+  public static class Subscriptions {
+
+    @Param({"1000", "20000"})
+    int subscriptions;
+
+    ObjectMapper objectMapper;
+    List<Subscription> values;
+    Query<Subscription> compiledQuery;
+
+    @Setup
+    public void setup() {
+      objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+      values =
+          IntStream.range(0, subscriptions)
+              .mapToObj(
+                  i ->
+                      subscription("group.topic" + i % 100, "subscription" + i)
+                          .withOwner(new OwnerId("Plaintext", "team-" + i % 50))
+                          .withState(
+                              i % 3 == 0 ? Subscription.State.SUSPENDED : Subscription.State.ACTIVE)
+                          .withContentType(i % 2 == 0 ? ContentType.AVRO : ContentType.JSON)
+                          .build())
+              .collect(Collectors.toList());
+      compiledQuery = new JsonQueryParser(objectMapper).parse(QUERY, Subscription.class);
+    }
+  }
+
+  @Benchmark
+  public List<Subscription> compiledQuery(Subscriptions subscriptions) {
+    return subscriptions.compiledQuery.filter(subscriptions.values).collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<Subscription> jxpathQuery(Subscriptions subscriptions) {
+    return subscriptions.values.stream()
+        .filter(subscription -> matchesWithJXPath(subscriptions.objectMapper, subscription))
+        .collect(Collectors.toList());
+  }
+
+  private static boolean matchesWithJXPath(ObjectMapper objectMapper, Subscription subscription) {
+    Map<?, ?> map = objectMapper.convertValue(subscription, Map.class);
+    for (Map.Entry<String, Object> condition : CONDITIONS.entrySet()) {
+      Object actual = JXPathContext.newContext(map).getValue(condition.getKey());
+      if (!condition.getValue().equals(String.valueOf(actual))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
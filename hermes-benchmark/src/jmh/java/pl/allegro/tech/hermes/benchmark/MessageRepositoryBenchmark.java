@@ -9,6 +9,7 @@ import java.nio.file.Files;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
 import net.openhft.chronicle.map.ChronicleMap;
 import net.openhft.chronicle.map.ChronicleMapBuilder;
 import org.openjdk.jmh.annotations.Benchmark;
@@ -28,6 +29,8 @@ import pl.allegro.tech.hermes.frontend.buffer.MessageRepository;
 import pl.allegro.tech.hermes.frontend.buffer.chronicle.ChronicleMapCreationException;
 import pl.allegro.tech.hermes.frontend.buffer.chronicle.ChronicleMapEntryValue;
 import pl.allegro.tech.hermes.frontend.buffer.chronicle.ChronicleMapMessageRepository;
+import pl.allegro.tech.hermes.frontend.buffer.log.LogMessageRepository;
+import pl.allegro.tech.hermes.frontend.config.LocalMessageStorageProperties;
 import pl.allegro.tech.hermes.frontend.publishing.message.JsonMessage;
 import pl.allegro.tech.hermes.frontend.publishing.message.Message;
 import pl.allegro.tech.hermes.frontend.publishing.message.MessageIdGenerator;
@@ -47,6 +50,7 @@ public class MessageRepositoryBenchmark {
 
     MessageRepository hermesImplMessageRepository;
     MessageRepository baselineMessageRepository;
+    MessageRepository logMessageRepository;
 
     Message message;
     Topic topic;
@@ -60,6 +64,8 @@ public class MessageRepositoryBenchmark {
           new ChronicleMapMessageRepository(prepareFile(), ENTRIES, AVERAGE_MESSAGE_SIZE);
       baselineMessageRepository =
           new BaselineChronicleMapMessageRepository(prepareFile(), ENTRIES, AVERAGE_MESSAGE_SIZE);
+      logMessageRepository =
+          new LogMessageRepository(prepareDirectory(), new LocalMessageStorageProperties());
     }
 
     private Message generateMessage() {
@@ -74,6 +80,10 @@ public class MessageRepositoryBenchmark {
       String baseDir = Files.createTempDirectory(null).toFile().getAbsolutePath();
       return new File(baseDir, "messages.dat");
     }
+
+    private File prepareDirectory() throws IOException {
+      return Files.createTempDirectory(null).toFile();
+    }
   }
 
   @Benchmark
@@ -86,6 +96,23 @@ public class MessageRepositoryBenchmark {
     repositories.baselineMessageRepository.save(repositories.message, repositories.topic);
   }
 
+  @Benchmark
+  public void logSave(Repositories repositories) {
+    repositories.logMessageRepository.save(repositories.message, repositories.topic);
+  }
+
+  @Benchmark
+  public void hermesImplSaveAndDelete(Repositories repositories) {
+    repositories.hermesImplMessageRepository.save(repositories.message, repositories.topic);
+    repositories.hermesImplMessageRepository.delete(repositories.message.getId());
+  }
+
+  @Benchmark
+  public void logSaveAndDelete(Repositories repositories) {
+    repositories.logMessageRepository.save(repositories.message, repositories.topic);
+    repositories.logMessageRepository.delete(repositories.message.getId());
+  }
+
   public static class BaselineChronicleMapMessageRepository implements MessageRepository {
     private static final boolean SAME_BUILDER_CONFIG = false;
 
@@ -129,6 +156,21 @@ public class MessageRepositoryBenchmark {
       throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void forEach(ObjLongConsumer<BackupMessage> consumer) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long count() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long sizeInBytes() {
+      throw new UnsupportedOperationException();
+    }
+
     @Override
     public void close() {
       throw new UnsupportedOperationException();
@@ -0,0 +1,226 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import static pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset.subscriptionPartitionOffset;
+
+import com.google.common.collect.Sets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.allegro.tech.hermes.api.SubscriptionName;
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
+import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
+import pl.allegro.tech.hermes.consumers.consumer.offset.ConsumerPartitionAssignmentState;
+import pl.allegro.tech.hermes.consumers.consumer.offset.OffsetCommitter;
+import pl.allegro.tech.hermes.consumers.consumer.offset.PendingOffsets;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartition;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset;
+import pl.allegro.tech.hermes.test.helper.metrics.TestMetricsFacadeFactory;
+
+/**
+ * Compares per-partition bitmap tracking of pending offsets with the map based algorithm it
+ * replaced. Single operation marks {@code pendingOffsets} messages as inflight, marks most of them
+ * as processed (every hundredth stays inflight until the next operation) and runs the commit
+ * algorithm, as {@code SerialConsumer} does during one commit period.
+ */
+@Fork(1)
+@Warmup(iterations = 4, time = 10)
+@Measurement(iterations = 4, time = 10)
+@Threads(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PendingOffsetsBenchmark {
+
+  private static final SubscriptionName SUBSCRIPTION =
+      SubscriptionName.fromString("group.topic$sub");
+  private static final KafkaTopicName KAFKA_TOPIC = KafkaTopicName.valueOf("group_topic");
+  private static final int PARTITIONS = 4;
+  private static final int LAGGING_EVERY = 100;
+
+  @State(Scope.Benchmark)
+  public static class Offsets {
+
+    @Param({"1000", "10000", "100000"})
+    int pendingOffsets;
+
+    ConsumerPartitionAssignmentState assignmentState;
+    PendingOffsets bitmapOffsets;
+    OffsetCommitter offsetCommitter;
+    LegacyPendingOffsets legacyOffsets;
+
+    private final List<SubscriptionPartitionOffset> lagging = new ArrayList<>();
+    private long firstOffset = 0;
+
+    @Setup
+    public void setup() {
+      assignmentState = new ConsumerPartitionAssignmentState();
+      assignmentState.assign(SUBSCRIPTION, IntStream.range(0, PARTITIONS).boxed().toList());
+      int slots = 2 * pendingOffsets;
+      bitmapOffsets =
+          new PendingOffsets(SUBSCRIPTION, TestMetricsFacadeFactory.create(), slots, slots);
+      offsetCommitter = new OffsetCommitter(assignmentState, TestMetricsFacadeFactory.create());
+      legacyOffsets = new LegacyPendingOffsets(assignmentState);
+    }
+
+    SubscriptionPartitionOffset nextOffset(int index) {
+      long offset = firstOffset + index / PARTITIONS;
+      return subscriptionPartitionOffset(
+          SUBSCRIPTION,
+          new PartitionOffset(KAFKA_TOPIC, offset, index % PARTITIONS),
+          assignmentState.currentTerm(SUBSCRIPTION));
+    }
+  }
+
+  @Benchmark
+  public Set<SubscriptionPartitionOffset> bitmapTracking(Offsets offsets)
+      throws InterruptedException {
+    PendingOffsets pendingOffsets = offsets.bitmapOffsets;
+    List<SubscriptionPartitionOffset> laggingFromPreviousRun = new ArrayList<>(offsets.lagging);
+    offsets.lagging.clear();
+    for (int i = 0; i < offsets.pendingOffsets; i++) {
+      pendingOffsets.tryAcquireSlot(Duration.ZERO);
+      SubscriptionPartitionOffset offset = offsets.nextOffset(i);
+      pendingOffsets.markAsInflight(offset);
+      if (i % LAGGING_EVERY == 0) {
+        offsets.lagging.add(offset);
+      } else {
+        pendingOffsets.markAsProcessed(offset);
+      }
+    }
+    laggingFromPreviousRun.forEach(pendingOffsets::markAsProcessed);
+    offsets.firstOffset += offsets.pendingOffsets / PARTITIONS + 1;
+    return offsets.offsetCommitter.calculateOffsetsToBeCommitted(pendingOffsets);
+  }
+
+  @Benchmark
+  public Set<SubscriptionPartitionOffset> mapTracking(Offsets offsets) {
+    LegacyPendingOffsets pendingOffsets = offsets.legacyOffsets;
+    List<SubscriptionPartitionOffset> laggingFromPreviousRun = new ArrayList<>(offsets.lagging);
+    offsets.lagging.clear();
+    for (int i = 0; i < offsets.pendingOffsets; i++) {
+      SubscriptionPartitionOffset offset = offsets.nextOffset(i);
+      pendingOffsets.markAsInflight(offset);
+      if (i % LAGGING_EVERY == 0) {
+        offsets.lagging.add(offset);
+      } else {
+        pendingOffsets.markAsProcessed(offset);
+      }
+    }
+    laggingFromPreviousRun.forEach(pendingOffsets::markAsProcessed);
+    offsets.firstOffset += offsets.pendingOffsets / PARTITIONS + 1;
+    return pendingOffsets.calculateOffsetsToBeCommitted();
+  }
+
+  /**
+   * Map based pending offsets and commit algorithm, as used before bitmap tracking, kept for
+   * comparison. Semaphores are left out, they are the same in both implementations.
+   */
+  static class LegacyPendingOffsets {
+
+    private enum MessageState {
+      INFLIGHT,
+      PROCESSED
+    }
+
+    private final ConcurrentHashMap<SubscriptionPartitionOffset, MessageState> slots =
+        new ConcurrentHashMap<>();
+    private final Set<SubscriptionPartitionOffset> inflightOffsets = new HashSet<>();
+    private final Map<SubscriptionPartition, Long> maxCommittedOffsets = new HashMap<>();
+    private final ConsumerPartitionAssignmentState partitionAssignmentState;
+
+    LegacyPendingOffsets(ConsumerPartitionAssignmentState partitionAssignmentState) {
+      this.partitionAssignmentState = partitionAssignmentState;
+    }
+
+    void markAsInflight(SubscriptionPartitionOffset offset) {
+      slots.put(offset, MessageState.INFLIGHT);
+    }
+
+    void markAsProcessed(SubscriptionPartitionOffset offset) {
+      slots.put(offset, MessageState.PROCESSED);
+    }
+
+    Set<SubscriptionPartitionOffset> calculateOffsetsToBeCommitted() {
+      Map<SubscriptionPartitionOffset, MessageState> offsets = new HashMap<>();
+      for (Map.Entry<SubscriptionPartitionOffset, MessageState> entry : slots.entrySet()) {
+        offsets.put(entry.getKey(), entry.getValue());
+        if (entry.getValue() == MessageState.PROCESSED) {
+          slots.remove(entry.getKey());
+        }
+      }
+
+      List<SubscriptionPartitionOffset> processedOffsets = new ArrayList<>();
+      List<SubscriptionPartitionOffset> allOffsets = new ArrayList<>();
+      for (Map.Entry<SubscriptionPartitionOffset, MessageState> entry : offsets.entrySet()) {
+        if (entry.getValue() == MessageState.PROCESSED) {
+          processedOffsets.add(entry.getKey());
+        }
+        allOffsets.add(entry.getKey());
+      }
+
+      Set<SubscriptionPartitionOffset> processed = new HashSet<>();
+      Map<SubscriptionPartition, Long> maxProcessed = new HashMap<>();
+      for (SubscriptionPartitionOffset offset : processedOffsets) {
+        processed.add(offset);
+        maxProcessed.merge(offset.getSubscriptionPartition(), offset.getOffset() + 1, Math::max);
+      }
+      maxProcessed.forEach(
+          (partition, offset) -> maxCommittedOffsets.merge(partition, offset, Math::max));
+
+      Set<SubscriptionPartitionOffset> inflight = new HashSet<>();
+      Map<SubscriptionPartition, Long> minInflight = new HashMap<>();
+      allOffsets.forEach(o -> reduceIfNotProcessed(o, processed, inflight, minInflight));
+      inflightOffsets.forEach(o -> reduceIfNotProcessed(o, processed, inflight, minInflight));
+      inflightOffsets.clear();
+      inflightOffsets.addAll(inflight);
+
+      Set<SubscriptionPartition> processedOffsetToBeRemoved = new HashSet<>();
+      Set<SubscriptionPartitionOffset> offsetsToCommit = new HashSet<>();
+      for (SubscriptionPartition partition :
+          Sets.union(minInflight.keySet(), maxCommittedOffsets.keySet())) {
+        if (partitionAssignmentState.isAssignedPartitionAtCurrentTerm(partition)) {
+          long min = minInflight.getOrDefault(partition, Long.MAX_VALUE);
+          long max = maxCommittedOffsets.getOrDefault(partition, Long.MAX_VALUE);
+          long offsetToBeCommitted = Math.min(min, max);
+          if (offsetToBeCommitted >= 0 && offsetToBeCommitted < Long.MAX_VALUE) {
+            offsetsToCommit.add(new SubscriptionPartitionOffset(partition, offsetToBeCommitted));
+            if (max == offsetToBeCommitted) {
+              processedOffsetToBeRemoved.add(partition);
+            }
+          }
+        }
+      }
+      processedOffsetToBeRemoved.forEach(maxCommittedOffsets::remove);
+      return offsetsToCommit;
+    }
+
+    private static void reduceIfNotProcessed(
+        SubscriptionPartitionOffset offset,
+        Set<SubscriptionPartitionOffset> processed,
+        Set<SubscriptionPartitionOffset> inflight,
+        Map<SubscriptionPartition, Long> minInflight) {
+      if (!processed.contains(offset)) {
+        inflight.add(offset);
+        minInflight.merge(offset.getSubscriptionPartition(), offset.getOffset(), Math::min);
+      }
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package pl.allegro.tech.hermes.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.damnhandy.uri.template.UriTemplate;
+import com.jayway.jsonpath.JsonPath;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.api.EndpointAddress;
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName;
+import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.interpolation.InterpolationException;
+import pl.allegro.tech.hermes.consumers.consumer.interpolation.MessageBodyInterpolator;
+
+/**
+ * Compares interpolation of endpoint templates with a single streaming pass over the message body
+ * against evaluating a separate JsonPath for every variable, which parses the whole body each time.
+ * Variables are placed at the beginning of a message carrying {@code padding} other fields.
+ */
+@Fork(1)
+@Warmup(iterations = 4, time = 10)
+@Measurement(iterations = 4, time = 10)
+@Threads(1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UriInterpolationBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class Interpolation {
+
+    @Param({"1", "3", "5"})
+    int variables;
+
+    @Param({"10", "100"})
+    int padding;
+
+    EndpointAddress endpoint;
+    Message message;
+    MessageBodyInterpolator interpolator;
+    UriTemplate template;
+    JsonPath[] paths;
+
+    @Setup
+    public void setup() {
+      String path =
+          IntStream.range(0, variables)
+              .mapToObj(i -> "{key.field" + i + "}")
+              .collect(Collectors.joining("/"));
+      endpoint = EndpointAddress.of("http://service.local/" + path);
+      String keys =
+          IntStream.range(0, variables)
+              .mapToObj(i -> "\"field" + i + "\": \"value-" + i + "\"")
+              .collect(Collectors.joining(", "));
+      String rest =
+          IntStream.range(0, padding)
+              .mapToObj(i -> "\"other" + i + "\": {\"name\": \"other-" + i + "\", \"n\": 1}")
+              .collect(Collectors.joining(", "));
+      message =
+          new Message(
+              "id",
+              "bench.interpolation",
+              ("{\"key\": {" + keys + "}, " + rest + "}").getBytes(UTF_8),
+              ContentType.JSON,
+              Optional.empty(),
+              System.currentTimeMillis(),
+              System.currentTimeMillis(),
+              new PartitionOffset(KafkaTopicName.valueOf("bench_interpolation"), 0, 0),
+              0,
+              Map.of(),
+              List.of(),
+              "bench.interpolation$subscription",
+              false);
+      interpolator = new MessageBodyInterpolator();
+      template = UriTemplate.fromTemplate(endpoint.getEndpoint());
+      paths =
+          Arrays.stream(template.getVariables())
+              .map(variable -> JsonPath.compile("$." + variable))
+              .toArray(JsonPath[]::new);
+    }
+  }
+
+  @Benchmark
+  public URI compiledPlan(Interpolation interpolation) throws InterpolationException {
+    return interpolation.interpolator.interpolate(interpolation.endpoint, interpolation.message);
+  }
+
+  @Benchmark
+  public URI jsonPathPerVariable(Interpolation interpolation) {
+    String[] variables = interpolation.template.getVariables();
+    Map<String, Object> values = new HashMap<>();
+    String payload = new String(interpolation.message.getData(), UTF_8);
+    for (int i = 0; i < variables.length; i++) {
+      values.put(variables[i], interpolation.paths[i].read(payload));
+    }
+    return URI.create(interpolation.template.expand(values));
+  }
+}
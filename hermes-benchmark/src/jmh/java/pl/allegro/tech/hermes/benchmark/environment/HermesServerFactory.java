@@ -7,7 +7,6 @@ import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
-import io.undertow.server.HttpHandler;
 import java.io.IOException;
 import java.time.Clock;
 import java.util.Collections;
@@ -56,8 +55,8 @@ class HermesServerFactory {
     Trackers trackers = new Trackers(Collections.emptyList());
     AvroMessageContentWrapper avroMessageContentWrapper =
         new AvroMessageContentWrapper(Clock.systemDefaultZone());
-    HttpHandler httpHandler =
-        provideHttpHandler(
+    HandlersChainFactory handlersChainFactory =
+        provideHandlersChainFactory(
             throughputLimiter,
             topicsCache,
             brokerMessageProducer,
@@ -72,7 +71,8 @@ class HermesServerFactory {
         sslProperties,
         hermesServerProperties,
         metricsFacade,
-        httpHandler,
+        handlersChainFactory.provide(),
+        handlersChainFactory.provideBatch(),
         new HealthCheckService(),
         new DisabledReadinessChecker(false),
         new NoOpMessagePreviewPersister(),
@@ -81,7 +81,7 @@ class HermesServerFactory {
         null);
   }
 
-  private static HttpHandler provideHttpHandler(
+  private static HandlersChainFactory provideHandlersChainFactory(
       ThroughputLimiter throughputLimiter,
       TopicsCache topicsCache,
       BrokerMessageProducer brokerMessageProducer,
@@ -94,26 +94,26 @@ class HermesServerFactory {
     SchemaProperties schemaProperties = new SchemaProperties();
 
     return new HandlersChainFactory(
-            topicsCache,
-            new MessageErrorProcessor(new ObjectMapper(), trackers, trackingHeadersExtractor),
-            new MessageEndProcessor(trackers, new BrokerListeners(), trackingHeadersExtractor),
-            new MessageFactory(
-                new MessageValidators(Collections.emptyList()),
-                new MessageContentTypeEnforcer(),
-                new SchemaRepository(
-                    new DirectSchemaVersionsRepository(rawSchemaClient),
-                    new DirectCompiledSchemaRepository<>(
-                        rawSchemaClient, SchemaCompilersFactory.avroSchemaCompiler())),
-                new DefaultHeadersPropagator(httpHeadersProperties),
-                new BenchmarkMessageContentWrapper(avroMessageContentWrapper),
-                Clock.systemDefaultZone(),
-                schemaProperties.isIdHeaderEnabled()),
-            brokerMessageProducer,
-            null,
-            throughputLimiter,
-            null,
-            false,
-            handlersChainProperties)
-        .provide();
+        topicsCache,
+        new MessageErrorProcessor(new ObjectMapper(), trackers, trackingHeadersExtractor),
+        new MessageEndProcessor(trackers, new BrokerListeners(), trackingHeadersExtractor),
+        new MessageFactory(
+            new MessageValidators(Collections.emptyList()),
+            new MessageContentTypeEnforcer(),
+            new SchemaRepository(
+                new DirectSchemaVersionsRepository(rawSchemaClient),
+                new DirectCompiledSchemaRepository<>(
+                    rawSchemaClient, SchemaCompilersFactory.avroSchemaCompiler())),
+            new DefaultHeadersPropagator(httpHeadersProperties),
+            new BenchmarkMessageContentWrapper(avroMessageContentWrapper),
+            Clock.systemDefaultZone(),
+            schemaProperties.isIdHeaderEnabled()),
+        brokerMessageProducer,
+        null,
+        throughputLimiter,
+        null,
+        false,
+        handlersChainProperties,
+        new ObjectMapper());
   }
 }
@@ -12,14 +12,14 @@ import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
 import pl.allegro.tech.hermes.frontend.metric.CachedTopic;
 import pl.allegro.tech.hermes.frontend.metric.ThroughputRegistry;
 
-class InMemoryTopicsCache implements TopicsCache {
+public class InMemoryTopicsCache implements TopicsCache {
 
   private final MetricsFacade metricsFacade;
   private final KafkaTopics kafkaTopics;
   private final Topic topic;
   private final ThroughputRegistry throughputRegistry;
 
-  InMemoryTopicsCache(MetricsFacade metricsFacade, Topic topic) {
+  public InMemoryTopicsCache(MetricsFacade metricsFacade, Topic topic) {
     this.metricsFacade = metricsFacade;
     this.topic = topic;
     this.kafkaTopics =
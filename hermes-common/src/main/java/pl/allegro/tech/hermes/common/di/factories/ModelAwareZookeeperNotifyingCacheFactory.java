@@ -1,6 +1,8 @@
 package pl.allegro.tech.hermes.common.di.factories;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -32,7 +34,13 @@ public class ModelAwareZookeeperNotifyingCacheFactory {
     ExecutorService executor =
         createExecutor(rootPath, zookeeperParameters.getProcessingThreadPoolSize());
     ModelAwareZookeeperNotifyingCache cache =
-        new ModelAwareZookeeperNotifyingCache(curator, executor, rootPath);
+        new ModelAwareZookeeperNotifyingCache(
+            curator,
+            executor,
+            rootPath,
+            metricsFacade,
+            modelSnapshotFile(),
+            zookeeperParameters.getModelSnapshotMaxAge());
     try {
       cache.start();
     } catch (Exception e) {
@@ -42,6 +50,16 @@ public class ModelAwareZookeeperNotifyingCacheFactory {
     return cache;
   }
 
+  private Optional<Path> modelSnapshotFile() {
+    if (!zookeeperParameters.isModelSnapshotEnabled()) {
+      return Optional.empty();
+    }
+    if (zookeeperParameters.getModelSnapshotFile() == null) {
+      throw new IllegalArgumentException("Model snapshot is enabled, but its file is not set");
+    }
+    return Optional.of(Path.of(zookeeperParameters.getModelSnapshotFile()));
+  }
+
   private ExecutorService createExecutor(String rootPath, int processingThreadPoolSize) {
     ThreadFactory threadFactory =
         new ThreadFactoryBuilder().setNameFormat(rootPath + "-zk-cache-%d").build();
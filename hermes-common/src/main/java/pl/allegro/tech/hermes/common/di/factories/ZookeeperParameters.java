@@ -27,4 +27,12 @@ public interface ZookeeperParameters {
   String getUser();
 
   String getPassword();
+
+  boolean isModelSnapshotEnabled();
+
+  /** Local file with model snapshot, required when the snapshot is enabled. */
+  String getModelSnapshotFile();
+
+  /** Snapshot file modified earlier than that is not loaded on start. */
+  Duration getModelSnapshotMaxAge();
 }
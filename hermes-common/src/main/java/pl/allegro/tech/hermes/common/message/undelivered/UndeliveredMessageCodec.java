@@ -0,0 +1,54 @@
+package pl.allegro.tech.hermes.common.message.undelivered;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import pl.allegro.tech.hermes.api.SentMessageTrace;
+
+/**
+ * Serializes undelivered message traces stored in ZooKeeper, optionally compressing them with
+ * gzip. Compressed and plain JSON traces are told apart by the gzip magic header, so traces written
+ * before compression was enabled can still be read.
+ */
+class UndeliveredMessageCodec {
+
+  private static final byte GZIP_MAGIC_FIRST_BYTE = (byte) (GZIPInputStream.GZIP_MAGIC & 0xff);
+  private static final byte GZIP_MAGIC_SECOND_BYTE = (byte) (GZIPInputStream.GZIP_MAGIC >> 8);
+
+  private final ObjectMapper mapper;
+  private final boolean compressionEnabled;
+
+  UndeliveredMessageCodec(ObjectMapper mapper, boolean compressionEnabled) {
+    this.mapper = mapper;
+    this.compressionEnabled = compressionEnabled;
+  }
+
+  byte[] encode(SentMessageTrace trace) throws IOException {
+    if (!compressionEnabled) {
+      return mapper.writeValueAsBytes(trace);
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+      mapper.writeValue(gzip, trace);
+    }
+    return bytes.toByteArray();
+  }
+
+  static SentMessageTrace decode(ObjectMapper mapper, byte[] data) throws IOException {
+    if (!isCompressed(data)) {
+      return mapper.readValue(data, SentMessageTrace.class);
+    }
+    try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+      return mapper.readValue(gzip, SentMessageTrace.class);
+    }
+  }
+
+  private static boolean isCompressed(byte[] data) {
+    return data.length > 1 && data[0] == GZIP_MAGIC_FIRST_BYTE && data[1] == GZIP_MAGIC_SECOND_BYTE;
+  }
+}
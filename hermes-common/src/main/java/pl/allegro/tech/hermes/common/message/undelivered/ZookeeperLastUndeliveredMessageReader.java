@@ -29,7 +29,7 @@ public class ZookeeperLastUndeliveredMessageReader implements LastUndeliveredMes
       String path = paths.buildPath(topicName, subscriptionName);
       if (exists(path)) {
         return Optional.of(
-            mapper.readValue(curator.getData().forPath(path), SentMessageTrace.class));
+            UndeliveredMessageCodec.decode(mapper, curator.getData().forPath(path)));
       } else {
         return Optional.empty();
       }
@@ -3,10 +3,16 @@ package pl.allegro.tech.hermes.common.message.undelivered;
 import static java.lang.String.format;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.BackgroundPathAndBytesable;
+import org.apache.curator.framework.api.transaction.CuratorOp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.api.SentMessageTrace;
@@ -15,32 +21,69 @@ import pl.allegro.tech.hermes.common.metric.MetricsFacade;
 import pl.allegro.tech.hermes.infrastructure.zookeeper.ZookeeperPaths;
 import pl.allegro.tech.hermes.metrics.HermesCounter;
 import pl.allegro.tech.hermes.metrics.HermesHistogram;
+import pl.allegro.tech.hermes.metrics.HermesTimer;
 
+/**
+ * Keeps the last undelivered message of every subscription and periodically persists them in
+ * ZooKeeper.
+ *
+ * <p>Traces are written in transactions of at most {@code batchSize} operations and {@link
+ * #MAX_BATCH_PAYLOAD_BYTES} bytes of payloads, so a mass delivery failure costs a few round trips
+ * per cycle instead of two for every subscription, and a transaction stays below ZooKeeper's
+ * request size limit. Traces identical to the ones already persisted, compared by hash, are
+ * skipped. Whether a node exists is checked once, when a subscription is first seen, and
+ * remembered, so existing nodes are updated with {@code setData} and other are created; when a
+ * transaction fails, e.g. because a subscription was removed, its traces are persisted one by one.
+ */
 public class ZookeeperUndeliveredMessageLog implements UndeliveredMessageLog {
 
   private static final Logger LOGGER =
       LoggerFactory.getLogger(ZookeeperUndeliveredMessageLog.class);
 
+  private static final int DEFAULT_BATCH_SIZE = 100;
+
+  static final int MAX_BATCH_PAYLOAD_BYTES = 512 * 1024;
+
   private final CuratorFramework curator;
   private final UndeliveredMessagePaths paths;
-  private final ObjectMapper mapper;
+  private final UndeliveredMessageCodec codec;
+  private final int batchSize;
   private final HermesCounter persistedMessagesMeter;
   private final HermesHistogram persistedMessageSizeHistogram;
+  private final HermesHistogram persistBatchSizeHistogram;
+  private final HermesTimer persistBatchLatencyTimer;
 
   private final ConcurrentMap<SubscriptionName, SentMessageTrace> lastUndeliveredMessages =
       new ConcurrentHashMap<>();
 
+  // nodes known to exist in ZooKeeper, accessed only by the persisting thread
+  private final ConcurrentMap<SubscriptionName, PersistedNode> persistedNodes =
+      new ConcurrentHashMap<>();
+
   public ZookeeperUndeliveredMessageLog(
       CuratorFramework curator,
       ZookeeperPaths zookeeperPaths,
       ObjectMapper mapper,
       MetricsFacade metricsFacade) {
+    this(curator, zookeeperPaths, mapper, metricsFacade, DEFAULT_BATCH_SIZE, false);
+  }
+
+  public ZookeeperUndeliveredMessageLog(
+      CuratorFramework curator,
+      ZookeeperPaths zookeeperPaths,
+      ObjectMapper mapper,
+      MetricsFacade metricsFacade,
+      int batchSize,
+      boolean compressionEnabled) {
     this.curator = curator;
     this.paths = new UndeliveredMessagePaths(zookeeperPaths);
-    this.mapper = mapper;
+    this.codec = new UndeliveredMessageCodec(mapper, compressionEnabled);
+    this.batchSize = batchSize;
     persistedMessagesMeter = metricsFacade.undeliveredMessages().undeliveredMessagesCounter();
     persistedMessageSizeHistogram =
         metricsFacade.undeliveredMessages().undeliveredMessagesSizeHistogram();
+    persistBatchSizeHistogram = metricsFacade.undeliveredMessages().persistBatchSizeHistogram();
+    persistBatchLatencyTimer = metricsFacade.undeliveredMessages().persistBatchLatencyTimer();
   }
 
   @Override
@@ -51,31 +94,115 @@ public class ZookeeperUndeliveredMessageLog implements UndeliveredMessageLog {
 
   @Override
   public void persist() {
+    List<PendingTrace> pending = new ArrayList<>();
     for (SubscriptionName key : lastUndeliveredMessages.keySet()) {
-      log(lastUndeliveredMessages.remove(key));
+      SentMessageTrace messageTrace = lastUndeliveredMessages.remove(key);
+      if (messageTrace != null) {
+        prepare(key, messageTrace, pending);
+      }
+    }
+    List<PendingTrace> batch = new ArrayList<>();
+    int batchBytes = 0;
+    for (PendingTrace trace : pending) {
+      if (!batch.isEmpty()
+          && (batch.size() >= batchSize
+              || batchBytes + trace.payload().length > MAX_BATCH_PAYLOAD_BYTES)) {
+        persistBatch(batch);
+        batch = new ArrayList<>();
+        batchBytes = 0;
+      }
+      batch.add(trace);
+      batchBytes += trace.payload().length;
+    }
+    if (!batch.isEmpty()) {
+      persistBatch(batch);
     }
   }
 
-  private void log(SentMessageTrace messageTrace) {
+  private void prepare(
+      SubscriptionName subscription, SentMessageTrace messageTrace, List<PendingTrace> pending) {
     try {
-      String undeliveredPath =
-          paths.buildPath(messageTrace.getTopicName(), messageTrace.getSubscription());
-      BackgroundPathAndBytesable<?> builder =
-          exists(undeliveredPath) ? curator.setData() : curator.create();
-      byte[] bytesToPersist = mapper.writeValueAsBytes(messageTrace);
-      builder.forPath(undeliveredPath, bytesToPersist);
-      persistedMessagesMeter.increment();
-      persistedMessageSizeHistogram.record(bytesToPersist.length);
+      byte[] payload = codec.encode(messageTrace);
+      HashCode payloadHash = Hashing.murmur3_128().hashBytes(payload);
+      String path = paths.buildPath(messageTrace.getTopicName(), messageTrace.getSubscription());
+      PersistedNode node = persistedNodes.get(subscription);
+      if (node == null && exists(path)) {
+        node = new PersistedNode(null);
+        persistedNodes.put(subscription, node);
+      }
+      if (node == null || !payloadHash.equals(node.payloadHash())) {
+        pending.add(new PendingTrace(subscription, messageTrace, path, payload, payloadHash));
+      }
     } catch (Exception exception) {
-      LOGGER.warn(
-          format(
-              "Could not log undelivered message for topic: %s and subscription: %s",
-              messageTrace.getQualifiedTopicName(), messageTrace.getSubscription()),
+      logFailure(messageTrace, exception);
+    }
+  }
+
+  private void persistBatch(List<PendingTrace> batch) {
+    long start = System.nanoTime();
+    try {
+      List<CuratorOp> operations = new ArrayList<>(batch.size());
+      for (PendingTrace trace : batch) {
+        operations.add(operation(trace));
+      }
+      curator.transaction().forOperations(operations);
+      batch.forEach(this::markPersisted);
+    } catch (Exception exception) {
+      LOGGER.info(
+          "Could not persist batch of {} undelivered messages, persisting them one by one",
+          batch.size(),
           exception);
+      batch.forEach(this::persistSingle);
+    } finally {
+      persistBatchSizeHistogram.record(batch.size());
+      persistBatchLatencyTimer.record(Duration.ofNanos(System.nanoTime() - start));
+    }
+  }
+
+  private CuratorOp operation(PendingTrace trace) throws Exception {
+    if (persistedNodes.containsKey(trace.subscription())) {
+      return curator.transactionOp().setData().forPath(trace.path(), trace.payload());
+    }
+    return curator.transactionOp().create().forPath(trace.path(), trace.payload());
+  }
+
+  private void persistSingle(PendingTrace trace) {
+    try {
+      BackgroundPathAndBytesable<?> builder =
+          exists(trace.path()) ? curator.setData() : curator.create();
+      builder.forPath(trace.path(), trace.payload());
+      markPersisted(trace);
+    } catch (Exception exception) {
+      persistedNodes.remove(trace.subscription());
+      logFailure(trace.messageTrace(), exception);
     }
   }
 
+  private void markPersisted(PendingTrace trace) {
+    persistedNodes.put(trace.subscription(), new PersistedNode(trace.payloadHash()));
+    persistedMessagesMeter.increment();
+    persistedMessageSizeHistogram.record(trace.payload().length);
+  }
+
+  private void logFailure(SentMessageTrace messageTrace, Exception exception) {
+    LOGGER.warn(
+        format(
+            "Could not log undelivered message for topic: %s and subscription: %s",
+            messageTrace.getQualifiedTopicName(), messageTrace.getSubscription()),
+        exception);
+  }
+
   private boolean exists(String path) throws Exception {
     return curator.checkExists().forPath(path) != null;
   }
+
+  private record PendingTrace(
+      SubscriptionName subscription,
+      SentMessageTrace messageTrace,
+      String path,
+      byte[] payload,
+      HashCode payloadHash) {}
+
+  /** Node of a subscription in ZooKeeper, with hash of its payload if written by this log. */
+  private record PersistedNode(HashCode payloadHash) {}
 }
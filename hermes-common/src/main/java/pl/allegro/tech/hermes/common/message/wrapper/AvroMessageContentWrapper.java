@@ -1,11 +1,12 @@
 package pl.allegro.tech.hermes.common.message.wrapper;
 
-import static pl.allegro.tech.hermes.common.message.converter.AvroRecordToBytesConverter.bytesToRecord;
-import static pl.allegro.tech.hermes.common.message.converter.AvroRecordToBytesConverter.recordToBytes;
 import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_MARKER;
 import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_MESSAGE_ID_KEY;
 import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_TIMESTAMP_KEY;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import java.time.Clock;
 import java.util.Collections;
 import java.util.HashMap;
@@ -14,18 +15,22 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.util.Utf8;
 import pl.allegro.tech.hermes.schema.CompiledSchema;
 
 /**
  * This class deals only with wrapping and unwrapping messages. It does not generate any Hermes ID
  * for message in case it is missing. Missing Hermes ID will be left as empty.
+ *
+ * <p>Metadata is read and replaced with {@link AvroMetadataSplicer}, compiled once per schema.
  */
 public class AvroMessageContentWrapper {
 
   private final Clock clock;
 
+  private final LoadingCache<Schema, AvroMetadataSplicer> splicers =
+      CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(AvroMetadataSplicer::new));
+
   public AvroMessageContentWrapper(Clock clock) {
     this.clock = clock;
   }
@@ -33,8 +38,9 @@ public class AvroMessageContentWrapper {
   @SuppressWarnings("unchecked")
   UnwrappedMessageContent unwrapContent(byte[] data, CompiledSchema<Schema> schema) {
     try {
+      AvroMetadataSplicer splicer = splicers.getUnchecked(schema.getSchema());
       Map<Utf8, Utf8> metadata =
-          (Map<Utf8, Utf8>) bytesToRecord(data, schema.getSchema()).get(METADATA_MARKER);
+          (Map<Utf8, Utf8>) splicer.readMetadata(data, splicer.locateMetadata(data));
       MessageMetadata messageMetadata = getMetadata(metadata);
 
       return new UnwrappedMessageContent(messageMetadata, data, schema);
@@ -68,10 +74,11 @@ public class AvroMessageContentWrapper {
       Schema schema,
       Map<String, String> externalMetadata) {
     if (schema.getField(METADATA_MARKER) != null) {
-      GenericRecord genericRecord = bytesToRecord(message, schema);
+      AvroMetadataSplicer splicer = splicers.getUnchecked(schema);
+      AvroMetadataSplicer.MetadataBytes metadataBytes = splicer.locateMetadata(message);
       try {
-        genericRecord.put(METADATA_MARKER, metadataMap(id, timestamp, externalMetadata));
-        return recordToBytes(genericRecord, schema);
+        return splicer.replaceMetadata(
+            message, metadataBytes, metadataMap(id, timestamp, externalMetadata));
       } catch (Exception e) {
         if (e instanceof AvroRuntimeException
             && e.getMessage().equals("Not a valid schema field: __metadata")) {
@@ -0,0 +1,263 @@
+package pl.allegro.tech.hermes.common.message.wrapper;
+
+import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_MARKER;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.util.Utf8;
+import tech.allegro.schema.json2avro.converter.AvroConversionException;
+
+/**
+ * Reads and replaces the top level {@code __metadata} field of Avro binary encoded records without
+ * decoding the rest of the record.
+ *
+ * <p>For a given schema, skippers of all top level fields are compiled once. Fields around the
+ * metadata are only skipped over, so the record is still checked against the schema the same way as
+ * when decoding it, but none of its values is materialized. Metadata is decoded from, or encoded
+ * into, its own bytes, which are then spliced between the bytes of the surrounding fields.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+class AvroMetadataSplicer {
+
+  private static final Skipper NO_BYTES = cursor -> {};
+
+  private final Skipper[] fieldsBefore;
+  private final Skipper metadataField;
+  private final Skipper[] fieldsAfter;
+  private final GenericDatumReader<Object> metadataReader;
+  private final GenericDatumWriter<Object> metadataWriter;
+
+  AvroMetadataSplicer(Schema schema) {
+    Map<Schema, RecordSkipper> records = new IdentityHashMap<>();
+    Schema.Field metadata = schema.getField(METADATA_MARKER);
+    List<Skipper> before = new ArrayList<>();
+    List<Skipper> after = new ArrayList<>();
+    for (Schema.Field field : schema.getFields()) {
+      if (metadata == null || field.pos() < metadata.pos()) {
+        before.add(compile(field.schema(), records));
+      } else if (field.pos() > metadata.pos()) {
+        after.add(compile(field.schema(), records));
+      }
+    }
+    this.fieldsBefore = before.toArray(new Skipper[0]);
+    this.fieldsAfter = after.toArray(new Skipper[0]);
+    if (metadata == null) {
+      this.metadataField = null;
+      this.metadataReader = null;
+      this.metadataWriter = null;
+    } else {
+      this.metadataField = compile(metadata.schema(), records);
+      this.metadataReader = new GenericDatumReader<>(metadata.schema());
+      this.metadataWriter = new GenericDatumWriter<>(metadata.schema());
+    }
+  }
+
+  /**
+   * Finds bytes of the metadata field, skipping over all fields of the record.
+   *
+   * @throws AvroConversionException when the record does not match the schema
+   */
+  MetadataBytes locateMetadata(byte[] data) {
+    try {
+      Cursor cursor = new Cursor(data);
+      skip(fieldsBefore, cursor);
+      int start = cursor.position;
+      if (metadataField != null) {
+        metadataField.skip(cursor);
+      }
+      int end = cursor.position;
+      skip(fieldsAfter, cursor);
+      return new MetadataBytes(start, end);
+    } catch (AvroRuntimeException e) {
+      throw new AvroConversionException(
+          String.format(
+              "Could not deserialize Avro message with provided schema, reason: %s",
+              e.getMessage()));
+    }
+  }
+
+  /** Returns decoded metadata of the record, or null when the schema has no metadata field. */
+  Object readMetadata(byte[] data, MetadataBytes metadata) throws IOException {
+    if (metadataReader == null) {
+      return null;
+    }
+    BinaryDecoder decoder =
+        DecoderFactory.get().binaryDecoder(data, metadata.start(), metadata.length(), null);
+    return metadataReader.read(null, decoder);
+  }
+
+  /** Returns copy of the record with metadata replaced by the given one. */
+  byte[] replaceMetadata(byte[] data, MetadataBytes metadata, Map<Utf8, Utf8> replacement)
+      throws IOException {
+    if (metadataWriter == null) {
+      throw new AvroRuntimeException("Not a valid schema field: " + METADATA_MARKER);
+    }
+    ByteArrayOutputStream outputStream =
+        new ByteArrayOutputStream(data.length - metadata.length() + 128);
+    outputStream.write(data, 0, metadata.start());
+    BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(outputStream, null);
+    metadataWriter.write(replacement, encoder);
+    encoder.flush();
+    outputStream.write(data, metadata.end(), data.length - metadata.end());
+    return outputStream.toByteArray();
+  }
+
+  private static void skip(Skipper[] skippers, Cursor cursor) {
+    for (Skipper skipper : skippers) {
+      skipper.skip(cursor);
+    }
+  }
+
+  private static Skipper compile(Schema schema, Map<Schema, RecordSkipper> records) {
+    switch (schema.getType()) {
+      case NULL:
+        return NO_BYTES;
+      case BOOLEAN:
+        return cursor -> cursor.skipBytes(1);
+      case INT:
+      case LONG:
+      case ENUM:
+        return Cursor::readLong;
+      case FLOAT:
+        return cursor -> cursor.skipBytes(4);
+      case DOUBLE:
+        return cursor -> cursor.skipBytes(8);
+      case STRING:
+      case BYTES:
+        return cursor -> cursor.skipBytes(cursor.readLong());
+      case FIXED:
+        int size = schema.getFixedSize();
+        return cursor -> cursor.skipBytes(size);
+      case ARRAY:
+        return blocks(compile(schema.getElementType(), records));
+      case MAP:
+        Skipper value = compile(schema.getValueType(), records);
+        return blocks(
+            cursor -> {
+              cursor.skipBytes(cursor.readLong());
+              value.skip(cursor);
+            });
+      case UNION:
+        Skipper[] branches =
+            schema.getTypes().stream()
+                .map(branch -> compile(branch, records))
+                .toArray(Skipper[]::new);
+        return cursor -> {
+          long index = cursor.readLong();
+          if (index < 0 || index >= branches.length) {
+            throw new AvroRuntimeException("Invalid union index: " + index);
+          }
+          branches[(int) index].skip(cursor);
+        };
+      case RECORD:
+        RecordSkipper recordSkipper = records.get(schema);
+        if (recordSkipper == null) {
+          // registered before compiling fields, to handle recursive records
+          recordSkipper = new RecordSkipper();
+          records.put(schema, recordSkipper);
+          recordSkipper.fields =
+              schema.getFields().stream()
+                  .map(field -> compile(field.schema(), records))
+                  .toArray(Skipper[]::new);
+        }
+        return recordSkipper;
+      default:
+        throw new IllegalStateException("Unsupported Avro type: " + schema.getType());
+    }
+  }
+
+  private static Skipper blocks(Skipper item) {
+    return cursor -> {
+      for (long count = cursor.readLong(); count != 0; count = cursor.readLong()) {
+        if (count < 0) {
+          // block preceded by its size in bytes
+          cursor.readLong();
+          count = -count;
+        }
+        if (item == NO_BYTES) {
+          continue;
+        }
+        if (count > cursor.remaining()) {
+          throw new AvroRuntimeException("Block count exceeds message size: " + count);
+        }
+        for (long i = 0; i < count; i++) {
+          item.skip(cursor);
+        }
+      }
+    };
+  }
+
+  record MetadataBytes(int start, int end) {
+
+    int length() {
+      return end - start;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Skipper {
+    void skip(Cursor cursor);
+  }
+
+  private static class RecordSkipper implements Skipper {
+
+    private Skipper[] fields;
+
+    @Override
+    public void skip(Cursor cursor) {
+      AvroMetadataSplicer.skip(fields, cursor);
+    }
+  }
+
+  private static class Cursor {
+
+    private final byte[] data;
+    private int position = 0;
+
+    private Cursor(byte[] data) {
+      this.data = data;
+    }
+
+    private long readLong() {
+      long value = 0;
+      int shift = 0;
+      int b;
+      do {
+        if (position >= data.length) {
+          throw new AvroRuntimeException("Unexpected end of Avro message");
+        }
+        if (shift > 63) {
+          throw new AvroRuntimeException("Invalid long encoding");
+        }
+        b = data[position++] & 0xff;
+        value |= (long) (b & 0x7f) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    private void skipBytes(long length) {
+      if (length < 0 || length > remaining()) {
+        throw new AvroRuntimeException("Unexpected end of Avro message");
+      }
+      position += (int) length;
+    }
+
+    private int remaining() {
+      return data.length - position;
+    }
+  }
+}
@@ -3,12 +3,13 @@ package pl.allegro.tech.hermes.common.message.wrapper;
 import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.primitives.Bytes.indexOf;
 import static java.lang.String.format;
-import static java.util.Arrays.copyOfRange;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.UUID;
 import org.slf4j.Logger;
@@ -23,11 +24,15 @@ public class JsonMessageContentWrapper {
   private static final byte JSON_CLOSE = (byte) '}';
   private static final int BRACKET_LENGTH = 1;
   private final ObjectMapper mapper;
+  private final String contentRootName;
+  private final String metadataRootName;
   private final byte[] contentRootField;
   private final byte[] metadataRootField;
 
   public JsonMessageContentWrapper(
       String contentRootName, String metadataRootName, ObjectMapper mapper) {
+    this.contentRootName = contentRootName;
+    this.metadataRootName = metadataRootName;
     this.contentRootField = formatNodeKey(contentRootName);
     this.metadataRootField = formatNodeKey(metadataRootName);
     this.mapper = mapper;
@@ -42,18 +47,35 @@ public class JsonMessageContentWrapper {
     }
   }
 
-  private byte[] wrapContent(byte[] attributes, byte[] message) throws IOException {
-    ByteArrayOutputStream stream = new ByteArrayOutputStream();
-    stream.write(JSON_OPEN);
-    stream.write(WRAPPED_MARKER);
-    stream.write(SEPARATOR);
-    stream.write(metadataRootField);
-    stream.write(attributes);
-    stream.write(SEPARATOR);
-    stream.write(contentRootField);
-    stream.write(message);
-    stream.write(JSON_CLOSE);
-    return stream.toByteArray();
+  private byte[] wrapContent(byte[] attributes, byte[] message) {
+    // envelope is written into an array of the exact size, so it is neither resized nor copied
+    int length =
+        BRACKET_LENGTH
+            + WRAPPED_MARKER.length
+            + SEPARATOR.length
+            + metadataRootField.length
+            + attributes.length
+            + SEPARATOR.length
+            + contentRootField.length
+            + message.length
+            + BRACKET_LENGTH;
+    byte[] wrapped = new byte[length];
+    int position = 0;
+    wrapped[position++] = JSON_OPEN;
+    position = write(wrapped, position, WRAPPED_MARKER);
+    position = write(wrapped, position, SEPARATOR);
+    position = write(wrapped, position, metadataRootField);
+    position = write(wrapped, position, attributes);
+    position = write(wrapped, position, SEPARATOR);
+    position = write(wrapped, position, contentRootField);
+    position = write(wrapped, position, message);
+    wrapped[position] = JSON_CLOSE;
+    return wrapped;
+  }
+
+  private static int write(byte[] target, int position, byte[] source) {
+    System.arraycopy(source, 0, target, position, source.length);
+    return position + source.length;
   }
 
   public UnwrappedMessageContent unwrapContent(byte[] json) {
@@ -67,30 +89,41 @@ public class JsonMessageContentWrapper {
     }
   }
 
-  private byte[] unwrapContent(byte[] json, int rootIndex) {
-    return copyOfRange(json, rootIndex + contentRootField.length, json.length - BRACKET_LENGTH);
-  }
-
+  /**
+   * Reads the envelope header with a streaming parser: metadata is read straight from the
+   * envelope, while the content, which is always the last field of the envelope, is returned as a
+   * view over the original array without parsing or copying it.
+   */
   private UnwrappedMessageContent unwrapMessageContent(byte[] json) {
-    int rootIndex = indexOf(json, contentRootField);
-    int metadataIndex = indexOf(json, metadataRootField);
-    try {
-      return new UnwrappedMessageContent(
-          unwrapMesssageMetadata(json, metadataIndex, rootIndex), unwrapContent(json, rootIndex));
-    } catch (Exception exception) {
+    try (JsonParser parser = mapper.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new UnwrappingException("Wrapped message is not a json object");
+      }
+      MessageMetadata metadata = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        if (metadataRootName.equals(field)) {
+          metadata = parser.readValueAs(MessageMetadata.class);
+        } else if (contentRootName.equals(field)) {
+          return unwrapContent(json, metadata, (int) parser.currentTokenLocation().getByteOffset());
+        } else {
+          parser.skipChildren();
+        }
+      }
+      throw new UnwrappingException("Content not found in wrapped message");
+    } catch (IOException exception) {
       throw new UnwrappingException("Could not unwrap json message", exception);
     }
   }
 
-  private MessageMetadata unwrapMesssageMetadata(
-      byte[] json, int metadataIndexStart, int metadataIndexEnd) throws IOException {
-    return mapper.readValue(
-        unwrapMetadataBytes(json, metadataIndexStart, metadataIndexEnd), MessageMetadata.class);
-  }
-
-  private byte[] unwrapMetadataBytes(byte[] json, int metadataIndexStart, int metadataIndexEnd) {
-    return copyOfRange(
-        json, metadataIndexStart + metadataRootField.length, metadataIndexEnd + BRACKET_LENGTH);
+  private UnwrappedMessageContent unwrapContent(
+      byte[] json, MessageMetadata metadata, int contentOffset) {
+    if (metadata == null) {
+      throw new UnwrappingException("Metadata not found in wrapped message");
+    }
+    return new UnwrappedMessageContent(
+        metadata, json, contentOffset, json.length - BRACKET_LENGTH - contentOffset);
   }
 
   private byte[] formatNodeKey(String keyName) {
@@ -98,6 +131,13 @@ public class JsonMessageContentWrapper {
   }
 
   private boolean isWrapped(byte[] json) {
-    return indexOf(json, WRAPPED_MARKER) > 0;
+    return startsWithWrappedMarker(json) || indexOf(json, WRAPPED_MARKER) > 0;
+  }
+
+  private static boolean startsWithWrappedMarker(byte[] json) {
+    int markerEnd = BRACKET_LENGTH + WRAPPED_MARKER.length;
+    return json.length > markerEnd
+        && json[0] == JSON_OPEN
+        && Arrays.equals(json, BRACKET_LENGTH, markerEnd, WRAPPED_MARKER, 0, WRAPPED_MARKER.length);
   }
 }
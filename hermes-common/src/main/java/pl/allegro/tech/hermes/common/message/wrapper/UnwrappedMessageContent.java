@@ -1,32 +1,66 @@
 package pl.allegro.tech.hermes.common.message.wrapper;
 
+import static java.util.Arrays.copyOfRange;
+
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.Optional;
 import org.apache.avro.Schema;
 import pl.allegro.tech.hermes.schema.CompiledSchema;
 
-@SuppressFBWarnings("EI_EXPOSE_REP2")
+/**
+ * Message metadata together with the message content, which may be a view over a part of the
+ * buffer the message was read from. {@link #getContent()} copies the viewed range into a separate
+ * array only when the content does not span the whole buffer, so callers able to work with the
+ * buffer, offset and length should prefer them.
+ */
+@SuppressFBWarnings({"EI_EXPOSE_REP", "EI_EXPOSE_REP2"})
 public class UnwrappedMessageContent {
 
   private final MessageMetadata messageMetadata;
-  private final byte[] content;
+  private final byte[] buffer;
+  private final int contentOffset;
+  private final int contentLength;
   private final Optional<CompiledSchema<Schema>> schema;
 
   public UnwrappedMessageContent(MessageMetadata messageMetadata, byte[] content) {
+    this(messageMetadata, content, 0, content.length);
+  }
+
+  public UnwrappedMessageContent(
+      MessageMetadata messageMetadata, byte[] buffer, int contentOffset, int contentLength) {
     this.messageMetadata = messageMetadata;
-    this.content = content;
+    this.buffer = buffer;
+    this.contentOffset = contentOffset;
+    this.contentLength = contentLength;
     this.schema = Optional.empty();
   }
 
   public UnwrappedMessageContent(
       MessageMetadata messageMetadata, byte[] content, CompiledSchema<Schema> schema) {
     this.messageMetadata = messageMetadata;
-    this.content = content;
+    this.buffer = content;
+    this.contentOffset = 0;
+    this.contentLength = content.length;
     this.schema = Optional.of(schema);
   }
 
   public byte[] getContent() {
-    return content;
+    if (contentOffset == 0 && contentLength == buffer.length) {
+      return buffer;
+    }
+    return copyOfRange(buffer, contentOffset, contentOffset + contentLength);
+  }
+
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  public int getContentOffset() {
+    return contentOffset;
+  }
+
+  public int getContentLength() {
+    return contentLength;
   }
 
   public MessageMetadata getMessageMetadata() {
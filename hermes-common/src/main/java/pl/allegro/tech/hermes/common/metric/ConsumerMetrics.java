@@ -31,6 +31,10 @@ public class ConsumerMetrics {
     gaugeRegistrar.registerGauge("consumer-processes.threads", obj, f);
   }
 
+  public HermesTimer virtualThreadPinningTimer() {
+    return HermesTimer.from(meterRegistry.timer("consumer-processes.virtual-threads.pinned"));
+  }
+
   public <T> void registerRunningConsumerProcessesGauge(T obj, ToDoubleFunction<T> f) {
     meterRegistry.gauge("consumer-processes.running", obj, f);
   }
@@ -6,12 +6,22 @@ import static pl.allegro.tech.hermes.common.metric.Gauges.CONSUMER_SENDER_HTTP_1
 import static pl.allegro.tech.hermes.common.metric.Gauges.CONSUMER_SENDER_HTTP_1_SERIAL_CLIENT_IDLE_CONNECTIONS;
 import static pl.allegro.tech.hermes.common.metric.Gauges.CONSUMER_SENDER_HTTP_2_SERIAL_CLIENT_CONNECTIONS;
 import static pl.allegro.tech.hermes.common.metric.Gauges.CONSUMER_SENDER_HTTP_2_SERIAL_CLIENT_PENDING_CONNECTIONS;
+import static pl.allegro.tech.hermes.common.metric.SubscriptionTagsFactory.subscriptionTags;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import java.util.List;
 import java.util.function.ToDoubleFunction;
+import pl.allegro.tech.hermes.api.SubscriptionName;
+import pl.allegro.tech.hermes.metrics.HermesTimer;
 
 public class ConsumerSenderMetrics {
 
+  private static final String BULKHEAD_REQUEST_QUEUE_SIZE =
+      "http-clients.bulkhead.request-queue-size";
+  private static final String BULKHEAD_REQUEST_QUEUE_WAIT_TIME =
+      "http-clients.bulkhead.request-queue-wait-time";
+
   private final MeterRegistry meterRegistry;
   private final GaugeRegistrar gaugeRegistrar;
 
@@ -59,4 +69,24 @@ public class ConsumerSenderMetrics {
   public <T> void registerHttp2SerialClientPendingConnectionsGauge(T obj, ToDoubleFunction<T> f) {
     gaugeRegistrar.registerGauge(CONSUMER_SENDER_HTTP_2_SERIAL_CLIENT_PENDING_CONNECTIONS, obj, f);
   }
+
+  public <T> void registerBulkheadRequestQueueSizeGauge(
+      SubscriptionName subscription, T obj, ToDoubleFunction<T> f) {
+    meterRegistry.gauge(BULKHEAD_REQUEST_QUEUE_SIZE, subscriptionTags(subscription), obj, f);
+  }
+
+  public HermesTimer bulkheadRequestQueueWaitTime(SubscriptionName subscription) {
+    return HermesTimer.from(
+        meterRegistry.timer(BULKHEAD_REQUEST_QUEUE_WAIT_TIME, subscriptionTags(subscription)));
+  }
+
+  public void unregisterBulkheadMetrics(SubscriptionName subscription) {
+    for (String name : List.of(BULKHEAD_REQUEST_QUEUE_SIZE, BULKHEAD_REQUEST_QUEUE_WAIT_TIME)) {
+      Search.in(meterRegistry)
+          .name(name)
+          .tags(subscriptionTags(subscription))
+          .meters()
+          .forEach(meterRegistry::remove);
+    }
+  }
 }
@@ -4,6 +4,10 @@ public class Gauges {
 
   public static final String INFLIGHT_REQUESTS = "inflight-requests";
   public static final String BACKUP_STORAGE_SIZE = "backup-storage.size";
+  public static final String BACKUP_STORAGE_LOADING_REMAINING_MESSAGES =
+      "backup-storage.loading.remaining-messages";
+  public static final String BACKUP_STORAGE_LOADING_REMAINING_BYTES =
+      "backup-storage.loading.remaining-bytes";
 
   public static final String CONSUMER_SENDER_HTTP_1_SERIAL_CLIENT_ACTIVE_CONNECTIONS =
       "http-clients.serial.http1.active-connections";
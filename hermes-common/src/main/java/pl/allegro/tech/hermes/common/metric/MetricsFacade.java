@@ -27,6 +27,7 @@ public class MetricsFacade {
   private final MaxRateMetrics maxRateMetrics;
   private final BrokerMetrics brokerMetrics;
   private final ConsistencyMetrics consistencyMetrics;
+  private final ZookeeperCacheMetrics zookeeperCacheMetrics;
 
   public MetricsFacade(MeterRegistry meterRegistry) {
     this.meterRegistry = meterRegistry;
@@ -46,6 +47,7 @@ public class MetricsFacade {
     this.maxRateMetrics = new MaxRateMetrics(meterRegistry);
     this.brokerMetrics = new BrokerMetrics(meterRegistry);
     this.consistencyMetrics = new ConsistencyMetrics(meterRegistry);
+    this.zookeeperCacheMetrics = new ZookeeperCacheMetrics(meterRegistry);
   }
 
   public TopicMetrics topics() {
@@ -112,6 +114,10 @@ public class MetricsFacade {
     return consistencyMetrics;
   }
 
+  public ZookeeperCacheMetrics zookeeperCache() {
+    return zookeeperCacheMetrics;
+  }
+
   public void unregisterAllMetricsRelatedTo(SubscriptionName subscription) {
     Collection<Meter> meters =
         Search.in(meterRegistry).tags(subscriptionTags(subscription)).meters();
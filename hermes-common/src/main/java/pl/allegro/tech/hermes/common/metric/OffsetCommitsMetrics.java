@@ -1,6 +1,9 @@
 package pl.allegro.tech.hermes.common.metric;
 
+import static pl.allegro.tech.hermes.common.metric.SubscriptionTagsFactory.subscriptionTags;
+
 import io.micrometer.core.instrument.MeterRegistry;
+import pl.allegro.tech.hermes.api.SubscriptionName;
 import pl.allegro.tech.hermes.metrics.HermesCounter;
 import pl.allegro.tech.hermes.metrics.HermesTimer;
 import pl.allegro.tech.hermes.metrics.counters.HermesCounters;
@@ -32,4 +35,15 @@ public class OffsetCommitsMetrics {
   public HermesCounter failuresCounter() {
     return HermesCounters.from(meterRegistry.counter("offset-commits.failures"));
   }
+
+  public HermesCounter failuresCounter(SubscriptionName subscription) {
+    return HermesCounters.from(
+        meterRegistry.counter(
+            "offset-commits.subscription.failures", subscriptionTags(subscription)));
+  }
+
+  public HermesTimer latency(SubscriptionName subscription) {
+    return HermesTimer.from(
+        meterRegistry.timer("offset-commits.subscription.latency", subscriptionTags(subscription)));
+  }
 }
@@ -1,5 +1,7 @@
 package pl.allegro.tech.hermes.common.metric;
 
+import static pl.allegro.tech.hermes.common.metric.Gauges.BACKUP_STORAGE_LOADING_REMAINING_BYTES;
+import static pl.allegro.tech.hermes.common.metric.Gauges.BACKUP_STORAGE_LOADING_REMAINING_MESSAGES;
 import static pl.allegro.tech.hermes.common.metric.Gauges.BACKUP_STORAGE_SIZE;
 
 import io.micrometer.core.instrument.MeterRegistry;
@@ -15,4 +17,12 @@ public class PersistentBufferMetrics {
   public <T> void registerBackupStorageSizeGauge(T obj, ToDoubleFunction<T> f) {
     meterRegistry.gauge(BACKUP_STORAGE_SIZE, obj, f);
   }
+
+  public <T> void registerLoadingRemainingMessagesGauge(T obj, ToDoubleFunction<T> f) {
+    meterRegistry.gauge(BACKUP_STORAGE_LOADING_REMAINING_MESSAGES, obj, f);
+  }
+
+  public <T> void registerLoadingRemainingBytesGauge(T obj, ToDoubleFunction<T> f) {
+    meterRegistry.gauge(BACKUP_STORAGE_LOADING_REMAINING_BYTES, obj, f);
+  }
 }
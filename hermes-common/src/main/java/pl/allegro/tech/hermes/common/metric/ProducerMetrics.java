@@ -2,6 +2,7 @@ package pl.allegro.tech.hermes.common.metric;
 
 import static pl.allegro.tech.hermes.common.metric.Gauges.INFLIGHT_REQUESTS;
 
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import java.util.concurrent.TimeUnit;
@@ -17,109 +18,114 @@ public class ProducerMetrics {
   }
 
   public <T> void registerAckAllTotalBytesGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
-    gaugeRegistrar.registerGauge(ACK_ALL_BUFFER_TOTAL_BYTES, stateObj, f, tags(sender, datacenter));
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
+    gaugeRegistrar.registerGauge(
+        ACK_ALL_BUFFER_TOTAL_BYTES, stateObj, f, tags(sender, datacenter, producer));
   }
 
   public <T> void registerAckLeaderTotalBytesGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
     gaugeRegistrar.registerGauge(
-        ACK_LEADER_BUFFER_TOTAL_BYTES, stateObj, f, tags(sender, datacenter));
+        ACK_LEADER_BUFFER_TOTAL_BYTES, stateObj, f, tags(sender, datacenter, producer));
   }
 
   public <T> void registerAckAllAvailableBytesGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
     gaugeRegistrar.registerGauge(
-        ACK_ALL_BUFFER_AVAILABLE_BYTES, stateObj, f, tags(sender, datacenter));
+        ACK_ALL_BUFFER_AVAILABLE_BYTES, stateObj, f, tags(sender, datacenter, producer));
   }
 
   public <T> void registerAckLeaderAvailableBytesGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
     gaugeRegistrar.registerGauge(
-        ACK_LEADER_BUFFER_AVAILABLE_BYTES, stateObj, f, tags(sender, datacenter));
+        ACK_LEADER_BUFFER_AVAILABLE_BYTES, stateObj, f, tags(sender, datacenter, producer));
   }
 
   public <T> void registerAckAllCompressionRateGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
-    gaugeRegistrar.registerGauge(ACK_ALL_COMPRESSION_RATE, stateObj, f, tags(sender, datacenter));
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
+    gaugeRegistrar.registerGauge(
+        ACK_ALL_COMPRESSION_RATE, stateObj, f, tags(sender, datacenter, producer));
   }
 
   public <T> void registerAckLeaderCompressionRateGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
     gaugeRegistrar.registerGauge(
-        ACK_LEADER_COMPRESSION_RATE, stateObj, f, tags(sender, datacenter));
+        ACK_LEADER_COMPRESSION_RATE, stateObj, f, tags(sender, datacenter, producer));
   }
 
   public <T> void registerAckAllFailedBatchesGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
     gaugeRegistrar.registerGauge(
-        ACK_ALL_FAILED_BATCHES_TOTAL, stateObj, f, tags(sender, datacenter));
+        ACK_ALL_FAILED_BATCHES_TOTAL, stateObj, f, tags(sender, datacenter, producer));
   }
 
   public <T> void registerAckLeaderFailedBatchesGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
     gaugeRegistrar.registerGauge(
-        ACK_LEADER_FAILED_BATCHES_TOTAL, stateObj, f, tags(sender, datacenter));
+        ACK_LEADER_FAILED_BATCHES_TOTAL, stateObj, f, tags(sender, datacenter, producer));
   }
 
   public <T> void registerAckAllMetadataAgeGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
     registerTimeGauge(
-        stateObj, f, ACK_ALL_METADATA_AGE, tags(sender, datacenter), TimeUnit.SECONDS);
+        stateObj, f, ACK_ALL_METADATA_AGE, tags(sender, datacenter, producer), TimeUnit.SECONDS);
   }
 
   public <T> void registerAckLeaderMetadataAgeGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
     registerTimeGauge(
-        stateObj, f, ACK_LEADER_METADATA_AGE, tags(sender, datacenter), TimeUnit.SECONDS);
+        stateObj, f, ACK_LEADER_METADATA_AGE, tags(sender, datacenter, producer), TimeUnit.SECONDS);
   }
 
   public <T> void registerAckAllRecordQueueTimeMaxGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
     registerTimeGauge(
         stateObj,
         f,
         ACK_ALL_RECORD_QUEUE_TIME_MAX,
-        tags(sender, datacenter),
+        tags(sender, datacenter, producer),
         TimeUnit.MILLISECONDS);
   }
 
   public <T> void registerAckLeaderRecordQueueTimeMaxGauge(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
     registerTimeGauge(
         stateObj,
         f,
         ACK_LEADER_RECORD_QUEUE_TIME_MAX,
-        tags(sender, datacenter),
+        tags(sender, datacenter, producer),
         TimeUnit.MILLISECONDS);
   }
 
   public double getBufferTotalBytes() {
-    return meterRegistry.get(ACK_ALL_BUFFER_TOTAL_BYTES).gauge().value()
-        + meterRegistry.get(ACK_LEADER_BUFFER_TOTAL_BYTES).gauge().value();
+    return sumOfGauges(ACK_ALL_BUFFER_TOTAL_BYTES) + sumOfGauges(ACK_LEADER_BUFFER_TOTAL_BYTES);
   }
 
   public double getBufferAvailableBytes() {
-    return meterRegistry.get(ACK_ALL_BUFFER_AVAILABLE_BYTES).gauge().value()
-        + meterRegistry.get(ACK_LEADER_BUFFER_AVAILABLE_BYTES).gauge().value();
+    return sumOfGauges(ACK_ALL_BUFFER_AVAILABLE_BYTES)
+        + sumOfGauges(ACK_LEADER_BUFFER_AVAILABLE_BYTES);
+  }
+
+  private double sumOfGauges(String name) {
+    return meterRegistry.find(name).gauges().stream().mapToDouble(Gauge::value).sum();
   }
 
   public <T> void registerAckLeaderRecordSendCounter(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
-    registerCounter(ACK_LEADER_RECORD_SEND_TOTAL, tags(sender, datacenter), stateObj, f);
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
+    registerCounter(ACK_LEADER_RECORD_SEND_TOTAL, tags(sender, datacenter, producer), stateObj, f);
   }
 
   public <T> void registerAckAllRecordSendCounter(
-      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter) {
-    registerCounter(ACK_ALL_RECORD_SEND_TOTAL, tags(sender, datacenter), stateObj, f);
+      T stateObj, ToDoubleFunction<T> f, String sender, String datacenter, String producer) {
+    registerCounter(ACK_ALL_RECORD_SEND_TOTAL, tags(sender, datacenter, producer), stateObj, f);
   }
 
   public <T> void registerProducerInflightRequestGauge(T stateObj, ToDoubleFunction<T> f) {
     meterRegistry.gauge(INFLIGHT_REQUESTS, stateObj, f);
   }
 
-  private static Tags tags(String sender, String datacenter) {
-    return Tags.of("storageDc", datacenter, "sender", sender);
+  private static Tags tags(String sender, String datacenter, String producer) {
+    return Tags.of("storageDc", datacenter, "sender", sender, "producer", producer);
   }
 
   private <T> void registerTimeGauge(
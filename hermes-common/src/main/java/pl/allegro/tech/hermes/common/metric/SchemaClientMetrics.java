@@ -1,8 +1,13 @@
 package pl.allegro.tech.hermes.common.metric;
 
+import com.google.common.cache.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import pl.allegro.tech.hermes.metrics.HermesTimer;
 
 public class SchemaClientMetrics {
@@ -20,6 +25,22 @@ public class SchemaClientMetrics {
     return HermesTimer.from(timer("schema.get-versions"));
   }
 
+  public void registerCompiledSchemaCache(Supplier<CacheStats> stats) {
+    FunctionCounter.builder("schema.cache.hits", stats, s -> s.get().hitCount())
+        .register(meterRegistry);
+    FunctionCounter.builder("schema.cache.misses", stats, s -> s.get().missCount())
+        .register(meterRegistry);
+    FunctionCounter.builder("schema.cache.evictions", stats, s -> s.get().evictionCount())
+        .register(meterRegistry);
+    FunctionTimer.builder(
+            "schema.cache.load",
+            stats,
+            s -> s.get().loadCount(),
+            s -> s.get().totalLoadTime(),
+            TimeUnit.NANOSECONDS)
+        .register(meterRegistry);
+  }
+
   private Timer timer(String name) {
     return meterRegistry.timer(name, Tags.of("schema_repo_type", "schema-registry"));
   }
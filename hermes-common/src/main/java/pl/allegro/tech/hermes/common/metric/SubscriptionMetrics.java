@@ -6,6 +6,8 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.util.function.ToDoubleFunction;
 import pl.allegro.tech.hermes.api.SubscriptionName;
 import pl.allegro.tech.hermes.metrics.HermesCounter;
@@ -55,11 +57,13 @@ public class SubscriptionMetrics {
             SubscriptionMetricsNames.SUBSCRIPTION_LATENCY, subscriptionTags(subscription)));
   }
 
-  public HermesTimer rateLimiterAcquire(SubscriptionName subscription) {
+  public HermesTimer throttleDelay(SubscriptionName subscription) {
     return HermesTimer.from(
-        meterRegistry.timer(
-            SubscriptionMetricsNames.SUBSCRIPTION_RATE_LIMITER_ACQUIRE,
-            subscriptionTags(subscription)));
+        Timer.builder(SubscriptionMetricsNames.SUBSCRIPTION_THROTTLE_DELAY)
+            .tags(subscriptionTags(subscription))
+            .publishPercentileHistogram()
+            .maximumExpectedValue(Duration.ofSeconds(10))
+            .register(meterRegistry));
   }
 
   public <T> void registerInflightGauge(
@@ -132,8 +136,7 @@ public class SubscriptionMetrics {
     public static final String SUBSCRIPTION_DISCARDED = "subscription.discarded";
     public static final String SUBSCRIPTION_RETRIES = "subscription.retries";
     public static final String SUBSCRIPTION_LATENCY = "subscription.latency";
-    public static final String SUBSCRIPTION_RATE_LIMITER_ACQUIRE =
-        "subscription.rate-limiter-acquire";
+    public static final String SUBSCRIPTION_THROTTLE_DELAY = "subscription.throttle-delay";
     public static final String SUBSCRIPTION_INFLIGHT = "subscription.inflight";
     public static final String SUBSCRIPTION_PENDING_OFFSETS = "subscription.pending-offsets";
     public static final String SUBSCRIPTION_IDLE_DURATION = "subscription.idle-duration";
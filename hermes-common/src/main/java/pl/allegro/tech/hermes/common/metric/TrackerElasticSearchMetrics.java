@@ -2,7 +2,9 @@ package pl.allegro.tech.hermes.common.metric;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import java.util.function.ToDoubleFunction;
+import pl.allegro.tech.hermes.metrics.HermesCounter;
 import pl.allegro.tech.hermes.metrics.HermesTimer;
+import pl.allegro.tech.hermes.metrics.counters.HermesCounters;
 
 public class TrackerElasticSearchMetrics {
   private final MeterRegistry meterRegistry;
@@ -33,6 +35,15 @@ public class TrackerElasticSearchMetrics {
     gaugeRegistrar.registerGauge(Gauges.TRACKER_ELASTICSEARCH_REMAINING_CAPACITY, stateObj, f);
   }
 
+  public <T> void registerTrackerElasticSearchInflightBatchesGauge(
+      T stateObj, ToDoubleFunction<T> f) {
+    gaugeRegistrar.registerGauge(Gauges.TRACKER_ELASTICSEARCH_INFLIGHT_BATCHES, stateObj, f);
+  }
+
+  public HermesCounter trackerElasticSearchDroppedCounter() {
+    return HermesCounters.from(meterRegistry.counter(Counters.TRACKER_ELASTICSEARCH_DROPPED));
+  }
+
   public HermesTimer trackerElasticSearchCommitLatencyTimer() {
     return HermesTimer.from(meterRegistry.timer(Timers.ELASTICSEARCH_COMMIT_LATENCY));
   }
@@ -42,6 +53,12 @@ public class TrackerElasticSearchMetrics {
         "tracker.elasticsearch.queue-size";
     public static final String TRACKER_ELASTICSEARCH_REMAINING_CAPACITY =
         "tracker.elasticsearch.remaining-capacity";
+    public static final String TRACKER_ELASTICSEARCH_INFLIGHT_BATCHES =
+        "tracker.elasticsearch.inflight-batches";
+  }
+
+  private static class Counters {
+    public static final String TRACKER_ELASTICSEARCH_DROPPED = "tracker.elasticsearch.dropped";
   }
 
   private static class Timers {
@@ -5,6 +5,7 @@ import io.micrometer.core.instrument.MeterRegistry;
 import pl.allegro.tech.hermes.metrics.DefaultHermesHistogram;
 import pl.allegro.tech.hermes.metrics.HermesCounter;
 import pl.allegro.tech.hermes.metrics.HermesHistogram;
+import pl.allegro.tech.hermes.metrics.HermesTimer;
 import pl.allegro.tech.hermes.metrics.counters.HermesCounters;
 
 public class UndeliveredMessagesMetrics {
@@ -23,4 +24,14 @@ public class UndeliveredMessagesMetrics {
         DistributionSummary.builder("undelivered-messages.persisted.message-size.bytes")
             .register(meterRegistry));
   }
+
+  public HermesHistogram persistBatchSizeHistogram() {
+    return DefaultHermesHistogram.of(
+        DistributionSummary.builder("undelivered-messages.persisted.batch-size")
+            .register(meterRegistry));
+  }
+
+  public HermesTimer persistBatchLatencyTimer() {
+    return HermesTimer.from(meterRegistry.timer("undelivered-messages.persisted.batch-latency"));
+  }
 }
@@ -0,0 +1,24 @@
+package pl.allegro.tech.hermes.common.metric;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.function.ToDoubleFunction;
+import pl.allegro.tech.hermes.metrics.HermesTimer;
+
+public class ZookeeperCacheMetrics {
+
+  private final MeterRegistry meterRegistry;
+
+  ZookeeperCacheMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  public HermesTimer startupLoadTimer(String source) {
+    return HermesTimer.from(
+        meterRegistry.timer("zookeeper-cache.startup.load-duration", Tags.of("source", source)));
+  }
+
+  public <T> void registerStartupNodesGauge(T obj, ToDoubleFunction<T> f) {
+    meterRegistry.gauge("zookeeper-cache.startup.nodes", obj, f);
+  }
+}
@@ -2,6 +2,7 @@ package pl.allegro.tech.hermes.common.schema;
 
 import java.time.Duration;
 import org.apache.avro.Schema;
+import pl.allegro.tech.hermes.common.metric.MetricsFacade;
 import pl.allegro.tech.hermes.schema.CachedCompiledSchemaRepository;
 import pl.allegro.tech.hermes.schema.CompiledSchemaRepository;
 import pl.allegro.tech.hermes.schema.DirectCompiledSchemaRepository;
@@ -14,16 +15,19 @@ public class AvroCompiledSchemaRepositoryFactory {
   private final int maximumSize;
   private final Duration expireAfterAccess;
   private final boolean cacheEnabled;
+  private final MetricsFacade metricsFacade;
 
   public AvroCompiledSchemaRepositoryFactory(
       RawSchemaClient rawSchemaClient,
       int maximumSize,
       Duration expireAfterAccess,
-      boolean cacheEnabled) {
+      boolean cacheEnabled,
+      MetricsFacade metricsFacade) {
     this.rawSchemaClient = rawSchemaClient;
     this.maximumSize = maximumSize;
     this.expireAfterAccess = expireAfterAccess;
     this.cacheEnabled = cacheEnabled;
+    this.metricsFacade = metricsFacade;
   }
 
   public CompiledSchemaRepository<Schema> provide() {
@@ -32,7 +36,10 @@ public class AvroCompiledSchemaRepositoryFactory {
             rawSchemaClient, SchemaCompilersFactory.avroSchemaCompiler());
 
     if (cacheEnabled) {
-      return new CachedCompiledSchemaRepository<>(repository, maximumSize, expireAfterAccess);
+      CachedCompiledSchemaRepository<Schema> cachedRepository =
+          new CachedCompiledSchemaRepository<>(repository, maximumSize, expireAfterAccess);
+      metricsFacade.schemaClient().registerCompiledSchemaCache(cachedRepository::stats);
+      return cachedRepository;
     } else {
       return repository;
     }
@@ -1,8 +1,14 @@
 package pl.allegro.tech.hermes.domain.filtering;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static pl.allegro.tech.hermes.common.message.converter.AvroRecordToBytesConverter.bytesToRecord;
+
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import java.io.ByteArrayInputStream;
 import java.util.Map;
 import java.util.Optional;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
 import pl.allegro.tech.hermes.api.ContentType;
 import pl.allegro.tech.hermes.schema.CompiledSchema;
 
@@ -15,4 +21,12 @@ public interface FilterableMessage {
   byte[] getData();
 
   Optional<CompiledSchema<Schema>> getSchema();
+
+  default Object getJsonDocument(JsonProvider jsonProvider) {
+    return jsonProvider.parse(new ByteArrayInputStream(getData()), UTF_8.name());
+  }
+
+  default GenericRecord getAvroRecord() {
+    return bytesToRecord(getData(), getSchema().get().getSchema());
+  }
 }
@@ -0,0 +1,66 @@
+package pl.allegro.tech.hermes.domain.filtering;
+
+import com.jayway.jsonpath.spi.json.JsonProvider;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import pl.allegro.tech.hermes.api.ContentType;
+import pl.allegro.tech.hermes.schema.CompiledSchema;
+
+/**
+ * View of a message shared by all filters of a single chain evaluation. The payload is decoded
+ * lazily, on first access, and the decoded document or record is reused by subsequent filters.
+ *
+ * <p>Implementation note: instances are created per message and chain evaluation, and are not
+ * thread safe. Filters must treat the decoded document or record as read-only.
+ */
+public class ParsedFilterableMessage implements FilterableMessage {
+
+  private final FilterableMessage message;
+
+  private JsonProvider jsonProvider;
+  private Object jsonDocument;
+  private GenericRecord avroRecord;
+
+  public ParsedFilterableMessage(FilterableMessage message) {
+    this.message = message;
+  }
+
+  @Override
+  public ContentType getContentType() {
+    return message.getContentType();
+  }
+
+  @Override
+  public Map<String, String> getExternalMetadata() {
+    return message.getExternalMetadata();
+  }
+
+  @Override
+  public byte[] getData() {
+    return message.getData();
+  }
+
+  @Override
+  public Optional<CompiledSchema<Schema>> getSchema() {
+    return message.getSchema();
+  }
+
+  @Override
+  public Object getJsonDocument(JsonProvider jsonProvider) {
+    if (jsonDocument == null || this.jsonProvider != jsonProvider) {
+      jsonDocument = message.getJsonDocument(jsonProvider);
+      this.jsonProvider = jsonProvider;
+    }
+    return jsonDocument;
+  }
+
+  @Override
+  public GenericRecord getAvroRecord() {
+    if (avroRecord == null) {
+      avroRecord = message.getAvroRecord();
+    }
+    return avroRecord;
+  }
+}
@@ -4,11 +4,9 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyListIterator;
 import static java.util.Collections.singletonList;
 import static org.apache.commons.lang3.StringUtils.strip;
-import static pl.allegro.tech.hermes.common.message.converter.AvroRecordToBytesConverter.bytesToRecord;
 import static pl.allegro.tech.hermes.domain.filtering.FilteringException.check;
 
 import jakarta.annotation.Nullable;
-import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -28,7 +26,6 @@ import pl.allegro.tech.hermes.domain.filtering.FilterableMessage;
 import pl.allegro.tech.hermes.domain.filtering.FilteringException;
 import pl.allegro.tech.hermes.domain.filtering.MatchingStrategy;
 import pl.allegro.tech.hermes.domain.filtering.UnsupportedMatchingStrategyException;
-import pl.allegro.tech.hermes.schema.CompiledSchema;
 
 class AvroPathPredicate implements Predicate<FilterableMessage> {
   private static final String WILDCARD_IDX = "*";
@@ -65,9 +62,8 @@ class AvroPathPredicate implements Predicate<FilterableMessage> {
     }
   }
 
-  private List<Object> select(final FilterableMessage message) throws IOException {
-    CompiledSchema<Schema> compiledSchema = message.getSchema().get();
-    return select(bytesToRecord(message.getData(), compiledSchema.getSchema()));
+  private List<Object> select(final FilterableMessage message) {
+    return select(message.getAvroRecord());
   }
 
   private List<Object> select(GenericRecord record) {
@@ -4,18 +4,23 @@ import java.util.ArrayList;
 import java.util.List;
 import pl.allegro.tech.hermes.domain.filtering.FilterableMessage;
 import pl.allegro.tech.hermes.domain.filtering.MessageFilter;
+import pl.allegro.tech.hermes.domain.filtering.ParsedFilterableMessage;
 
 public final class FilterChain {
   private final List<MessageFilter> messageFilters;
+  private final boolean parseOnce;
 
-  FilterChain(final List<MessageFilter> messageFilters) {
+  FilterChain(final List<MessageFilter> messageFilters, boolean parseOnce) {
     this.messageFilters = new ArrayList<>(messageFilters);
+    this.parseOnce = parseOnce;
   }
 
   public FilterResult apply(final FilterableMessage message) {
+    FilterableMessage filterableMessage =
+        parseOnce && messageFilters.size() > 1 ? new ParsedFilterableMessage(message) : message;
     for (MessageFilter filter : messageFilters) {
       try {
-        if (!filter.test(message)) {
+        if (!filter.test(filterableMessage)) {
           return FilterResult.failed(filter.getType(), "logical");
         }
       } catch (Exception ex) {
@@ -11,14 +11,25 @@ import pl.allegro.tech.hermes.domain.filtering.MessageFilterSource;
 
 public class FilterChainFactory {
   private final MessageFilterSource availableFilters;
+  private final boolean parseOnce;
 
   public FilterChainFactory(MessageFilterSource filters) {
+    this(filters, false);
+  }
+
+  /**
+   * @param parseOnce when enabled, message payload is decoded at most once per chain evaluation
+   *     and the decoded document or record is shared by all filters of the chain
+   */
+  public FilterChainFactory(MessageFilterSource filters, boolean parseOnce) {
     this.availableFilters = filters;
+    this.parseOnce = parseOnce;
   }
 
   public FilterChain create(final List<MessageFilterSpecification> filters) {
     Stream<MessageFilter> globalFilters = availableFilters.getGlobalFilters().stream();
     Stream<MessageFilter> subscriptionFilters = filters.stream().map(availableFilters::compile);
-    return new FilterChain(concat(globalFilters, subscriptionFilters).collect(Collectors.toList()));
+    return new FilterChain(
+        concat(globalFilters, subscriptionFilters).collect(Collectors.toList()), parseOnce);
   }
 }
@@ -4,7 +4,6 @@ import static pl.allegro.tech.hermes.domain.filtering.FilteringException.check;
 
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
-import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
@@ -38,8 +37,8 @@ class JsonPathPredicate implements Predicate<FilterableMessage> {
         message.getContentType() == ContentType.JSON,
         "This filter supports only JSON contentType.");
     try {
-      List<Object> result =
-          JsonPath.parse(new ByteArrayInputStream(message.getData()), configuration).read(path);
+      Object document = message.getJsonDocument(configuration.jsonProvider());
+      List<Object> result = JsonPath.using(configuration).parse(document).read(path);
       Stream<String> resultStream = result.stream().map(Object::toString);
 
       return !result.isEmpty() && matchResultsStream(resultStream);
@@ -8,4 +8,12 @@ public interface InternalNotificationsBus {
   void registerTopicCallback(TopicCallback callback);
 
   void registerAdminCallback(AdminCallback callback);
+
+  /**
+   * Whether callbacks receiving existing topics and subscriptions are notified about their creation
+   * on registration, so that caches do not have to load them on their own.
+   */
+  default boolean replaysModelOnRegistration() {
+    return false;
+  }
 }
@@ -9,4 +9,12 @@ public interface SubscriptionCallback {
   default void onSubscriptionRemoved(Subscription subscription) {}
 
   default void onSubscriptionChanged(Subscription subscription) {}
+
+  /**
+   * Whether the callback should be notified about creation of all existing subscriptions on
+   * registration, when the notifications bus supports it.
+   */
+  default boolean receivesExistingSubscriptions() {
+    return false;
+  }
 }
@@ -9,4 +9,12 @@ public interface TopicCallback {
   default void onTopicRemoved(Topic topic) {}
 
   default void onTopicChanged(Topic topic) {}
+
+  /**
+   * Whether the callback should be notified about creation of all existing topics on registration,
+   * when the notifications bus supports it.
+   */
+  default boolean receivesExistingTopics() {
+    return false;
+  }
 }
@@ -28,6 +28,7 @@ public class ZookeeperPaths {
   public static final String MAX_RATE_HISTORY_PATH = "history";
   public static final String STORAGE_HEALTH_PATH = "storage-health";
   public static final String DATACENTER_READINESS_PATH = "datacenter-readiness";
+  public static final String FRONTEND_THROUGHPUT_PATH = "frontend-throughput";
   public static final String OFFLINE_RETRANSMISSION_PATH = "offline-retransmission";
   public static final String OFFLINE_RETRANSMISSION_TASKS_PATH = "tasks";
   public static final String INACTIVE_TOPICS_PATH = "inactive-topics";
@@ -177,6 +178,10 @@ public class ZookeeperPaths {
     return Joiner.on(URL_SEPARATOR).join(basePath, DATACENTER_READINESS_PATH);
   }
 
+  public String frontendThroughputPath() {
+    return Joiner.on(URL_SEPARATOR).join(basePath, FRONTEND_THROUGHPUT_PATH);
+  }
+
   public String offlineRetransmissionPath() {
     return Joiner.on(URL_SEPARATOR)
         .join(basePath, OFFLINE_RETRANSMISSION_PATH, OFFLINE_RETRANSMISSION_TASKS_PATH);
@@ -2,7 +2,10 @@ package pl.allegro.tech.hermes.infrastructure.zookeeper.cache;
 
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,21 +16,51 @@ class CacheListeners {
 
   private final Queue<Consumer<PathChildrenCacheEvent>> callbacks = new ConcurrentLinkedQueue<>();
 
+  // events are delivered concurrently, registration with replay excludes them
+  private final ReadWriteLock replayLock = new ReentrantReadWriteLock();
+
   void addListener(Consumer<PathChildrenCacheEvent> callback) {
     callbacks.add(callback);
   }
 
+  /**
+   * Calls the callback with events supplied by {@code replay} and then registers it, so that no
+   * event delivered in between is missed by the callback.
+   */
+  void addListener(
+      Consumer<PathChildrenCacheEvent> callback,
+      Supplier<Iterable<PathChildrenCacheEvent>> replay) {
+    replayLock.writeLock().lock();
+    try {
+      for (PathChildrenCacheEvent event : replay.get()) {
+        call(callback, event);
+      }
+      callbacks.add(callback);
+    } finally {
+      replayLock.writeLock().unlock();
+    }
+  }
+
   void call(PathChildrenCacheEvent event) {
-    for (Consumer<PathChildrenCacheEvent> callback : callbacks) {
-      try {
-        callback.accept(event);
-      } catch (Exception exception) {
-        logger.error(
-            "Failed to run callback action {} for event with data: {}",
-            callback.getClass().getSimpleName(),
-            event.getData(),
-            exception);
+    replayLock.readLock().lock();
+    try {
+      for (Consumer<PathChildrenCacheEvent> callback : callbacks) {
+        call(callback, event);
       }
+    } finally {
+      replayLock.readLock().unlock();
+    }
+  }
+
+  private void call(Consumer<PathChildrenCacheEvent> callback, PathChildrenCacheEvent event) {
+    try {
+      callback.accept(event);
+    } catch (Exception exception) {
+      logger.error(
+          "Failed to run callback action {} for event with data: {}",
+          callback.getClass().getSimpleName(),
+          event.getData(),
+          exception);
     }
   }
 }
@@ -1,12 +1,16 @@
 package pl.allegro.tech.hermes.infrastructure.zookeeper.cache;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.PathChildrenCache;
 import org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent;
 import org.apache.zookeeper.KeeperException;
 import org.slf4j.Logger;
@@ -30,6 +34,14 @@ public class HierarchicalCache {
 
   private final List<CacheListeners> levelCallbacks = new ArrayList<>();
 
+  private final Set<String> levelsPendingInitialization = new HashSet<>();
+
+  private final Set<String> levelsInitializedBeforeParent = new HashSet<>();
+
+  private boolean initialized = false;
+
+  private Runnable initializationCallback = () -> {};
+
   private HierarchicalCacheLevel rootCache;
 
   public HierarchicalCache(
@@ -53,6 +65,9 @@ public class HierarchicalCache {
 
   public void start() throws Exception {
     ensureBasePath();
+    synchronized (this) {
+      levelsPendingInitialization.add(path(0, basePath));
+    }
     rootCache = createLevelCache(0, basePath);
   }
 
@@ -64,6 +79,26 @@ public class HierarchicalCache {
     levelCallbacks.get(depth).addListener(callback);
   }
 
+  void registerCallback(
+      int depth,
+      Consumer<PathChildrenCacheEvent> callback,
+      Supplier<Iterable<PathChildrenCacheEvent>> replay) {
+    levelCallbacks.get(depth).addListener(callback, replay);
+  }
+
+  /**
+   * Sets callback called once all levels read their initial children, that is when all nodes
+   * existing on start were delivered to callbacks. Has to be called before start.
+   */
+  void onInitialized(Runnable callback) {
+    this.initializationCallback = callback;
+  }
+
+  /** Delivers event, which did not come from ZooKeeper watches, to callbacks of the level. */
+  void dispatch(int depth, PathChildrenCacheEvent event) {
+    levelCallbacks.get(depth).call(event);
+  }
+
   private HierarchicalCacheLevel createLevelCache(int depth, String path) {
     BiFunction<Integer, String, HierarchicalCacheLevel> function =
         depth + 1 < maxDepth ? this::createLevelCache : null;
@@ -75,20 +110,50 @@ public class HierarchicalCache {
             depth,
             levelCallbacks.get(depth),
             Optional.ofNullable(function),
-            removeNodesWithNoData);
+            removeNodesWithNoData,
+            (levelPath, childPaths) ->
+                levelInitialized(
+                    levelPath,
+                    childPaths.stream().map(childPath -> path(depth + 1, childPath)).toList()));
     try {
       logger.debug("Starting hierarchical cache level for path  {} and depth {}", path, depth);
-      levelCache.start();
+      levelCache.start(PathChildrenCache.StartMode.POST_INITIALIZED_EVENT);
     } catch (Exception e) {
       logger.error(
           "Failed to start hierarchical cache level for path {} and depth {}",
           path(depth, path),
           depth,
           e);
+      levelCache.reportInitialized(List.of());
     }
     return levelCache;
   }
 
+  private void levelInitialized(String levelPath, List<String> childLevelPaths) {
+    synchronized (this) {
+      if (initialized) {
+        return;
+      }
+      for (String childLevelPath : childLevelPaths) {
+        if (!levelsInitializedBeforeParent.remove(childLevelPath)) {
+          levelsPendingInitialization.add(childLevelPath);
+        }
+      }
+      // levels are initialized concurrently, a child may report before its parent
+      if (!levelsPendingInitialization.remove(levelPath)) {
+        levelsInitializedBeforeParent.add(levelPath);
+        return;
+      }
+      if (!levelsPendingInitialization.isEmpty()) {
+        return;
+      }
+      initialized = true;
+      levelsInitializedBeforeParent.clear();
+    }
+    logger.info("Hierarchical cache for path {} initialized", basePath);
+    initializationCallback.run();
+  }
+
   private String path(int depth, String basePath) {
     return basePath + (levelPrefixes.size() > depth ? "/" + levelPrefixes.get(depth) : "");
   }
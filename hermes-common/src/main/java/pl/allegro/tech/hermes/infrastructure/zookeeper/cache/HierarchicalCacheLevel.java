@@ -6,13 +6,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.PathChildrenCache;
 import org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent;
 import org.apache.curator.framework.recipes.cache.PathChildrenCacheListener;
@@ -29,10 +32,14 @@ class HierarchicalCacheLevel extends PathChildrenCache implements PathChildrenCa
   private final CacheListeners consumer;
 
   private final CuratorFramework curatorClient;
+  private final String levelPath;
   private final int currentDepth;
 
   private final Optional<BiFunction<Integer, String, HierarchicalCacheLevel>> nextLevelFactory;
   private final boolean removeNodesWithNoData;
+  private final BiConsumer<String, List<String>> initializationListener;
+
+  private final AtomicBoolean initialized = new AtomicBoolean(false);
 
   private final Map<String, HierarchicalCacheLevel> subcacheMap = new HashMap<>();
 
@@ -43,18 +50,25 @@ class HierarchicalCacheLevel extends PathChildrenCache implements PathChildrenCa
       int depth,
       CacheListeners eventConsumer,
       Optional<BiFunction<Integer, String, HierarchicalCacheLevel>> nextLevelFactory,
-      boolean removeNodesWithNoData) {
+      boolean removeNodesWithNoData,
+      BiConsumer<String, List<String>> initializationListener) {
     super(curatorClient, path, true, false, executorService);
     this.curatorClient = curatorClient;
+    this.levelPath = path;
     this.currentDepth = depth;
     this.consumer = eventConsumer;
     this.nextLevelFactory = nextLevelFactory;
     this.removeNodesWithNoData = removeNodesWithNoData;
+    this.initializationListener = initializationListener;
     getListenable().addListener(this);
   }
 
   @Override
   public void childEvent(CuratorFramework client, PathChildrenCacheEvent event) throws Exception {
+    if (event.getType() == PathChildrenCacheEvent.Type.INITIALIZED) {
+      reportInitialized(subcachePaths(event.getInitialData()));
+      return;
+    }
     if (event.getData() == null) {
       return;
     }
@@ -77,6 +91,26 @@ class HierarchicalCacheLevel extends PathChildrenCache implements PathChildrenCa
     consumer.call(event);
   }
 
+  /**
+   * Notifies the initialization listener about the level having read its initial children, once.
+   * Levels of children with data are expected to report their initialization as well.
+   */
+  void reportInitialized(List<String> childPaths) {
+    if (initialized.compareAndSet(false, true)) {
+      initializationListener.accept(levelPath, childPaths);
+    }
+  }
+
+  private List<String> subcachePaths(List<ChildData> children) {
+    if (nextLevelFactory.isEmpty() || children == null) {
+      return List.of();
+    }
+    return children.stream()
+        .filter(child -> !ArrayUtils.isEmpty(child.getData()))
+        .map(ChildData::getPath)
+        .toList();
+  }
+
   void stop() throws IOException {
     Lock writeLock = subcacheLock.writeLock();
     writeLock.lock();
@@ -181,6 +215,8 @@ class HierarchicalCacheLevel extends PathChildrenCache implements PathChildrenCa
         logger.debug("Possible duplicate of removed entry for {}, ignoring", cacheName);
         return;
       }
+      // a removed level will not be initialized, so it must not hold up the whole cache
+      subcache.reportInitialized(List.of());
       subcache.close();
     } finally {
       writeLock.unlock();
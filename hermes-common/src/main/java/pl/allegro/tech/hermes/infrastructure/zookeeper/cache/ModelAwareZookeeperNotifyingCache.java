@@ -1,15 +1,42 @@
 package pl.allegro.tech.hermes.infrastructure.zookeeper.cache;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.common.metric.MetricsFacade;
 import pl.allegro.tech.hermes.infrastructure.zookeeper.ZookeeperPaths;
 
+/**
+ * Notifies about changes of groups, topics and subscriptions stored in ZooKeeper.
+ *
+ * <p>With model snapshot enabled, the model is loaded from a local snapshot file before watches are
+ * set up, unless the file is older than its max age. Callbacks registered afterwards with {@code
+ * replayModel} are first called with creation events for the loaded model, so caches become ready
+ * without waiting for the model to be read from ZooKeeper and do not read it on their own. Watches
+ * are still set up node by node, reading every node once, which brings nodes created or changed
+ * in the meantime up to date. Nodes of the snapshot not found by that initial read are announced as
+ * removed. The file is rewritten once the initial read is finished and on stop.
+ *
+ * <p>Both the file load and the initial read from ZooKeeper are timed, tagged with their source,
+ * and the number of model nodes is reported after each of them.
+ */
 public class ModelAwareZookeeperNotifyingCache {
 
   private static final Logger logger =
@@ -21,21 +48,66 @@ public class ModelAwareZookeeperNotifyingCache {
 
   private static final int SUBSCRIPTION_LEVEL = 2;
 
+  private static final int DEPTH = 3;
+
+  private final CuratorFramework curator;
   private final HierarchicalCache cache;
   private final ExecutorService executor;
+  private final MetricsFacade metricsFacade;
+  private final Optional<Path> snapshotFile;
+  private final Duration snapshotMaxAge;
+
+  private final List<Map<String, byte[]>> model = new ArrayList<>(DEPTH);
+
+  // nodes delivered by the initial read of the cache, null once it is finished
+  private volatile Set<String> initiallyReadNodes = ConcurrentHashMap.newKeySet();
+
+  private volatile boolean modelBootstrapped = false;
+  private volatile int startupNodes = 0;
+  private volatile long cacheStartedAt;
 
   public ModelAwareZookeeperNotifyingCache(
       CuratorFramework curator, ExecutorService executor, String rootPath) {
+    this(curator, executor, rootPath, null, Optional.empty(), Duration.ZERO);
+  }
+
+  /**
+   * @param snapshotFile local file the model snapshot is stored in, snapshot is disabled when empty
+   * @param snapshotMaxAge snapshot file modified earlier is not loaded
+   */
+  public ModelAwareZookeeperNotifyingCache(
+      CuratorFramework curator,
+      ExecutorService executor,
+      String rootPath,
+      MetricsFacade metricsFacade,
+      Optional<Path> snapshotFile,
+      Duration snapshotMaxAge) {
     List<String> levelPrefixes =
         Arrays.asList(
             ZookeeperPaths.GROUPS_PATH,
             ZookeeperPaths.TOPICS_PATH,
             ZookeeperPaths.SUBSCRIPTIONS_PATH);
+    this.curator = curator;
     this.executor = executor;
-    this.cache = new HierarchicalCache(curator, executor, rootPath, 3, levelPrefixes, true);
+    this.cache = new HierarchicalCache(curator, executor, rootPath, DEPTH, levelPrefixes, true);
+    this.metricsFacade = metricsFacade;
+    this.snapshotFile = snapshotFile;
+    this.snapshotMaxAge = snapshotMaxAge;
+
+    if (snapshotFile.isPresent()) {
+      for (int depth = 0; depth < DEPTH; depth++) {
+        int level = depth;
+        model.add(new ConcurrentHashMap<>());
+        cache.registerCallback(level, event -> updateModel(level, event));
+      }
+      cache.onInitialized(this::onInitialRead);
+      metricsFacade.zookeeperCache().registerStartupNodesGauge(this, c -> c.startupNodes);
+    }
   }
 
   public void start() throws Exception {
+    snapshotFile.flatMap(this::readSnapshotFile).ifPresent(this::bootstrapModel);
+    cacheStartedAt = System.nanoTime();
     cache.start();
   }
 
@@ -46,17 +118,177 @@ public class ModelAwareZookeeperNotifyingCache {
     } catch (Exception e) {
       logger.warn("Failed to stop Zookeeper cache", e);
     }
+    if (snapshotFile.isPresent() && initiallyReadNodes == null) {
+      writeSnapshotFile(currentModel());
+    }
   }
 
   public void registerGroupCallback(Consumer<PathChildrenCacheEvent> callback) {
-    cache.registerCallback(GROUP_LEVEL, callback);
+    registerCallback(GROUP_LEVEL, callback, false);
   }
 
   public void registerTopicCallback(Consumer<PathChildrenCacheEvent> callback) {
-    cache.registerCallback(TOPIC_LEVEL, callback);
+    registerCallback(TOPIC_LEVEL, callback, false);
+  }
+
+  public void registerTopicCallback(
+      Consumer<PathChildrenCacheEvent> callback, boolean replayModel) {
+    registerCallback(TOPIC_LEVEL, callback, replayModel);
   }
 
   public void registerSubscriptionCallback(Consumer<PathChildrenCacheEvent> callback) {
-    cache.registerCallback(SUBSCRIPTION_LEVEL, callback);
+    registerCallback(SUBSCRIPTION_LEVEL, callback, false);
+  }
+
+  public void registerSubscriptionCallback(
+      Consumer<PathChildrenCacheEvent> callback, boolean replayModel) {
+    registerCallback(SUBSCRIPTION_LEVEL, callback, replayModel);
+  }
+
+  /**
+   * Whether callbacks registered with {@code replayModel} are called with creation events for the
+   * whole model on registration.
+   */
+  public boolean isModelBootstrapped() {
+    return modelBootstrapped;
+  }
+
+  private void registerCallback(
+      int depth, Consumer<PathChildrenCacheEvent> callback, boolean replayModel) {
+    if (replayModel && modelBootstrapped) {
+      cache.registerCallback(depth, callback, () -> modelEvents(depth));
+    } else {
+      cache.registerCallback(depth, callback);
+    }
+  }
+
+  private void bootstrapModel(ModelSnapshot snapshot) {
+    for (int depth = 0; depth < DEPTH; depth++) {
+      model.get(depth).putAll(snapshot.level(depth));
+    }
+    startupNodes = snapshot.size();
+    modelBootstrapped = true;
+  }
+
+  private void onInitialRead() {
+    Set<String> readNodes = initiallyReadNodes;
+    initiallyReadNodes = null;
+    if (modelBootstrapped) {
+      removeNodesAbsentInZookeeper(readNodes);
+    }
+    Duration readDuration = Duration.ofNanos(System.nanoTime() - cacheStartedAt);
+    metricsFacade.zookeeperCache().startupLoadTimer("zookeeper").record(readDuration);
+    ModelSnapshot readModel = currentModel();
+    startupNodes = readModel.size();
+    logger.info(
+        "Read {} model nodes from ZooKeeper in {} ms", readModel.size(), readDuration.toMillis());
+    writeSnapshotFile(readModel);
+  }
+
+  private void removeNodesAbsentInZookeeper(Set<String> readNodes) {
+    // subscriptions first, so that callbacks learn about them before their topic is removed
+    for (int depth = DEPTH - 1; depth >= 0; depth--) {
+      for (Map.Entry<String, byte[]> node : new ArrayList<>(model.get(depth).entrySet())) {
+        String path = node.getKey();
+        if (!readNodes.contains(path) && !exists(path)) {
+          logger.info("Removing model node {} absent in ZooKeeper", path);
+          cache.dispatch(depth, event(PathChildrenCacheEvent.Type.CHILD_REMOVED, node));
+        }
+      }
+    }
+  }
+
+  private boolean exists(String path) {
+    try {
+      return curator.checkExists().forPath(path) != null;
+    } catch (Exception e) {
+      logger.warn("Could not check if model node {} exists, keeping it", path, e);
+      return true;
+    }
+  }
+
+  private void updateModel(int depth, PathChildrenCacheEvent event) {
+    ChildData data = event.getData();
+    if (data == null) {
+      return;
+    }
+    switch (event.getType()) {
+      case CHILD_ADDED, CHILD_UPDATED -> {
+        if (!ArrayUtils.isEmpty(data.getData())) {
+          model.get(depth).put(data.getPath(), data.getData());
+          Set<String> readNodes = initiallyReadNodes;
+          if (readNodes != null) {
+            readNodes.add(data.getPath());
+          }
+        }
+      }
+      case CHILD_REMOVED -> {
+        model.get(depth).remove(data.getPath());
+        for (int child = depth + 1; child < DEPTH; child++) {
+          model.get(child).keySet().removeIf(path -> path.startsWith(data.getPath() + "/"));
+        }
+      }
+      default -> {}
+    }
+  }
+
+  private List<PathChildrenCacheEvent> modelEvents(int depth) {
+    return model.get(depth).entrySet().stream()
+        .map(node -> event(PathChildrenCacheEvent.Type.CHILD_ADDED, node))
+        .toList();
+  }
+
+  private static PathChildrenCacheEvent event(
+      PathChildrenCacheEvent.Type type, Map.Entry<String, byte[]> node) {
+    return new PathChildrenCacheEvent(type, new ChildData(node.getKey(), null, node.getValue()));
+  }
+
+  private ModelSnapshot currentModel() {
+    List<Map<String, byte[]>> levels = new ArrayList<>(DEPTH);
+    for (Map<String, byte[]> level : model) {
+      levels.add(Map.copyOf(level));
+    }
+    return new ModelSnapshot(levels);
+  }
+
+  private Optional<ModelSnapshot> readSnapshotFile(Path file) {
+    if (!Files.exists(file)) {
+      return Optional.empty();
+    }
+    long start = System.nanoTime();
+    try {
+      Instant modifiedAt = Files.getLastModifiedTime(file).toInstant();
+      if (modifiedAt.plus(snapshotMaxAge).isBefore(Instant.now())) {
+        logger.info(
+            "Ignoring model snapshot file {} modified at {}, older than {}",
+            file,
+            modifiedAt,
+            snapshotMaxAge);
+        return Optional.empty();
+      }
+      ModelSnapshot snapshot = ModelSnapshot.read(file, DEPTH);
+      Duration loadDuration = Duration.ofNanos(System.nanoTime() - start);
+      metricsFacade.zookeeperCache().startupLoadTimer("file").record(loadDuration);
+      logger.info(
+          "Loaded {} model nodes from snapshot file {} in {} ms",
+          snapshot.size(),
+          file,
+          loadDuration.toMillis());
+      return Optional.of(snapshot);
+    } catch (IOException e) {
+      logger.warn("Could not read model snapshot file {}", file, e);
+      return Optional.empty();
+    }
+  }
+
+  private void writeSnapshotFile(ModelSnapshot snapshot) {
+    snapshotFile.ifPresent(
+        file -> {
+          try {
+            snapshot.write(file);
+          } catch (IOException e) {
+            logger.warn("Could not write model snapshot file {}", file, e);
+          }
+        });
   }
 }
@@ -0,0 +1,101 @@
+package pl.allegro.tech.hermes.infrastructure.zookeeper.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Data of all model nodes (groups, topics and subscriptions) kept by {@link
+ * ModelAwareZookeeperNotifyingCache}, grouped by their depth in the hierarchy.
+ *
+ * <p>Snapshot can be stored in a compact local file, so that caches of a restarted node do not have
+ * to wait for the whole model to be read from ZooKeeper before they become ready.
+ */
+class ModelSnapshot {
+
+  private static final int FORMAT_VERSION = 1;
+
+  private final List<Map<String, byte[]>> levels;
+
+  ModelSnapshot(List<Map<String, byte[]>> levels) {
+    this.levels = levels;
+  }
+
+  Map<String, byte[]> level(int depth) {
+    return Collections.unmodifiableMap(levels.get(depth));
+  }
+
+  int depth() {
+    return levels.size();
+  }
+
+  int size() {
+    return levels.stream().mapToInt(Map::size).sum();
+  }
+
+  static ModelSnapshot read(Path file, int expectedDepth) throws IOException {
+    try (DataInputStream input =
+        new DataInputStream(
+            new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+      int version = input.readInt();
+      int depth = input.readInt();
+      if (version != FORMAT_VERSION || depth != expectedDepth) {
+        throw new IOException(
+            String.format(
+                "Unsupported model snapshot format version %d with depth %d", version, depth));
+      }
+      List<Map<String, byte[]>> levels = new ArrayList<>(depth);
+      for (int level = 0; level < depth; level++) {
+        int nodes = input.readInt();
+        Map<String, byte[]> levelNodes = new HashMap<>(nodes);
+        for (int node = 0; node < nodes; node++) {
+          String path = input.readUTF();
+          byte[] data = new byte[input.readInt()];
+          input.readFully(data);
+          levelNodes.put(path, data);
+        }
+        levels.add(levelNodes);
+      }
+      return new ModelSnapshot(levels);
+    }
+  }
+
+  /** Writes snapshot to a temporary file first, so that a crash never leaves a partial file. */
+  void write(Path file) throws IOException {
+    Path parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream output =
+          new DataOutputStream(
+              new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+        output.writeInt(FORMAT_VERSION);
+        output.writeInt(levels.size());
+        for (Map<String, byte[]> level : levels) {
+          output.writeInt(level.size());
+          for (Map.Entry<String, byte[]> node : level.entrySet()) {
+            output.writeUTF(node.getKey());
+            output.writeInt(node.getValue().length);
+            output.write(node.getValue());
+          }
+        }
+      }
+      Files.move(
+          temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+}
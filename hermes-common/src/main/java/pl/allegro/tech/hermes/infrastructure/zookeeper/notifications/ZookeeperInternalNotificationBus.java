@@ -53,7 +53,8 @@ public class ZookeeperInternalNotificationBus implements InternalNotificationsBu
             default:
               break;
           }
-        });
+        },
+        callback.receivesExistingSubscriptions());
   }
 
   @Override
@@ -73,7 +74,8 @@ public class ZookeeperInternalNotificationBus implements InternalNotificationsBu
             default:
               break;
           }
-        });
+        },
+        callback.receivesExistingTopics());
   }
 
   @Override
@@ -81,6 +83,11 @@ public class ZookeeperInternalNotificationBus implements InternalNotificationsBu
     // TODO we should move admin callbacks here in favor of AdminTool
   }
 
+  @Override
+  public boolean replaysModelOnRegistration() {
+    return modelNotifyingCache.isModelBootstrapped();
+  }
+
   private <T> Optional<T> readSilently(ChildData data, Class<T> clazz) {
     if (ArrayUtils.isEmpty(data.getData())) {
       logger.warn("No data at path {}", data.getPath());
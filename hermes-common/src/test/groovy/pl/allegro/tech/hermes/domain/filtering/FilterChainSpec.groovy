@@ -1,12 +1,18 @@
 package pl.allegro.tech.hermes.domain.filtering
 
+import org.apache.avro.Schema
+import pl.allegro.tech.hermes.api.ContentType
 import pl.allegro.tech.hermes.api.MessageFilterSpecification
 import pl.allegro.tech.hermes.domain.filtering.chain.FilterChainFactory
+import pl.allegro.tech.hermes.domain.filtering.json.JsonPathSubscriptionMessageFilterCompiler
+import pl.allegro.tech.hermes.schema.CompiledSchema
 import spock.lang.Specification
 
 import java.util.concurrent.atomic.AtomicInteger
 import java.util.function.Predicate
 
+import static java.nio.charset.StandardCharsets.UTF_8
+
 class FilterChainSpec extends Specification {
 
     AtomicInteger counter = new AtomicInteger(0)
@@ -111,6 +117,59 @@ class FilterChainSpec extends Specification {
         !subscriptionFilter2.tested
     }
 
+    def "should decode message payload once per chain when parse once mode is enabled"() {
+        given:
+        def filterSource = new MessageFilters([], [new JsonPathSubscriptionMessageFilterCompiler()])
+        def filters = (1..3).collect {
+            new MessageFilterSpecification([type: "jsonpath", path: '$.id', matcher: "1"])
+        }
+        def message = new DataAccessCountingMessage(FilterableMessageBuilder.withTestMessage()
+                .withContent('{"id": "1"}', UTF_8)
+                .build())
+
+        when:
+        def result = new FilterChainFactory(filterSource, parseOnce).create(filters).apply(message)
+
+        then:
+        !result.filtered
+        message.dataAccesses == expectedDataAccesses
+
+        where:
+        parseOnce | expectedDataAccesses
+        true      | 1
+        false     | 3
+    }
+
+    static class DataAccessCountingMessage implements FilterableMessage {
+        private final FilterableMessage message
+        int dataAccesses = 0
+
+        DataAccessCountingMessage(FilterableMessage message) {
+            this.message = message
+        }
+
+        @Override
+        ContentType getContentType() {
+            return message.getContentType()
+        }
+
+        @Override
+        Map<String, String> getExternalMetadata() {
+            return message.getExternalMetadata()
+        }
+
+        @Override
+        byte[] getData() {
+            dataAccesses++
+            return message.getData()
+        }
+
+        @Override
+        Optional<CompiledSchema<Schema>> getSchema() {
+            return message.getSchema()
+        }
+    }
+
     static class RecordingSubscriptionMessageFilterCompiler extends MessageFilter implements SubscriptionMessageFilterCompiler {
         boolean compiled = false
         boolean tested = false
@@ -0,0 +1,171 @@
+package pl.allegro.tech.hermes.infrastructure.zookeeper.cache
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.apache.curator.drivers.AdvancedTracerDriver
+import org.apache.curator.drivers.EventTrace
+import org.apache.curator.drivers.OperationTrace
+import org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent
+import org.apache.curator.utils.DefaultTracerDriver
+import pl.allegro.tech.hermes.common.metric.MetricsFacade
+import pl.allegro.tech.hermes.test.IntegrationTest
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executors
+
+import static org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent.Type.CHILD_ADDED
+import static org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent.Type.CHILD_REMOVED
+import static org.awaitility.Awaitility.await
+
+class ModelAwareZookeeperNotifyingCacheTest extends IntegrationTest {
+
+    private static final String ROOT = '/modelSnapshotTest'
+
+    private static final String SUB_A = "$ROOT/groups/groupA/topics/topicA/subscriptions/subA"
+
+    private static final String REMOVED = "$ROOT/groups/groupA/topics/topicA/subscriptions/removed"
+
+    private Path snapshotFile = Files.createTempDirectory('model-snapshot').resolve('model.bin')
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    private List<ModelAwareZookeeperNotifyingCache> caches = []
+
+    void setupSpec() {
+        zookeeper().transaction().forOperations(
+                zookeeper().transactionOp().create().forPath(ROOT),
+                zookeeper().transactionOp().create().forPath("$ROOT/groups"),
+                zookeeper().transactionOp().create().forPath("$ROOT/groups/groupA", 'groupA'.bytes),
+                zookeeper().transactionOp().create().forPath("$ROOT/groups/groupA/topics"),
+                zookeeper().transactionOp().create().forPath("$ROOT/groups/groupA/topics/topicA", 'topicA'.bytes),
+                zookeeper().transactionOp().create().forPath("$ROOT/groups/groupA/topics/topicA/subscriptions"),
+                zookeeper().transactionOp().create().forPath(SUB_A, 'subA'.bytes)
+        )
+    }
+
+    void cleanup() {
+        caches.each { it.stop() }
+        zookeeper().getZookeeperClient().setTracerDriver(new DefaultTracerDriver())
+    }
+
+    def "should not replay model without snapshot file and store it once cache read the model"() {
+        given:
+        def cache = cache()
+
+        when:
+        cache.start()
+
+        then:
+        !cache.isModelBootstrapped()
+        await().atMost(Duration.ofSeconds(5)).until({
+            Files.exists(snapshotFile) && ModelSnapshot.read(snapshotFile, 3).level(2).containsKey(SUB_A)
+        })
+        ModelSnapshot.read(snapshotFile, 3).level(0).containsKey("$ROOT/groups/groupA".toString())
+        meterRegistry.get('zookeeper-cache.startup.load-duration').tag('source', 'zookeeper').timer().count() == 1
+        meterRegistry.get('zookeeper-cache.startup.nodes').gauge().value() == ModelSnapshot.read(snapshotFile, 3).size()
+    }
+
+    def "should start from snapshot file and announce nodes removed in the meantime"() {
+        given:
+        zookeeper().create().forPath("$ROOT/groups/groupA/topics/topicA/subscriptions/subB", 'subB'.bytes)
+        writeSnapshotWithRemovedSubscription()
+        def events = ConcurrentHashMap.newKeySet()
+
+        when:
+        def cache = cache()
+        cache.start()
+        cache.registerSubscriptionCallback({ e -> events.add(event(e)) }, true)
+
+        then:
+        cache.isModelBootstrapped()
+        meterRegistry.get('zookeeper-cache.startup.load-duration').tag('source', 'file').timer().count() == 1
+        meterRegistry.get('zookeeper-cache.startup.nodes').gauge().value() == 4
+        events.contains(new Tuple(CHILD_ADDED, SUB_A, 'subA'))
+        await().atMost(Duration.ofSeconds(5)).until({
+            events.contains(new Tuple(CHILD_ADDED, "$ROOT/groups/groupA/topics/topicA/subscriptions/subB".toString(), 'subB'))
+        })
+        await().atMost(Duration.ofSeconds(5)).until({
+            events.contains(new Tuple(CHILD_REMOVED, REMOVED, 'removed'))
+        })
+        await().atMost(Duration.ofSeconds(5)).until({
+            !ModelSnapshot.read(snapshotFile, 3).level(2).containsKey(REMOVED)
+        })
+    }
+
+    def "should read every node from ZooKeeper only once when starting from snapshot file"() {
+        given:
+        writeSnapshotWithRemovedSubscription()
+        def dataReads = new ConcurrentLinkedQueue<String>()
+        zookeeper().getZookeeperClient().setTracerDriver(new AdvancedTracerDriver() {
+            @Override
+            void addTrace(OperationTrace trace) {
+                if (trace.name.startsWith('GetDataBuilderImpl') && trace.path?.startsWith(ROOT)) {
+                    dataReads.add(trace.path)
+                }
+            }
+
+            @Override
+            void addEvent(EventTrace trace) {
+            }
+        })
+
+        when:
+        def cache = cache()
+        cache.start()
+
+        then:
+        await().atMost(Duration.ofSeconds(5)).until({
+            !ModelSnapshot.read(snapshotFile, 3).level(2).containsKey(REMOVED)
+        })
+        dataReads.contains(SUB_A)
+        dataReads.countBy { it }.values().every { it == 1 }
+    }
+
+    def "should ignore snapshot file older than max age"() {
+        given:
+        writeSnapshotWithRemovedSubscription()
+        Files.setLastModifiedTime(snapshotFile, FileTime.from(Instant.now().minus(Duration.ofHours(2))))
+        def events = ConcurrentHashMap.newKeySet()
+
+        when:
+        def cache = cache(Duration.ofHours(1))
+        cache.start()
+        cache.registerSubscriptionCallback({ e -> events.add(event(e)) }, true)
+
+        then:
+        !cache.isModelBootstrapped()
+        !events.contains(new Tuple(CHILD_ADDED, REMOVED, 'removed'))
+        meterRegistry.find('zookeeper-cache.startup.load-duration').tag('source', 'file').timer() == null
+    }
+
+    private void writeSnapshotWithRemovedSubscription() {
+        new ModelSnapshot([
+                [("$ROOT/groups/groupA".toString()): 'groupA'.bytes],
+                [("$ROOT/groups/groupA/topics/topicA".toString()): 'topicA'.bytes],
+                [(SUB_A): 'subA'.bytes,
+                 (REMOVED): 'removed'.bytes]
+        ]).write(snapshotFile)
+    }
+
+    private ModelAwareZookeeperNotifyingCache cache(Duration maxAge = Duration.ofHours(1)) {
+        def cache = new ModelAwareZookeeperNotifyingCache(
+                zookeeper(),
+                Executors.newSingleThreadExecutor(),
+                ROOT,
+                new MetricsFacade(meterRegistry),
+                Optional.of(snapshotFile),
+                maxAge
+        )
+        caches.add(cache)
+        return cache
+    }
+
+    private static Tuple event(PathChildrenCacheEvent e) {
+        return new Tuple(e.getType(), e.data.path, new String(e.data.data))
+    }
+}
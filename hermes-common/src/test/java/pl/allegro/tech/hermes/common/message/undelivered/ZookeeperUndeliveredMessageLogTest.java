@@ -12,6 +12,7 @@ import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.search.Search;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
 import java.util.Optional;
 import org.junit.After;
 import org.junit.Before;
@@ -28,6 +29,10 @@ public class ZookeeperUndeliveredMessageLogTest extends ZookeeperBaseTest {
 
   private static final String SUBSCRIPTION = "subscription";
 
+  private static final String OTHER_SUBSCRIPTION = "otherSubscription";
+
+  private static final String THIRD_SUBSCRIPTION = "thirdSubscription";
+
   private final ZookeeperPaths paths = new ZookeeperPaths("/hermes");
 
   private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
@@ -36,15 +41,21 @@ public class ZookeeperUndeliveredMessageLogTest extends ZookeeperBaseTest {
   private final ZookeeperUndeliveredMessageLog log =
       new ZookeeperUndeliveredMessageLog(zookeeperClient, paths, new ObjectMapper(), metricsFacade);
 
+  private final ZookeeperUndeliveredMessageLog batchingLog =
+      new ZookeeperUndeliveredMessageLog(
+          zookeeperClient, paths, new ObjectMapper(), metricsFacade, 2, true);
+
   private final ZookeeperLastUndeliveredMessageReader reader =
       new ZookeeperLastUndeliveredMessageReader(zookeeperClient, paths, new ObjectMapper());
 
   @Before
   public void setUp() throws Exception {
-    zookeeperClient
-        .create()
-        .creatingParentsIfNeeded()
-        .forPath(paths.subscriptionPath(TOPIC, SUBSCRIPTION));
+    for (String subscription : List.of(SUBSCRIPTION, OTHER_SUBSCRIPTION, THIRD_SUBSCRIPTION)) {
+      zookeeperClient
+          .create()
+          .creatingParentsIfNeeded()
+          .forPath(paths.subscriptionPath(TOPIC, subscription));
+    }
   }
 
   @After
@@ -104,6 +115,138 @@ public class ZookeeperUndeliveredMessageLogTest extends ZookeeperBaseTest {
     assertThatMetricsHaveBeenReported(0);
   }
 
+  @Test
+  public void shouldPersistUndeliveredMessagesOfManySubscriptionsInBatches() {
+    // given
+    batchingLog.add(createUndeliveredMessage(SUBSCRIPTION, "first"));
+    batchingLog.add(createUndeliveredMessage(OTHER_SUBSCRIPTION, "second"));
+    batchingLog.add(createUndeliveredMessage(THIRD_SUBSCRIPTION, "third"));
+
+    // when
+    batchingLog.persist();
+
+    // then
+    assertThat(reader.last(TOPIC, SUBSCRIPTION).get().getMessage()).isEqualTo("first");
+    assertThat(reader.last(TOPIC, OTHER_SUBSCRIPTION).get().getMessage()).isEqualTo("second");
+    assertThat(reader.last(TOPIC, THIRD_SUBSCRIPTION).get().getMessage()).isEqualTo("third");
+    assertThatMetricsHaveBeenReported(3);
+    assertThat(
+            metricValue(
+                    meterRegistry,
+                    "undelivered-messages.persisted.batch-size",
+                    Search::summary,
+                    DistributionSummary::count)
+                .orElse(0L))
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void shouldUpdateUndeliveredMessagesPersistedInPreviousCycle() {
+    // given
+    batchingLog.add(createUndeliveredMessage(SUBSCRIPTION, "old message"));
+    batchingLog.persist();
+
+    // when
+    batchingLog.add(createUndeliveredMessage(SUBSCRIPTION, "new message"));
+    batchingLog.persist();
+
+    // then
+    assertThat(reader.last(TOPIC, SUBSCRIPTION).get().getMessage()).isEqualTo("new message");
+    assertThatMetricsHaveBeenReported(2);
+  }
+
+  @Test
+  public void shouldNotPersistUnchangedUndeliveredMessageAgain() {
+    // given
+    log.add(createUndeliveredMessage(SUBSCRIPTION, "message"));
+    log.persist();
+
+    // when
+    log.add(createUndeliveredMessage(SUBSCRIPTION, "message"));
+    log.persist();
+
+    // then
+    assertThatMetricsHaveBeenReported(1);
+  }
+
+  @Test
+  public void shouldPersistUndeliveredMessagesBatchedWithNonExistingSubscription() {
+    // given
+    batchingLog.add(createUndeliveredMessage("unknownSubscription", "lost"));
+    batchingLog.add(createUndeliveredMessage(SUBSCRIPTION, "message"));
+
+    // when
+    batchingLog.persist();
+
+    // then
+    assertThat(reader.last(TOPIC, SUBSCRIPTION).get().getMessage()).isEqualTo("message");
+    assertThat(reader.last(TOPIC, "unknownSubscription").isPresent()).isFalse();
+    assertThatMetricsHaveBeenReported(1);
+  }
+
+  @Test
+  public void shouldUpdateUndeliveredMessagePersistedBeforeRestart() {
+    // given
+    log.add(createUndeliveredMessage(SUBSCRIPTION, "before restart"));
+    log.persist();
+    ZookeeperUndeliveredMessageLog restartedLog =
+        new ZookeeperUndeliveredMessageLog(
+            zookeeperClient, paths, new ObjectMapper(), metricsFacade, 2, false);
+
+    // when
+    restartedLog.add(createUndeliveredMessage(SUBSCRIPTION, "after restart"));
+    restartedLog.add(createUndeliveredMessage(OTHER_SUBSCRIPTION, "other"));
+    restartedLog.persist();
+
+    // then
+    assertThat(reader.last(TOPIC, SUBSCRIPTION).get().getMessage()).isEqualTo("after restart");
+    assertThat(reader.last(TOPIC, OTHER_SUBSCRIPTION).get().getMessage()).isEqualTo("other");
+    assertThatMetricsHaveBeenReported(3);
+  }
+
+  @Test
+  public void shouldLimitPayloadSizeOfBatch() {
+    // given
+    ZookeeperUndeliveredMessageLog largeBatchLog =
+        new ZookeeperUndeliveredMessageLog(
+            zookeeperClient, paths, new ObjectMapper(), metricsFacade, 100, false);
+    String largeMessage = "x".repeat(ZookeeperUndeliveredMessageLog.MAX_BATCH_PAYLOAD_BYTES / 2);
+    largeBatchLog.add(createUndeliveredMessage(SUBSCRIPTION, largeMessage));
+    largeBatchLog.add(createUndeliveredMessage(OTHER_SUBSCRIPTION, largeMessage));
+    largeBatchLog.add(createUndeliveredMessage(THIRD_SUBSCRIPTION, largeMessage));
+
+    // when
+    largeBatchLog.persist();
+
+    // then
+    assertThat(reader.last(TOPIC, THIRD_SUBSCRIPTION).get().getMessage()).isEqualTo(largeMessage);
+    assertThatMetricsHaveBeenReported(3);
+    assertThat(
+            metricValue(
+                    meterRegistry,
+                    "undelivered-messages.persisted.batch-size",
+                    Search::summary,
+                    DistributionSummary::count)
+                .orElse(0L))
+        .isEqualTo(3);
+  }
+
+  @Test
+  public void shouldReadUncompressedUndeliveredMessage() throws Exception {
+    // given
+    zookeeperClient
+        .create()
+        .forPath(
+            new UndeliveredMessagePaths(paths).buildPath(TOPIC, SUBSCRIPTION),
+            new ObjectMapper().writeValueAsBytes(createUndeliveredMessage(SUBSCRIPTION, "plain")));
+
+    // when
+    SentMessageTrace lastMessage = reader.last(TOPIC, SUBSCRIPTION).get();
+
+    // then
+    assertThat(lastMessage.getMessage()).isEqualTo("plain");
+  }
+
   private SentMessageTrace createUndeliveredMessage(String subscription, String message) {
     return undeliveredMessage()
         .withTopicName(TOPIC.qualifiedName())
@@ -0,0 +1,132 @@
+package pl.allegro.tech.hermes.common.message.wrapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static pl.allegro.tech.hermes.common.message.converter.AvroRecordToBytesConverter.recordToBytes;
+import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_MARKER;
+import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_MESSAGE_ID_KEY;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.util.Utf8;
+import org.junit.Test;
+import tech.allegro.schema.json2avro.converter.AvroConversionException;
+
+public class AvroMetadataSplicerTest {
+
+  private static final Schema SCHEMA =
+      new Schema.Parser()
+          .parse(
+              """
+              {
+                "type": "record",
+                "name": "Node",
+                "fields": [
+                  {"name": "id", "type": "long"},
+                  {"name": "tags", "type": {"type": "map", "values": "string"}},
+                  {"name": "__metadata", "type": ["null", {"type": "map", "values": "string"}],
+                   "default": null},
+                  {"name": "payload", "type": "bytes"},
+                  {"name": "ratio", "type": "double"},
+                  {"name": "kind", "type": {"type": "enum", "name": "Kind", "symbols": ["A", "B"]}},
+                  {"name": "children", "type": {"type": "array", "items": "Node"}}
+                ]
+              }
+              """);
+
+  private final AvroMetadataSplicer splicer = new AvroMetadataSplicer(SCHEMA);
+
+  @Test
+  public void shouldReadMetadataBetweenOtherFields() throws Exception {
+    // given
+    byte[] data = recordToBytes(node(Map.of(METADATA_MESSAGE_ID_KEY, new Utf8("id-1"))), SCHEMA);
+
+    // when
+    Object metadata = splicer.readMetadata(data, splicer.locateMetadata(data));
+
+    // then
+    assertThat(metadata).isEqualTo(Map.of(METADATA_MESSAGE_ID_KEY, new Utf8("id-1")));
+  }
+
+  @Test
+  public void shouldReadMissingMetadata() throws Exception {
+    // given
+    byte[] data = recordToBytes(node(null), SCHEMA);
+
+    // when
+    Object metadata = splicer.readMetadata(data, splicer.locateMetadata(data));
+
+    // then
+    assertThat(metadata).isNull();
+  }
+
+  @Test
+  public void shouldReplaceMetadataLeavingOtherFieldsIntact() throws Exception {
+    // given
+    byte[] data = recordToBytes(node(null), SCHEMA);
+    Map<Utf8, Utf8> metadata = Map.of(METADATA_MESSAGE_ID_KEY, new Utf8("id-2"));
+
+    // when
+    byte[] replaced = splicer.replaceMetadata(data, splicer.locateMetadata(data), metadata);
+
+    // then
+    assertThat(replaced).isEqualTo(recordToBytes(node(metadata), SCHEMA));
+  }
+
+  @Test
+  public void shouldRejectTruncatedRecord() throws Exception {
+    // given
+    byte[] data = recordToBytes(node(null), SCHEMA);
+    byte[] truncated = Arrays.copyOf(data, data.length - 3);
+
+    // expect
+    assertThatThrownBy(() -> splicer.locateMetadata(truncated))
+        .isInstanceOf(AvroConversionException.class);
+  }
+
+  @Test
+  public void shouldReadNoMetadataWhenSchemaDoesNotDefineIt() throws Exception {
+    // given
+    Schema schema =
+        new Schema.Parser()
+            .parse(
+                """
+                {"type": "record", "name": "Plain", "fields": [{"name": "name", "type": "string"}]}
+                """);
+    GenericRecord plain = new GenericData.Record(schema);
+    plain.put("name", "plain");
+    byte[] data = recordToBytes(plain, schema);
+    AvroMetadataSplicer plainSplicer = new AvroMetadataSplicer(schema);
+
+    // when
+    Object metadata = plainSplicer.readMetadata(data, plainSplicer.locateMetadata(data));
+
+    // then
+    assertThat(metadata).isNull();
+  }
+
+  private static GenericRecord node(Map<Utf8, Utf8> metadata) {
+    GenericRecord child = new GenericData.Record(SCHEMA);
+    child.put("id", 2L);
+    child.put("tags", Map.of());
+    child.put("payload", ByteBuffer.wrap(new byte[] {1, 2, 3}));
+    child.put("ratio", 0.5);
+    child.put("kind", new GenericData.EnumSymbol(SCHEMA.getField("kind").schema(), "B"));
+    child.put("children", List.of());
+
+    GenericRecord node = new GenericData.Record(SCHEMA);
+    node.put("id", 1L);
+    node.put("tags", Map.of(new Utf8("team"), new Utf8("hermes")));
+    node.put(METADATA_MARKER, metadata);
+    node.put("payload", ByteBuffer.wrap(new byte[] {4, 5}));
+    node.put("ratio", 1.5);
+    node.put("kind", new GenericData.EnumSymbol(SCHEMA.getField("kind").schema(), "A"));
+    node.put("children", List.of(child));
+    return node;
+  }
+}
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import org.assertj.core.data.MapEntry;
@@ -61,6 +62,50 @@ public class JsonMessageContentWrapperTest {
     assertThat(result.getMessageMetadata()).isEqualTo(metadata);
   }
 
+  @Test
+  public void shouldReturnContentAsViewOverWrappedMessage() {
+    // given
+    byte[] wrapped =
+        contentWrapper.wrapContent(
+            testContent, metadata.getId(), metadata.getTimestamp(), externalMetadata);
+
+    // when
+    UnwrappedMessageContent result = contentWrapper.unwrapContent(wrapped);
+
+    // then
+    assertThat(result.getBuffer()).isSameAs(wrapped);
+    assertThat(result.getContentLength()).isEqualTo(testContent.length);
+    assertThat(
+            Arrays.copyOfRange(
+                wrapped,
+                result.getContentOffset(),
+                result.getContentOffset() + result.getContentLength()))
+        .isEqualTo(testContent);
+  }
+
+  @Test
+  public void shouldUnwrapMessageWithContentRootNameInMetadata() {
+    // given
+    Map<String, String> metadataWithContentKey = ImmutableMap.of("message", "{\"key\":1}");
+
+    // when
+    UnwrappedMessageContent result =
+        contentWrapper.unwrapContent(
+            contentWrapper.wrapContent(
+                testContent, metadata.getId(), metadata.getTimestamp(), metadataWithContentKey));
+
+    // then
+    assertThat(result.getContent()).isEqualTo(testContent);
+    assertThat(result.getMessageMetadata().getExternalMetadata())
+        .isEqualTo(metadataWithContentKey);
+  }
+
+  @Test(expected = UnwrappingException.class)
+  public void shouldThrowExceptionWhenWrappedMessageHasNoContent() {
+    contentWrapper.unwrapContent(
+        "{\"_w\":true,\"metadata\":{\"id\":\"id\",\"timestamp\":1}}".getBytes());
+  }
+
   @Test
   public void shouldTolerateUnwrappingUnwrappedMessage() {
     // when
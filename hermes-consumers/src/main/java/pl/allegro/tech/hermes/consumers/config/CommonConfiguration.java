@@ -82,7 +82,8 @@ import pl.allegro.tech.hermes.schema.SchemaRepository;
   SchemaProperties.class,
   ZookeeperClustersProperties.class,
   ContentRootProperties.class,
-  DatacenterNameProperties.class
+  DatacenterNameProperties.class,
+  FilteringProperties.class
 })
 public class CommonConfiguration {
 
@@ -167,8 +168,15 @@ public class CommonConfiguration {
       CuratorFramework zookeeper,
       ZookeeperPaths paths,
       ObjectMapper mapper,
-      MetricsFacade metricsFacade) {
-    return new ZookeeperUndeliveredMessageLog(zookeeper, paths, mapper, metricsFacade);
+      MetricsFacade metricsFacade,
+      CommonConsumerProperties commonConsumerProperties) {
+    return new ZookeeperUndeliveredMessageLog(
+        zookeeper,
+        paths,
+        mapper,
+        metricsFacade,
+        commonConsumerProperties.getUndeliveredMessageLogPersistBatchSize(),
+        commonConsumerProperties.isUndeliveredMessageLogCompressionEnabled());
   }
 
   @Bean
@@ -330,14 +338,14 @@ public class CommonConfiguration {
   }
 
   @Bean
-  FilterChainFactory filterChainFactory() {
+  FilterChainFactory filterChainFactory(FilteringProperties filteringProperties) {
     List<SubscriptionMessageFilterCompiler> subscriptionFilterCompilers =
         Arrays.asList(
             new AvroPathSubscriptionMessageFilterCompiler(),
             new JsonPathSubscriptionMessageFilterCompiler(),
             new HeaderSubscriptionMessageFilterCompiler());
     MessageFilters messageFilters = new MessageFilters(emptyList(), subscriptionFilterCompilers);
-    return new FilterChainFactory(messageFilters);
+    return new FilterChainFactory(messageFilters, filteringProperties.isParseOnceEnabled());
   }
 
   @Bean
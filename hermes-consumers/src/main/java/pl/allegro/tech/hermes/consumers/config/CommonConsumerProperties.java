@@ -11,6 +11,10 @@ public class CommonConsumerProperties implements CommonConsumerParameters {
 
   private int threadPoolSize = 500;
 
+  private boolean virtualThreadsEnabled = false;
+
+  private Duration virtualThreadPinningThreshold = Duration.ofMillis(20);
+
   private int healthCheckPort = 8000;
 
   private Duration subscriptionIdsCacheRemovedExpireAfterAccess = Duration.ofSeconds(60);
@@ -25,6 +29,10 @@ public class CommonConsumerProperties implements CommonConsumerParameters {
 
   private Duration undeliveredMessageLogPersistPeriod = Duration.ofSeconds(5);
 
+  private int undeliveredMessageLogPersistBatchSize = 100;
+
+  private boolean undeliveredMessageLogCompressionEnabled = false;
+
   public int getThreadPoolSize() {
     return threadPoolSize;
   }
@@ -33,6 +41,22 @@ public class CommonConsumerProperties implements CommonConsumerParameters {
     this.threadPoolSize = threadPoolSize;
   }
 
+  public boolean isVirtualThreadsEnabled() {
+    return virtualThreadsEnabled;
+  }
+
+  public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+    this.virtualThreadsEnabled = virtualThreadsEnabled;
+  }
+
+  public Duration getVirtualThreadPinningThreshold() {
+    return virtualThreadPinningThreshold;
+  }
+
+  public void setVirtualThreadPinningThreshold(Duration virtualThreadPinningThreshold) {
+    this.virtualThreadPinningThreshold = virtualThreadPinningThreshold;
+  }
+
   public int getHealthCheckPort() {
     return healthCheckPort;
   }
@@ -95,6 +119,23 @@ public class CommonConsumerProperties implements CommonConsumerParameters {
     this.undeliveredMessageLogPersistPeriod = undeliveredMessageLogPersistPeriod;
   }
 
+  public int getUndeliveredMessageLogPersistBatchSize() {
+    return undeliveredMessageLogPersistBatchSize;
+  }
+
+  public void setUndeliveredMessageLogPersistBatchSize(int undeliveredMessageLogPersistBatchSize) {
+    this.undeliveredMessageLogPersistBatchSize = undeliveredMessageLogPersistBatchSize;
+  }
+
+  public boolean isUndeliveredMessageLogCompressionEnabled() {
+    return undeliveredMessageLogCompressionEnabled;
+  }
+
+  public void setUndeliveredMessageLogCompressionEnabled(
+      boolean undeliveredMessageLogCompressionEnabled) {
+    this.undeliveredMessageLogCompressionEnabled = undeliveredMessageLogCompressionEnabled;
+  }
+
   public static final class SerialConsumer implements SerialConsumerParameters {
 
     private Duration signalProcessingInterval = Duration.ofMillis(5_000);
@@ -31,6 +31,7 @@ import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeo
 import pl.allegro.tech.hermes.consumers.registry.ConsumerNodesRegistry;
 import pl.allegro.tech.hermes.consumers.subscription.cache.SubscriptionsCache;
 import pl.allegro.tech.hermes.consumers.subscription.id.SubscriptionIds;
+import pl.allegro.tech.hermes.consumers.supervisor.ConsumerThreadFactory;
 import pl.allegro.tech.hermes.consumers.supervisor.workload.ClusterAssignmentCache;
 import pl.allegro.tech.hermes.consumers.supervisor.workload.ConsumerAssignmentCache;
 import pl.allegro.tech.hermes.infrastructure.dc.DatacenterNameProvider;
@@ -162,7 +163,8 @@ public class ConsumerConfiguration {
       ConsumerAuthorizationHandler consumerAuthorizationHandler,
       SenderAsyncTimeoutProperties senderAsyncTimeoutProperties,
       RateProperties rateProperties,
-      DatacenterNameProvider datacenterNameProvider) {
+      DatacenterNameProvider datacenterNameProvider,
+      ConsumerThreadFactory consumerThreadFactory) {
     KafkaProperties kafkaProperties =
         kafkaClustersProperties.toKafkaProperties(datacenterNameProvider);
     return new ConsumerMessageSenderFactory(
@@ -176,7 +178,8 @@ public class ConsumerConfiguration {
         consumerAuthorizationHandler,
         senderAsyncTimeoutProperties.getMilliseconds(),
         rateProperties.getLimiterReportingThreadPoolSize(),
-        rateProperties.isLimiterReportingThreadMonitoringEnabled());
+        rateProperties.isLimiterReportingThreadMonitoringEnabled(),
+        consumerThreadFactory);
   }
 
   @Bean
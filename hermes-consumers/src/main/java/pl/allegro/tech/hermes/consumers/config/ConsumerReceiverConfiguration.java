@@ -8,6 +8,7 @@ import pl.allegro.tech.hermes.common.kafka.HTTPHeadersPropagationAsKafkaHeadersP
 import pl.allegro.tech.hermes.common.kafka.KafkaNamesMapper;
 import pl.allegro.tech.hermes.common.message.wrapper.CompositeMessageContentWrapper;
 import pl.allegro.tech.hermes.common.metric.MetricsFacade;
+import pl.allegro.tech.hermes.common.metric.executor.InstrumentedExecutorServiceFactory;
 import pl.allegro.tech.hermes.consumers.consumer.offset.ConsumerPartitionAssignmentState;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.ReceiverFactory;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.kafka.BasicMessageContentReaderFactory;
@@ -43,7 +44,8 @@ public class ConsumerReceiverConfiguration {
       FilterChainFactory filterChainFactory,
       Trackers trackers,
       ConsumerPartitionAssignmentState consumerPartitionAssignmentState,
-      DatacenterNameProvider datacenterNameProvider) {
+      DatacenterNameProvider datacenterNameProvider,
+      InstrumentedExecutorServiceFactory executorFactory) {
     KafkaProperties kafkaProperties =
         kafkaClustersProperties.toKafkaProperties(datacenterNameProvider);
 
@@ -57,7 +59,14 @@ public class ConsumerReceiverConfiguration {
         kafkaNamesMapper,
         filterChainFactory,
         trackers,
-        consumerPartitionAssignmentState);
+        consumerPartitionAssignmentState,
+        consumerReceiverProperties.isParallelFilteringEnabled()
+            ? executorFactory.getExecutorService(
+                "parallel-filtering",
+                consumerReceiverProperties.getParallelFilteringThreadPoolSize(),
+                true,
+                consumerReceiverProperties.getParallelFilteringQueueCapacity())
+            : null);
   }
 
   @Bean
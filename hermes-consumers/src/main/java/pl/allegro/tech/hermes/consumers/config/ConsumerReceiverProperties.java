@@ -24,6 +24,24 @@ public class ConsumerReceiverProperties implements KafkaReceiverParameters {
 
   private boolean filteringEnabled = true;
 
+  private boolean asyncCommitEnabled = false;
+
+  private boolean parallelFilteringEnabled = false;
+
+  private int parallelFilteringThreadPoolSize = 4;
+
+  private int parallelFilteringBatchSize = 100;
+
+  private int parallelFilteringChunkSize = 10;
+
+  private int parallelFilteringQueueCapacity = 100;
+
+  private boolean sharedTopicReaderEnabled = false;
+
+  private int sharedTopicReaderBufferSize = 1000;
+
+  private Duration sharedTopicReaderSlowSubscriptionTimeout = Duration.ofSeconds(1);
+
   @Override
   public Duration getPoolTimeout() {
     return poolTimeout;
@@ -95,4 +113,84 @@ public class ConsumerReceiverProperties implements KafkaReceiverParameters {
   public void setFilteringEnabled(boolean filteringEnabled) {
     this.filteringEnabled = filteringEnabled;
   }
+
+  @Override
+  public boolean isAsyncCommitEnabled() {
+    return asyncCommitEnabled;
+  }
+
+  public void setAsyncCommitEnabled(boolean asyncCommitEnabled) {
+    this.asyncCommitEnabled = asyncCommitEnabled;
+  }
+
+  @Override
+  public boolean isParallelFilteringEnabled() {
+    return parallelFilteringEnabled;
+  }
+
+  public void setParallelFilteringEnabled(boolean parallelFilteringEnabled) {
+    this.parallelFilteringEnabled = parallelFilteringEnabled;
+  }
+
+  public int getParallelFilteringThreadPoolSize() {
+    return parallelFilteringThreadPoolSize;
+  }
+
+  public void setParallelFilteringThreadPoolSize(int parallelFilteringThreadPoolSize) {
+    this.parallelFilteringThreadPoolSize = parallelFilteringThreadPoolSize;
+  }
+
+  @Override
+  public int getParallelFilteringBatchSize() {
+    return parallelFilteringBatchSize;
+  }
+
+  public void setParallelFilteringBatchSize(int parallelFilteringBatchSize) {
+    this.parallelFilteringBatchSize = parallelFilteringBatchSize;
+  }
+
+  @Override
+  public int getParallelFilteringChunkSize() {
+    return parallelFilteringChunkSize;
+  }
+
+  public void setParallelFilteringChunkSize(int parallelFilteringChunkSize) {
+    this.parallelFilteringChunkSize = parallelFilteringChunkSize;
+  }
+
+  public int getParallelFilteringQueueCapacity() {
+    return parallelFilteringQueueCapacity;
+  }
+
+  public void setParallelFilteringQueueCapacity(int parallelFilteringQueueCapacity) {
+    this.parallelFilteringQueueCapacity = parallelFilteringQueueCapacity;
+  }
+
+  @Override
+  public boolean isSharedTopicReaderEnabled() {
+    return sharedTopicReaderEnabled;
+  }
+
+  public void setSharedTopicReaderEnabled(boolean sharedTopicReaderEnabled) {
+    this.sharedTopicReaderEnabled = sharedTopicReaderEnabled;
+  }
+
+  @Override
+  public int getSharedTopicReaderBufferSize() {
+    return sharedTopicReaderBufferSize;
+  }
+
+  public void setSharedTopicReaderBufferSize(int sharedTopicReaderBufferSize) {
+    this.sharedTopicReaderBufferSize = sharedTopicReaderBufferSize;
+  }
+
+  @Override
+  public Duration getSharedTopicReaderSlowSubscriptionTimeout() {
+    return sharedTopicReaderSlowSubscriptionTimeout;
+  }
+
+  public void setSharedTopicReaderSlowSubscriptionTimeout(
+      Duration sharedTopicReaderSlowSubscriptionTimeout) {
+    this.sharedTopicReaderSlowSubscriptionTimeout = sharedTopicReaderSlowSubscriptionTimeout;
+  }
 }
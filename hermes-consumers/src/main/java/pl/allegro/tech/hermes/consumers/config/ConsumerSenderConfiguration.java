@@ -42,6 +42,7 @@ import pl.allegro.tech.hermes.consumers.consumer.sender.http.DefaultSendingResul
 import pl.allegro.tech.hermes.consumers.consumer.sender.http.EmptyHttpHeadersProvidersFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.http.Http1ClientParameters;
 import pl.allegro.tech.hermes.consumers.consumer.sender.http.Http2ClientHolder;
+import pl.allegro.tech.hermes.consumers.consumer.sender.http.HttpClientBulkheadFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.http.HttpClientsFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.http.HttpClientsWorkloadReporter;
 import pl.allegro.tech.hermes.consumers.consumer.sender.http.HttpHeadersProvidersFactory;
@@ -62,6 +63,7 @@ import pl.allegro.tech.hermes.consumers.consumer.trace.MetadataAppender;
 @EnableConfigurationProperties({
   SslContextProperties.class,
   HttpClientsMonitoringProperties.class,
+  HttpClientBulkheadProperties.class,
   SenderAsyncTimeoutProperties.class,
   BatchProperties.class
 })
@@ -163,7 +165,8 @@ public class ConsumerSenderConfiguration {
       HttpAuthorizationProviderFactory authorizationProviderFactory,
       HttpHeadersProvidersFactory httpHeadersProviderFactory,
       SendingResultHandlers sendingResultHandlers,
-      HttpRequestFactoryProvider requestFactoryProvider) {
+      HttpRequestFactoryProvider requestFactoryProvider,
+      HttpClientBulkheadFactory httpClientBulkheadFactory) {
     return new JettyHttpMessageSenderProvider(
         httpClient,
         http2ClientHolder,
@@ -173,9 +176,27 @@ public class ConsumerSenderConfiguration {
         httpHeadersProviderFactory,
         sendingResultHandlers,
         requestFactoryProvider,
+        httpClientBulkheadFactory,
         ImmutableSet.of("http", "https"));
   }
 
+  @Bean
+  public HttpClientBulkheadFactory httpClientBulkheadFactory(
+      HttpClientsFactory httpClientsFactory,
+      InstrumentedExecutorServiceFactory executorFactory,
+      @Named("http1-serial-client-parameters") Http1ClientParameters http1ClientParameters,
+      HttpClientBulkheadProperties httpClientBulkheadProperties,
+      CommonConsumerProperties commonConsumerProperties,
+      MetricsFacade metrics) {
+    return new HttpClientBulkheadFactory(
+        httpClientsFactory,
+        executorFactory,
+        http1ClientParameters,
+        httpClientBulkheadProperties,
+        commonConsumerProperties.getSerialConsumer().getInflightSize(),
+        metrics);
+  }
+
   @Bean
   public MetadataAppender<Request> defaultHttpMetadataAppender() {
     return new DefaultHttpMetadataAppender();
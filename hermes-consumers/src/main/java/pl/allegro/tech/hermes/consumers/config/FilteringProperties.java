@@ -0,0 +1,17 @@
+package pl.allegro.tech.hermes.consumers.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "consumer.filtering")
+public class FilteringProperties {
+
+  private boolean parseOnceEnabled = true;
+
+  public boolean isParseOnceEnabled() {
+    return parseOnceEnabled;
+  }
+
+  public void setParseOnceEnabled(boolean parseOnceEnabled) {
+    this.parseOnceEnabled = parseOnceEnabled;
+  }
+}
@@ -0,0 +1,75 @@
+package pl.allegro.tech.hermes.consumers.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import pl.allegro.tech.hermes.consumers.consumer.sender.http.HttpClientBulkheadParameters;
+
+@ConfigurationProperties(prefix = "consumer.http-client.bulkhead")
+public class HttpClientBulkheadProperties implements HttpClientBulkheadParameters {
+
+  private boolean enabled = false;
+
+  private int threadPoolSize = 4;
+
+  private int maxConnectionsPerDestination = 100;
+
+  private Duration destinationIdleTimeout = Duration.ofMinutes(5);
+
+  private int maxBulkheads = 100;
+
+  private Duration drainTimeout = Duration.ofMinutes(1);
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  @Override
+  public int getThreadPoolSize() {
+    return threadPoolSize;
+  }
+
+  public void setThreadPoolSize(int threadPoolSize) {
+    this.threadPoolSize = threadPoolSize;
+  }
+
+  @Override
+  public int getMaxConnectionsPerDestination() {
+    return maxConnectionsPerDestination;
+  }
+
+  public void setMaxConnectionsPerDestination(int maxConnectionsPerDestination) {
+    this.maxConnectionsPerDestination = maxConnectionsPerDestination;
+  }
+
+  @Override
+  public Duration getDestinationIdleTimeout() {
+    return destinationIdleTimeout;
+  }
+
+  public void setDestinationIdleTimeout(Duration destinationIdleTimeout) {
+    this.destinationIdleTimeout = destinationIdleTimeout;
+  }
+
+  @Override
+  public int getMaxBulkheads() {
+    return maxBulkheads;
+  }
+
+  public void setMaxBulkheads(int maxBulkheads) {
+    this.maxBulkheads = maxBulkheads;
+  }
+
+  @Override
+  public Duration getDrainTimeout() {
+    return drainTimeout;
+  }
+
+  public void setDrainTimeout(Duration drainTimeout) {
+    this.drainTimeout = drainTimeout;
+  }
+}
@@ -36,6 +36,7 @@ import pl.allegro.tech.hermes.consumers.registry.ConsumerNodesRegistry;
 import pl.allegro.tech.hermes.consumers.subscription.cache.SubscriptionsCache;
 import pl.allegro.tech.hermes.consumers.subscription.id.SubscriptionIds;
 import pl.allegro.tech.hermes.consumers.supervisor.ConsumerFactory;
+import pl.allegro.tech.hermes.consumers.supervisor.ConsumerThreadFactory;
 import pl.allegro.tech.hermes.consumers.supervisor.ConsumersExecutorService;
 import pl.allegro.tech.hermes.consumers.supervisor.ConsumersSupervisor;
 import pl.allegro.tech.hermes.consumers.supervisor.NonblockingConsumersSupervisor;
@@ -309,10 +310,22 @@ public class SupervisorConfiguration {
         commitOffsetProperties.getQueuesSize());
   }
 
+  @Bean
+  public ConsumerThreadFactory consumerThreadFactory(
+      CommonConsumerProperties commonConsumerProperties) {
+    return new ConsumerThreadFactory(commonConsumerProperties.isVirtualThreadsEnabled());
+  }
+
   @Bean
   public ConsumersExecutorService consumersExecutorService(
-      CommonConsumerProperties commonConsumerProperties, MetricsFacade metrics) {
-    return new ConsumersExecutorService(commonConsumerProperties.getThreadPoolSize(), metrics);
+      CommonConsumerProperties commonConsumerProperties,
+      ConsumerThreadFactory consumerThreadFactory,
+      MetricsFacade metrics) {
+    return new ConsumersExecutorService(
+        commonConsumerProperties.getThreadPoolSize(),
+        consumerThreadFactory,
+        commonConsumerProperties.getVirtualThreadPinningThreshold(),
+        metrics);
   }
 
   @Bean
@@ -9,14 +9,20 @@ import com.github.rholder.retry.Attempt;
 import com.github.rholder.retry.RetryListener;
 import com.github.rholder.retry.Retryer;
 import com.github.rholder.retry.RetryerBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.api.BatchSubscriptionPolicy;
@@ -55,8 +61,10 @@ public class BatchConsumer implements Consumer {
   private final SubscriptionLoadRecorder loadRecorder;
   private final Duration commitPeriod;
 
+  private final int inflightBatches;
+
   private Topic topic;
-  private Subscription subscription;
+  private volatile Subscription subscription;
 
   private volatile boolean consuming = true;
 
@@ -66,6 +74,11 @@ public class BatchConsumer implements Consumer {
 
   private final Map<SubscriptionPartition, Long> maxPendingOffsets = new HashMap<>();
 
+  // state of pipelined delivery, recreated on every initialization
+  private InflightBatchOffsets inflightOffsets;
+  private Semaphore inflightPermits;
+  private ScheduledExecutorService deliveryExecutor;
+
   private Instant lastCommitTime;
 
   public BatchConsumer(
@@ -95,10 +108,20 @@ public class BatchConsumer implements Consumer {
     this.trackers = trackers;
     this.commitPeriod = commitPeriod;
     this.lastCommitTime = Instant.now();
+    // fixed for the lifetime of the consumer, as batches of both modes cannot be mixed;
+    // capped in case a policy stored in ZooKeeper bypassed validation of the API
+    this.inflightBatches =
+        Math.min(
+            subscription.getBatchSubscriptionPolicy().getInflightBatches(),
+            BatchSubscriptionPolicy.MAX_INFLIGHT_BATCHES);
   }
 
   @Override
   public void consume(Runnable signalsInterrupt) {
+    if (isPipelined()) {
+      consumePipelined(signalsInterrupt);
+      return;
+    }
     Optional<MessageBatch> inflight = Optional.empty();
     try {
       logger.debug(
@@ -124,21 +147,75 @@ public class BatchConsumer implements Consumer {
                 "Finished delivering batch [subscription={}]", subscription.getQualifiedName());
           });
 
-      result
-          .getDiscarded()
-          .forEach(
-              m -> {
-                metrics.markDiscarded();
-                trackers.get(subscription).logDiscarded(m, "too large");
-              });
+      markDiscarded(result);
     } finally {
       logger.debug("Cleaning batch [subscription={}]", subscription.getQualifiedName());
       inflight.ifPresent(this::clean);
     }
   }
 
+  /**
+   * Fills the next batch while up to {@code inflightBatches} earlier ones are being delivered.
+   * Deliveries and their retries run on the delivery executor, offsets of a batch are committed
+   * once it and all batches read before it are finished.
+   */
+  private void consumePipelined(Runnable signalsInterrupt) {
+    try {
+      do {
+        loadRecorder.recordSingleOperation();
+        signalsInterrupt.run();
+        commitIfReady();
+      } while (!inflightPermits.tryAcquire(commitPeriod.toMillis(), MILLISECONDS));
+    } catch (InterruptedException e) {
+      logger.info("Restoring interrupted status {}", subscription.getQualifiedName(), e);
+      Thread.currentThread().interrupt();
+      return;
+    }
+
+    Subscription subscription = this.subscription;
+    InflightBatchOffsets.Slot slot = inflightOffsets.reserve();
+    MessageBatchingResult result;
+    try {
+      logger.debug(
+          "Trying to create new batch [subscription={}].", subscription.getQualifiedName());
+      result = receiver.next(subscription, signalsInterrupt);
+    } catch (RuntimeException e) {
+      slot.complete(List.of());
+      inflightPermits.release();
+      throw e;
+    }
+    markDiscarded(result);
+
+    MessageBatch batch = result.getBatch();
+    if (batch.isEmpty()) {
+      slot.complete(List.of());
+      clean(batch);
+      inflightPermits.release();
+    } else {
+      logger.debug("Delivering batch [subscription={}].", subscription.getQualifiedName());
+      new PipelinedDelivery(batch, subscription, slot, inflightPermits, deliveryExecutor).start();
+    }
+  }
+
+  private boolean isPipelined() {
+    return inflightBatches > 1;
+  }
+
+  private void markDiscarded(MessageBatchingResult result) {
+    result
+        .getDiscarded()
+        .forEach(
+            m -> {
+              metrics.markDiscarded();
+              trackers.get(subscription).logDiscarded(m, "too large");
+            });
+  }
+
   private void commitIfReady() {
     if (isReadyToCommit()) {
+      if (isPipelined()) {
+        inflightOffsets.drain(this::putOffset);
+      }
       Set<SubscriptionPartitionOffset> offsetsToCommit = new HashSet<>();
 
       for (Map.Entry<SubscriptionPartition, Long> entry : maxPendingOffsets.entrySet()) {
@@ -163,6 +240,14 @@ public class BatchConsumer implements Consumer {
     }
   }
 
+  private void releaseOffset(SubscriptionPartitionOffset offset) {
+    if (isPipelined()) {
+      inflightOffsets.release(offset);
+    } else {
+      putOffset(offset);
+    }
+  }
+
   private void putOffset(SubscriptionPartitionOffset offset) {
     maxPendingOffsets.compute(
         offset.getSubscriptionPartition(),
@@ -182,7 +267,7 @@ public class BatchConsumer implements Consumer {
             new BatchConsumerRateLimiter(),
             loadRecorder,
             metricsFacade,
-            this::putOffset);
+            this::releaseOffset);
 
     logger.debug(
         "Consumer: preparing batch receiver for subscription {}", subscription.getQualifiedName());
@@ -196,6 +281,16 @@ public class BatchConsumer implements Consumer {
             trackers,
             loadRecorder,
             this::commitIfReady);
+    if (isPipelined()) {
+      inflightOffsets = new InflightBatchOffsets();
+      inflightPermits = new Semaphore(inflightBatches);
+      deliveryExecutor =
+          Executors.newScheduledThreadPool(
+              inflightBatches,
+              new ThreadFactoryBuilder()
+                  .setNameFormat(subscription.getQualifiedName() + "-batch-delivery-%d")
+                  .build());
+    }
     metrics.initialize();
   }
 
@@ -207,6 +302,10 @@ public class BatchConsumer implements Consumer {
     } else {
       logger.info("No batch receiver to stop [subscription={}].", subscription.getQualifiedName());
     }
+    if (deliveryExecutor != null) {
+      // batches still in flight are abandoned, their offsets will never be committed
+      deliveryExecutor.shutdown();
+    }
     loadRecorder.shutdown();
     metrics.shutdown();
   }
@@ -347,6 +446,121 @@ public class BatchConsumer implements Consumer {
     batchFactory.destroyBatch(batch);
   }
 
+  /**
+   * Delivers a batch with the same retry policy as {@link #createRetryer}, but every attempt is a
+   * separate task and retries are scheduled after the backoff instead of blocking a thread.
+   */
+  private class PipelinedDelivery {
+
+    private final MessageBatch batch;
+    private final Subscription subscription;
+    private final InflightBatchOffsets.Slot slot;
+    private final Semaphore permits;
+    private final ScheduledExecutorService executor;
+    private final BatchSubscriptionPolicy policy;
+    private final HermesTimerContext latency;
+    private long firstAttemptMillis;
+
+    private PipelinedDelivery(
+        MessageBatch batch,
+        Subscription subscription,
+        InflightBatchOffsets.Slot slot,
+        Semaphore permits,
+        ScheduledExecutorService executor) {
+      this.batch = batch;
+      this.subscription = subscription;
+      this.slot = slot;
+      this.permits = permits;
+      this.executor = executor;
+      this.policy = subscription.getBatchSubscriptionPolicy();
+      this.latency = metrics.latencyTimer().time();
+    }
+
+    private void start() {
+      metrics.recordAttempt(batch.getMessageCount());
+      firstAttemptMillis = System.currentTimeMillis();
+      schedule(0);
+    }
+
+    private void attempt() {
+      if (executor.isShutdown()) {
+        abandon();
+        return;
+      }
+      loadRecorder.recordSingleOperation();
+      MessageSendingResult result;
+      boolean thrown = false;
+      try {
+        result =
+            sender.send(
+                batch,
+                subscription.getEndpoint(),
+                subscription.getEndpointAddressResolverMetadata(),
+                policy.getRequestTimeout());
+      } catch (RuntimeException e) {
+        result = MessageSendingResult.failedResult(e);
+        thrown = true;
+      }
+      batch.incrementRetryCounter();
+      markSendingResult(batch, result);
+
+      boolean retry =
+          thrown
+              || (!result.succeeded()
+                  && shouldRetryOnClientError(policy.isRetryClientErrors(), result));
+      if (!retry) {
+        finish();
+      } else if (System.currentTimeMillis() - firstAttemptMillis
+          > SECONDS.toMillis(policy.getMessageTtl())) {
+        discard(result);
+      } else {
+        schedule(policy.getMessageBackoff());
+      }
+    }
+
+    private void schedule(long delayMillis) {
+      try {
+        executor.schedule(this::attempt, delayMillis, MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        abandon();
+      }
+    }
+
+    private void discard(MessageSendingResult result) {
+      logger.error(
+          "Batch was rejected [batch_id={}, subscription={}, cause={}].",
+          batch.getId(),
+          subscription.getQualifiedName(),
+          result.getRootCause());
+      metrics.recordAttemptAsFinished(batch.getMessageCount());
+      metrics.markDiscarded(batch);
+      batch
+          .getMessagesMetadata()
+          .forEach(m -> trackers.get(subscription).logDiscarded(m, result.getRootCause()));
+      finish();
+    }
+
+    private void finish() {
+      latency.close();
+      slot.complete(batch.getPartitionOffsets());
+      release();
+    }
+
+    private void abandon() {
+      logger.info(
+          "Abandoning delivery of batch as consumer was stopped [batch_id={}, subscription={}].",
+          batch.getId(),
+          subscription.getQualifiedName());
+      metrics.recordAttemptAsFinished(batch.getMessageCount());
+      release();
+    }
+
+    private void release() {
+      clean(batch);
+      permits.release();
+    }
+  }
+
   private RetryListener getRetryListener(
       java.util.function.Consumer<MessageSendingResult> consumer) {
     return new RetryListener() {
@@ -4,16 +4,17 @@ import static java.lang.String.format;
 import static org.apache.commons.lang3.math.NumberUtils.INTEGER_ZERO;
 import static pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset.subscriptionPartitionOffset;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.net.URI;
 import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 import org.eclipse.jetty.http.HttpStatus;
@@ -36,6 +37,7 @@ import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSenderFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResultLogInfo;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeout;
+import pl.allegro.tech.hermes.consumers.supervisor.ConsumerThreadFactory;
 import pl.allegro.tech.hermes.metrics.HermesCounter;
 import pl.allegro.tech.hermes.metrics.HermesTimer;
 import pl.allegro.tech.hermes.metrics.HermesTimerContext;
@@ -43,6 +45,7 @@ import pl.allegro.tech.hermes.metrics.HermesTimerContext;
 public class ConsumerMessageSender {
 
   private static final Logger logger = LoggerFactory.getLogger(ConsumerMessageSender.class);
+  private static final Duration MAX_THROTTLED_SENDS_CHECK_DELAY = Duration.ofSeconds(1);
   private final ExecutorService deliveryReportingExecutor;
   private final List<SuccessHandler> successHandlers;
   private final List<ErrorHandler> errorHandlers;
@@ -53,15 +56,18 @@ public class ConsumerMessageSender {
   private final HermesTimer consumerLatencyTimer;
   private final HermesCounter retries;
   private final SerialConsumerRateLimiter rateLimiter;
-  private final HermesTimer rateLimiterAcquireTimer;
+  private final HermesTimer throttleDelayTimer;
   private final FutureAsyncTimeout async;
   private final int asyncTimeoutMs;
   private final LongAdder inflightCount = new LongAdder();
+  private final ConsumerThreadFactory consumerThreadFactory;
 
   private MessageSender messageSender;
   private Subscription subscription;
 
   private ScheduledExecutorService retrySingleThreadExecutor;
+  // accessed only from the retry executor thread
+  private final Deque<ThrottledSend> throttledSends = new ArrayDeque<>();
   private volatile boolean running = true;
 
   public ConsumerMessageSender(
@@ -76,7 +82,8 @@ public class ConsumerMessageSender {
       int asyncTimeoutMs,
       FutureAsyncTimeout futureAsyncTimeout,
       Clock clock,
-      SubscriptionLoadRecorder loadRecorder) {
+      SubscriptionLoadRecorder loadRecorder,
+      ConsumerThreadFactory consumerThreadFactory) {
     this.deliveryReportingExecutor = deliveryReportingExecutor;
     this.successHandlers = successHandlers;
     this.errorHandlers = errorHandlers;
@@ -86,6 +93,7 @@ public class ConsumerMessageSender {
     this.async = futureAsyncTimeout;
     this.rateLimiter = rateLimiter;
     this.asyncTimeoutMs = asyncTimeoutMs;
+    this.consumerThreadFactory = consumerThreadFactory;
     this.messageSender = messageSender(subscription);
     this.subscription = subscription;
     this.pendingOffsets = pendingOffsets;
@@ -95,17 +103,16 @@ public class ConsumerMessageSender {
         .registerInflightGauge(
             subscription.getQualifiedName(), this, sender -> sender.inflightCount.doubleValue());
     this.retries = metrics.subscriptions().retries(subscription.getQualifiedName());
-    this.rateLimiterAcquireTimer =
-        metrics.subscriptions().rateLimiterAcquire(subscription.getQualifiedName());
+    this.throttleDelayTimer =
+        metrics.subscriptions().throttleDelay(subscription.getQualifiedName());
   }
 
   public void initialize() {
     running = true;
-    ThreadFactory threadFactory =
-        new ThreadFactoryBuilder()
-            .setNameFormat(subscription.getQualifiedName() + "-retry-executor-%d")
-            .build();
-    this.retrySingleThreadExecutor = Executors.newScheduledThreadPool(1, threadFactory);
+    throttledSends.clear();
+    this.retrySingleThreadExecutor =
+        Executors.newScheduledThreadPool(
+            1, consumerThreadFactory.create(subscription.getQualifiedName() + "-retry-executor-"));
   }
 
   public void shutdown() {
@@ -143,15 +150,57 @@ public class ConsumerMessageSender {
     return Math.max(delay, INTEGER_ZERO);
   }
 
+  /**
+   * Sends the message right away when rate limiter has a permit available, otherwise queues it.
+   * Queued messages are sent in order by a single task scheduled on the retry executor for the
+   * moment the next permit becomes available, so the executor is never blocked and permits are not
+   * reserved ahead of the current rate. The task checks the rate limiter at least once per {@link
+   * #MAX_THROTTLED_SENDS_CHECK_DELAY}, so queued messages speed up as soon as the rate rises.
+   */
+  private void sendMessage(final Message message, ConsumerProfiler profiler) {
+    profiler.measure(Measurement.ACQUIRE_RATE_LIMITER);
+    if (!throttledSends.isEmpty()) {
+      throttledSends.add(new ThrottledSend(message, profiler));
+      return;
+    }
+    Duration throttleDelay = rateLimiter.tryAcquire();
+    if (throttleDelay.isZero()) {
+      throttleDelayTimer.record(Duration.ZERO);
+      deliver(message, profiler);
+    } else {
+      throttledSends.add(new ThrottledSend(message, profiler));
+      scheduleThrottledSends(throttleDelay);
+    }
+  }
+
+  private void sendThrottled() {
+    while (!throttledSends.isEmpty()) {
+      Duration throttleDelay = rateLimiter.tryAcquire();
+      if (!throttleDelay.isZero()) {
+        scheduleThrottledSends(throttleDelay);
+        return;
+      }
+      ThrottledSend send = throttledSends.poll();
+      throttleDelayTimer.record(Duration.ofNanos(System.nanoTime() - send.queuedAtNanos));
+      deliver(send.message, send.profiler);
+    }
+  }
+
+  private void scheduleThrottledSends(Duration throttleDelay) {
+    Duration delay =
+        throttleDelay.compareTo(MAX_THROTTLED_SENDS_CHECK_DELAY) < 0
+            ? throttleDelay
+            : MAX_THROTTLED_SENDS_CHECK_DELAY;
+    retrySingleThreadExecutor.schedule(this::sendThrottled, delay.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
   /**
    * Method is calling MessageSender and is registering listeners to handle response. Main
    * responsibility of this method is that no message will be fully processed or rejected without
    * release on semaphore.
    */
-  private void sendMessage(final Message message, ConsumerProfiler profiler) {
+  private void deliver(final Message message, ConsumerProfiler profiler) {
     loadRecorder.recordSingleOperation();
-    profiler.measure(Measurement.ACQUIRE_RATE_LIMITER);
-    acquireRateLimiterWithTimer();
     HermesTimerContext timer = consumerLatencyTimer.time();
     profiler.measure(Measurement.MESSAGE_SENDER_SEND);
     CompletableFuture<MessageSendingResult> response = messageSender.send(message);
@@ -172,12 +221,6 @@ public class ConsumerMessageSender {
             });
   }
 
-  private void acquireRateLimiterWithTimer() {
-    HermesTimerContext acquireTimer = rateLimiterAcquireTimer.time();
-    rateLimiter.acquire();
-    acquireTimer.close();
-  }
-
   private MessageSender messageSender(Subscription subscription) {
     Integer requestTimeoutMs = subscription.getSerialSubscriptionPolicy().getRequestTimeout();
     ResilientMessageSender resilientMessageSender =
@@ -211,8 +254,10 @@ public class ConsumerMessageSender {
         || endpointAddressResolverMetadataChanged
         || oAuthPolicyChanged
         || httpClientChanged) {
-      this.messageSender.stop();
+      // replace the sender before stopping the old one, which lets its requests in flight complete
+      MessageSender previousSender = this.messageSender;
       this.messageSender = messageSender(newSubscription);
+      previousSender.stop();
     }
   }
 
@@ -329,6 +374,18 @@ public class ConsumerMessageSender {
     return subscription.hasOAuthPolicy() && result.getStatusCode() == HttpStatus.UNAUTHORIZED_401;
   }
 
+  private static class ThrottledSend {
+
+    private final Message message;
+    private final ConsumerProfiler profiler;
+    private final long queuedAtNanos = System.nanoTime();
+
+    private ThrottledSend(Message message, ConsumerProfiler profiler) {
+      this.message = message;
+      this.profiler = profiler;
+    }
+  }
+
   class ResponseHandlingListener implements java.util.function.Consumer<MessageSendingResult> {
 
     private final Message message;
@@ -17,6 +17,7 @@ import pl.allegro.tech.hermes.consumers.consumer.result.ErrorHandler;
 import pl.allegro.tech.hermes.consumers.consumer.result.SuccessHandler;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSenderFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeout;
+import pl.allegro.tech.hermes.consumers.supervisor.ConsumerThreadFactory;
 import pl.allegro.tech.hermes.tracker.consumers.Trackers;
 
 public class ConsumerMessageSenderFactory {
@@ -30,6 +31,7 @@ public class ConsumerMessageSenderFactory {
   private final ConsumerAuthorizationHandler consumerAuthorizationHandler;
   private final ExecutorService rateLimiterReportingExecutor;
   private final int senderAsyncTimeoutMs;
+  private final ConsumerThreadFactory consumerThreadFactory;
 
   public ConsumerMessageSenderFactory(
       String kafkaClusterName,
@@ -42,7 +44,8 @@ public class ConsumerMessageSenderFactory {
       ConsumerAuthorizationHandler consumerAuthorizationHandler,
       int senderAsyncTimeoutMs,
       int rateLimiterReportingThreadPoolSize,
-      boolean rateLimiterReportingThreadMonitoringEnabled) {
+      boolean rateLimiterReportingThreadMonitoringEnabled,
+      ConsumerThreadFactory consumerThreadFactory) {
 
     this.kafkaClusterName = kafkaClusterName;
     this.messageSenderFactory = messageSenderFactory;
@@ -57,6 +60,7 @@ public class ConsumerMessageSenderFactory {
             rateLimiterReportingThreadPoolSize,
             rateLimiterReportingThreadMonitoringEnabled);
     this.senderAsyncTimeoutMs = senderAsyncTimeoutMs;
+    this.consumerThreadFactory = consumerThreadFactory;
   }
 
   public ConsumerMessageSender create(
@@ -94,6 +98,7 @@ public class ConsumerMessageSenderFactory {
         senderAsyncTimeoutMs,
         futureAsyncTimeout,
         clock,
-        subscriptionLoadRecorder);
+        subscriptionLoadRecorder,
+        consumerThreadFactory);
   }
 }
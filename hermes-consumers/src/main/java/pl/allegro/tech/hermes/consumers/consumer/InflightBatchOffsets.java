@@ -0,0 +1,80 @@
+package pl.allegro.tech.hermes.consumers.consumer;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.NotThreadSafe;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartition;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset;
+
+/**
+ * Offsets of batches delivered concurrently, released for commit in the order batches were read.
+ *
+ * <p>A slot is reserved before a batch is filled and completed when its delivery is finished.
+ * Offsets of messages that did not get into any batch (e.g. filtered ones) are released in slots
+ * completed right away. Only offsets of slots preceding the oldest uncompleted one can be
+ * committed, so an offset is never committed while an earlier message is still in flight.
+ *
+ * <p>Slots are reserved and drained by the consumer thread only; they can be completed by any
+ * thread.
+ */
+@NotThreadSafe
+class InflightBatchOffsets {
+
+  private final Queue<Slot> slots = new ArrayDeque<>();
+  private Slot last;
+
+  Slot reserve() {
+    Slot slot = new Slot();
+    append(slot);
+    return slot;
+  }
+
+  void release(SubscriptionPartitionOffset offset) {
+    if (last == null || !last.completed) {
+      Slot slot = new Slot();
+      slot.completed = true;
+      append(slot);
+    }
+    last.put(offset);
+  }
+
+  void drain(Consumer<SubscriptionPartitionOffset> consumer) {
+    while (!slots.isEmpty() && slots.peek().completed) {
+      Slot slot = slots.poll();
+      slot.offsets.forEach(
+          (partition, offset) ->
+              consumer.accept(new SubscriptionPartitionOffset(partition, offset)));
+    }
+    if (slots.isEmpty()) {
+      last = null;
+    }
+  }
+
+  int size() {
+    return slots.size();
+  }
+
+  private void append(Slot slot) {
+    slots.add(slot);
+    last = slot;
+  }
+
+  static final class Slot {
+
+    private final Map<SubscriptionPartition, Long> offsets = new HashMap<>();
+    private volatile boolean completed = false;
+
+    void complete(List<SubscriptionPartitionOffset> batchOffsets) {
+      batchOffsets.forEach(this::put);
+      completed = true;
+    }
+
+    private void put(SubscriptionPartitionOffset offset) {
+      offsets.merge(offset.getSubscriptionPartition(), offset.getOffset(), Math::max);
+    }
+  }
+}
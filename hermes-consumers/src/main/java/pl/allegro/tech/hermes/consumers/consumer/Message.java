@@ -4,6 +4,8 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -38,7 +40,10 @@ public class Message implements FilterableMessage {
 
   private final long publishingTimestamp;
   private final long readingTimestamp;
-  private final byte[] data;
+  private final byte[] buffer;
+  private final int dataOffset;
+  private final int dataLength;
+  private volatile byte[] data;
 
   private int retryCounter = 0;
   private final long partitionAssignmentTerm;
@@ -66,8 +71,53 @@ public class Message implements FilterableMessage {
       List<Header> additionalHeaders,
       String subscription,
       boolean hasSubscriptionIdentityHeaders) {
+    this(
+        id,
+        topic,
+        content,
+        0,
+        ArrayUtils.getLength(content),
+        contentType,
+        schema,
+        publishingTimestamp,
+        readingTimestamp,
+        partitionOffset,
+        partitionAssignmentTerm,
+        externalMetadata,
+        additionalHeaders,
+        subscription,
+        hasSubscriptionIdentityHeaders);
+  }
+
+  /**
+   * Creates message with content being a view over {@code dataLength} bytes of {@code buffer},
+   * starting at {@code dataOffset}. The content is copied into a separate array only when {@link
+   * #getData()} is called, senders able to write a part of an array should use {@link
+   * #getDataBuffer()} instead.
+   */
+  public Message(
+      String id,
+      String topic,
+      byte[] buffer,
+      int dataOffset,
+      int dataLength,
+      ContentType contentType,
+      Optional<CompiledSchema<Schema>> schema,
+      long publishingTimestamp,
+      long readingTimestamp,
+      PartitionOffset partitionOffset,
+      long partitionAssignmentTerm,
+      Map<String, String> externalMetadata,
+      List<Header> additionalHeaders,
+      String subscription,
+      boolean hasSubscriptionIdentityHeaders) {
     this.id = id;
-    this.data = content;
+    this.buffer = buffer;
+    this.dataOffset = dataOffset;
+    this.dataLength = dataLength;
+    if (dataOffset == 0 && dataLength == ArrayUtils.getLength(buffer)) {
+      this.data = buffer;
+    }
     this.topic = topic;
     this.contentType = contentType;
     this.schema = schema;
@@ -99,9 +149,18 @@ public class Message implements FilterableMessage {
 
   @Override
   public byte[] getData() {
+    byte[] data = this.data;
+    if (data == null && buffer != null) {
+      data = Arrays.copyOfRange(buffer, dataOffset, dataOffset + dataLength);
+      this.data = data;
+    }
     return data;
   }
 
+  public ByteBuffer getDataBuffer() {
+    return ByteBuffer.wrap(buffer, dataOffset, dataLength).slice();
+  }
+
   @Override
   public ContentType getContentType() {
     return contentType;
@@ -198,7 +257,7 @@ public class Message implements FilterableMessage {
   }
 
   public long getSize() {
-    return ArrayUtils.getLength(data);
+    return dataLength;
   }
 
   public boolean hasSubscriptionIdentityHeaders() {
@@ -229,7 +288,9 @@ public class Message implements FilterableMessage {
 
     private long publishingTimestamp;
     private long readingTimestamp;
-    private byte[] data;
+    private byte[] buffer;
+    private int dataOffset;
+    private int dataLength;
 
     private long partitionAssignmentTerm = -1;
     private Map<String, String> externalMetadata = Collections.emptyMap();
@@ -240,7 +301,9 @@ public class Message implements FilterableMessage {
 
     public Builder fromMessage(Message message) {
       this.id = message.getId();
-      this.data = message.getData();
+      this.buffer = message.buffer;
+      this.dataOffset = message.dataOffset;
+      this.dataLength = message.dataLength;
       this.contentType = message.getContentType();
       this.topic = message.getTopic();
       this.subscription = message.getSubscription();
@@ -257,7 +320,9 @@ public class Message implements FilterableMessage {
     }
 
     public Builder withData(byte[] data) {
-      this.data = data;
+      this.buffer = data;
+      this.dataOffset = 0;
+      this.dataLength = ArrayUtils.getLength(data);
       return this;
     }
 
@@ -291,7 +356,9 @@ public class Message implements FilterableMessage {
       return new Message(
           id,
           topic,
-          data,
+          buffer,
+          dataOffset,
+          dataLength,
           contentType,
           schema,
           publishingTimestamp,
@@ -161,8 +161,7 @@ public class SerialConsumer implements Consumer {
   private void commitIfReady() {
     if (isReadyToCommit()) {
       Set<SubscriptionPartitionOffset> offsetsToCommit =
-          offsetCommitter.calculateOffsetsToBeCommitted(
-              pendingOffsets.getOffsetsSnapshotAndReleaseProcessedSlots());
+          offsetCommitter.calculateOffsetsToBeCommitted(pendingOffsets);
       if (!offsetsToCommit.isEmpty()) {
         commit(offsetsToCommit);
       }
@@ -208,7 +207,7 @@ public class SerialConsumer implements Consumer {
             rateLimiter,
             loadRecorder,
             metrics,
-            pendingOffsets::markAsProcessed);
+            pendingOffsets);
   }
 
   /**
@@ -0,0 +1,145 @@
+package pl.allegro.tech.hermes.consumers.consumer.converter;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_MARKER;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.util.Utf8;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import tech.allegro.schema.json2avro.converter.AvroConversionException;
+
+/**
+ * Writes Avro binary encoded records as JSON directly from the binary decoder, without
+ * materializing intermediate {@link org.apache.avro.generic.GenericRecord}. Top level {@code
+ * __metadata} field is skipped.
+ *
+ * <p>Produced JSON is the same as the one produced by {@link
+ * tech.allegro.schema.json2avro.converter.JsonAvroConverter#convertToJson} for the record without
+ * metadata field, i.e. unions are not wrapped and bytes/fixed are written as ISO-8859-1 strings.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+class AvroBinaryToJsonWriter {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final Schema.Field[] fields;
+  private final boolean[] skipped;
+
+  AvroBinaryToJsonWriter(Schema schema) {
+    List<Schema.Field> schemaFields = schema.getFields();
+    this.fields = schemaFields.toArray(new Schema.Field[0]);
+    this.skipped = new boolean[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      skipped[i] = METADATA_MARKER.equals(fields[i].name());
+    }
+  }
+
+  byte[] write(byte[] data) {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length * 2);
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8)) {
+      BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, null);
+      Utf8 utf8 = new Utf8();
+      generator.writeStartObject();
+      for (int i = 0; i < fields.length; i++) {
+        if (skipped[i]) {
+          GenericDatumReader.skip(fields[i].schema(), decoder);
+        } else {
+          generator.writeFieldName(fields[i].name());
+          write(fields[i].schema(), decoder, generator, utf8);
+        }
+      }
+      generator.writeEndObject();
+    } catch (Exception e) {
+      String reason =
+          e.getMessage() == null ? ExceptionUtils.getRootCauseMessage(e) : e.getMessage();
+      throw new AvroConversionException(
+          String.format("Could not convert Avro message to JSON, reason: %s", reason));
+    }
+    return outputStream.toByteArray();
+  }
+
+  private void write(Schema schema, BinaryDecoder decoder, JsonGenerator generator, Utf8 utf8)
+      throws IOException {
+    switch (schema.getType()) {
+      case RECORD:
+        generator.writeStartObject();
+        for (Schema.Field field : schema.getFields()) {
+          generator.writeFieldName(field.name());
+          write(field.schema(), decoder, generator, utf8);
+        }
+        generator.writeEndObject();
+        break;
+      case ENUM:
+        generator.writeString(schema.getEnumSymbols().get(decoder.readEnum()));
+        break;
+      case ARRAY:
+        generator.writeStartArray();
+        for (long items = decoder.readArrayStart(); items > 0; items = decoder.arrayNext()) {
+          for (long i = 0; i < items; i++) {
+            write(schema.getElementType(), decoder, generator, utf8);
+          }
+        }
+        generator.writeEndArray();
+        break;
+      case MAP:
+        generator.writeStartObject();
+        for (long entries = decoder.readMapStart(); entries > 0; entries = decoder.mapNext()) {
+          for (long i = 0; i < entries; i++) {
+            generator.writeFieldName(decoder.readString());
+            write(schema.getValueType(), decoder, generator, utf8);
+          }
+        }
+        generator.writeEndObject();
+        break;
+      case UNION:
+        write(schema.getTypes().get(decoder.readIndex()), decoder, generator, utf8);
+        break;
+      case FIXED:
+        byte[] fixed = new byte[schema.getFixedSize()];
+        decoder.readFixed(fixed);
+        generator.writeString(new String(fixed, ISO_8859_1));
+        break;
+      case STRING:
+        Utf8 string = decoder.readString(utf8);
+        generator.writeUTF8String(string.getBytes(), 0, string.getByteLength());
+        break;
+      case BYTES:
+        ByteBuffer bytes = decoder.readBytes(null);
+        int offset = bytes.arrayOffset() + bytes.position();
+        generator.writeString(new String(bytes.array(), offset, bytes.remaining(), ISO_8859_1));
+        break;
+      case INT:
+        generator.writeNumber(decoder.readInt());
+        break;
+      case LONG:
+        generator.writeNumber(decoder.readLong());
+        break;
+      case FLOAT:
+        generator.writeNumber(decoder.readFloat());
+        break;
+      case DOUBLE:
+        generator.writeNumber(decoder.readDouble());
+        break;
+      case BOOLEAN:
+        generator.writeBoolean(decoder.readBoolean());
+        break;
+      case NULL:
+        decoder.readNull();
+        generator.writeNull();
+        break;
+      default:
+        throw new IllegalStateException("Unsupported Avro type: " + schema.getType());
+    }
+  }
+}
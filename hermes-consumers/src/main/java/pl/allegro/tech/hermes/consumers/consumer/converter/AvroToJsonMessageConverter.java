@@ -1,56 +1,29 @@
 package pl.allegro.tech.hermes.consumers.consumer.converter;
 
-import static java.util.stream.Collectors.toList;
-import static pl.allegro.tech.hermes.common.message.converter.AvroRecordToBytesConverter.bytesToRecord;
-import static pl.allegro.tech.hermes.common.message.wrapper.AvroMetadataMarker.METADATA_MARKER;
 import static pl.allegro.tech.hermes.consumers.consumer.Message.message;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.generic.GenericRecordBuilder;
 import pl.allegro.tech.hermes.api.ContentType;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
-import tech.allegro.schema.json2avro.converter.JsonAvroConverter;
 
 public class AvroToJsonMessageConverter implements MessageConverter {
 
-  private final JsonAvroConverter converter;
-
-  public AvroToJsonMessageConverter() {
-    this.converter = new JsonAvroConverter();
-  }
+  // weak keys, so writers go away together with schemas evicted from the schema cache
+  private final LoadingCache<Schema, AvroBinaryToJsonWriter> writers =
+      CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(AvroBinaryToJsonWriter::new));
 
   @Override
   public Message convert(Message message, Topic topic) {
+    Schema schema = message.getSchema().get().getSchema();
     return message()
         .fromMessage(message)
         .withContentType(ContentType.JSON)
-        .withData(
-            converter.convertToJson(
-                recordWithoutMetadata(
-                    message.getData(), message.<Schema>getSchema().get().getSchema())))
+        .withData(writers.getUnchecked(schema).write(message.getData()))
         .withNoSchema()
         .build();
   }
-
-  private GenericRecord recordWithoutMetadata(byte[] data, Schema schema) {
-    GenericRecord original = bytesToRecord(data, schema);
-    Schema schemaWithoutMetadata = removeMetadataField(schema);
-    GenericRecordBuilder builder = new GenericRecordBuilder(schemaWithoutMetadata);
-    schemaWithoutMetadata
-        .getFields()
-        .forEach(field -> builder.set(field, original.get(field.name())));
-    return builder.build();
-  }
-
-  private Schema removeMetadataField(Schema schema) {
-    return Schema.createRecord(
-        schema.getFields().stream()
-            .filter(field -> !METADATA_MARKER.equals(field.name()))
-            .map(
-                field ->
-                    new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultVal()))
-            .collect(toList()));
-  }
 }
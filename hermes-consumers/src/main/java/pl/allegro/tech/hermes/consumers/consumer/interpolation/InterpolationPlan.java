@@ -0,0 +1,200 @@
+package pl.allegro.tech.hermes.consumers.consumer.interpolation;
+
+import com.damnhandy.uri.template.UriTemplate;
+import com.damnhandy.uri.template.VariableExpansionException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Endpoint template compiled together with the way of extracting its variables from message body.
+ *
+ * <p>When every variable is a plain dotted path, like {@code some.object}, variables are extracted
+ * in a single streaming pass over the message bytes, skipping subtrees that no variable points
+ * into and stopping as soon as all variables are found. Templates using any other JsonPath syntax
+ * evaluate every variable with JsonPath on the whole body.
+ */
+class InterpolationPlan {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private static final String ROOT_PREFIX = "$.";
+
+  private static final Pattern DOTTED_PATH =
+      Pattern.compile("[^.\\[\\]*'\"()?@,\\s]+(\\.[^.\\[\\]*'\"()?@,\\s]+)*");
+
+  private final UriTemplate template;
+  private final String[] variables;
+  private final PathNode root;
+  private final JsonPath[] jsonPaths;
+
+  private InterpolationPlan(
+      UriTemplate template, String[] variables, PathNode root, JsonPath[] jsonPaths) {
+    this.template = template;
+    this.variables = variables;
+    this.root = root;
+    this.jsonPaths = jsonPaths;
+  }
+
+  static InterpolationPlan compile(String endpoint) {
+    UriTemplate template = UriTemplate.fromTemplate(endpoint);
+    String[] variables =
+        new LinkedHashSet<>(Arrays.asList(template.getVariables())).toArray(String[]::new);
+    PathNode root = streamingPaths(variables);
+    if (root != null) {
+      return new InterpolationPlan(template, variables, root, null);
+    }
+    JsonPath[] jsonPaths =
+        Arrays.stream(variables)
+            .map(variable -> JsonPath.compile(ROOT_PREFIX + variable))
+            .toArray(JsonPath[]::new);
+    return new InterpolationPlan(template, variables, null, jsonPaths);
+  }
+
+  boolean hasVariables() {
+    return variables.length > 0;
+  }
+
+  URI interpolate(byte[] body) throws InterpolationException {
+    Map<String, Object> values = root != null ? extract(body) : evaluate(body);
+    try {
+      return URI.create(template.expand(values));
+    } catch (VariableExpansionException e) {
+      throw new InterpolationException("Cannot expand template", e);
+    }
+  }
+
+  private Map<String, Object> evaluate(byte[] body) throws InterpolationException {
+    Map<String, Object> values = new HashMap<>();
+    String payload = new String(body, Charsets.UTF_8);
+    for (int i = 0; i < variables.length; i++) {
+      try {
+        values.put(variables[i], jsonPaths[i].read(payload));
+      } catch (InvalidPathException e) {
+        throw new InterpolationException(
+            String.format("Missing variable on path %s", jsonPaths[i].getPath()), e);
+      }
+    }
+    return values;
+  }
+
+  private Map<String, Object> extract(byte[] body) throws InterpolationException {
+    Extraction extraction = new Extraction(variables.length);
+    try (JsonParser parser = OBJECT_MAPPER.createParser(body)) {
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        readObject(parser, root, extraction);
+      }
+    } catch (IOException e) {
+      throw new InterpolationException("Cannot read message body", e);
+    }
+    Map<String, Object> values = new HashMap<>();
+    for (int i = 0; i < variables.length; i++) {
+      if (!extraction.found[i]) {
+        throw new InterpolationException(
+            String.format("Missing variable on path %s%s", ROOT_PREFIX, variables[i]));
+      }
+      values.put(variables[i], extraction.values[i]);
+    }
+    return values;
+  }
+
+  private static void readObject(JsonParser parser, PathNode node, Extraction extraction)
+      throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      PathNode child = node.children.get(parser.currentName());
+      JsonToken token = parser.nextToken();
+      if (child == null) {
+        parser.skipChildren();
+      } else if (child.variable >= 0) {
+        if (extraction.found[child.variable]) {
+          parser.skipChildren();
+        } else {
+          extraction.found(child.variable, readValue(parser, token));
+        }
+      } else if (token == JsonToken.START_OBJECT) {
+        readObject(parser, child, extraction);
+      } else {
+        parser.skipChildren();
+      }
+      if (extraction.isComplete()) {
+        return;
+      }
+    }
+  }
+
+  private static Object readValue(JsonParser parser, JsonToken token) throws IOException {
+    return switch (token) {
+      case VALUE_STRING -> parser.getText();
+      case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getNumberValue();
+      case VALUE_TRUE -> Boolean.TRUE;
+      case VALUE_FALSE -> Boolean.FALSE;
+      case VALUE_NULL -> null;
+      default -> parser.readValueAs(Object.class);
+    };
+  }
+
+  /**
+   * Returns trie of the variable paths, or null when any variable cannot be extracted by the
+   * streaming pass.
+   */
+  private static PathNode streamingPaths(String[] variables) {
+    PathNode root = new PathNode();
+    for (int i = 0; i < variables.length; i++) {
+      if (!DOTTED_PATH.matcher(variables[i]).matches()) {
+        return null;
+      }
+      PathNode node = root;
+      for (String field : variables[i].split("\\.")) {
+        if (node.variable >= 0) {
+          // variable nested in another variable
+          return null;
+        }
+        node = node.children.computeIfAbsent(field, f -> new PathNode());
+      }
+      if (!node.children.isEmpty()) {
+        return null;
+      }
+      node.variable = i;
+    }
+    return root;
+  }
+
+  private static class PathNode {
+
+    private final Map<String, PathNode> children = new HashMap<>();
+    private int variable = -1;
+  }
+
+  private static class Extraction {
+
+    private final Object[] values;
+    private final boolean[] found;
+    private int remaining;
+
+    private Extraction(int size) {
+      this.values = new Object[size];
+      this.found = new boolean[size];
+      this.remaining = size;
+    }
+
+    private void found(int variable, Object value) {
+      values[variable] = value;
+      found[variable] = true;
+      remaining--;
+    }
+
+    private boolean isComplete() {
+      return remaining == 0;
+    }
+  }
+}
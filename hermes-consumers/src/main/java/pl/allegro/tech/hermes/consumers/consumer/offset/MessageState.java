@@ -1,6 +0,0 @@
-package pl.allegro.tech.hermes.consumers.consumer.offset;
-
-public enum MessageState {
-  INFLIGHT,
-  PROCESSED
-}
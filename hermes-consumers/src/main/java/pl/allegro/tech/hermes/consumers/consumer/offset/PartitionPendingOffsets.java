@@ -0,0 +1,143 @@
+package pl.allegro.tech.hermes.consumers.consumer.offset;
+
+/**
+ * Tracks pending offsets of a single subscription partition (in a single assignment term).
+ *
+ * <p>Inflight offsets are kept in a bitmap indexed by offset. The bitmap is a ring of 64-bit words
+ * covering the window between the lowest inflight offset and the highest one, so marking an offset
+ * as inflight or processed is O(1). The window start only moves forward while looking for the
+ * lowest inflight offset, which makes {@link #committableOffset()} O(1) amortized. Offsets that
+ * were never marked (gaps in Kafka offsets) are treated the same as processed ones. The window is
+ * reset whenever there are no inflight offsets and grows when offsets fall outside of it, so its
+ * size is bounded by the distance between the oldest and the newest inflight offset.
+ *
+ * <p>Besides inflight offsets, the highest processed offset is kept, to commit it once there are no
+ * smaller inflight offsets. See {@link OffsetCommitter} for details of the commit algorithm.
+ *
+ * <p>Methods are synchronized, offsets are marked as inflight by the consumer thread and as
+ * processed by sender threads.
+ */
+class PartitionPendingOffsets {
+
+  static final long NO_OFFSET = Long.MAX_VALUE;
+
+  private static final int INITIAL_WORDS = 16;
+
+  private final SubscriptionPartition partition;
+
+  private long[] words = new long[INITIAL_WORDS];
+  private int headWord = 0;
+  private long baseWord = 0;
+  private long lastWord = 0;
+  private int inflightCount = 0;
+
+  private long maxProcessedOffset = NO_OFFSET;
+
+  PartitionPendingOffsets(SubscriptionPartition partition) {
+    this.partition = partition;
+  }
+
+  SubscriptionPartition getPartition() {
+    return partition;
+  }
+
+  synchronized void markAsInflight(long offset) {
+    long word = offset >> 6;
+    if (inflightCount == 0) {
+      headWord = 0;
+      baseWord = word;
+      lastWord = word;
+    } else if (word < baseWord) {
+      resize(word, lastWord);
+    } else if (word - baseWord >= words.length) {
+      // moves the window start to the lowest inflight offset before growing
+      lowestInflightOffset();
+      if (word - baseWord >= words.length) {
+        resize(baseWord, word);
+      }
+    }
+    int index = index(word);
+    long mask = 1L << offset;
+    if ((words[index] & mask) == 0) {
+      words[index] |= mask;
+      inflightCount++;
+    }
+    lastWord = Math.max(lastWord, word);
+  }
+
+  synchronized void markAsProcessed(long offset) {
+    // committed offset marks the message that is read first on consumer restart
+    long nextOffset = offset + 1;
+    if (maxProcessedOffset == NO_OFFSET || maxProcessedOffset < nextOffset) {
+      maxProcessedOffset = nextOffset;
+    }
+    long word = offset >> 6;
+    if (inflightCount > 0 && word >= baseWord && word - baseWord < words.length) {
+      int index = index(word);
+      long mask = 1L << offset;
+      if ((words[index] & mask) != 0) {
+        words[index] &= ~mask;
+        inflightCount--;
+      }
+    }
+  }
+
+  /**
+   * Returns offset which can be committed for this partition, i.e. the smaller of the lowest
+   * inflight offset and the highest processed offset, or {@link #NO_OFFSET} when there is none.
+   */
+  synchronized long committableOffset() {
+    return Math.min(lowestInflightOffset(), maxProcessedOffset);
+  }
+
+  /**
+   * Forgets the highest processed offset once it was committed, unless a higher offset was
+   * processed in the meantime.
+   */
+  synchronized void forgetProcessedOffset(long committedOffset) {
+    if (maxProcessedOffset == committedOffset) {
+      maxProcessedOffset = NO_OFFSET;
+    }
+  }
+
+  synchronized int inflightCount() {
+    return inflightCount;
+  }
+
+  private long lowestInflightOffset() {
+    if (inflightCount == 0) {
+      return NO_OFFSET;
+    }
+    while (words[headWord] == 0) {
+      headWord = (headWord + 1) & (words.length - 1);
+      baseWord++;
+    }
+    return (baseWord << 6) + Long.numberOfTrailingZeros(words[headWord]);
+  }
+
+  private void resize(long fromWord, long toWord) {
+    long required = toWord - fromWord + 1;
+    if (required > Integer.MAX_VALUE / 2) {
+      throw new IllegalStateException(
+          String.format(
+              "Too wide range of pending offsets for %s: %d - %d",
+              partition, fromWord << 6, (toWord << 6) + 63));
+    }
+    int length = words.length;
+    while (length < required) {
+      length <<= 1;
+    }
+    long[] resized = new long[length];
+    int shift = (int) (baseWord - fromWord);
+    for (long word = baseWord; word <= lastWord; word++) {
+      resized[(int) (word - baseWord) + shift] = words[index(word)];
+    }
+    words = resized;
+    headWord = 0;
+    baseWord = fromWord;
+  }
+
+  private int index(long word) {
+    return (int) ((headWord + (word - baseWord)) & (words.length - 1));
+  }
+}
@@ -1,11 +1,11 @@
 package pl.allegro.tech.hermes.consumers.consumer.offset;
 
 import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import pl.allegro.tech.hermes.api.SubscriptionName;
 import pl.allegro.tech.hermes.common.metric.MetricsFacade;
 import pl.allegro.tech.hermes.consumers.consumer.rate.AdjustableSemaphore;
@@ -14,23 +14,24 @@ import pl.allegro.tech.hermes.consumers.consumer.rate.AdjustableSemaphore;
  * This class manages pending offsets for message consumption in a thread-safe manner. It ensures
  * that the number of pending offsets does not exceed a specified maximum limit.
  *
- * <p>The {@code slots} map is effectively a bounded map, guarded by the {@code
- * maxPendingOffsetsSemaphore}. This semaphore ensures that the number of entries in the {@code
- * slots} map does not exceed {@code maxPendingOffsets} and prevents running out of memory. The
- * semaphore is used to acquire permits before adding entries to the map and to release permits when
- * entries are removed.
+ * <p>Offsets are tracked per partition by {@link PartitionPendingOffsets}, which keeps inflight
+ * offsets in a bitmap instead of holding an entry per message. The number of pending offsets is
+ * still guarded by the {@code maxPendingOffsetsSemaphore}: a permit is acquired for every message
+ * and released once its offset is processed and the commit algorithm has run, as it was when every
+ * pending offset had an entry in a map.
  *
  * <p>The {@code inflightSemaphore} is used to limit the number of messages that are currently being
  * processed (inflight). It helps control the concurrency level of message processing.
  *
- * <p>Note: Methods that modify the state of the {@code slots} map, such as {@code markAsProcessed}
- * and {@code markAsInflight}, must only be called after successfully acquiring a permit using the
+ * <p>Note: Methods that modify the state of pending offsets, such as {@code markAsProcessed} and
+ * {@code markAsInflight}, must only be called after successfully acquiring a permit using the
  * {@code tryAcquireSlot} method.
  */
-public class PendingOffsets {
+public class PendingOffsets implements PendingOffsetsAppender {
 
-  private final ConcurrentHashMap<SubscriptionPartitionOffset, MessageState> slots =
+  private final ConcurrentHashMap<SubscriptionPartition, PartitionPendingOffsets> partitions =
       new ConcurrentHashMap<>();
+  private final AtomicInteger processedSlots = new AtomicInteger();
   private final AdjustableSemaphore inflightSemaphore;
   private final Semaphore maxPendingOffsetsSemaphore;
 
@@ -53,9 +54,20 @@ public class PendingOffsets {
     this.inflightSemaphore.setMaxPermits(inflightQueueSize);
   }
 
+  @Override
   public void markAsProcessed(SubscriptionPartitionOffset subscriptionPartitionOffset) {
     inflightSemaphore.release();
-    slots.put(subscriptionPartitionOffset, MessageState.PROCESSED);
+    partition(subscriptionPartitionOffset).markAsProcessed(subscriptionPartitionOffset.getOffset());
+    processedSlots.incrementAndGet();
+  }
+
+  /**
+   * Marks offset as processed without releasing a slot, for messages which were filtered out
+   * before a slot was acquired for them.
+   */
+  @Override
+  public void markAsFiltered(SubscriptionPartitionOffset subscriptionPartitionOffset) {
+    partition(subscriptionPartitionOffset).markAsProcessed(subscriptionPartitionOffset.getOffset());
   }
 
   public boolean tryAcquireSlot(Duration processingInterval) throws InterruptedException {
@@ -70,23 +82,21 @@ public class PendingOffsets {
   }
 
   public void markAsInflight(SubscriptionPartitionOffset subscriptionPartitionOffset) {
-    slots.put(subscriptionPartitionOffset, MessageState.INFLIGHT);
+    partition(subscriptionPartitionOffset).markAsInflight(subscriptionPartitionOffset.getOffset());
   }
 
-  public Map<SubscriptionPartitionOffset, MessageState>
-      getOffsetsSnapshotAndReleaseProcessedSlots() {
-    int permitsReleased = 0;
-    Map<SubscriptionPartitionOffset, MessageState> offsetSnapshot = new HashMap<>();
+  Collection<PartitionPendingOffsets> getPartitionsAndReleaseProcessedSlots() {
+    maxPendingOffsetsSemaphore.release(processedSlots.getAndSet(0));
+    return partitions.values();
+  }
 
-    for (Map.Entry<SubscriptionPartitionOffset, MessageState> entry : slots.entrySet()) {
-      offsetSnapshot.put(entry.getKey(), entry.getValue());
-      if (entry.getValue() == MessageState.PROCESSED) {
-        slots.remove(entry.getKey());
-        permitsReleased++;
-      }
-    }
-    maxPendingOffsetsSemaphore.release(permitsReleased);
-    return offsetSnapshot;
+  void removePartition(SubscriptionPartition subscriptionPartition) {
+    partitions.remove(subscriptionPartition);
+  }
+
+  private PartitionPendingOffsets partition(SubscriptionPartitionOffset offset) {
+    return partitions.computeIfAbsent(
+        offset.getSubscriptionPartition(), PartitionPendingOffsets::new);
   }
 
   public void releaseSlot() {
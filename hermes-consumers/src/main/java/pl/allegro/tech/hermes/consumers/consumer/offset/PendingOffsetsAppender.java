@@ -3,4 +3,13 @@ package pl.allegro.tech.hermes.consumers.consumer.offset;
 public interface PendingOffsetsAppender {
 
   void markAsProcessed(SubscriptionPartitionOffset subscriptionPartitionOffset);
+
+  /**
+   * Marks offset of a message which was filtered out before the consumer loop acquired a slot for
+   * it. Must be called in order of offsets, after all preceding messages of the partition were
+   * marked as inflight.
+   */
+  default void markAsFiltered(SubscriptionPartitionOffset subscriptionPartitionOffset) {
+    markAsProcessed(subscriptionPartitionOffset);
+  }
 }
@@ -1,7 +1,9 @@
 package pl.allegro.tech.hermes.consumers.consumer.rate;
 
 import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.Uninterruptibles;
 import java.time.Clock;
+import java.time.Duration;
 import java.util.Objects;
 import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.common.metric.MetricsFacade;
@@ -17,7 +19,7 @@ public class SerialConsumerRateLimiter implements ConsumerRateLimiter {
 
   private final ConsumerRateLimitSupervisor rateLimitSupervisor;
 
-  private final RateLimiter rateLimiter;
+  private final TokenBucket rateLimiter;
 
   private final RateLimiter filterRateLimiter;
 
@@ -40,7 +42,7 @@ public class SerialConsumerRateLimiter implements ConsumerRateLimiter {
     this.outputRateCalculator =
         outputRateCalculatorFactory.createCalculator(subscription, sendCounters, metrics);
     this.currentMode = OutputRateCalculator.Mode.NORMAL;
-    this.rateLimiter = RateLimiter.create(calculateInitialRate().rate());
+    this.rateLimiter = new TokenBucket(calculateInitialRate().rate());
     this.filterRateLimiter =
         RateLimiter.create(subscription.getSerialSubscriptionPolicy().getRate());
   }
@@ -52,7 +54,7 @@ public class SerialConsumerRateLimiter implements ConsumerRateLimiter {
     metrics
         .maxRate()
         .registerOutputRateGauge(
-            subscription.getQualifiedName(), rateLimiter, RateLimiter::getRate);
+            subscription.getQualifiedName(), rateLimiter, TokenBucket::getRate);
     rateLimitSupervisor.register(this);
   }
 
@@ -64,10 +66,23 @@ public class SerialConsumerRateLimiter implements ConsumerRateLimiter {
 
   @Override
   public void acquire() {
-    rateLimiter.acquire();
+    Uninterruptibles.sleepUninterruptibly(rateLimiter.reserve());
     sendCounters.incrementAttempted();
   }
 
+  /**
+   * Takes permit for sending a single message if it is available right away, without blocking.
+   *
+   * @return zero when the permit was taken, otherwise delay after which it becomes available
+   */
+  public Duration tryAcquire() {
+    Duration delay = rateLimiter.tryAcquire();
+    if (delay.isZero()) {
+      sendCounters.incrementAttempted();
+    }
+    return delay;
+  }
+
   @Override
   public void acquireFiltered() {
     filterRateLimiter.acquire();
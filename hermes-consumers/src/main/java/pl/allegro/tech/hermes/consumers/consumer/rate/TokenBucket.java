@@ -0,0 +1,101 @@
+package pl.allegro.tech.hermes.consumers.consumer.rate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.math.LongMath;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket which never blocks the caller. {@link #tryAcquire()} takes a permit only when one is
+ * available right away and otherwise tells how long the caller has to wait for it, so the wait can
+ * be scheduled on a timer without reserving permits in advance. {@link #reserve()} takes a permit
+ * right away and returns how long the caller has to wait before using it.
+ *
+ * <p>Permits are handed out the same way as by Guava's bursty {@code RateLimiter}: unused permits
+ * are stored for at most one second, and a permit taken when none is stored pushes the next free
+ * slot one interval forward. Changing the rate rescales the remaining wait for the next free slot.
+ */
+class TokenBucket {
+
+  private static final double MAX_BURST_SECONDS = 1.0;
+
+  private final LongSupplier nanoTime;
+
+  private double rate;
+  private double intervalNanos;
+  private double maxPermits;
+  private double storedPermits;
+  private long nextFreeNanos;
+
+  TokenBucket(double rate) {
+    this(rate, System::nanoTime);
+  }
+
+  TokenBucket(double rate, LongSupplier nanoTime) {
+    this.nanoTime = nanoTime;
+    this.nextFreeNanos = nanoTime.getAsLong();
+    setRate(rate);
+  }
+
+  /**
+   * Takes a single permit if it is available right away. Otherwise nothing is taken and the delay
+   * after which a permit becomes available at the current rate is returned.
+   */
+  synchronized Duration tryAcquire() {
+    long now = nanoTime.getAsLong();
+    resync(now);
+    if (nextFreeNanos > now) {
+      return Duration.ofNanos(nextFreeNanos - now);
+    }
+    take();
+    return Duration.ZERO;
+  }
+
+  /** Reserves a single permit and returns the delay after which it may be used. */
+  synchronized Duration reserve() {
+    long now = nanoTime.getAsLong();
+    resync(now);
+    long waitNanos = Math.max(nextFreeNanos - now, 0);
+    take();
+    return Duration.ofNanos(waitNanos);
+  }
+
+  synchronized void setRate(double rate) {
+    checkArgument(rate > 0.0 && !Double.isNaN(rate), "Rate must be positive");
+    long now = nanoTime.getAsLong();
+    resync(now);
+    double oldMaxPermits = maxPermits;
+    double oldIntervalNanos = intervalNanos;
+    this.rate = rate;
+    this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+    if (nextFreeNanos > now && oldIntervalNanos > 0.0) {
+      double waitNanos = (nextFreeNanos - now) * intervalNanos / oldIntervalNanos;
+      nextFreeNanos = LongMath.saturatedAdd(now, (long) waitNanos);
+    }
+    this.maxPermits = MAX_BURST_SECONDS * rate;
+    this.storedPermits = oldMaxPermits == 0.0 ? 0.0 : storedPermits * maxPermits / oldMaxPermits;
+  }
+
+  synchronized double getRate() {
+    return rate;
+  }
+
+  private void take() {
+    double fromStored = Math.min(1.0, storedPermits);
+    long freshPermitsNanos = (long) ((1.0 - fromStored) * intervalNanos);
+    nextFreeNanos = LongMath.saturatedAdd(nextFreeNanos, freshPermitsNanos);
+    storedPermits -= fromStored;
+  }
+
+  private void resync(long now) {
+    if (now > nextFreeNanos) {
+      if (intervalNanos > 0.0) {
+        double newPermits = (now - nextFreeNanos) / intervalNanos;
+        storedPermits = Math.min(maxPermits, storedPermits + newPermits);
+      }
+      nextFreeNanos = now;
+    }
+  }
+}
@@ -27,6 +27,14 @@ public interface MessageReceiver {
    */
   Optional<Message> next();
 
+  /**
+   * Tells whether {@link #next()} can return a message without waiting for the broker, that is
+   * whether records of the last poll are still waiting to be read.
+   */
+  default boolean hasBufferedMessages() {
+    return false;
+  }
+
   default void stop() {}
 
   default void update(Subscription newSubscription) {}
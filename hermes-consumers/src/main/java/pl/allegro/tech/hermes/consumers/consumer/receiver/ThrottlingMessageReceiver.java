@@ -39,6 +39,11 @@ public class ThrottlingMessageReceiver implements MessageReceiver {
     return next;
   }
 
+  @Override
+  public boolean hasBufferedMessages() {
+    return receiver.hasBufferedMessages();
+  }
+
   private void awaitUntilNextPoll() {
     try (HermesTimerContext ignored = idleTimer.time()) {
       Thread.sleep(idleTimeCalculator.increaseIdleTime());
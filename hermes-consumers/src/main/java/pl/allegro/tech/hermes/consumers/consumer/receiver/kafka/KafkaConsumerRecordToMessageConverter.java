@@ -48,7 +48,9 @@ public class KafkaConsumerRecordToMessageConverter {
     return new Message(
         kafkaHeaderExtractor.extractMessageId(record.headers()),
         topic.getQualifiedName(),
-        unwrappedContent.getContent(),
+        unwrappedContent.getBuffer(),
+        unwrappedContent.getContentOffset(),
+        unwrappedContent.getContentLength(),
         kafkaTopic.contentType(),
         unwrappedContent.getSchema(),
         record.timestamp(),
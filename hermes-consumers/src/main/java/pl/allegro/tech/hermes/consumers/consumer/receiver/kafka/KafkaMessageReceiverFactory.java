@@ -30,6 +30,7 @@ import static org.apache.kafka.common.config.SaslConfigs.SASL_MECHANISM;
 
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import pl.allegro.tech.hermes.api.Subscription;
 import pl.allegro.tech.hermes.api.Topic;
@@ -63,6 +64,8 @@ public class KafkaMessageReceiverFactory implements ReceiverFactory {
   private final FilterChainFactory filterChainFactory;
   private final Trackers trackers;
   private final ConsumerPartitionAssignmentState consumerPartitionAssignmentState;
+  private final ExecutorService filteringExecutor;
+  private final SharedTopicReaders sharedTopicReaders;
 
   public KafkaMessageReceiverFactory(
       CommonConsumerParameters commonConsumerParameters,
@@ -74,7 +77,8 @@ public class KafkaMessageReceiverFactory implements ReceiverFactory {
       KafkaNamesMapper kafkaNamesMapper,
       FilterChainFactory filterChainFactory,
       Trackers trackers,
-      ConsumerPartitionAssignmentState consumerPartitionAssignmentState) {
+      ConsumerPartitionAssignmentState consumerPartitionAssignmentState,
+      ExecutorService filteringExecutor) {
     this.commonConsumerParameters = commonConsumerParameters;
     this.consumerReceiverParameters = consumerReceiverParameters;
     this.kafkaConsumerParameters = kafkaConsumerParameters;
@@ -85,6 +89,15 @@ public class KafkaMessageReceiverFactory implements ReceiverFactory {
     this.filterChainFactory = filterChainFactory;
     this.trackers = trackers;
     this.consumerPartitionAssignmentState = consumerPartitionAssignmentState;
+    this.filteringExecutor = filteringExecutor;
+    this.sharedTopicReaders =
+        consumerReceiverParameters.isSharedTopicReaderEnabled()
+            ? new SharedTopicReaders(
+                this::createSharedKafkaConsumer,
+                consumerReceiverParameters.getPoolTimeout(),
+                consumerReceiverParameters.getSharedTopicReaderSlowSubscriptionTimeout(),
+                consumerReceiverParameters.getSharedTopicReaderBufferSize())
+            : null;
   }
 
   @Override
@@ -124,7 +137,9 @@ public class KafkaMessageReceiverFactory implements ReceiverFactory {
         consumerReceiverParameters.getPoolTimeout(),
         consumerReceiverParameters.getReadQueueCapacity(),
         loadReporter,
-        consumerPartitionAssignmentState);
+        consumerPartitionAssignmentState,
+        consumerReceiverParameters.isAsyncCommitEnabled(),
+        sharedTopicReaders);
   }
 
   private MessageReceiver createThrottlingMessageReceiver(
@@ -145,6 +160,24 @@ public class KafkaMessageReceiverFactory implements ReceiverFactory {
       MetricsFacade metrics,
       PendingOffsetsAppender pendingOffsetsAppender) {
     boolean filteringRateLimitEnabled = consumerReceiverParameters.isFilteringRateLimiterEnabled();
+    if (consumerReceiverParameters.isParallelFilteringEnabled() && filteringExecutor != null) {
+      // filtered messages do not take a slot of the consumer loop, so they must not release one
+      FilteredMessageHandler filteredMessageHandler =
+          new FilteredMessageHandler(
+              filteringRateLimitEnabled ? consumerRateLimiter : null,
+              pendingOffsetsAppender::markAsFiltered,
+              trackers,
+              metrics,
+              subscription.getQualifiedName());
+      return new ParallelFilteringMessageReceiver(
+          receiver,
+          filteredMessageHandler,
+          filterChainFactory,
+          subscription,
+          filteringExecutor,
+          consumerReceiverParameters.getParallelFilteringBatchSize(),
+          consumerReceiverParameters.getParallelFilteringChunkSize());
+    }
     FilteredMessageHandler filteredMessageHandler =
         new FilteredMessageHandler(
             filteringRateLimitEnabled ? consumerRateLimiter : null,
@@ -173,6 +206,22 @@ public class KafkaMessageReceiverFactory implements ReceiverFactory {
     return new KafkaConsumer<>(props);
   }
 
+  /** Consumer of a shared topic reader, it has no group as partitions are assigned manually. */
+  private KafkaConsumer<byte[], byte[]> createSharedKafkaConsumer(Topic topic) {
+    Properties props = new Properties();
+    props.put(BOOTSTRAP_SERVERS_CONFIG, kafkaParameters.getBrokerList());
+    props.put(
+        CLIENT_ID_CONFIG,
+        consumerReceiverParameters.getClientId() + "_shared_" + topic.getQualifiedName());
+    props.put(ENABLE_AUTO_COMMIT_CONFIG, "false");
+    props.put("key.deserializer", "org.apache.kafka.common.serialization.ByteArrayDeserializer");
+    props.put("value.deserializer", "org.apache.kafka.common.serialization.ByteArrayDeserializer");
+
+    addKafkaAuthorizationParameters(props);
+    addKafkaConsumerParameters(props, topic);
+    return new KafkaConsumer<>(props);
+  }
+
   private void addKafkaAuthorizationParameters(Properties props) {
     if (kafkaParameters.isAuthenticationEnabled()) {
       props.put(SASL_MECHANISM, kafkaParameters.getAuthenticationMechanism());
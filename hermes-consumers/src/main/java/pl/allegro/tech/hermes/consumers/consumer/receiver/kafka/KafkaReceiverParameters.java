@@ -19,4 +19,18 @@ public interface KafkaReceiverParameters {
   boolean isFilteringRateLimiterEnabled();
 
   boolean isFilteringEnabled();
+
+  boolean isAsyncCommitEnabled();
+
+  boolean isParallelFilteringEnabled();
+
+  int getParallelFilteringBatchSize();
+
+  int getParallelFilteringChunkSize();
+
+  boolean isSharedTopicReaderEnabled();
+
+  int getSharedTopicReaderBufferSize();
+
+  Duration getSharedTopicReaderSlowSubscriptionTimeout();
 }
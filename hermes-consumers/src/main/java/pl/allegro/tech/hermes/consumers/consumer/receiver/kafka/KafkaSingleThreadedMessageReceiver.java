@@ -2,8 +2,11 @@ package pl.allegro.tech.hermes.consumers.consumer.receiver.kafka;
 
 import com.google.common.collect.ImmutableList;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -11,6 +14,7 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
@@ -36,6 +40,8 @@ import pl.allegro.tech.hermes.consumers.consumer.offset.kafka.broker.KafkaConsum
 import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
 import pl.allegro.tech.hermes.consumers.consumer.receiver.RetryableReceiverError;
 import pl.allegro.tech.hermes.metrics.HermesCounter;
+import pl.allegro.tech.hermes.metrics.HermesTimer;
+import pl.allegro.tech.hermes.metrics.HermesTimerContext;
 
 public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
   private static final Logger logger =
@@ -49,12 +55,23 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
 
   private final HermesCounter skippedCounter;
   private final HermesCounter failuresCounter;
+  private final HermesCounter subscriptionFailuresCounter;
+  private final HermesTimer commitLatencyTimer;
   private final SubscriptionLoadRecorder loadReporter;
   private volatile Subscription subscription;
 
   private final Duration poolTimeout;
   private final ConsumerPartitionAssignmentState partitionAssignmentState;
 
+  private final boolean asyncCommitEnabled;
+  // accessed only from the consumer thread, commit callbacks are invoked by KafkaConsumer on it
+  private final Map<TopicPartition, SubscriptionPartitionOffset> pendingCommitOffsets =
+      new HashMap<>();
+  private boolean commitInFlight = false;
+
+  // present while records are read by the shared reader of the topic
+  private SharedTopicReader.Subscriber sharedSubscriber;
+
   public KafkaSingleThreadedMessageReceiver(
       KafkaConsumer<byte[], byte[]> consumer,
       KafkaConsumerRecordToMessageConverterFactory messageConverterFactory,
@@ -65,9 +82,42 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
       Duration poolTimeout,
       int readQueueCapacity,
       SubscriptionLoadRecorder loadReporter,
-      ConsumerPartitionAssignmentState partitionAssignmentState) {
+      ConsumerPartitionAssignmentState partitionAssignmentState,
+      boolean asyncCommitEnabled) {
+    this(
+        consumer,
+        messageConverterFactory,
+        metrics,
+        kafkaNamesMapper,
+        topic,
+        subscription,
+        poolTimeout,
+        readQueueCapacity,
+        loadReporter,
+        partitionAssignmentState,
+        asyncCommitEnabled,
+        null);
+  }
+
+  KafkaSingleThreadedMessageReceiver(
+      KafkaConsumer<byte[], byte[]> consumer,
+      KafkaConsumerRecordToMessageConverterFactory messageConverterFactory,
+      MetricsFacade metrics,
+      KafkaNamesMapper kafkaNamesMapper,
+      Topic topic,
+      Subscription subscription,
+      Duration poolTimeout,
+      int readQueueCapacity,
+      SubscriptionLoadRecorder loadReporter,
+      ConsumerPartitionAssignmentState partitionAssignmentState,
+      boolean asyncCommitEnabled,
+      SharedTopicReaders sharedTopicReaders) {
     this.skippedCounter = metrics.offsetCommits().skippedCounter();
     this.failuresCounter = metrics.offsetCommits().failuresCounter();
+    this.subscriptionFailuresCounter =
+        metrics.offsetCommits().failuresCounter(subscription.getQualifiedName());
+    this.commitLatencyTimer = metrics.offsetCommits().latency(subscription.getQualifiedName());
+    this.asyncCommitEnabled = asyncCommitEnabled;
     this.subscription = subscription;
     this.poolTimeout = poolTimeout;
     this.loadReporter = loadReporter;
@@ -81,10 +131,14 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
         getKafkaTopics(topic, kafkaNamesMapper).stream()
             .collect(Collectors.toMap(t -> t.name().asString(), Function.identity()));
     this.messageConverter = messageConverterFactory.create(topic, subscription, topics);
-    this.consumer.subscribe(
-        topics.keySet(),
+    ConsumerRebalanceListener rebalanceListener =
         new OffsetCommitterConsumerRebalanceListener(
-            subscription.getQualifiedName(), partitionAssignmentState));
+            subscription.getQualifiedName(), partitionAssignmentState);
+    if (sharedTopicReaders != null) {
+      this.sharedSubscriber = sharedTopicReaders.subscribe(topic, subscription.getQualifiedName());
+      rebalanceListener = new SharedReaderRebalanceListener(rebalanceListener);
+    }
+    this.consumer.subscribe(topics.keySet(), rebalanceListener);
   }
 
   private Collection<KafkaTopic> getKafkaTopics(Topic topic, KafkaNamesMapper kafkaNamesMapper) {
@@ -121,25 +175,91 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
     }
   }
 
+  @Override
+  public boolean hasBufferedMessages() {
+    return !readQueue.isEmpty()
+        || (sharedSubscriber != null && sharedSubscriber.hasBufferedRecords());
+  }
+
   private void supplyReadQueue() {
     if (readQueue.isEmpty()) {
-      ConsumerRecords<byte[], byte[]> records = consumer.poll(poolTimeout);
-      try {
-        for (ConsumerRecord<byte[], byte[]> record : records) {
-          loadReporter.recordSingleOperation();
-          readQueue.add(record);
-        }
-      } catch (Exception ex) {
-        logger.error(
-            "Failed to read message for subscription {}, readQueueSize {}, records {}",
-            subscription.getQualifiedName(),
-            readQueue.size(),
-            records.count(),
-            ex);
+      if (sharedSubscriber != null) {
+        supplyReadQueueFromSharedReader();
+      } else {
+        addToReadQueue(consumer.poll(poolTimeout));
       }
     }
   }
 
+  /**
+   * Partitions of the subscription stay paused, polling only keeps the consumer in its group and
+   * runs rebalances and commit callbacks. Records are taken from the shared reader instead and the
+   * consumer is moved past each of them, so offsets are committed and moved as usual. Once the
+   * subscription is detached from the shared reader, it resumes reading partitions on its own.
+   */
+  private void supplyReadQueueFromSharedReader() {
+    // waits only while joining the group, records are not fetched for paused partitions anyway
+    addToReadQueue(consumer.poll(consumer.assignment().isEmpty() ? poolTimeout : Duration.ZERO));
+    if (sharedSubscriber.isDetached() && !sharedSubscriber.hasBufferedRecords()) {
+      logger.info(
+          "Subscription {} detached from shared topic reader, reading on its own",
+          subscription.getQualifiedName());
+      sharedSubscriber.close();
+      sharedSubscriber = null;
+      consumer.resume(consumer.assignment());
+      return;
+    }
+    try {
+      Optional<ConsumerRecord<byte[], byte[]>> record = sharedSubscriber.poll(poolTimeout);
+      while (record.isPresent()) {
+        addSharedRecord(record.get());
+        record =
+            readQueue.remainingCapacity() > 0
+                ? sharedSubscriber.poll(Duration.ZERO)
+                : Optional.empty();
+      }
+    } catch (InterruptedException ex) {
+      logger.info("Kafka consumer thread interrupted", ex);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void addSharedRecord(ConsumerRecord<byte[], byte[]> record) {
+    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+    if (consumer.assignment().contains(partition)
+        && record.offset() >= consumer.position(partition)) {
+      loadReporter.recordSingleOperation();
+      readQueue.add(record);
+      consumer.seek(partition, record.offset() + 1);
+    }
+  }
+
+  private void assignSharedReader(Collection<TopicPartition> revoked) {
+    Map<TopicPartition, Long> offsets = new HashMap<>();
+    for (TopicPartition partition : consumer.assignment()) {
+      if (!revoked.contains(partition)) {
+        offsets.put(partition, consumer.position(partition));
+      }
+    }
+    sharedSubscriber.assign(offsets);
+  }
+
+  private void addToReadQueue(ConsumerRecords<byte[], byte[]> records) {
+    try {
+      for (ConsumerRecord<byte[], byte[]> record : records) {
+        loadReporter.recordSingleOperation();
+        readQueue.add(record);
+      }
+    } catch (Exception ex) {
+      logger.error(
+          "Failed to read message for subscription {}, readQueueSize {}, records {}",
+          subscription.getQualifiedName(),
+          readQueue.size(),
+          records.count(),
+          ex);
+    }
+  }
+
   private Optional<Message> getMessageFromReadQueue() {
     if (!readQueue.isEmpty()) {
       ConsumerRecord<byte[], byte[]> record = readQueue.element();
@@ -166,6 +286,7 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
   @Override
   public void stop() {
     try {
+      commitPendingOffsetsSync();
       consumer.close();
     } catch (IllegalStateException ex) {
       // means it was already closed
@@ -175,6 +296,9 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
       logger.warn("KafkaException occurred during closing consumer.", ex);
     } finally {
       partitionAssignmentState.revokeAll(subscription.getQualifiedName());
+      if (sharedSubscriber != null) {
+        sharedSubscriber.close();
+      }
     }
   }
 
@@ -186,26 +310,101 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
 
   @Override
   public void commit(Set<SubscriptionPartitionOffset> offsets) {
+    if (asyncCommitEnabled) {
+      commitAsync(offsets);
+    } else {
+      commitSync(offsets);
+    }
+  }
+
+  private void commitSync(Collection<SubscriptionPartitionOffset> offsets) {
     try {
-      consumer.commitSync(createOffset(offsets));
+      Map<TopicPartition, OffsetAndMetadata> offsetsData = createOffset(offsets);
+      HermesTimerContext commitLatency = commitLatencyTimer.time();
+      consumer.commitSync(offsetsData);
+      commitLatency.close();
     } catch (InterruptException ex) {
       logger.info("Kafka consumer thread interrupted", ex);
       Thread.currentThread().interrupt();
     } catch (Exception ex) {
-      logger.error(
-          "Error while committing offset for subscription {}", subscription.getQualifiedName(), ex);
-      failuresCounter.increment();
+      markCommitFailure(ex);
+    }
+  }
+
+  /**
+   * Keeps at most one asynchronous commit in flight. Offsets arriving in the meantime replace the
+   * pending ones for the same partition and are sent once the in-flight commit completes, so the
+   * consumer thread never waits for the broker.
+   */
+  private void commitAsync(Collection<SubscriptionPartitionOffset> offsets) {
+    for (SubscriptionPartitionOffset offset : offsets) {
+      pendingCommitOffsets.put(toTopicPartition(offset), offset);
+    }
+    if (!commitInFlight) {
+      sendPendingOffsets();
+    }
+  }
+
+  private void sendPendingOffsets() {
+    try {
+      // term checks are done at send time, offsets from revoked partitions are dropped here
+      Map<TopicPartition, OffsetAndMetadata> offsetsData =
+          createOffset(pendingCommitOffsets.values());
+      pendingCommitOffsets.clear();
+      if (offsetsData.isEmpty()) {
+        return;
+      }
+      HermesTimerContext commitLatency = commitLatencyTimer.time();
+      commitInFlight = true;
+      consumer.commitAsync(
+          offsetsData, (committed, exception) -> onCommitCompleted(commitLatency, exception));
+    } catch (InterruptException ex) {
+      commitInFlight = false;
+      logger.info("Kafka consumer thread interrupted", ex);
+      Thread.currentThread().interrupt();
+    } catch (Exception ex) {
+      commitInFlight = false;
+      markCommitFailure(ex);
+    }
+  }
+
+  private void onCommitCompleted(HermesTimerContext commitLatency, Exception exception) {
+    commitInFlight = false;
+    commitLatency.close();
+    if (exception != null) {
+      markCommitFailure(exception);
+    }
+    if (!pendingCommitOffsets.isEmpty()) {
+      sendPendingOffsets();
+    }
+  }
+
+  private void commitPendingOffsetsSync() {
+    if (!pendingCommitOffsets.isEmpty()) {
+      List<SubscriptionPartitionOffset> offsets = new ArrayList<>(pendingCommitOffsets.values());
+      pendingCommitOffsets.clear();
+      commitSync(offsets);
     }
   }
 
+  private void markCommitFailure(Exception ex) {
+    logger.error(
+        "Error while committing offset for subscription {}", subscription.getQualifiedName(), ex);
+    failuresCounter.increment();
+    subscriptionFailuresCounter.increment();
+  }
+
+  private TopicPartition toTopicPartition(SubscriptionPartitionOffset partitionOffset) {
+    return new TopicPartition(
+        partitionOffset.getKafkaTopicName().asString(), partitionOffset.getPartition());
+  }
+
   private Map<TopicPartition, OffsetAndMetadata> createOffset(
-      Set<SubscriptionPartitionOffset> partitionOffsets) {
+      Collection<SubscriptionPartitionOffset> partitionOffsets) {
 
     Map<TopicPartition, OffsetAndMetadata> offsetsData = new LinkedHashMap<>();
     for (SubscriptionPartitionOffset partitionOffset : partitionOffsets) {
-      TopicPartition topicAndPartition =
-          new TopicPartition(
-              partitionOffset.getKafkaTopicName().asString(), partitionOffset.getPartition());
+      TopicPartition topicAndPartition = toTopicPartition(partitionOffset);
 
       if (partitionAssignmentState.isAssignedPartitionAtCurrentTerm(
           partitionOffset.getSubscriptionPartition())) {
@@ -230,10 +429,41 @@ public class KafkaSingleThreadedMessageReceiver implements MessageReceiver {
 
   @Override
   public PartitionOffsets moveOffset(PartitionOffsets offsets) {
-    return offsetMover.move(offsets);
+    PartitionOffsets moved = offsetMover.move(offsets);
+    if (sharedSubscriber != null) {
+      assignSharedReader(List.of());
+    }
+    return moved;
   }
 
   public Set<Integer> getAssignedPartitions() {
     return partitionAssignmentState.getAssignedPartitions(subscription.getQualifiedName());
   }
+
+  /** Keeps partitions paused and the shared reader informed about the assignment. */
+  private class SharedReaderRebalanceListener implements ConsumerRebalanceListener {
+
+    private final ConsumerRebalanceListener listener;
+
+    private SharedReaderRebalanceListener(ConsumerRebalanceListener listener) {
+      this.listener = listener;
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+      listener.onPartitionsRevoked(partitions);
+      if (sharedSubscriber != null) {
+        assignSharedReader(partitions);
+      }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+      listener.onPartitionsAssigned(partitions);
+      if (sharedSubscriber != null) {
+        consumer.pause(partitions);
+        assignSharedReader(List.of());
+      }
+    }
+  }
 }
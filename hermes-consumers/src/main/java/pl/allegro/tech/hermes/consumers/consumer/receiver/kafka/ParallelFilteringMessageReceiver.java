@@ -0,0 +1,205 @@
+package pl.allegro.tech.hermes.consumers.consumer.receiver.kafka;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffsets;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.filtering.FilteredMessageHandler;
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset;
+import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver;
+import pl.allegro.tech.hermes.domain.filtering.chain.FilterChain;
+import pl.allegro.tech.hermes.domain.filtering.chain.FilterChainFactory;
+import pl.allegro.tech.hermes.domain.filtering.chain.FilterResult;
+
+/**
+ * Filters messages on a shared worker pool instead of the consumer thread.
+ *
+ * <p>Messages already read from the last poll are taken in batches of at most {@code batchSize}
+ * and split into chunks of {@code chunkSize} consecutive messages, so filters are evaluated in
+ * parallel even when the whole poll came from a single partition. Results are consumed by the
+ * consumer thread in the order messages were read: filtered messages are handed to {@link
+ * FilteredMessageHandler}, which marks their offsets straight in pending offsets, and the first
+ * message that passed the filters is returned. Thanks to that the consumer loop spends a slot only
+ * on messages that are sent, and offsets of filtered messages are marked only after all preceding
+ * messages are already inflight.
+ *
+ * <p>The consumer thread waits for chunks claimed by the pool. It runs a chunk itself only when it
+ * reaches one which no worker has claimed yet, so a subscription never waits for filters of other
+ * subscriptions queued in the shared pool. Chunks rejected by the pool, when its queue is full, are
+ * left to the consumer thread as well.
+ */
+public class ParallelFilteringMessageReceiver implements MessageReceiver {
+
+  private final MessageReceiver receiver;
+  private final FilteredMessageHandler filteredMessageHandler;
+  private final FilterChainFactory filterChainFactory;
+  private final ExecutorService executor;
+  private final int batchSize;
+  private final int chunkSize;
+
+  // accessed only from the consumer thread
+  private final Deque<FilteringMessage> filtering = new ArrayDeque<>();
+
+  private volatile FilterChain filterChain;
+  private Subscription subscription;
+
+  public ParallelFilteringMessageReceiver(
+      MessageReceiver receiver,
+      FilteredMessageHandler filteredMessageHandler,
+      FilterChainFactory filterChainFactory,
+      Subscription subscription,
+      ExecutorService executor,
+      int batchSize,
+      int chunkSize) {
+    this.receiver = receiver;
+    this.filteredMessageHandler = filteredMessageHandler;
+    this.filterChainFactory = filterChainFactory;
+    this.subscription = subscription;
+    this.executor = executor;
+    this.batchSize = batchSize;
+    this.chunkSize = Math.max(1, chunkSize);
+    this.filterChain = filterChainFactory.create(subscription.getFilters());
+  }
+
+  @Override
+  public Optional<Message> next() {
+    if (filtering.isEmpty()) {
+      readBatch();
+    }
+    while (!filtering.isEmpty()) {
+      FilteringMessage next = filtering.poll();
+      if (!next.result.isDone()) {
+        next.chunk.run();
+      }
+      FilterResult result = next.result.join();
+      Message message = next.message;
+      filteredMessageHandler.handle(result, message, subscription);
+      message.setFiltered(result.isFiltered());
+      if (!result.isFiltered()) {
+        return Optional.of(message);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private void readBatch() {
+    Optional<Message> first = receiver.next();
+    if (first.isEmpty()) {
+      return;
+    }
+    FilterChain chain = filterChain;
+    List<Chunk> chunks = new ArrayList<>();
+    add(first.get(), chain, chunks);
+    while (filtering.size() < batchSize && receiver.hasBufferedMessages()) {
+      Optional<Message> next = receiver.next();
+      if (next.isEmpty()) {
+        break;
+      }
+      add(next.get(), chain, chunks);
+    }
+    for (Chunk chunk : chunks) {
+      try {
+        executor.execute(chunk);
+      } catch (RejectedExecutionException e) {
+        // the pool is saturated, remaining chunks are filtered by the consumer thread
+        break;
+      }
+    }
+  }
+
+  private void add(Message message, FilterChain chain, List<Chunk> chunks) {
+    if (chunks.isEmpty() || chunks.get(chunks.size() - 1).messages.size() == chunkSize) {
+      chunks.add(new Chunk(chain));
+    }
+    Chunk chunk = chunks.get(chunks.size() - 1);
+    FilteringMessage filteringMessage = new FilteringMessage(message, chunk);
+    chunk.messages.add(filteringMessage);
+    filtering.add(filteringMessage);
+  }
+  @Override
+  public boolean hasBufferedMessages() {
+    return !filtering.isEmpty() || receiver.hasBufferedMessages();
+  }
+
+  @Override
+  public void stop() {
+    filtering.clear();
+    receiver.stop();
+  }
+
+  @Override
+  public void update(Subscription newSubscription) {
+    if (!Objects.equals(subscription.getFilters(), newSubscription.getFilters())) {
+      this.filterChain = filterChainFactory.create(newSubscription.getFilters());
+    }
+    this.subscription = newSubscription;
+    this.receiver.update(newSubscription);
+  }
+
+  @Override
+  public void commit(Set<SubscriptionPartitionOffset> offsets) {
+    receiver.commit(offsets);
+  }
+
+  @Override
+  public PartitionOffsets moveOffset(PartitionOffsets offsets) {
+    return receiver.moveOffset(offsets);
+  }
+
+  @Override
+  public Set<Integer> getAssignedPartitions() {
+    return receiver.getAssignedPartitions();
+  }
+
+  /**
+   * Filters consecutive messages of a batch; runs once, on the thread which claims it first: a
+   * worker of the pool or the consumer thread.
+   */
+  private static class Chunk implements Runnable {
+
+    private final FilterChain chain;
+    private final List<FilteringMessage> messages = new ArrayList<>();
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    private Chunk(FilterChain chain) {
+      this.chain = chain;
+    }
+
+    @Override
+    public void run() {
+      if (claimed.compareAndSet(false, true)) {
+        messages.forEach(message -> message.filter(chain));
+      }
+    }
+  }
+
+  private static class FilteringMessage {
+
+    private final Message message;
+    private final Chunk chunk;
+    private final CompletableFuture<FilterResult> result = new CompletableFuture<>();
+
+    private FilteringMessage(Message message, Chunk chunk) {
+      this.message = message;
+      this.chunk = chunk;
+    }
+
+    private void filter(FilterChain chain) {
+      try {
+        result.complete(chain.apply(message));
+      } catch (RuntimeException e) {
+        result.completeExceptionally(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,307 @@
+package pl.allegro.tech.hermes.consumers.consumer.receiver.kafka;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.SubscriptionName;
+import pl.allegro.tech.hermes.api.TopicName;
+
+/**
+ * Reads partitions of a topic once for all subscriptions of the topic consumed on this node.
+ *
+ * <p>Reader has no consumer group, partitions to read are the union of partitions assigned to
+ * attached subscriptions. Each subscription tells from which offset it needs every partition, the
+ * reader starts from the lowest of them and every subscription skips records it has already got.
+ * Records are buffered per subscription and offered without blocking. Records which did not fit
+ * into a full buffer are read again for the subscription from Kafka, which holds back the reader. A
+ * subscription whose buffer stays full for longer than {@code slowSubscriberTimeout}, even if it
+ * takes records from time to time, is detached and reads the topic on its own from then on, so it
+ * does not hold back the others.
+ *
+ * <p>Kafka consumer and offsets of subscribers are accessed only by the reader thread, subscribers
+ * communicate with it by commands.
+ */
+class SharedTopicReader {
+
+  private static final Logger logger = LoggerFactory.getLogger(SharedTopicReader.class);
+
+  private static final Duration FULL_BUFFERS_BACKOFF = Duration.ofMillis(10);
+
+  private final TopicName topicName;
+  private final Consumer<byte[], byte[]> consumer;
+  private final Duration pollTimeout;
+  private final Duration slowSubscriberTimeout;
+  private final BlockingQueue<Runnable> commands = new LinkedBlockingQueue<>();
+  private final Map<SubscriptionName, Subscriber> subscribers = new ConcurrentHashMap<>();
+  private final Thread thread;
+
+  private volatile boolean running = true;
+
+  SharedTopicReader(
+      TopicName topicName,
+      Consumer<byte[], byte[]> consumer,
+      Duration pollTimeout,
+      Duration slowSubscriberTimeout) {
+    this.topicName = topicName;
+    this.consumer = consumer;
+    this.pollTimeout = pollTimeout;
+    this.slowSubscriberTimeout = slowSubscriberTimeout;
+    this.thread =
+        new ThreadFactoryBuilder()
+            .setNameFormat("shared-topic-reader-" + topicName.qualifiedName())
+            .setDaemon(true)
+            .build()
+            .newThread(this::run);
+  }
+
+  void start() {
+    thread.start();
+  }
+
+  void stop() {
+    running = false;
+    thread.interrupt();
+  }
+
+  boolean isRunning() {
+    return running;
+  }
+
+  Subscriber subscribe(SubscriptionName subscriptionName, int bufferCapacity, Runnable onClose) {
+    Subscriber subscriber = new Subscriber(subscriptionName, bufferCapacity, onClose);
+    subscribers.put(subscriptionName, subscriber);
+    if (!running) {
+      // reader has stopped in the meantime
+      subscriber.detached = true;
+    }
+    return subscriber;
+  }
+
+  private void unsubscribe(Subscriber subscriber) {
+    subscribers.remove(subscriber.subscriptionName, subscriber);
+    commands.add(this::reassign);
+  }
+
+  private void run() {
+    try {
+      while (running) {
+        if (consumer.assignment().isEmpty()) {
+          Runnable command = commands.poll(pollTimeout.toMillis(), TimeUnit.MILLISECONDS);
+          if (command != null) {
+            command.run();
+          }
+        }
+        runCommands();
+        if (!consumer.assignment().isEmpty() && !dispatch(consumer.poll(pollTimeout))) {
+          // every subscription with records to take has a full buffer
+          Runnable command =
+              commands.poll(FULL_BUFFERS_BACKOFF.toMillis(), TimeUnit.MILLISECONDS);
+          if (command != null) {
+            command.run();
+          }
+        }
+      }
+    } catch (InterruptedException | InterruptException e) {
+      logger.info("Shared reader of topic {} interrupted", topicName.qualifiedName());
+    } catch (KafkaException e) {
+      logger.error("Shared reader of topic {} failed", topicName.qualifiedName(), e);
+    } finally {
+      running = false;
+      subscribers.values().forEach(subscriber -> subscriber.detached = true);
+      consumer.close();
+    }
+  }
+
+  private void runCommands() {
+    Runnable command;
+    while ((command = commands.poll()) != null) {
+      command.run();
+    }
+  }
+
+  /**
+   * Offers records to every subscription, seeks back to records not taken by subscriptions with
+   * full buffers and detaches those which have had full buffer for too long. Returns false when
+   * records were read but no subscription could take any of them.
+   */
+  private boolean dispatch(ConsumerRecords<byte[], byte[]> records) {
+    long now = System.nanoTime();
+    int buffered = 0;
+    boolean behind = false;
+    List<Subscriber> slow = new ArrayList<>();
+    for (Subscriber subscriber : subscribers.values()) {
+      buffered += subscriber.offer(records, now);
+      if (subscriber.full) {
+        behind = true;
+        if (now - subscriber.fullSince > slowSubscriberTimeout.toNanos()) {
+          slow.add(subscriber);
+        }
+      }
+    }
+    for (Subscriber subscriber : slow) {
+      logger.warn(
+          "Detaching slow subscription {} from shared reader of topic {}",
+          subscriber.subscriptionName,
+          topicName.qualifiedName());
+      subscribers.remove(subscriber.subscriptionName, subscriber);
+      subscriber.detached = true;
+    }
+    if (behind) {
+      reassign();
+    }
+    return records.isEmpty() || buffered > 0;
+  }
+
+  /** Reads union of partitions of all subscribers, each from the lowest offset required. */
+  private void reassign() {
+    Map<TopicPartition, Long> lowestOffsets = new HashMap<>();
+    for (Subscriber subscriber : subscribers.values()) {
+      subscriber.nextOffsets.forEach(
+          (partition, offset) -> lowestOffsets.merge(partition, offset, Math::min));
+    }
+    Set<TopicPartition> assigned = consumer.assignment();
+    consumer.assign(lowestOffsets.keySet());
+    lowestOffsets.forEach(
+        (partition, offset) -> {
+          if (!assigned.contains(partition) || consumer.position(partition) != offset) {
+            consumer.seek(partition, offset);
+          }
+        });
+  }
+
+  /**
+   * Handle of a subscription attached to the reader.
+   *
+   * <p>Every {@link #assign} starts a new generation, records read for previous generations are
+   * dropped, so a subscription never gets a record older than the offsets it has assigned.
+   */
+  class Subscriber {
+
+    private final SubscriptionName subscriptionName;
+    private final BlockingQueue<SharedRecord> buffer;
+    private final Runnable onClose;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    // accessed only by the reader thread
+    private Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+    private long readerGeneration = 0;
+    private boolean full = false;
+    private long fullSince;
+
+    private volatile boolean detached = false;
+
+    private Subscriber(SubscriptionName subscriptionName, int bufferCapacity, Runnable onClose) {
+      this.subscriptionName = subscriptionName;
+      this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+      this.onClose = onClose;
+    }
+
+    /** Sets partitions read for the subscription and offsets of next records it needs. */
+    void assign(Map<TopicPartition, Long> offsets) {
+      long assignedGeneration = generation.incrementAndGet();
+      Map<TopicPartition, Long> assignedOffsets = new HashMap<>(offsets);
+      buffer.clear();
+      commands.add(
+          () -> {
+            if (subscribers.get(subscriptionName) == this) {
+              nextOffsets = assignedOffsets;
+              readerGeneration = assignedGeneration;
+              full = false;
+              reassign();
+            }
+          });
+    }
+
+    Optional<ConsumerRecord<byte[], byte[]>> poll(Duration timeout) throws InterruptedException {
+      SharedRecord record = buffer.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+      while (record != null) {
+        if (record.generation() == generation.get()) {
+          return Optional.of(record.record());
+        }
+        record = buffer.poll();
+      }
+      return Optional.empty();
+    }
+
+    boolean hasBufferedRecords() {
+      return !buffer.isEmpty();
+    }
+
+    /**
+     * Whether the subscription was detached from the reader. Records buffered before can still be
+     * polled, afterwards the subscription has to read the topic on its own.
+     */
+    boolean isDetached() {
+      return detached;
+    }
+
+    void close() {
+      if (closed.compareAndSet(false, true)) {
+        detached = true;
+        buffer.clear();
+        unsubscribe(this);
+        onClose.run();
+      }
+    }
+
+    /**
+     * Buffers records the subscription needs until its buffer is full, without blocking. Returns
+     * the number of buffered records.
+     */
+    private int offer(ConsumerRecords<byte[], byte[]> records, long now) {
+      int buffered = 0;
+      for (TopicPartition partition : records.partitions()) {
+        Long nextOffset = nextOffsets.get(partition);
+        if (nextOffset == null) {
+          continue;
+        }
+        for (ConsumerRecord<byte[], byte[]> record : records.records(partition)) {
+          if (record.offset() < nextOffset) {
+            continue;
+          }
+          if (!buffer.offer(new SharedRecord(readerGeneration, record))) {
+            markFull(now);
+            return buffered;
+          }
+          buffered++;
+          nextOffset = record.offset() + 1;
+          nextOffsets.put(partition, nextOffset);
+        }
+      }
+      if (buffered > 0) {
+        full = false;
+      }
+      return buffered;
+    }
+
+    private void markFull(long now) {
+      if (!full) {
+        full = true;
+        fullSince = now;
+      }
+    }
+  }
+
+  private record SharedRecord(long generation, ConsumerRecord<byte[], byte[]> record) {}
+}
@@ -0,0 +1,58 @@
+package pl.allegro.tech.hermes.consumers.consumer.receiver.kafka;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.apache.kafka.clients.consumer.Consumer;
+import pl.allegro.tech.hermes.api.SubscriptionName;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
+
+/**
+ * Keeps one {@link SharedTopicReader} per topic consumed on this node. Reader is started with the
+ * first subscription of a topic and stopped when the last one is closed.
+ */
+class SharedTopicReaders {
+
+  private final Function<Topic, Consumer<byte[], byte[]>> consumerFactory;
+  private final Duration pollTimeout;
+  private final Duration slowSubscriberTimeout;
+  private final int bufferCapacity;
+
+  private final Map<TopicName, SharedTopicReader> readers = new HashMap<>();
+  private final Map<TopicName, Integer> subscriptions = new HashMap<>();
+
+  SharedTopicReaders(
+      Function<Topic, Consumer<byte[], byte[]>> consumerFactory,
+      Duration pollTimeout,
+      Duration slowSubscriberTimeout,
+      int bufferCapacity) {
+    this.consumerFactory = consumerFactory;
+    this.pollTimeout = pollTimeout;
+    this.slowSubscriberTimeout = slowSubscriberTimeout;
+    this.bufferCapacity = bufferCapacity;
+  }
+
+  synchronized SharedTopicReader.Subscriber subscribe(
+      Topic topic, SubscriptionName subscriptionName) {
+    TopicName topicName = topic.getName();
+    SharedTopicReader reader = readers.get(topicName);
+    if (reader == null || !reader.isRunning()) {
+      reader =
+          new SharedTopicReader(
+              topicName, consumerFactory.apply(topic), pollTimeout, slowSubscriberTimeout);
+      reader.start();
+      readers.put(topicName, reader);
+    }
+    subscriptions.merge(topicName, 1, Integer::sum);
+    return reader.subscribe(subscriptionName, bufferCapacity, () -> unsubscribe(topicName));
+  }
+
+  private synchronized void unsubscribe(TopicName topicName) {
+    if (subscriptions.merge(topicName, -1, Integer::sum) == 0) {
+      subscriptions.remove(topicName);
+      readers.remove(topicName).stop();
+    }
+  }
+}
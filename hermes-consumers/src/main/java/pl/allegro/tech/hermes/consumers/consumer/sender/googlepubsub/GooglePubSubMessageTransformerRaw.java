@@ -16,7 +16,7 @@ class GooglePubSubMessageTransformerRaw implements GooglePubSubMessageTransforme
   @Override
   public PubsubMessage fromHermesMessage(Message message) {
     final PubsubMessage pubsubMessage =
-        PubsubMessage.newBuilder().setData(ByteString.copyFrom(message.getData())).build();
+        PubsubMessage.newBuilder().setData(ByteString.copyFrom(message.getDataBuffer())).build();
 
     return metadataAppender.append(pubsubMessage, message);
   }
@@ -0,0 +1,39 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import pl.allegro.tech.hermes.consumers.consumer.Message;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSender;
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
+
+class BulkheadMessageSender implements MessageSender {
+
+  private final MessageSender sender;
+  private final HttpClientBulkhead bulkhead;
+  private final Set<CompletableFuture<MessageSendingResult>> inflight =
+      ConcurrentHashMap.newKeySet();
+
+  BulkheadMessageSender(MessageSender sender, HttpClientBulkhead bulkhead) {
+    this.sender = sender;
+    this.bulkhead = bulkhead;
+  }
+
+  @Override
+  public CompletableFuture<MessageSendingResult> send(Message message) {
+    CompletableFuture<MessageSendingResult> result = sender.send(message);
+    inflight.add(result);
+    result.whenComplete((sendingResult, throwable) -> inflight.remove(result));
+    return result;
+  }
+
+  /**
+   * Sender is stopped when subscription is updated, while messages sent before the update are still
+   * being delivered, so the client is stopped only once they complete instead of aborting them.
+   */
+  @Override
+  public void stop() {
+    sender.stop();
+    bulkhead.stopAfter(CompletableFuture.allOf(inflight.toArray(CompletableFuture[]::new)));
+  }
+}
@@ -2,7 +2,7 @@ package pl.allegro.tech.hermes.consumers.consumer.sender.http;
 
 import java.net.URI;
 import java.util.concurrent.TimeUnit;
-import org.eclipse.jetty.client.BytesRequestContent;
+import org.eclipse.jetty.client.ByteBufferRequestContent;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.Request;
 import org.eclipse.jetty.http.HttpMethod;
@@ -56,7 +56,7 @@ class DefaultHttpRequestFactory implements HttpRequestFactory {
               .method(HttpMethod.POST)
               .timeout(timeout, TimeUnit.MILLISECONDS)
               .idleTimeout(socketTimeout, TimeUnit.MILLISECONDS)
-              .body(new BytesRequestContent(message.getData()));
+              .body(new ByteBufferRequestContent(message.getDataBuffer()));
 
       metadataAppender.append(baseRequest, message);
 
@@ -0,0 +1,109 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.Request;
+import org.eclipse.jetty.client.transport.HttpDestination;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.SubscriptionName;
+import pl.allegro.tech.hermes.common.metric.MetricsFacade;
+import pl.allegro.tech.hermes.metrics.HermesTimer;
+
+/**
+ * HTTP client owned by a single subscription, so that a slow endpoint exhausts only its own
+ * executor, connections and request queues instead of the ones shared by all subscriptions.
+ */
+class HttpClientBulkhead {
+
+  private static final Logger logger = LoggerFactory.getLogger(HttpClientBulkhead.class);
+
+  private static final String QUEUED_AT_ATTRIBUTE = "hermes.bulkhead.queuedAt";
+
+  private final SubscriptionName subscription;
+  private final HttpClient client;
+  private final ExecutorService executor;
+  private final Duration drainTimeout;
+  private final Runnable onStop;
+  private final MetricsFacade metrics;
+  private final AtomicBoolean stopped = new AtomicBoolean();
+
+  HttpClientBulkhead(
+      SubscriptionName subscription,
+      HttpClient client,
+      ExecutorService executor,
+      Duration drainTimeout,
+      Runnable onStop,
+      MetricsFacade metrics) {
+    this.subscription = subscription;
+    this.client = client;
+    this.executor = executor;
+    this.drainTimeout = drainTimeout;
+    this.onStop = onStop;
+    this.metrics = metrics;
+  }
+
+  void start() throws Exception {
+    HermesTimer queueWaitTime = metrics.consumerSender().bulkheadRequestQueueWaitTime(subscription);
+    client
+        .getRequestListeners()
+        .addQueuedListener(request -> request.attribute(QUEUED_AT_ATTRIBUTE, System.nanoTime()));
+    client
+        .getRequestListeners()
+        .addBeginListener(request -> recordQueueWaitTime(request, queueWaitTime));
+    metrics
+        .consumerSender()
+        .registerBulkheadRequestQueueSizeGauge(
+            subscription, this, HttpClientBulkhead::getRequestQueueSize);
+    client.start();
+  }
+
+  HttpClient getClient() {
+    return client;
+  }
+
+  int getRequestQueueSize() {
+    return client.getDestinations().stream()
+        .map(HttpDestination.class::cast)
+        .map(HttpDestination::getHttpExchanges)
+        .mapToInt(Queue::size)
+        .sum();
+  }
+
+  /**
+   * Stops the client once the given requests complete, but not later than after drain timeout, so
+   * that requests sent before the subscription was updated are not aborted.
+   */
+  void stopAfter(CompletableFuture<?> inflightRequests) {
+    inflightRequests
+        .completeOnTimeout(null, drainTimeout.toMillis(), TimeUnit.MILLISECONDS)
+        .whenCompleteAsync((result, throwable) -> stop());
+  }
+
+  void stop() {
+    if (!stopped.compareAndSet(false, true)) {
+      return;
+    }
+    metrics.consumerSender().unregisterBulkheadMetrics(subscription);
+    try {
+      client.stop();
+    } catch (Exception e) {
+      logger.error("Could not stop http client of subscription {}", subscription, e);
+    } finally {
+      executor.shutdown();
+      onStop.run();
+    }
+  }
+
+  private static void recordQueueWaitTime(Request request, HermesTimer queueWaitTime) {
+    Object queuedAt = request.getAttributes().get(QUEUED_AT_ATTRIBUTE);
+    if (queuedAt instanceof Long queuedAtNanos) {
+      queueWaitTime.record(Duration.ofNanos(System.nanoTime() - queuedAtNanos));
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
+import org.eclipse.jetty.util.thread.Scheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.api.SubscriptionPolicy;
+import pl.allegro.tech.hermes.common.metric.MetricsFacade;
+import pl.allegro.tech.hermes.common.metric.executor.InstrumentedExecutorServiceFactory;
+
+/**
+ * Creates {@link HttpClientBulkhead}s sized from serial subscription policy.
+ *
+ * <p>Consumer never has more than inflight size messages of a subscription being sent, so request
+ * queue of every destination holds at most that many requests. Number of connections is further
+ * limited by the number of requests which can be inflight at the subscription rate, when each of
+ * them takes the whole request timeout.
+ *
+ * <p>All bulkheads share a single scheduler and every bulkhead runs its selector on its own small
+ * executor, so each of them costs {@code threadPoolSize} threads. Number of bulkheads is capped by
+ * {@code maxBulkheads}; subscriptions started above the cap use the shared client.
+ */
+public class HttpClientBulkheadFactory {
+
+  private static final Logger logger = LoggerFactory.getLogger(HttpClientBulkheadFactory.class);
+
+  private final HttpClientsFactory httpClientsFactory;
+  private final InstrumentedExecutorServiceFactory executorFactory;
+  private final Http1ClientParameters http1ClientParameters;
+  private final HttpClientBulkheadParameters bulkheadParameters;
+  private final int defaultInflightSize;
+  private final MetricsFacade metrics;
+  private final Scheduler scheduler =
+      new ScheduledExecutorScheduler("jetty-http1-bulkhead-scheduler", true);
+  private final Semaphore bulkheads;
+
+  public HttpClientBulkheadFactory(
+      HttpClientsFactory httpClientsFactory,
+      InstrumentedExecutorServiceFactory executorFactory,
+      Http1ClientParameters http1ClientParameters,
+      HttpClientBulkheadParameters bulkheadParameters,
+      int defaultInflightSize,
+      MetricsFacade metrics) {
+    this.httpClientsFactory = httpClientsFactory;
+    this.executorFactory = executorFactory;
+    this.http1ClientParameters = http1ClientParameters;
+    this.bulkheadParameters = bulkheadParameters;
+    this.defaultInflightSize = defaultInflightSize;
+    this.metrics = metrics;
+    this.bulkheads = new Semaphore(bulkheadParameters.getMaxBulkheads());
+  }
+
+  boolean isEnabled() {
+    return bulkheadParameters.isEnabled();
+  }
+
+  Optional<HttpClientBulkhead> create(Subscription subscription) throws Exception {
+    if (!bulkheads.tryAcquire()) {
+      logger.warn(
+          "Limit of {} http client bulkheads reached, {} uses shared http client.",
+          bulkheadParameters.getMaxBulkheads(),
+          subscription.getQualifiedName());
+      return Optional.empty();
+    }
+    HttpClientBulkhead bulkhead;
+    try {
+      scheduler.start();
+      bulkhead = createBulkhead(subscription);
+    } catch (Exception e) {
+      bulkheads.release();
+      throw e;
+    }
+    try {
+      bulkhead.start();
+    } catch (Exception e) {
+      bulkhead.stop();
+      throw e;
+    }
+    return Optional.of(bulkhead);
+  }
+
+  private HttpClientBulkhead createBulkhead(Subscription subscription) {
+    SubscriptionPolicy policy = subscription.getSerialSubscriptionPolicy();
+    ExecutorService executor =
+        executorFactory.getExecutorService(
+            "jetty-http1-bulkhead-" + subscription.getQualifiedName(),
+            bulkheadParameters.getThreadPoolSize(),
+            false);
+    HttpClient client =
+        httpClientsFactory.createBulkheadClientForHttp1(
+            executor,
+            scheduler,
+            http1ClientParameters,
+            maxConnectionsPerDestination(policy),
+            maxRequestsQueuedPerDestination(policy),
+            bulkheadParameters.getDestinationIdleTimeout());
+    return new HttpClientBulkhead(
+        subscription.getQualifiedName(),
+        client,
+        executor,
+        bulkheadParameters.getDrainTimeout(),
+        bulkheads::release,
+        metrics);
+  }
+
+  int maxConnectionsPerDestination(SubscriptionPolicy policy) {
+    long connections =
+        Math.min(
+            Math.min(inflightSize(policy), concurrentRequestsAtRate(policy)),
+            bulkheadParameters.getMaxConnectionsPerDestination());
+    return (int) Math.max(1, connections);
+  }
+
+  int maxRequestsQueuedPerDestination(SubscriptionPolicy policy) {
+    return Math.max(1, inflightSize(policy));
+  }
+
+  private int inflightSize(SubscriptionPolicy policy) {
+    Integer inflightSize = policy.getInflightSize();
+    return inflightSize != null ? inflightSize : defaultInflightSize;
+  }
+
+  private static long concurrentRequestsAtRate(SubscriptionPolicy policy) {
+    if (policy.getRate() == null || policy.getRequestTimeout() == null) {
+      return Long.MAX_VALUE;
+    }
+    return (long) Math.ceil((long) policy.getRate() * policy.getRequestTimeout() / 1000.0);
+  }
+}
@@ -0,0 +1,18 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http;
+
+import java.time.Duration;
+
+public interface HttpClientBulkheadParameters {
+
+  boolean isEnabled();
+
+  int getThreadPoolSize();
+
+  int getMaxConnectionsPerDestination();
+
+  Duration getDestinationIdleTimeout();
+
+  int getMaxBulkheads();
+
+  Duration getDrainTimeout();
+}
@@ -1,5 +1,6 @@
 package pl.allegro.tech.hermes.consumers.consumer.sender.http;
 
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.transport.HttpClientTransportOverHTTP;
@@ -7,6 +8,7 @@ import org.eclipse.jetty.http.HttpCookieStore;
 import org.eclipse.jetty.http2.client.HTTP2Client;
 import org.eclipse.jetty.http2.client.transport.HttpClientTransportOverHTTP2;
 import org.eclipse.jetty.io.ClientConnector;
+import org.eclipse.jetty.util.thread.Scheduler;
 import pl.allegro.tech.hermes.common.metric.executor.InstrumentedExecutorServiceFactory;
 
 public class HttpClientsFactory {
@@ -22,6 +24,47 @@ public class HttpClientsFactory {
   }
 
   public HttpClient createClientForHttp1(String name, Http1ClientParameters http1ClientParameters) {
+    ExecutorService executor =
+        executorFactory.getExecutorService(
+            name,
+            http1ClientParameters.getThreadPoolSize(),
+            http1ClientParameters.isThreadPoolMonitoringEnabled());
+    return createClientForHttp1(
+        executor,
+        http1ClientParameters,
+        http1ClientParameters.getMaxConnectionsPerDestination(),
+        http1ClientParameters.getMaxRequestsQueuedPerDestination());
+  }
+
+  /**
+   * Creates client used by a single subscription only, with its own executor, connection pools and
+   * request queues. Destinations that stay idle for {@code destinationIdleTimeout} are removed
+   * together with their connection pools. The scheduler is shared with other bulkhead clients and
+   * has to be started already, so that stopping the client does not stop it.
+   */
+  HttpClient createBulkheadClientForHttp1(
+      ExecutorService executor,
+      Scheduler scheduler,
+      Http1ClientParameters http1ClientParameters,
+      int maxConnectionsPerDestination,
+      int maxRequestsQueuedPerDestination,
+      Duration destinationIdleTimeout) {
+    HttpClient client =
+        createClientForHttp1(
+            executor,
+            http1ClientParameters,
+            maxConnectionsPerDestination,
+            maxRequestsQueuedPerDestination);
+    client.setScheduler(scheduler);
+    client.setDestinationIdleTimeout(destinationIdleTimeout.toMillis());
+    return client;
+  }
+
+  private HttpClient createClientForHttp1(
+      ExecutorService executor,
+      Http1ClientParameters http1ClientParameters,
+      int maxConnectionsPerDestination,
+      int maxRequestsQueuedPerDestination) {
     ClientConnector clientConnector = new ClientConnector();
     sslContextFactoryProvider
         .provideSslContextFactory()
@@ -29,15 +72,9 @@ public class HttpClientsFactory {
     HttpClientTransportOverHTTP transport = new HttpClientTransportOverHTTP(clientConnector);
     HttpClient client = new HttpClient(transport);
 
-    ExecutorService executor =
-        executorFactory.getExecutorService(
-            name,
-            http1ClientParameters.getThreadPoolSize(),
-            http1ClientParameters.isThreadPoolMonitoringEnabled());
     client.setExecutor(executor);
-    client.setMaxConnectionsPerDestination(http1ClientParameters.getMaxConnectionsPerDestination());
-    client.setMaxRequestsQueuedPerDestination(
-        http1ClientParameters.getMaxRequestsQueuedPerDestination());
+    client.setMaxConnectionsPerDestination(maxConnectionsPerDestination);
+    client.setMaxRequestsQueuedPerDestination(maxRequestsQueuedPerDestination);
     client.setHttpCookieStore(new HttpCookieStore.Empty());
     client.setIdleTimeout(http1ClientParameters.getIdleTimeout().toMillis());
     client.setFollowRedirects(http1ClientParameters.isFollowRedirectsEnabled());
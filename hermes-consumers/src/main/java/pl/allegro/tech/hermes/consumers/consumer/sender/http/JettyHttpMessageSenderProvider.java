@@ -43,6 +43,7 @@ public class JettyHttpMessageSenderProvider implements ProtocolMessageSenderProv
   private final HttpHeadersProvidersFactory httpHeadersProviderFactory;
   private final SendingResultHandlers sendingResultHandlers;
   private final HttpRequestFactoryProvider requestFactoryProvider;
+  private final HttpClientBulkheadFactory bulkheadFactory;
   private final Set<String> supportedProtocols;
 
   public JettyHttpMessageSenderProvider(
@@ -54,6 +55,7 @@ public class JettyHttpMessageSenderProvider implements ProtocolMessageSenderProv
       HttpHeadersProvidersFactory httpHeadersProviderFactory,
       SendingResultHandlers sendingResultHandlers,
       HttpRequestFactoryProvider requestFactoryProvider,
+      HttpClientBulkheadFactory bulkheadFactory,
       Set<String> supportedProtocols) {
     this.httpClient = httpClient;
     this.http2ClientHolder = http2ClientHolder;
@@ -63,12 +65,41 @@ public class JettyHttpMessageSenderProvider implements ProtocolMessageSenderProv
     this.httpHeadersProviderFactory = httpHeadersProviderFactory;
     this.sendingResultHandlers = sendingResultHandlers;
     this.requestFactoryProvider = requestFactoryProvider;
+    this.bulkheadFactory = bulkheadFactory;
     this.supportedProtocols = supportedProtocols;
   }
 
   @Override
   public MessageSender create(
       Subscription subscription, ResilientMessageSender resilientMessageSender) {
+    HttpClient client = getHttpClient(subscription);
+    if (client == httpClient && bulkheadFactory.isEnabled()) {
+      Optional<HttpClientBulkhead> bulkhead = createBulkhead(subscription);
+      if (bulkhead.isPresent()) {
+        MessageSender sender =
+            create(subscription, resilientMessageSender, bulkhead.get().getClient());
+        return new BulkheadMessageSender(sender, bulkhead.get());
+      }
+    }
+    return create(subscription, resilientMessageSender, client);
+  }
+
+  private Optional<HttpClientBulkhead> createBulkhead(Subscription subscription) {
+    try {
+      return bulkheadFactory.create(subscription);
+    } catch (Exception e) {
+      logger.error(
+          "Could not start http client bulkhead for {}, using shared http client.",
+          subscription.getQualifiedName(),
+          e);
+      return Optional.empty();
+    }
+  }
+
+  private MessageSender create(
+      Subscription subscription,
+      ResilientMessageSender resilientMessageSender,
+      HttpClient client) {
     EndpointAddress endpoint = subscription.getEndpoint();
     EndpointAddressResolverMetadata endpointAddressResolverMetadata =
         subscription.getEndpointAddressResolverMetadata();
@@ -76,8 +107,7 @@ public class JettyHttpMessageSenderProvider implements ProtocolMessageSenderProv
         new ResolvableEndpointAddress(
             endpoint, endpointAddressResolver, endpointAddressResolverMetadata);
     HttpRequestFactory requestFactory =
-        requestFactoryProvider.provideRequestFactory(
-            subscription, getHttpClient(subscription), metadataAppender);
+        requestFactoryProvider.provideRequestFactory(subscription, client, metadataAppender);
 
     if (subscription.getMode() == SubscriptionMode.BROADCAST) {
       return new JettyBroadCastMessageSender(
@@ -18,6 +18,8 @@ public class NotificationsBasedSubscriptionCache
 
   private final Map<SubscriptionName, Subscription> subscriptions = new ConcurrentHashMap<>();
 
+  private final InternalNotificationsBus notificationsBus;
+
   private final GroupRepository groupRepository;
 
   private final TopicRepository topicRepository;
@@ -29,6 +31,7 @@ public class NotificationsBasedSubscriptionCache
       GroupRepository groupRepository,
       TopicRepository topicRepository,
       SubscriptionRepository subscriptionRepository) {
+    this.notificationsBus = notificationsBus;
     notificationsBus.registerSubscriptionCallback(this);
     this.groupRepository = groupRepository;
     this.topicRepository = topicRepository;
@@ -50,6 +53,11 @@ public class NotificationsBasedSubscriptionCache
     this.subscriptions.put(subscription.getQualifiedName(), subscription);
   }
 
+  @Override
+  public boolean receivesExistingSubscriptions() {
+    return true;
+  }
+
   @Override
   public Subscription getSubscription(SubscriptionName subscriptionName) {
     return subscriptions.get(subscriptionName);
@@ -72,6 +80,10 @@ public class NotificationsBasedSubscriptionCache
 
   @Override
   public void start() {
+    if (notificationsBus.replaysModelOnRegistration()) {
+      // all subscriptions were already passed to the callback on registration
+      return;
+    }
     for (String groupName : groupRepository.listGroupNames()) {
       for (String topicName : topicRepository.listTopicNames(groupName)) {
         for (Subscription subscription :
@@ -0,0 +1,42 @@
+package pl.allegro.tech.hermes.consumers.supervisor;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates thread factories for consumer processes and per-subscription executors. When virtual
+ * threads are enabled, idle subscriptions do not pin platform threads, which lets a single node
+ * host many more of them.
+ */
+public class ConsumerThreadFactory {
+
+  private final boolean virtualThreadsEnabled;
+
+  public ConsumerThreadFactory(boolean virtualThreadsEnabled) {
+    this.virtualThreadsEnabled = virtualThreadsEnabled;
+  }
+
+  public ThreadFactory create(String namePrefix) {
+    return create(namePrefix, null);
+  }
+
+  public ThreadFactory create(
+      String namePrefix, Thread.UncaughtExceptionHandler uncaughtExceptionHandler) {
+    if (virtualThreadsEnabled) {
+      Thread.Builder builder = Thread.ofVirtual().name(namePrefix, 0);
+      if (uncaughtExceptionHandler != null) {
+        builder.uncaughtExceptionHandler(uncaughtExceptionHandler);
+      }
+      return builder.factory();
+    }
+    ThreadFactoryBuilder builder = new ThreadFactoryBuilder().setNameFormat(namePrefix + "%d");
+    if (uncaughtExceptionHandler != null) {
+      builder.setUncaughtExceptionHandler(uncaughtExceptionHandler);
+    }
+    return builder.build();
+  }
+
+  public boolean isVirtualThreadsEnabled() {
+    return virtualThreadsEnabled;
+  }
+}
@@ -1,11 +1,12 @@
 package pl.allegro.tech.hermes.consumers.supervisor;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.common.metric.MetricsFacade;
@@ -14,25 +15,46 @@ import pl.allegro.tech.hermes.consumers.supervisor.process.ConsumerProcess;
 public class ConsumersExecutorService {
 
   private static final Logger logger = LoggerFactory.getLogger(ConsumersExecutorService.class);
-  private final ThreadPoolExecutor executor;
+  private final ExecutorService executor;
+  private final AtomicInteger activeThreads = new AtomicInteger();
+  private final VirtualThreadPinningMonitor pinningMonitor;
 
-  public ConsumersExecutorService(int poolSize, MetricsFacade metrics) {
+  public ConsumersExecutorService(
+      int poolSize,
+      ConsumerThreadFactory consumerThreadFactory,
+      Duration virtualThreadPinningThreshold,
+      MetricsFacade metrics) {
     ThreadFactory threadFactory =
-        new ThreadFactoryBuilder()
-            .setNameFormat("Consumer-%d")
-            .setUncaughtExceptionHandler(
-                (t, e) -> logger.error("Exception from consumer with name {}", t.getName(), e))
-            .build();
+        consumerThreadFactory.create(
+            "Consumer-",
+            (t, e) -> logger.error("Exception from consumer with name {}", t.getName(), e));
 
-    executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(poolSize, threadFactory);
+    if (consumerThreadFactory.isVirtualThreadsEnabled()) {
+      executor = Executors.newThreadPerTaskExecutor(threadFactory);
+      pinningMonitor =
+          new VirtualThreadPinningMonitor(
+              metrics.consumer().virtualThreadPinningTimer(), virtualThreadPinningThreshold);
+      pinningMonitor.start();
+    } else {
+      executor = Executors.newFixedThreadPool(poolSize, threadFactory);
+      pinningMonitor = null;
+    }
 
     metrics
         .consumer()
-        .registerConsumerProcessesThreadsGauge(executor, ThreadPoolExecutor::getActiveCount);
+        .registerConsumerProcessesThreadsGauge(activeThreads, AtomicInteger::doubleValue);
   }
 
   public Future<?> execute(ConsumerProcess consumer) {
-    return executor.submit(consumer);
+    return executor.submit(
+        () -> {
+          activeThreads.incrementAndGet();
+          try {
+            consumer.run();
+          } finally {
+            activeThreads.decrementAndGet();
+          }
+        });
   }
 
   public void shutdown() {
@@ -42,5 +64,8 @@ public class ConsumersExecutorService {
     } catch (InterruptedException e) {
       logger.error("Termination of consumers executor service interrupted.", e);
     }
+    if (pinningMonitor != null) {
+      pinningMonitor.stop();
+    }
   }
 }
@@ -0,0 +1,50 @@
+package pl.allegro.tech.hermes.consumers.supervisor;
+
+import java.time.Duration;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.metrics.HermesTimer;
+
+/**
+ * Reports virtual threads pinned to their carrier threads (e.g. while blocking inside {@code
+ * synchronized} blocks) using {@code jdk.VirtualThreadPinned} JFR events.
+ */
+public class VirtualThreadPinningMonitor {
+
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+  private static final String VIRTUAL_THREAD_PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private final HermesTimer pinningTimer;
+  private final Duration threshold;
+
+  private RecordingStream recordingStream;
+
+  public VirtualThreadPinningMonitor(HermesTimer pinningTimer, Duration threshold) {
+    this.pinningTimer = pinningTimer;
+    this.threshold = threshold;
+  }
+
+  public synchronized void start() {
+    if (recordingStream != null) {
+      return;
+    }
+    try {
+      recordingStream = new RecordingStream();
+      recordingStream.enable(VIRTUAL_THREAD_PINNED_EVENT).withThreshold(threshold);
+      recordingStream.onEvent(
+          VIRTUAL_THREAD_PINNED_EVENT, event -> pinningTimer.record(event.getDuration()));
+      recordingStream.startAsync();
+    } catch (Exception e) {
+      logger.warn("Could not start monitoring of virtual threads pinning", e);
+      recordingStream = null;
+    }
+  }
+
+  public synchronized void stop() {
+    if (recordingStream != null) {
+      recordingStream.close();
+      recordingStream = null;
+    }
+  }
+}
@@ -0,0 +1,295 @@
+package pl.allegro.tech.hermes.consumers.consumer
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import pl.allegro.tech.hermes.api.BatchSubscriptionPolicy
+import pl.allegro.tech.hermes.api.EndpointAddress
+import pl.allegro.tech.hermes.api.EndpointAddressResolverMetadata
+import pl.allegro.tech.hermes.api.Subscription
+import pl.allegro.tech.hermes.api.Topic
+import pl.allegro.tech.hermes.api.TrackingMode
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName
+import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset
+import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffsets
+import pl.allegro.tech.hermes.common.message.wrapper.CompositeMessageContentWrapper
+import pl.allegro.tech.hermes.common.metric.MetricsFacade
+import pl.allegro.tech.hermes.consumers.consumer.batch.ByteBufferMessageBatchFactory
+import pl.allegro.tech.hermes.consumers.consumer.batch.MessageBatch
+import pl.allegro.tech.hermes.consumers.consumer.batch.MessageBatchFactory
+import pl.allegro.tech.hermes.consumers.consumer.converter.MessageConverterResolver
+import pl.allegro.tech.hermes.consumers.consumer.converter.NoOperationMessageConverter
+import pl.allegro.tech.hermes.consumers.consumer.load.SubscriptionLoadRecorder
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset
+import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver
+import pl.allegro.tech.hermes.consumers.consumer.receiver.ReceiverFactory
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageBatchSender
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult
+import pl.allegro.tech.hermes.tracker.consumers.LogRepository
+import pl.allegro.tech.hermes.tracker.consumers.MessageMetadata
+import pl.allegro.tech.hermes.tracker.consumers.Trackers
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.nio.charset.StandardCharsets
+import java.time.Clock
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+
+import static pl.allegro.tech.hermes.consumers.test.MessageBuilder.withTestMessage
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription
+import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic
+
+class BatchConsumerTest extends Specification {
+
+    static final int BACKOFF = 100
+
+    Topic topic = topic('group.topic').build()
+    MetricsFacade metrics = new MetricsFacade(new SimpleMeterRegistry())
+    TestReceiver receiver = new TestReceiver()
+    CountingBatchFactory batchFactory = new CountingBatchFactory(metrics)
+    TestSender sender = new TestSender()
+    Queue<MessageMetadata> discarded = new ConcurrentLinkedQueue<>()
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    BatchConsumer consumer
+
+    def cleanup() {
+        consumer?.tearDown()
+        sender.releaseAll()
+    }
+
+    def "should retry failed batch after backoff without blocking consumer thread"() {
+        given:
+        sender.failures['1'] = new AtomicInteger(1)
+        consumer = pipelinedConsumer(60)
+
+        when:
+        long start = System.currentTimeMillis()
+        consumeMessage(1)
+
+        then:
+        System.currentTimeMillis() - start < BACKOFF
+        conditions.eventually {
+            assert sender.attempts('1').size() == 2
+        }
+        def attempts = sender.attempts('1')
+        attempts[1] - attempts[0] >= BACKOFF
+        discarded.isEmpty()
+    }
+
+    def "should discard failing batch once its TTL is exceeded and commit its offsets"() {
+        given:
+        sender.failures['1'] = new AtomicInteger(Integer.MAX_VALUE)
+        consumer = pipelinedConsumer(0)
+
+        when:
+        consumeMessage(1)
+
+        then:
+        conditions.eventually {
+            assert discarded*.offset == [1L]
+            assert batchFactory.destroyed.get() == 1
+        }
+        int attempts = sender.attempts('1').size()
+
+        when:
+        consumeMessage(2)
+
+        then:
+        receiver.committed() == 1L
+        sleep(2 * BACKOFF)
+        sender.attempts('1').size() == attempts
+    }
+
+    def "should not commit offsets of batch finished before an earlier one"() {
+        given:
+        def firstBatchLatch = sender.block('1')
+        consumer = pipelinedConsumer(60)
+
+        when:
+        consumeMessage(1)
+        consumeMessage(2)
+
+        then:
+        conditions.eventually {
+            assert batchFactory.destroyed.get() == 1
+        }
+
+        when:
+        consumeMessage(3)
+
+        then:
+        receiver.committed() == null
+
+        when:
+        firstBatchLatch.countDown()
+        conditions.eventually {
+            assert batchFactory.destroyed.get() == 3
+        }
+        consumeMessage(4)
+
+        then:
+        receiver.committed() == 3L
+    }
+
+    def "should abandon batches in flight when torn down"() {
+        given:
+        sender.failures['1'] = new AtomicInteger(Integer.MAX_VALUE)
+        def secondBatchLatch = sender.block('2')
+        consumer = pipelinedConsumer(60)
+
+        when:
+        consumeMessage(1)
+        consumeMessage(2)
+        conditions.eventually {
+            assert sender.attempts('1').size() >= 1
+            assert sender.attempts('2').size() == 1
+        }
+        consumer.tearDown()
+        secondBatchLatch.countDown()
+
+        then:
+        conditions.eventually {
+            assert batchFactory.destroyed.get() == batchFactory.created.get()
+        }
+        int attempts = sender.attempts('1').size()
+        sleep(2 * BACKOFF)
+        sender.attempts('1').size() == attempts
+        discarded.isEmpty()
+        receiver.commits.isEmpty()
+    }
+
+    private BatchConsumer pipelinedConsumer(int messageTtl) {
+        Subscription subscription = subscription(topic.name, 'subscription')
+                .withSubscriptionPolicy(new BatchSubscriptionPolicy(messageTtl, false, BACKOFF, 1000, 1, 1000, 1024, 4))
+                .withTrackingMode(TrackingMode.TRACK_DISCARDED_ONLY)
+                .build()
+        LogRepository logRepository = Stub() {
+            logDiscarded(_, _, _) >> { MessageMetadata message, long timestamp, String reason -> discarded.add(message) }
+        }
+        ReceiverFactory receiverFactory = Stub() {
+            createMessageReceiver(*_) >> receiver
+        }
+        MessageConverterResolver converterResolver = Stub() {
+            converterFor(_, _) >> new NoOperationMessageConverter()
+        }
+        CompositeMessageContentWrapper contentWrapper = Stub() {
+            wrapJson(*_) >> { args -> args[0] }
+        }
+        def consumer = new BatchConsumer(
+                receiverFactory,
+                sender,
+                batchFactory,
+                converterResolver,
+                contentWrapper,
+                metrics,
+                new Trackers([logRepository]),
+                subscription,
+                topic,
+                false,
+                Stub(SubscriptionLoadRecorder),
+                Duration.ofMillis(1)
+        )
+        consumer.initialize()
+        return consumer
+    }
+
+    private void consumeMessage(long offset) {
+        receiver.messages.add(withTestMessage()
+                .withContent("\"$offset\"", StandardCharsets.UTF_8)
+                .withPartitionOffset(new PartitionOffset(KafkaTopicName.valueOf('kafka_topic'), offset, 0))
+                .build())
+        // let the commit period pass, so finished batches are committed before the next one is read
+        sleep(2)
+        consumer.consume({})
+    }
+
+    /** Fails batches with content listed in failures and blocks batches with content listed in latches. */
+    static class TestSender implements MessageBatchSender {
+
+        final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>()
+        final Map<String, CountDownLatch> latches = new ConcurrentHashMap<>()
+        final Map<String, Queue<Long>> attemptTimes = new ConcurrentHashMap<>()
+
+        @Override
+        MessageSendingResult send(MessageBatch batch, EndpointAddress address,
+                                  EndpointAddressResolverMetadata metadata, int requestTimeout) {
+            String content = StandardCharsets.UTF_8.decode(batch.content.duplicate()).toString()
+            String key = content.replaceAll('[^0-9]', '')
+            attemptTimes.computeIfAbsent(key, { new ConcurrentLinkedQueue<>() }).add(System.currentTimeMillis())
+            latches.get(key)?.await()
+            AtomicInteger remainingFailures = failures.get(key)
+            if (remainingFailures != null && remainingFailures.getAndDecrement() > 0) {
+                return MessageSendingResult.failedResult(503)
+            }
+            return MessageSendingResult.succeededResult()
+        }
+
+        List<Long> attempts(String key) {
+            return attemptTimes.getOrDefault(key, new ConcurrentLinkedQueue<Long>()) as List<Long>
+        }
+
+        CountDownLatch block(String key) {
+            return latches.computeIfAbsent(key, { new CountDownLatch(1) })
+        }
+
+        void releaseAll() {
+            latches.values().each { it.countDown() }
+        }
+    }
+
+    static class TestReceiver implements MessageReceiver {
+
+        final Queue<Message> messages = new ConcurrentLinkedQueue<>()
+        final Queue<Set<SubscriptionPartitionOffset>> commits = new ConcurrentLinkedQueue<>()
+
+        @Override
+        Optional<Message> next() {
+            return Optional.ofNullable(messages.poll())
+        }
+
+        @Override
+        void commit(Set<SubscriptionPartitionOffset> offsets) {
+            commits.add(offsets)
+        }
+
+        Long committed() {
+            return commits.collectMany { it*.offset }.max() as Long
+        }
+
+        @Override
+        PartitionOffsets moveOffset(PartitionOffsets offsets) {
+            return offsets
+        }
+
+        @Override
+        Set<Integer> getAssignedPartitions() {
+            return [0] as Set
+        }
+    }
+
+    static class CountingBatchFactory implements MessageBatchFactory {
+
+        final AtomicInteger created = new AtomicInteger()
+        final AtomicInteger destroyed = new AtomicInteger()
+        private final MessageBatchFactory delegate
+
+        CountingBatchFactory(MetricsFacade metrics) {
+            delegate = new ByteBufferMessageBatchFactory(1024, 16 * 1024, Clock.systemDefaultZone(), metrics)
+        }
+
+        @Override
+        MessageBatch createBatch(Subscription subscription) {
+            created.incrementAndGet()
+            return delegate.createBatch(subscription)
+        }
+
+        @Override
+        void destroyBatch(MessageBatch batch) {
+            destroyed.incrementAndGet()
+            delegate.destroyBatch(batch)
+        }
+    }
+}
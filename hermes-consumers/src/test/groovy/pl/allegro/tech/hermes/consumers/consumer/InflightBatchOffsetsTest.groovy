@@ -0,0 +1,82 @@
+package pl.allegro.tech.hermes.consumers.consumer
+
+import pl.allegro.tech.hermes.api.SubscriptionName
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartition
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset
+import spock.lang.Specification
+
+class InflightBatchOffsetsTest extends Specification {
+
+    private static final SubscriptionPartition PARTITION_0 = partition(0)
+    private static final SubscriptionPartition PARTITION_1 = partition(1)
+
+    private InflightBatchOffsets offsets = new InflightBatchOffsets()
+
+    def "should release offsets of completed batch"() {
+        given:
+        def slot = offsets.reserve()
+        slot.complete([offset(PARTITION_0, 10), offset(PARTITION_0, 12), offset(PARTITION_1, 3)])
+
+        expect:
+        drained() == [(PARTITION_0): 12L, (PARTITION_1): 3L]
+        offsets.size() == 0
+    }
+
+    def "should not release offsets of batch completed before an earlier one"() {
+        given:
+        def first = offsets.reserve()
+        def second = offsets.reserve()
+        second.complete([offset(PARTITION_0, 20)])
+
+        expect:
+        drained() == [:]
+        offsets.size() == 2
+
+        when:
+        first.complete([offset(PARTITION_0, 10)])
+
+        then:
+        drained() == [(PARTITION_0): 20L]
+    }
+
+    def "should hold offset of filtered message until preceding batch is completed"() {
+        given:
+        def batch = offsets.reserve()
+        offsets.release(offset(PARTITION_0, 15))
+        offsets.release(offset(PARTITION_0, 16))
+
+        expect:
+        drained() == [:]
+        offsets.size() == 2
+
+        when:
+        batch.complete([offset(PARTITION_0, 14)])
+
+        then:
+        drained() == [(PARTITION_0): 16L]
+    }
+
+    def "should release offset of filtered message when nothing is in flight"() {
+        when:
+        offsets.release(offset(PARTITION_1, 7))
+
+        then:
+        drained() == [(PARTITION_1): 7L]
+    }
+
+    private Map<SubscriptionPartition, Long> drained() {
+        Map<SubscriptionPartition, Long> drained = [:]
+        offsets.drain { drained.merge(it.subscriptionPartition, it.offset, Math.&max) }
+        return drained
+    }
+
+    private static SubscriptionPartitionOffset offset(SubscriptionPartition partition, long offset) {
+        return new SubscriptionPartitionOffset(partition, offset)
+    }
+
+    private static SubscriptionPartition partition(int partition) {
+        return new SubscriptionPartition(
+                KafkaTopicName.valueOf("group_topic"), SubscriptionName.fromString('group.topic$sub'), partition, 0)
+    }
+}
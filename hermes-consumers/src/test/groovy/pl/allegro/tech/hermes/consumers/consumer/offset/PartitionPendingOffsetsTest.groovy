@@ -0,0 +1,116 @@
+package pl.allegro.tech.hermes.consumers.consumer.offset
+
+import pl.allegro.tech.hermes.api.SubscriptionName
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName
+import spock.lang.Specification
+
+import static pl.allegro.tech.hermes.consumers.consumer.offset.PartitionPendingOffsets.NO_OFFSET
+
+class PartitionPendingOffsetsTest extends Specification {
+
+    private PartitionPendingOffsets offsets = new PartitionPendingOffsets(
+            new SubscriptionPartition(KafkaTopicName.valueOf("group_topic"), SubscriptionName.fromString('group.topic$sub'), 1, 0))
+
+    def "should return no offset when nothing was marked"() {
+        expect:
+        offsets.committableOffset() == NO_OFFSET
+    }
+
+    def "should return lowest inflight offset"() {
+        given:
+        (100..200).each { offsets.markAsInflight(it) }
+        (100..150).each { offsets.markAsProcessed(it) }
+
+        expect:
+        offsets.committableOffset() == 151
+    }
+
+    def "should return processed offset incremented by one when there are no inflight offsets"() {
+        given:
+        (100..200).each { offsets.markAsInflight(it) }
+        (100..200).each { offsets.markAsProcessed(it) }
+
+        expect:
+        offsets.committableOffset() == 201
+    }
+
+    def "should skip gaps between offsets"() {
+        given:
+        [10L, 500L, 100_000L].each { offsets.markAsInflight(it) }
+
+        when:
+        offsets.markAsProcessed(10)
+        offsets.forgetProcessedOffset(11)
+
+        then:
+        offsets.committableOffset() == 500
+
+        when:
+        offsets.markAsProcessed(500)
+        offsets.forgetProcessedOffset(501)
+
+        then:
+        offsets.committableOffset() == 100_000
+    }
+
+    def "should keep tracking offsets when window moves over the ring"() {
+        given:
+        long inflightWindow = 1000
+
+        when:
+        (0L..<100_000L).each {
+            offsets.markAsInflight(it)
+            if (it >= inflightWindow) {
+                offsets.markAsProcessed(it - inflightWindow)
+            }
+        }
+
+        then:
+        offsets.committableOffset() == 100_000 - inflightWindow
+        offsets.inflightCount() == inflightWindow
+    }
+
+    def "should track offsets lower than the current window"() {
+        given:
+        offsets.markAsInflight(10_000)
+
+        when:
+        offsets.markAsInflight(5)
+
+        then:
+        offsets.committableOffset() == 5
+
+        when:
+        offsets.markAsProcessed(5)
+        offsets.forgetProcessedOffset(6)
+
+        then:
+        offsets.committableOffset() == 10_000
+    }
+
+    def "should forget processed offset only when it was committed"() {
+        given:
+        offsets.markAsInflight(1)
+        offsets.markAsProcessed(1)
+
+        when:
+        offsets.forgetProcessedOffset(1)
+
+        then:
+        offsets.committableOffset() == 2
+
+        when:
+        offsets.forgetProcessedOffset(2)
+
+        then:
+        offsets.committableOffset() == NO_OFFSET
+    }
+
+    def "should handle negative offsets"() {
+        given:
+        offsets.markAsInflight(-123)
+
+        expect:
+        offsets.committableOffset() == -123
+    }
+}
@@ -73,13 +73,13 @@ class PendingOffsetsTest extends Specification {
         isAcquiredAfterRelease
     }
 
-    def "should free offsetQueue and return offset snapshot"() {
+    def "should free offsetQueue and keep pending offsets per partition"() {
         given:
-        Map<SubscriptionPartitionOffset, MessageState> expectedOffsetSnapshot = Map.of(offset(1, 1), MessageState.PROCESSED, offset(1, 2), MessageState.PROCESSED)
-        PendingOffsets offsetsSlots = createOffsetsSlots(2, 2)
-        2.times{offsetsSlots.tryAcquireSlot(ACQUIRE_DURATION)}
+        PendingOffsets offsetsSlots = createOffsetsSlots(3, 3)
+        3.times{offsetsSlots.tryAcquireSlot(ACQUIRE_DURATION)}
         offsetsSlots.markAsInflight(offset(1, 1))
         offsetsSlots.markAsInflight(offset(1, 2))
+        offsetsSlots.markAsInflight(offset(2, 7))
         offsetsSlots.markAsProcessed(offset(1, 1))
         offsetsSlots.markAsProcessed(offset(1, 2))
 
@@ -90,11 +90,12 @@ class PendingOffsetsTest extends Specification {
         !isAcquired
 
         when:
-        Map<SubscriptionPartitionOffset,MessageState> offsetSnapshot = offsetsSlots.getOffsetsSnapshotAndReleaseProcessedSlots()
+        Map<Integer, Long> committableOffsets = offsetsSlots.getPartitionsAndReleaseProcessedSlots()
+                .collectEntries { [(it.partition.partition): it.committableOffset()] }
         boolean isAcquiredAfterRelease = offsetsSlots.tryAcquireSlot(ACQUIRE_DURATION)
 
         then:
-        offsetSnapshot == expectedOffsetSnapshot
+        committableOffsets == [1: 3L, 2: 7L]
         isAcquiredAfterRelease
     }
 
@@ -0,0 +1,88 @@
+package pl.allegro.tech.hermes.consumers.consumer.rate
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class TokenBucketTest extends Specification {
+
+    long now = 0
+
+    TokenBucket bucket = new TokenBucket(10, { now })
+
+    def "should spread reservations evenly at the given rate"() {
+        expect:
+        bucket.reserve() == Duration.ZERO
+        bucket.reserve() == Duration.ofMillis(100)
+        bucket.reserve() == Duration.ofMillis(200)
+    }
+
+    def "should not wait when permits accumulated while idle"() {
+        given:
+        bucket.reserve()
+        now += Duration.ofMillis(500).toNanos()
+
+        expect:
+        (1..5).every { bucket.reserve() == Duration.ZERO }
+        bucket.reserve() == Duration.ofMillis(100)
+    }
+
+    def "should store at most one second of permits"() {
+        given:
+        bucket.reserve()
+        now += Duration.ofSeconds(10).toNanos()
+
+        expect:
+        (1..11).every { bucket.reserve() == Duration.ZERO }
+        bucket.reserve() == Duration.ofMillis(100)
+    }
+
+    def "should space next reservations with changed rate"() {
+        given:
+        bucket.reserve()
+
+        when:
+        bucket.setRate(2)
+        bucket.reserve()
+
+        then:
+        bucket.getRate() == 2
+        bucket.reserve() == Duration.ofMillis(600)
+    }
+
+    def "should take permit only when it is available right away"() {
+        expect:
+        bucket.tryAcquire() == Duration.ZERO
+        bucket.tryAcquire() == Duration.ofMillis(100)
+        bucket.tryAcquire() == Duration.ofMillis(100)
+
+        when:
+        now += Duration.ofMillis(100).toNanos()
+
+        then:
+        bucket.tryAcquire() == Duration.ZERO
+        bucket.tryAcquire() == Duration.ofMillis(100)
+    }
+
+    def "should shorten wait for next permit when rate rises"() {
+        given:
+        bucket.setRate(1 / 60d)
+        bucket.tryAcquire()
+        now += Duration.ofSeconds(30).toNanos()
+        assert bucket.tryAcquire() == Duration.ofSeconds(30)
+
+        when:
+        bucket.setRate(10)
+
+        then:
+        Math.abs(bucket.tryAcquire().toNanos() - Duration.ofMillis(50).toNanos()) <= 1
+    }
+
+    def "should reject non positive rate"() {
+        when:
+        bucket.setRate(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
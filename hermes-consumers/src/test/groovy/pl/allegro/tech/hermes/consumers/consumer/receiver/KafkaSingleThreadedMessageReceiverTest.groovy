@@ -1,20 +1,29 @@
 package pl.allegro.tech.hermes.consumers.consumer.receiver
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.apache.kafka.clients.consumer.ConsumerRecord
 import org.apache.kafka.clients.consumer.ConsumerRecords
 import org.apache.kafka.clients.consumer.KafkaConsumer
+import org.apache.kafka.clients.consumer.OffsetAndMetadata
+import org.apache.kafka.clients.consumer.OffsetCommitCallback
 import org.apache.kafka.common.TopicPartition
 import pl.allegro.tech.hermes.common.kafka.KafkaNamesMapper
+import pl.allegro.tech.hermes.common.kafka.KafkaTopicName
 import pl.allegro.tech.hermes.common.kafka.NamespaceKafkaNamesMapper
+import pl.allegro.tech.hermes.common.kafka.offset.PartitionOffset
 import pl.allegro.tech.hermes.common.metric.MetricsFacade
 import pl.allegro.tech.hermes.common.metric.OffsetCommitsMetrics
 import pl.allegro.tech.hermes.consumers.consumer.Message
 import pl.allegro.tech.hermes.consumers.consumer.load.SubscriptionLoadRecorder
 import pl.allegro.tech.hermes.consumers.consumer.offset.ConsumerPartitionAssignmentState
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartition
+import pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset
 import pl.allegro.tech.hermes.consumers.consumer.receiver.kafka.KafkaConsumerRecordToMessageConverter
 import pl.allegro.tech.hermes.consumers.consumer.receiver.kafka.KafkaConsumerRecordToMessageConverterFactory
 import pl.allegro.tech.hermes.consumers.consumer.receiver.kafka.KafkaSingleThreadedMessageReceiver
 import pl.allegro.tech.hermes.consumers.test.MessageBuilder
+import pl.allegro.tech.hermes.metrics.HermesTimer
+import pl.allegro.tech.hermes.metrics.counters.HermesCounters
 import pl.allegro.tech.hermes.schema.SchemaExistenceEnsurer
 import pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder
 import pl.allegro.tech.hermes.test.helper.builder.TopicBuilder
@@ -22,6 +31,8 @@ import spock.lang.Specification
 
 import java.time.Duration
 
+import static pl.allegro.tech.hermes.consumers.consumer.offset.SubscriptionPartitionOffset.subscriptionPartitionOffset
+
 class KafkaSingleThreadedMessageReceiverTest extends Specification {
     KafkaSingleThreadedMessageReceiver receiver
     KafkaConsumer<byte[], byte[]> consumer = Mock(KafkaConsumer)
@@ -34,15 +45,25 @@ class KafkaSingleThreadedMessageReceiverTest extends Specification {
 
     MetricsFacade metricsFacade = Mock(MetricsFacade)
     OffsetCommitsMetrics offsetCommitsMetrics = Mock(OffsetCommitsMetrics)
+    ConsumerPartitionAssignmentState partitionAssignmentState = Mock(ConsumerPartitionAssignmentState)
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
 
     def setup() {
         metricsFacade.offsetCommits() >> offsetCommitsMetrics
+        offsetCommitsMetrics.failuresCounter() >> HermesCounters.from(meterRegistry.counter("failures"))
+        offsetCommitsMetrics.failuresCounter(_) >> HermesCounters.from(meterRegistry.counter("subscription-failures"))
+        offsetCommitsMetrics.latency(_) >> HermesTimer.from(meterRegistry.timer("latency"))
         converterFactory.create(*_) >> messageConverter
-        receiver = new KafkaSingleThreadedMessageReceiver(
+        receiver = createReceiver(false)
+    }
+
+    private KafkaSingleThreadedMessageReceiver createReceiver(boolean asyncCommitEnabled) {
+        return new KafkaSingleThreadedMessageReceiver(
                 consumer, converterFactory, metricsFacade,
                 kafkaNamesMapper, topic, subscription, Duration.ofMillis(10), 10,
                 Mock(SubscriptionLoadRecorder),
-                Mock(ConsumerPartitionAssignmentState)
+                partitionAssignmentState,
+                asyncCommitEnabled
         )
     }
 
@@ -73,4 +94,107 @@ class KafkaSingleThreadedMessageReceiverTest extends Specification {
         result.isPresent()
         result.get() == message
     }
-}
\ No newline at end of file
+
+    def "should keep at most one async commit in flight and coalesce offsets committed in the meantime"() {
+        given:
+        receiver = createReceiver(true)
+        partitionAssignmentState.isAssignedPartitionAtCurrentTerm(_) >> true
+        consumer.position(_) >> 100L
+        List<Map<TopicPartition, OffsetAndMetadata>> commits = []
+        List<OffsetCommitCallback> callbacks = []
+        consumer.commitAsync(_, _) >> { Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback ->
+            commits << offsets
+            callbacks << callback
+        }
+
+        when:
+        receiver.commit([offset(0, 10)] as Set)
+        receiver.commit([offset(0, 20), offset(1, 5)] as Set)
+        receiver.commit([offset(0, 30)] as Set)
+
+        then:
+        commits == [[(partition(0)): new OffsetAndMetadata(10)]]
+
+        when:
+        callbacks[0].onComplete(commits[0], null)
+
+        then:
+        commits.size() == 2
+        commits[1] == [(partition(0)): new OffsetAndMetadata(30), (partition(1)): new OffsetAndMetadata(5)]
+        meterRegistry.timer("latency").count() == 1
+    }
+
+    def "should record async commit failure and send pending offsets afterwards"() {
+        given:
+        receiver = createReceiver(true)
+        partitionAssignmentState.isAssignedPartitionAtCurrentTerm(_) >> true
+        consumer.position(_) >> 100L
+        List<OffsetCommitCallback> callbacks = []
+        consumer.commitAsync(_, _) >> { Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback ->
+            callbacks << callback
+        }
+
+        when:
+        receiver.commit([offset(0, 10)] as Set)
+        receiver.commit([offset(0, 20)] as Set)
+        callbacks[0].onComplete([:], new RuntimeException("commit failed"))
+
+        then:
+        callbacks.size() == 2
+        meterRegistry.counter("failures").count() == 1
+        meterRegistry.counter("subscription-failures").count() == 1
+    }
+
+    def "should drop pending offsets of partitions revoked before the async commit is sent"() {
+        given:
+        receiver = createReceiver(true)
+        consumer.position(_) >> 100L
+        List<Map<TopicPartition, OffsetAndMetadata>> commits = []
+        List<OffsetCommitCallback> callbacks = []
+        consumer.commitAsync(_, _) >> { Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback ->
+            commits << offsets
+            callbacks << callback
+        }
+        Set<Integer> revokedPartitions = []
+        partitionAssignmentState.isAssignedPartitionAtCurrentTerm(_) >> { SubscriptionPartition subscriptionPartition ->
+            !revokedPartitions.contains(subscriptionPartition.partition)
+        }
+
+        when:
+        receiver.commit([offset(0, 10)] as Set)
+        receiver.commit([offset(0, 20)] as Set)
+        receiver.commit([offset(1, 5)] as Set)
+        revokedPartitions << 0
+        callbacks[0].onComplete(commits[0], null)
+
+        then:
+        commits.size() == 2
+        commits[1] == [(partition(1)): new OffsetAndMetadata(5)]
+    }
+
+    def "should commit pending offsets synchronously on stop"() {
+        given:
+        receiver = createReceiver(true)
+        partitionAssignmentState.isAssignedPartitionAtCurrentTerm(_) >> true
+        consumer.position(_) >> 100L
+
+        when:
+        receiver.commit([offset(0, 10)] as Set)
+        receiver.commit([offset(0, 20)] as Set)
+        receiver.stop()
+
+        then:
+        1 * consumer.commitAsync([(partition(0)): new OffsetAndMetadata(10)], _)
+        1 * consumer.commitSync([(partition(0)): new OffsetAndMetadata(20)])
+        1 * consumer.close()
+    }
+
+    private SubscriptionPartitionOffset offset(int partition, long offset) {
+        return subscriptionPartitionOffset(subscription.qualifiedName,
+                new PartitionOffset(KafkaTopicName.valueOf(topic.qualifiedName), offset, partition), 1)
+    }
+
+    private TopicPartition partition(int partition) {
+        return new TopicPartition(topic.qualifiedName, partition)
+    }
+}
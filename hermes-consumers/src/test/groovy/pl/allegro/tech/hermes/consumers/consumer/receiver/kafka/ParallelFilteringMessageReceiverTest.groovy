@@ -0,0 +1,175 @@
+package pl.allegro.tech.hermes.consumers.consumer.receiver.kafka
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import pl.allegro.tech.hermes.api.Subscription
+import pl.allegro.tech.hermes.common.metric.MetricsFacade
+import pl.allegro.tech.hermes.consumers.consumer.Message
+import pl.allegro.tech.hermes.consumers.consumer.filtering.FilteredMessageHandler
+import pl.allegro.tech.hermes.consumers.consumer.offset.PendingOffsetsAppender
+import pl.allegro.tech.hermes.consumers.consumer.receiver.MessageReceiver
+import pl.allegro.tech.hermes.domain.filtering.MessageFilter
+import pl.allegro.tech.hermes.domain.filtering.MessageFilters
+import pl.allegro.tech.hermes.domain.filtering.chain.FilterChainFactory
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+
+import static java.nio.charset.StandardCharsets.UTF_8
+import static pl.allegro.tech.hermes.consumers.test.MessageBuilder.withTestMessage
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription
+
+class ParallelFilteringMessageReceiverTest extends Specification {
+
+    Subscription subscription = subscription("group.topic", "subscription").build()
+
+    MessageReceiver source = Mock()
+
+    PendingOffsetsAppender pendingOffsets = Mock()
+
+    ExecutorService executor = Executors.newFixedThreadPool(4)
+
+    def filterChainFactory = new FilterChainFactory(new MessageFilters(
+            [new MessageFilter("drop", { !new String(it.data, UTF_8).contains("drop") })], []))
+
+    def filteredMessageHandler = new FilteredMessageHandler(
+            null, pendingOffsets, null, new MetricsFacade(new SimpleMeterRegistry()), subscription.qualifiedName)
+
+    def cleanup() {
+        executor.shutdownNow()
+    }
+
+    def "should return messages that passed filters in read order"() {
+        given:
+        def receiver = receiver(100)
+        source.next() >>> [
+                message("a", "keep", 0, 1),
+                message("b", "drop", 1, 1),
+                message("c", "drop", 0, 2),
+                message("d", "keep", 1, 2),
+                Optional.empty()
+        ]
+        source.hasBufferedMessages() >>> [true, true, true, false]
+
+        expect:
+        receiver.next().get().id == "a"
+        receiver.next().get().id == "d"
+        !receiver.next().isPresent()
+    }
+
+    def "should mark offsets of filtered messages only when they are reached"() {
+        given:
+        def receiver = receiver(100)
+        source.next() >>> [message("a", "keep", 0, 1), message("b", "drop", 1, 1), Optional.empty()]
+        source.hasBufferedMessages() >>> [true, false]
+
+        when:
+        receiver.next()
+
+        then:
+        0 * pendingOffsets.markAsProcessed(_)
+
+        when:
+        receiver.next()
+
+        then:
+        1 * pendingOffsets.markAsProcessed({ it.partition == 1 && it.offset == 1 })
+    }
+
+    def "should return empty when whole batch was filtered"() {
+        given:
+        def receiver = receiver(100)
+        source.next() >>> [message("a", "drop", 0, 1), message("b", "drop", 0, 2)]
+        source.hasBufferedMessages() >>> [true, false]
+
+        when:
+        def next = receiver.next()
+
+        then:
+        !next.isPresent()
+        2 * pendingOffsets.markAsProcessed(_)
+    }
+
+    def "should read at most batch size messages at once"() {
+        given:
+        def receiver = receiver(2)
+        source.hasBufferedMessages() >> true
+
+        when:
+        receiver.next()
+
+        then:
+        2 * source.next() >>> [message("a", "keep", 0, 1), message("b", "keep", 0, 2)]
+    }
+
+    def "should filter chunks of a single partition on pool threads"() {
+        given:
+        Set<Thread> filteringThreads = ConcurrentHashMap.newKeySet()
+        def slowFilterChainFactory = new FilterChainFactory(new MessageFilters([new MessageFilter("slow", {
+            filteringThreads.add(Thread.currentThread())
+            sleep(20)
+            true
+        })], []))
+        def receiver = receiver(100, executor, 2, slowFilterChainFactory)
+        source.next() >>> (1..8).collect { message("m$it", "keep", 0, it) } + [Optional.empty()]
+        source.hasBufferedMessages() >>> [true] * 7 + [false]
+
+        when:
+        def received = (1..8).collect { receiver.next().get().id }
+
+        then:
+        received == (1..8).collect { "m$it" as String }
+        filteringThreads.findAll { it != Thread.currentThread() }.size() > 1
+    }
+
+    def "should filter on consumer thread when pool is busy with other subscriptions"() {
+        given:
+        def busyExecutor = Executors.newSingleThreadExecutor()
+        def otherSubscriptionFilter = new CountDownLatch(1)
+        busyExecutor.execute { otherSubscriptionFilter.await() }
+        def receiver = receiver(100, busyExecutor)
+        source.next() >>> [message("a", "drop", 0, 1), message("b", "keep", 1, 1), Optional.empty()]
+        source.hasBufferedMessages() >>> [true, false]
+
+        when:
+        def next = receiver.next()
+
+        then:
+        next.get().id == "b"
+        1 * pendingOffsets.markAsProcessed({ it.partition == 0 && it.offset == 1 })
+
+        cleanup:
+        otherSubscriptionFilter.countDown()
+        busyExecutor.shutdownNow()
+    }
+
+    def "should filter on consumer thread when pool rejects tasks"() {
+        given:
+        def rejectingExecutor = Stub(ExecutorService) {
+            execute(_) >> { throw new RejectedExecutionException() }
+        }
+        def receiver = receiver(100, rejectingExecutor)
+        source.next() >>> [message("a", "keep", 0, 1), Optional.empty()]
+        source.hasBufferedMessages() >>> [false]
+
+        expect:
+        receiver.next().get().id == "a"
+    }
+
+    private ParallelFilteringMessageReceiver receiver(int batchSize, ExecutorService executor = this.executor,
+                                                      int chunkSize = 10, FilterChainFactory filterChainFactory = this.filterChainFactory) {
+        new ParallelFilteringMessageReceiver(
+                source, filteredMessageHandler, filterChainFactory, subscription, executor, batchSize, chunkSize)
+    }
+
+    private static Optional<Message> message(String id, String content, int partition, long offset) {
+        Optional.of(withTestMessage()
+                .withId(id)
+                .withContent(content, UTF_8)
+                .withPartitionOffset("kafka_topic", partition, offset)
+                .build())
+    }
+}
@@ -0,0 +1,130 @@
+package pl.allegro.tech.hermes.consumers.consumer.receiver.kafka
+
+import org.apache.kafka.clients.consumer.ConsumerRecord
+import org.apache.kafka.clients.consumer.MockConsumer
+import org.apache.kafka.clients.consumer.OffsetResetStrategy
+import org.apache.kafka.common.TopicPartition
+import pl.allegro.tech.hermes.api.SubscriptionName
+import pl.allegro.tech.hermes.api.TopicName
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+
+class SharedTopicReaderTest extends Specification {
+
+    static final TopicPartition PARTITION = new TopicPartition("group_topic", 0)
+
+    MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST)
+
+    SharedTopicReader reader = new SharedTopicReader(
+            TopicName.fromQualifiedName("group.topic"), consumer, Duration.ofMillis(10), Duration.ofMillis(50))
+
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    def setup() {
+        reader.start()
+    }
+
+    def cleanup() {
+        reader.stop()
+    }
+
+    def "should read partition once for all subscriptions"() {
+        given:
+        def first = reader.subscribe(SubscriptionName.fromString('group.topic$first'), 10, {})
+        def second = reader.subscribe(SubscriptionName.fromString('group.topic$second'), 10, {})
+        first.assign([(PARTITION): 0L])
+        second.assign([(PARTITION): 0L])
+        assigned()
+
+        when:
+        addRecords(0..1)
+
+        then:
+        offsets(first, 2) == [0L, 1L]
+        offsets(second, 2) == [0L, 1L]
+    }
+
+    def "should skip records preceding offset assigned by subscription"() {
+        given:
+        def first = reader.subscribe(SubscriptionName.fromString('group.topic$first'), 10, {})
+        def second = reader.subscribe(SubscriptionName.fromString('group.topic$second'), 10, {})
+        first.assign([(PARTITION): 0L])
+        second.assign([(PARTITION): 2L])
+        assigned()
+
+        when:
+        addRecords(0..3)
+
+        then:
+        offsets(first, 4) == [0L, 1L, 2L, 3L]
+        offsets(second, 2) == [2L, 3L]
+    }
+
+    def "should detach subscription which does not take records"() {
+        given:
+        def slow = reader.subscribe(SubscriptionName.fromString('group.topic$slow'), 1, {})
+        def fast = reader.subscribe(SubscriptionName.fromString('group.topic$fast'), 10, {})
+        slow.assign([(PARTITION): 0L])
+        fast.assign([(PARTITION): 0L])
+        assigned()
+
+        when:
+        addRecords(0..2)
+
+        then:
+        conditions.eventually {
+            assert slow.isDetached()
+        }
+        !fast.isDetached()
+        offsets(fast, 3) == [0L, 1L, 2L]
+        offsets(slow, 1) == [0L]
+    }
+
+    def "should detach subscription which keeps its buffer full although it takes records"() {
+        given:
+        def slow = reader.subscribe(SubscriptionName.fromString('group.topic$slow'), 1, {})
+        def fast = reader.subscribe(SubscriptionName.fromString('group.topic$fast'), 100, {})
+        slow.assign([(PARTITION): 0L])
+        fast.assign([(PARTITION): 0L])
+        assigned()
+
+        when:
+        int offset = 0
+        while (!slow.isDetached() && offset < 10_000) {
+            addRecords(offset..(offset + 9))
+            offset += 10
+            // takes a record far more often than the slow subscriber timeout, but slower than they come
+            slow.poll(Duration.ofMillis(5))
+            while (fast.hasBufferedRecords()) {
+                fast.poll(Duration.ZERO)
+            }
+        }
+
+        then:
+        slow.isDetached()
+        !fast.isDetached()
+    }
+
+    private void assigned() {
+        conditions.eventually {
+            assert consumer.assignment() == [PARTITION] as Set
+        }
+    }
+
+    private void addRecords(IntRange offsets) {
+        offsets.each {
+            consumer.addRecord(new ConsumerRecord<byte[], byte[]>(
+                    PARTITION.topic(), PARTITION.partition(), it, "key".bytes, "value".bytes))
+        }
+    }
+
+    private static List<Long> offsets(SharedTopicReader.Subscriber subscriber, int count) {
+        List<Long> offsets = []
+        count.times {
+            offsets.add(subscriber.poll(Duration.ofSeconds(5)).get().offset())
+        }
+        return offsets
+    }
+}
@@ -0,0 +1,137 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http
+
+import com.github.tomakehurst.wiremock.WireMockServer
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.eclipse.jetty.client.HttpClient
+import org.eclipse.jetty.client.Response
+import org.eclipse.jetty.client.Result
+import pl.allegro.tech.hermes.api.Subscription
+import pl.allegro.tech.hermes.common.metric.MetricsFacade
+import pl.allegro.tech.hermes.common.metric.executor.InstrumentedExecutorServiceFactory
+import pl.allegro.tech.hermes.consumers.config.Http1ClientProperties
+import pl.allegro.tech.hermes.consumers.config.HttpClientBulkheadProperties
+import pl.allegro.tech.hermes.consumers.config.SslContextProperties
+import pl.allegro.tech.hermes.consumers.consumer.Message
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSender
+import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult
+import pl.allegro.tech.hermes.test.helper.util.Ports
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import static com.github.tomakehurst.wiremock.client.WireMock.post
+import static pl.allegro.tech.hermes.consumers.test.MessageBuilder.testMessage
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription
+
+class BulkheadMessageSenderTest extends Specification {
+
+    static final int RESPONSE_DELAY = 500
+
+    @Shared int port
+    @Shared WireMockServer wireMock
+
+    MetricsFacade metrics = new MetricsFacade(new SimpleMeterRegistry())
+    HttpClientBulkheadProperties properties = new HttpClientBulkheadProperties(enabled: true)
+    Subscription subscription = subscription('group.topic', 'subscription').build()
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    def setupSpec() {
+        port = Ports.nextAvailable()
+        wireMock = new WireMockServer(port)
+        wireMock.start()
+        wireMock.stubFor(post("/slow").willReturn(aResponse().withStatus(200).withFixedDelay(RESPONSE_DELAY)))
+    }
+
+    def cleanupSpec() {
+        wireMock.shutdown()
+    }
+
+    def "should complete requests in flight when sender is stopped on subscription update"() {
+        given:
+        HttpClientBulkhead bulkhead = factory().create(subscription).get()
+        BulkheadMessageSender sender = new BulkheadMessageSender(new SlowEndpointSender(bulkhead.client, "http://localhost:${port}/slow"), bulkhead)
+        CompletableFuture<MessageSendingResult> inflight = sender.send(testMessage())
+
+        when:
+        sender.stop()
+
+        then:
+        inflight.get(5, TimeUnit.SECONDS).succeeded()
+        conditions.eventually {
+            assert bulkhead.client.isStopped()
+        }
+    }
+
+    def "should stop client after drain timeout when requests in flight do not complete"() {
+        given:
+        properties.drainTimeout = Duration.ofMillis(50)
+        HttpClientBulkhead bulkhead = factory().create(subscription).get()
+        BulkheadMessageSender sender = new BulkheadMessageSender(new SlowEndpointSender(bulkhead.client, "http://localhost:${port}/slow"), bulkhead)
+        CompletableFuture<MessageSendingResult> inflight = sender.send(testMessage())
+
+        when:
+        sender.stop()
+
+        then:
+        conditions.eventually {
+            assert bulkhead.client.isStopped()
+        }
+        !inflight.get(5, TimeUnit.SECONDS).succeeded()
+    }
+
+    def "should not create more bulkheads than the limit until one of them is stopped"() {
+        given:
+        properties.maxBulkheads = 1
+        HttpClientBulkheadFactory factory = factory()
+        HttpClientBulkhead bulkhead = factory.create(subscription).get()
+
+        expect:
+        !factory.create(subscription).isPresent()
+
+        when:
+        bulkhead.stop()
+        def next = factory.create(subscription)
+
+        then:
+        next.isPresent()
+
+        cleanup:
+        next.ifPresent { it.stop() }
+    }
+
+    private HttpClientBulkheadFactory factory() {
+        def executorFactory = new InstrumentedExecutorServiceFactory(metrics)
+        def httpClientsFactory = new HttpClientsFactory(
+                executorFactory, new SslContextFactoryProvider(null, new SslContextProperties()))
+        return new HttpClientBulkheadFactory(
+                httpClientsFactory, executorFactory, new Http1ClientProperties(), properties, 100, metrics)
+    }
+
+    private static class SlowEndpointSender implements MessageSender {
+
+        private final HttpClient client
+        private final String url
+
+        SlowEndpointSender(HttpClient client, String url) {
+            this.client = client
+            this.url = url
+        }
+
+        @Override
+        CompletableFuture<MessageSendingResult> send(Message message) {
+            def result = new CompletableFuture<MessageSendingResult>()
+            client.POST(url)
+                    .send({ Result response -> result.complete(MessageSendingResult.of(response)) } as Response.CompleteListener)
+            return result
+        }
+
+        @Override
+        void stop() {
+        }
+    }
+}
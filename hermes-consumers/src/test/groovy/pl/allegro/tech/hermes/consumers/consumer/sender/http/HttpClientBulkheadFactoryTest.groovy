@@ -0,0 +1,41 @@
+package pl.allegro.tech.hermes.consumers.consumer.sender.http
+
+import pl.allegro.tech.hermes.consumers.config.HttpClientBulkheadProperties
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static pl.allegro.tech.hermes.api.SubscriptionPolicy.Builder.subscriptionPolicy
+
+class HttpClientBulkheadFactoryTest extends Specification {
+
+    HttpClientBulkheadProperties properties = new HttpClientBulkheadProperties(maxConnectionsPerDestination: 50)
+
+    HttpClientBulkheadFactory factory = new HttpClientBulkheadFactory(null, null, null, properties, 100, null)
+
+    @Unroll
+    def "should limit connections to #expected for rate #rate, request timeout #timeout and inflight #inflight"() {
+        given:
+        def policy = subscriptionPolicy()
+                .withRate(rate)
+                .withRequestTimeout(timeout)
+                .withInflightSize(inflight)
+                .build()
+
+        expect:
+        factory.maxConnectionsPerDestination(policy) == expected
+
+        where:
+        rate | timeout | inflight || expected
+        10   | 1000    | 100      || 10
+        10   | 250     | 100      || 3
+        100  | 1000    | 20       || 20
+        1000 | 1000    | null     || 50
+        1    | 100     | 100      || 1
+    }
+
+    def "should queue at most inflight size requests per destination"() {
+        expect:
+        factory.maxRequestsQueuedPerDestination(subscriptionPolicy().withInflightSize(20).build()) == 20
+        factory.maxRequestsQueuedPerDestination(subscriptionPolicy().build()) == 100
+    }
+}
@@ -0,0 +1,97 @@
+package pl.allegro.tech.hermes.consumers.supervisor
+
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import pl.allegro.tech.hermes.api.Subscription
+import pl.allegro.tech.hermes.common.metric.MetricsFacade
+import pl.allegro.tech.hermes.consumers.supervisor.process.ConsumerProcess
+import pl.allegro.tech.hermes.consumers.supervisor.process.ConsumerStub
+import pl.allegro.tech.hermes.consumers.supervisor.process.Retransmitter
+import pl.allegro.tech.hermes.consumers.supervisor.process.Signal
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Clock
+import java.time.Duration
+
+import static pl.allegro.tech.hermes.consumers.supervisor.process.Signal.SignalType.START
+import static pl.allegro.tech.hermes.consumers.supervisor.process.Signal.SignalType.STOP
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription
+
+class ConsumersExecutorServiceTest extends Specification {
+
+    static final String PINNED_TIMER = "consumer-processes.virtual-threads.pinned"
+
+    Subscription subscription = subscription("group.topic", "subscription").build()
+    MeterRegistry meterRegistry = new SimpleMeterRegistry()
+    MetricsFacade metrics = new MetricsFacade(meterRegistry)
+    PollingConditions conditions = new PollingConditions(timeout: 10)
+
+    def "should run consumer process on virtual thread and report pinning of its carrier thread"() {
+        given:
+        def executor = new ConsumersExecutorService(1, new ConsumerThreadFactory(true), Duration.ofMillis(1), metrics)
+        def consumer = new PinningConsumerStub(subscription)
+        def process = consumerProcess(consumer)
+
+        when:
+        executor.execute(process)
+
+        then:
+        conditions.eventually {
+            assert consumer.ranOnVirtualThread
+            assert meterRegistry.timer(PINNED_TIMER).count() > 0
+        }
+        meterRegistry.get("consumer-processes.threads").gauge().value() == 1.0d
+
+        cleanup:
+        process.accept(Signal.of(STOP, subscription.qualifiedName))
+        executor.shutdown()
+    }
+
+    def "should run consumer process on platform thread without monitoring pinning"() {
+        given:
+        def executor = new ConsumersExecutorService(1, new ConsumerThreadFactory(false), Duration.ofMillis(1), metrics)
+        def consumer = new PinningConsumerStub(subscription)
+        def process = consumerProcess(consumer)
+
+        when:
+        executor.execute(process)
+
+        then:
+        conditions.eventually {
+            assert consumer.consumptionStarted
+        }
+        !consumer.ranOnVirtualThread
+        meterRegistry.timer(PINNED_TIMER).count() == 0
+
+        cleanup:
+        process.accept(Signal.of(STOP, subscription.qualifiedName))
+        executor.shutdown()
+    }
+
+    private ConsumerProcess consumerProcess(ConsumerStub consumer) {
+        new ConsumerProcess(Signal.of(START, subscription.qualifiedName, subscription), consumer,
+                Stub(Retransmitter), Clock.systemDefaultZone(), Duration.ofSeconds(10), {})
+    }
+
+    static class PinningConsumerStub extends ConsumerStub {
+
+        private final Object lock = new Object()
+
+        volatile boolean ranOnVirtualThread = false
+
+        PinningConsumerStub(Subscription subscription) {
+            super(subscription)
+        }
+
+        @Override
+        void consume(Runnable signalsInterrupt) {
+            ranOnVirtualThread = Thread.currentThread().isVirtual()
+            // sleeping while holding a monitor pins virtual thread to its carrier
+            synchronized (lock) {
+                Thread.sleep(20)
+            }
+            super.consume(signalsInterrupt)
+        }
+    }
+}
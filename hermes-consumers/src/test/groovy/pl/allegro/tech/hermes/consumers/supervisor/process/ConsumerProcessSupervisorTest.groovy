@@ -11,6 +11,7 @@ import pl.allegro.tech.hermes.api.SubscriptionName
 import pl.allegro.tech.hermes.api.Topic
 import pl.allegro.tech.hermes.common.metric.MetricsFacade
 import pl.allegro.tech.hermes.consumers.config.CommonConsumerProperties
+import pl.allegro.tech.hermes.consumers.supervisor.ConsumerThreadFactory
 import pl.allegro.tech.hermes.consumers.supervisor.ConsumersExecutorService
 import pl.allegro.tech.hermes.test.helper.builder.TopicBuilder
 import spock.lang.Specification
@@ -67,7 +68,11 @@ class ConsumerProcessSupervisorTest extends Specification {
         metrics = new MetricsFacade(meterRegistry)
 
         supervisor = new ConsumerProcessSupervisor(
-                new ConsumersExecutorService(new CommonConsumerProperties().getThreadPoolSize(), metrics),
+                new ConsumersExecutorService(
+                        new CommonConsumerProperties().getThreadPoolSize(),
+                        new ConsumerThreadFactory(false),
+                        new CommonConsumerProperties().getVirtualThreadPinningThreshold(),
+                        metrics),
                 clock,
                 metrics,
                 processFactory,
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
@@ -16,12 +17,14 @@ import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.sub
 
 import java.nio.charset.StandardCharsets;
 import java.time.Clock;
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import pl.allegro.tech.hermes.api.Subscription;
@@ -38,6 +41,7 @@ import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSender;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSenderFactory;
 import pl.allegro.tech.hermes.consumers.consumer.sender.MessageSendingResult;
 import pl.allegro.tech.hermes.consumers.consumer.sender.timeout.FutureAsyncTimeout;
+import pl.allegro.tech.hermes.consumers.supervisor.ConsumerThreadFactory;
 import pl.allegro.tech.hermes.consumers.supervisor.workload.weighted.NoOpConsumerNodeLoadRegistry;
 import pl.allegro.tech.hermes.consumers.test.MessageBuilder;
 import pl.allegro.tech.hermes.metrics.HermesCounter;
@@ -69,12 +73,10 @@ public class ConsumerMessageSenderTest {
 
   @Mock private HermesCounter retries;
 
-  @Mock private HermesTimer rateLimiterAcquireTimer;
+  @Mock private HermesTimer throttleDelayTimer;
 
   @Mock private HermesTimerContext consumerLatencyTimerContext;
 
-  @Mock private HermesTimerContext rateLimiterAcquireTimerContext;
-
   @Mock private HermesCounter failedMeter;
 
   @Mock private HermesCounter errors;
@@ -98,12 +100,11 @@ public class ConsumerMessageSenderTest {
   private void setUpMetrics(Subscription subscription) {
     when(metricsFacade.subscriptions().latency(subscription.getQualifiedName()))
         .thenReturn(consumerLatencyTimer);
-    when(metricsFacade.subscriptions().rateLimiterAcquire(subscription.getQualifiedName()))
-        .thenReturn(rateLimiterAcquireTimer);
+    when(metricsFacade.subscriptions().throttleDelay(subscription.getQualifiedName()))
+        .thenReturn(throttleDelayTimer);
     when(metricsFacade.subscriptions().otherErrorsCounter(subscription.getQualifiedName()))
         .thenReturn(errors);
     when(consumerLatencyTimer.time()).thenReturn(consumerLatencyTimerContext);
-    when(rateLimiterAcquireTimer.time()).thenReturn(rateLimiterAcquireTimerContext);
     when(metricsFacade.subscriptions().failuresCounter(subscription.getQualifiedName()))
         .thenReturn(failedMeter);
     when(metricsFacade.subscriptions().retries(subscription.getQualifiedName()))
@@ -124,7 +125,7 @@ public class ConsumerMessageSenderTest {
     // then
     verify(pendingOffsets).markAsProcessed(any(SubscriptionPartitionOffset.class));
     verifyLatencyTimersCountedTimes(subscription, 1, 1);
-    verifyRateLimiterAcquireTimersCountedTimes(subscription, 1, 1);
+    verifyThrottleDelayRecordedTimes(subscription, 1);
     verifyNoInteractions(errorHandler);
     verifyNoInteractions(failedMeter);
     verifyRateLimiterAcquired();
@@ -145,7 +146,7 @@ public class ConsumerMessageSenderTest {
     // then
     verify(pendingOffsets).markAsProcessed(any(SubscriptionPartitionOffset.class));
     verifyLatencyTimersCountedTimes(subscription, 3, 3);
-    verifyRateLimiterAcquireTimersCountedTimes(subscription, 3, 3);
+    verifyThrottleDelayRecordedTimes(subscription, 3);
     verifyErrorHandlerHandleFailed(message, subscription, 2);
     verifyRateLimiterAcquired(3);
     verifyRetryCounted(2);
@@ -166,7 +167,7 @@ public class ConsumerMessageSenderTest {
     verify(pendingOffsets).markAsProcessed(any(SubscriptionPartitionOffset.class));
     verifyNoInteractions(successHandler);
     verifyLatencyTimersCountedTimes(subscription, 1, 1);
-    verifyRateLimiterAcquireTimersCountedTimes(subscription, 1, 1);
+    verifyThrottleDelayRecordedTimes(subscription, 1);
     verifyRateLimiterAcquired();
     verifyNoInteractions(retries);
   }
@@ -186,7 +187,7 @@ public class ConsumerMessageSenderTest {
     verify(pendingOffsets).markAsProcessed(any(SubscriptionPartitionOffset.class));
     verifyNoInteractions(successHandler);
     verifyLatencyTimersCountedTimes(subscription, 1, 1);
-    verifyRateLimiterAcquireTimersCountedTimes(subscription, 1, 1);
+    verifyThrottleDelayRecordedTimes(subscription, 1);
     verifyRateLimiterAcquired();
     verifyNoInteractions(retries);
   }
@@ -281,7 +282,7 @@ public class ConsumerMessageSenderTest {
     verify(pendingOffsets).markAsProcessed(any(SubscriptionPartitionOffset.class));
     verifyNoInteractions(successHandler);
     verifyLatencyTimersCountedTimes(subscription, 1, 1);
-    verifyRateLimiterAcquireTimersCountedTimes(subscription, 1, 1);
+    verifyThrottleDelayRecordedTimes(subscription, 1);
     verifyRateLimiterAcquired();
     verifyNoInteractions(retries);
   }
@@ -358,6 +359,51 @@ public class ConsumerMessageSenderTest {
     verifyNoInteractions(retries);
   }
 
+  @Test
+  public void shouldSendThrottledMessagesInOrderWhenPermitBecomesAvailable() {
+    // given
+    Message first = MessageBuilder.withTestMessage().withId("first").build();
+    Message second = MessageBuilder.withTestMessage().withId("second").build();
+    when(rateLimiter.tryAcquire()).thenReturn(Duration.ofMillis(300)).thenReturn(Duration.ZERO);
+    when(messageSender.send(first)).thenReturn(success());
+    when(messageSender.send(second)).thenReturn(success());
+
+    // when
+    long sendingStartTime = System.currentTimeMillis();
+    sender.sendAsync(first, profiler);
+    sender.sendAsync(second, profiler);
+
+    // then
+    verify(successHandler, timeout(1000))
+        .handleSuccess(eq(second), eq(subscription), any(MessageSendingResult.class));
+    assertThat(System.currentTimeMillis() - sendingStartTime).isGreaterThanOrEqualTo(300);
+    InOrder inOrder = inOrder(messageSender);
+    inOrder.verify(messageSender).send(first);
+    inOrder.verify(messageSender).send(second);
+    verify(throttleDelayTimer, times(2)).record(any(Duration.class));
+    verifyRateLimiterAcquired(3);
+  }
+
+  @Test
+  public void shouldSpeedUpQueuedMessagesWhenRateRises() {
+    // given
+    List<Message> messages =
+        List.of(
+            MessageBuilder.withTestMessage().withId("first").build(),
+            MessageBuilder.withTestMessage().withId("second").build(),
+            MessageBuilder.withTestMessage().withId("third").build());
+    when(rateLimiter.tryAcquire()).thenReturn(Duration.ofMinutes(1)).thenReturn(Duration.ZERO);
+    messages.forEach(message -> when(messageSender.send(message)).thenReturn(success()));
+
+    // when
+    messages.forEach(message -> sender.sendAsync(message, profiler));
+
+    // then
+    verify(successHandler, timeout(3000).times(3))
+        .handleSuccess(any(Message.class), eq(subscription), any(MessageSendingResult.class));
+    verifyRateLimiterAcquired(4);
+  }
+
   @Test
   public void shouldCalculateSendingDelayBasingOnPublishingTimestamp() {
     // given
@@ -471,7 +517,8 @@ public class ConsumerMessageSenderTest {
             ASYNC_TIMEOUT_MS,
             new FutureAsyncTimeout(Executors.newSingleThreadScheduledExecutor()),
             Clock.systemUTC(),
-            new NoOpConsumerNodeLoadRegistry().register(subscription.getQualifiedName()));
+            new NoOpConsumerNodeLoadRegistry().register(subscription.getQualifiedName()),
+            new ConsumerThreadFactory(false));
     sender.initialize();
 
     return sender;
@@ -495,12 +542,9 @@ public class ConsumerMessageSenderTest {
     verify(consumerLatencyTimerContext, times(closeCount)).close();
   }
 
-  private void verifyRateLimiterAcquireTimersCountedTimes(
-      Subscription subscription, int timeCount, int closeCount) {
-    verify(metricsFacade.subscriptions(), times(1))
-        .rateLimiterAcquire(subscription.getQualifiedName());
-    verify(rateLimiterAcquireTimer, times(timeCount)).time();
-    verify(rateLimiterAcquireTimerContext, times(closeCount)).close();
+  private void verifyThrottleDelayRecordedTimes(Subscription subscription, int times) {
+    verify(metricsFacade.subscriptions(), times(1)).throttleDelay(subscription.getQualifiedName());
+    verify(throttleDelayTimer, times(times)).record(Duration.ZERO);
   }
 
   private Subscription subscriptionWithTtl(int ttl) {
@@ -588,7 +632,7 @@ public class ConsumerMessageSenderTest {
   }
 
   private void verifyRateLimiterAcquired(int times) {
-    verify(rateLimiter, times(times)).acquire();
+    verify(rateLimiter, times(times)).tryAcquire();
   }
 
   private void verifyRetryCounted() {
@@ -6,6 +6,12 @@ import static pl.allegro.tech.hermes.consumers.consumer.Message.message;
 import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -13,10 +19,18 @@ import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.consumers.consumer.Message;
 import pl.allegro.tech.hermes.schema.CompiledSchema;
 import pl.allegro.tech.hermes.test.helper.avro.AvroUser;
+import pl.allegro.tech.hermes.test.helper.avro.RecordToBytesConverter;
+import tech.allegro.schema.json2avro.converter.JsonAvroConverter;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AvroToJsonMessageConverterTest {
 
+  private static final String METADATA_FIELD =
+      """
+      {"name": "__metadata",
+       "type": ["null", {"type": "map", "values": "string"}], "default": null},
+      """;
+
   @Test
   public void shouldConvertToJsonWithoutMetadata() throws IOException {
     // given
@@ -37,4 +51,81 @@ public class AvroToJsonMessageConverterTest {
     assertThatJson(new String(target.getData()))
         .isEqualTo("{\"name\": \"Bob\", \"age\": 18, \"favoriteColor\": \"blue\"}");
   }
+
+  @Test
+  public void shouldProduceSameJsonAsJsonAvroConverterForAllAvroTypes() throws IOException {
+    // given
+    Topic topic = topic("group.topic").build();
+    Schema schema = new Schema.Parser().parse(schemaWithAllTypes(true));
+    Schema schemaWithoutMetadata = new Schema.Parser().parse(schemaWithAllTypes(false));
+    GenericRecord record = recordWithAllTypes(schema);
+    record.put("__metadata", Map.of("messageId", "1234", "timestamp", "1"));
+    GenericRecord recordWithoutMetadata = recordWithAllTypes(schemaWithoutMetadata);
+    Message source =
+        message()
+            .withData(RecordToBytesConverter.recordToBytes(record, schema))
+            .withSchema(CompiledSchema.of(schema, 1, 0))
+            .withExternalMetadata(of())
+            .build();
+    AvroToJsonMessageConverter converter = new AvroToJsonMessageConverter();
+
+    // when
+    Message target = converter.convert(source, topic);
+
+    // then
+    assertThatJson(new String(target.getData()))
+        .isEqualTo(new String(new JsonAvroConverter().convertToJson(recordWithoutMetadata)));
+  }
+
+  private static String schemaWithAllTypes(boolean withMetadata) {
+    return """
+        {
+          "type": "record",
+          "name": "AllTypes",
+          "fields": [
+            %s
+            {"name": "string", "type": "string"},
+            {"name": "int", "type": "int"},
+            {"name": "long", "type": "long"},
+            {"name": "float", "type": "float"},
+            {"name": "double", "type": "double"},
+            {"name": "boolean", "type": "boolean"},
+            {"name": "bytes", "type": "bytes"},
+            {"name": "fixed", "type": {"type": "fixed", "name": "Fixed", "size": 2}},
+            {"name": "enum", "type": {"type": "enum", "name": "Enum", "symbols": ["A", "B"]}},
+            {"name": "array", "type": {"type": "array", "items": "string"}},
+            {"name": "map", "type": {"type": "map", "values": "int"}},
+            {"name": "nullable", "type": ["null", "string"]},
+            {"name": "nested", "type": {
+              "type": "record",
+              "name": "Nested",
+              "fields": [{"name": "value", "type": ["null", "long"]}]
+            }}
+          ]
+        }
+        """
+        .formatted(withMetadata ? METADATA_FIELD : "");
+  }
+
+  private static GenericRecord recordWithAllTypes(Schema schema) {
+    GenericRecord nested = new GenericData.Record(schema.getField("nested").schema());
+    nested.put("value", 42L);
+    GenericRecord record = new GenericData.Record(schema);
+    record.put("string", "zażółć \"gęślą\" jaźń");
+    record.put("int", 1);
+    record.put("long", 2L);
+    record.put("float", 3.5f);
+    record.put("double", 4.25d);
+    record.put("boolean", true);
+    record.put("bytes", ByteBuffer.wrap(new byte[] {1, 2, (byte) 200}));
+    record.put(
+        "fixed",
+        new GenericData.Fixed(schema.getField("fixed").schema(), new byte[] {65, (byte) 255}));
+    record.put("enum", new GenericData.EnumSymbol(schema.getField("enum").schema(), "B"));
+    record.put("array", List.of("a", "b"));
+    record.put("map", Map.of("x", 1, "y", 2));
+    record.put("nullable", null);
+    record.put("nested", nested);
+    return record;
+  }
 }
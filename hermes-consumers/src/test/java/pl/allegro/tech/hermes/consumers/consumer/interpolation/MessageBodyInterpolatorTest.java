@@ -135,4 +135,64 @@ public class MessageBodyInterpolatorTest {
     // then
     assertThat(interpolated).isEqualTo(expectedEndpoint);
   }
+
+  @Test
+  public void willInterpolateValuesOfDifferentTypesFromNestedObjects()
+      throws InterpolationException {
+    // given
+    EndpointAddress endpoint =
+        EndpointAddress.of("http://some.endpoint.com/{a.b.c}/{flag}?ratio={a.ratio}");
+    URI expectedEndpoint = URI.create("http://some.endpoint.com/hello/true?ratio=1.5");
+    String jsonMessage =
+        "{\"skipped\": {\"b\": [1, {\"c\": 2}]}, \"flag\": true,"
+            + " \"a\": {\"ratio\": 1.5, \"b\": {\"c\": \"hello\"}}}";
+
+    // when
+    URI interpolated = new MessageBodyInterpolator().interpolate(endpoint, message(jsonMessage));
+
+    // then
+    assertThat(interpolated).isEqualTo(expectedEndpoint);
+  }
+
+  @Test
+  public void willStopReadingPayloadOnceAllVariablesAreFound() throws InterpolationException {
+    // given
+    EndpointAddress endpoint = EndpointAddress.of("http://some.endpoint.com/{id}");
+    URI expectedEndpoint = URI.create("http://some.endpoint.com/42");
+
+    // when
+    URI interpolated =
+        new MessageBodyInterpolator().interpolate(endpoint, message("{\"id\": 42, \"rest\": "));
+
+    // then
+    assertThat(interpolated).isEqualTo(expectedEndpoint);
+  }
+
+  @Test(expected = InterpolationException.class)
+  public void willThrowExceptionOnVariablePointingInsideScalar() throws InterpolationException {
+    // given
+    EndpointAddress endpoint = EndpointAddress.of("http://some.endpoint.com/{a.b}");
+
+    // when
+    new MessageBodyInterpolator().interpolate(endpoint, SAMPLE_MSG);
+  }
+
+  @Test(expected = InterpolationException.class)
+  public void willThrowExceptionOnMalformedPayload() throws InterpolationException {
+    // given
+    EndpointAddress endpoint = EndpointAddress.of("http://some.endpoint.com/{some.object}");
+
+    // when
+    new MessageBodyInterpolator().interpolate(endpoint, message("{\"some\": {\"obj"));
+  }
+
+  private static Message message(String content) {
+    return withTestMessage()
+        .withTopic("some.topic")
+        .withContent(content, StandardCharsets.UTF_8)
+        .withPublishingTimestamp(1232443L)
+        .withReadingTimestamp(12324434L)
+        .withPartitionOffset(new PartitionOffset(KAFKA_TOPIC, 0, 0))
+        .build();
+  }
 }
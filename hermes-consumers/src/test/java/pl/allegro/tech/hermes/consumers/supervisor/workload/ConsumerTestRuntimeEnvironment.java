@@ -42,6 +42,7 @@ import pl.allegro.tech.hermes.consumers.subscription.cache.SubscriptionsCache;
 import pl.allegro.tech.hermes.consumers.subscription.id.SubscriptionIds;
 import pl.allegro.tech.hermes.consumers.subscription.id.ZookeeperSubscriptionIdProvider;
 import pl.allegro.tech.hermes.consumers.supervisor.ConsumerFactory;
+import pl.allegro.tech.hermes.consumers.supervisor.ConsumerThreadFactory;
 import pl.allegro.tech.hermes.consumers.supervisor.ConsumersExecutorService;
 import pl.allegro.tech.hermes.consumers.supervisor.ConsumersSupervisor;
 import pl.allegro.tech.hermes.consumers.supervisor.NonblockingConsumersSupervisor;
@@ -224,7 +225,11 @@ class ConsumerTestRuntimeEnvironment {
     commonConsumerProperties.setBackgroundSupervisor(supervisorParameters);
     return new NonblockingConsumersSupervisor(
         commonConsumerProperties,
-        new ConsumersExecutorService(new CommonConsumerProperties().getThreadPoolSize(), metrics),
+        new ConsumersExecutorService(
+            commonConsumerProperties.getThreadPoolSize(),
+            new ConsumerThreadFactory(false),
+            commonConsumerProperties.getVirtualThreadPinningThreshold(),
+            metrics),
         consumerFactory,
         partitionAssignmentState,
         mock(Retransmitter.class),
@@ -1,6 +1,7 @@
 package pl.allegro.tech.hermes.frontend.buffer;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -10,13 +11,16 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ObjLongConsumer;
 import org.apache.avro.Schema;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -54,7 +58,11 @@ public class BackupMessagesLoader {
   private final int maxResendRetries;
   private final Duration resendSleep;
   private final Duration readTopicInfoSleep;
+  private final int loadingChunkSize;
+  private final RateLimiter loadingRateLimiter;
 
+  private final AtomicLong remainingMessages = new AtomicLong();
+  private final AtomicLong remainingBytes = new AtomicLong();
   private final Set<Topic> topicsAvailabilityCache = new HashSet<>();
   private final AtomicReference<ConcurrentLinkedQueue<Pair<Message, CachedTopic>>> toResend =
       new AtomicReference<>();
@@ -79,6 +87,38 @@ public class BackupMessagesLoader {
     this.resendSleep = backupMessagesLoaderParameters.getLoadingPauseBetweenResend();
     this.readTopicInfoSleep = backupMessagesLoaderParameters.getLoadingWaitForBrokerTopicInfo();
     this.maxResendRetries = backupMessagesLoaderParameters.getMaxResendRetries();
+    this.loadingChunkSize = backupMessagesLoaderParameters.getLoadingChunkSize();
+    this.loadingRateLimiter =
+        backupMessagesLoaderParameters.getLoadingRateLimit() > 0
+            ? RateLimiter.create(backupMessagesLoaderParameters.getLoadingRateLimit())
+            : null;
+  }
+
+  /**
+   * Streams messages from the repository in chunks of {@code loadingChunkSize}, so only one chunk
+   * is held in memory at a time, and sends them at most {@code loadingRateLimit} messages per
+   * second. Messages which could not be sent are resent afterwards.
+   */
+  public void loadMessages(MessageRepository repository) {
+    remainingMessages.set(repository.count());
+    remainingBytes.set(repository.sizeInBytes());
+    logger.info(
+        "Loading {} messages ({} bytes) from backup storage.",
+        remainingMessages.get(),
+        remainingBytes.get());
+    toResend.set(new ConcurrentLinkedQueue<>());
+
+    ChunkedSending sending = new ChunkedSending();
+    repository.forEach(sending);
+    sending.flush();
+    remainingMessages.set(0);
+    remainingBytes.set(0);
+    logger.info(
+        "Loaded and sent {} messages and discarded {} messages from the backup storage.",
+        sending.sentCounter,
+        sending.discardedCounter);
+
+    resendFailedMessages();
   }
 
   public void loadMessages(List<BackupMessage> messages) {
@@ -86,7 +126,10 @@ public class BackupMessagesLoader {
     toResend.set(new ConcurrentLinkedQueue<>());
 
     sendMessages(messages);
+    resendFailedMessages();
+  }
 
+  private void resendFailedMessages() {
     if (toResend.get().size() == 0) {
       logger.info("No messages to resend.");
       return;
@@ -130,15 +173,22 @@ public class BackupMessagesLoader {
     topicsAvailabilityCache.clear();
   }
 
+  /** Number of messages left to be sent by loading in progress. */
+  public long getRemainingMessages() {
+    return remainingMessages.get();
+  }
+
+  /** Number of bytes left to be sent by loading in progress. */
+  public long getRemainingBytes() {
+    return remainingBytes.get();
+  }
+
   private void sendMessages(List<BackupMessage> messages) {
     logger.info("Sending {} messages from backup storage.", messages.size());
     int sentCounter = 0;
     int discardedCounter = 0;
     for (BackupMessage backupMessage : messages) {
-      String topicQualifiedName = backupMessage.getQualifiedTopicName();
-      Optional<CachedTopic> optionalCachedTopic = topicsCache.getTopic(topicQualifiedName);
-      if (sendBackupMessageIfNeeded(
-          backupMessage, topicQualifiedName, optionalCachedTopic, "sending")) {
+      if (sendBackupMessage(backupMessage)) {
         sentCounter++;
       } else {
         discardedCounter++;
@@ -175,6 +225,13 @@ public class BackupMessagesLoader {
         retry);
   }
 
+  private boolean sendBackupMessage(BackupMessage backupMessage) {
+    String topicQualifiedName = backupMessage.getQualifiedTopicName();
+    Optional<CachedTopic> optionalCachedTopic = topicsCache.getTopic(topicQualifiedName);
+    return sendBackupMessageIfNeeded(
+        backupMessage, topicQualifiedName, optionalCachedTopic, "sending");
+  }
+
   private boolean sendBackupMessageIfNeeded(
       BackupMessage backupMessage,
       String topicQualifiedName,
@@ -331,4 +388,45 @@ public class BackupMessagesLoader {
           }
         });
   }
+
+  /** Collects streamed messages into chunks and sends each chunk once it is full. */
+  private class ChunkedSending implements ObjLongConsumer<BackupMessage> {
+
+    private final List<BackupMessage> chunk = new ArrayList<>(loadingChunkSize);
+    private long chunkBytes = 0;
+    private int sentCounter = 0;
+    private int discardedCounter = 0;
+
+    @Override
+    public void accept(BackupMessage backupMessage, long sizeInBytes) {
+      chunk.add(backupMessage);
+      chunkBytes += sizeInBytes;
+      if (chunk.size() >= loadingChunkSize) {
+        flush();
+      }
+    }
+
+    void flush() {
+      if (chunk.isEmpty()) {
+        return;
+      }
+      if (loadingRateLimiter != null) {
+        loadingRateLimiter.acquire(chunk.size());
+      }
+      for (BackupMessage backupMessage : chunk) {
+        if (sendBackupMessage(backupMessage)) {
+          sentCounter++;
+        } else {
+          discardedCounter++;
+        }
+      }
+      logger.debug(
+          "Sent chunk of {} messages from backup storage, {} messages remaining.",
+          chunk.size(),
+          remainingMessages.addAndGet(-chunk.size()));
+      remainingBytes.addAndGet(-chunkBytes);
+      chunk.clear();
+      chunkBytes = 0;
+    }
+  }
 }
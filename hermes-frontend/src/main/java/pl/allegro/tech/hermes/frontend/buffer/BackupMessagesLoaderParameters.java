@@ -11,4 +11,8 @@ public interface BackupMessagesLoaderParameters {
   Duration getLoadingPauseBetweenResend();
 
   Duration getLoadingWaitForBrokerTopicInfo();
+
+  int getLoadingChunkSize();
+
+  int getLoadingRateLimit();
 }
@@ -0,0 +1,6 @@
+package pl.allegro.tech.hermes.frontend.buffer;
+
+public enum BackupStorageType {
+  CHRONICLE_MAP,
+  LOG
+}
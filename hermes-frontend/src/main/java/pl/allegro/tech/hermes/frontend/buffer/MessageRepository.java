@@ -1,6 +1,7 @@
 package pl.allegro.tech.hermes.frontend.buffer;
 
 import java.util.List;
+import java.util.function.ObjLongConsumer;
 import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.frontend.publishing.message.Message;
 
@@ -12,5 +13,16 @@ public interface MessageRepository {
 
   List<BackupMessage> findAll();
 
+  /**
+   * Passes stored messages one by one to the consumer, together with the number of bytes each of
+   * them takes in the repository, without loading all of them into memory.
+   */
+  void forEach(ObjLongConsumer<BackupMessage> consumer);
+
+  long count();
+
+  /** Sum of sizes of stored messages, as passed to {@link #forEach}. */
+  long sizeInBytes();
+
   void close();
 }
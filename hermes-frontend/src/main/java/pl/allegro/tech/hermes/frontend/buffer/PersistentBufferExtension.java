@@ -2,6 +2,7 @@ package pl.allegro.tech.hermes.frontend.buffer;
 
 import static java.util.stream.Collectors.joining;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
 import java.time.Clock;
 import java.util.List;
@@ -9,6 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.common.metric.MetricsFacade;
 import pl.allegro.tech.hermes.frontend.buffer.chronicle.ChronicleMapMessageRepository;
+import pl.allegro.tech.hermes.frontend.buffer.log.LogMessageRepository;
 import pl.allegro.tech.hermes.frontend.listeners.BrokerListeners;
 
 public class PersistentBufferExtension {
@@ -49,18 +51,57 @@ public class PersistentBufferExtension {
 
     entries = (int) (backupStorageSizeInBytes / avgMessageSize);
 
-    if (persistentBufferExtensionParameters.isV2MigrationEnabled()) {
-      loadTemporaryBackupV2Files(backupFilesManager);
-    }
+    metricsFacade
+        .persistentBuffer()
+        .registerLoadingRemainingMessagesGauge(
+            backupMessagesLoader, BackupMessagesLoader::getRemainingMessages);
+    metricsFacade
+        .persistentBuffer()
+        .registerLoadingRemainingBytesGauge(
+            backupMessagesLoader, BackupMessagesLoader::getRemainingBytes);
 
     backupFilesManager.rolloverBackupFileIfExists();
+    backupFilesManager.rolloverBackupLogDirectoryIfExists();
     List<File> rolledBackupFiles = backupFilesManager.getRolledBackupFiles();
+    List<File> rolledBackupLogDirectories = backupFilesManager.getRolledBackupLogDirectories();
+
+    if (persistentBufferExtensionParameters.isLoadingInBackgroundEnabled()) {
+      // rolled over files are not written to anymore, so they can be loaded while new messages are
+      // already being buffered in the current backup file
+      if (persistentBufferExtensionParameters.isEnabled()) {
+        enableLocalStorage(backupFilesManager);
+      }
+      new ThreadFactoryBuilder()
+          .setNameFormat("backup-storage-loader")
+          .setDaemon(true)
+          .setUncaughtExceptionHandler(
+              (thread, e) -> logger.error("Loading messages from backup storage failed", e))
+          .build()
+          .newThread(
+              () ->
+                  loadBackupFiles(
+                      backupFilesManager, rolledBackupFiles, rolledBackupLogDirectories))
+          .start();
+    } else {
+      loadBackupFiles(backupFilesManager, rolledBackupFiles, rolledBackupLogDirectories);
+      if (persistentBufferExtensionParameters.isEnabled()) {
+        enableLocalStorage(backupFilesManager);
+      }
+    }
+  }
+
+  private void loadBackupFiles(
+      BackupFilesManager backupFilesManager,
+      List<File> rolledBackupFiles,
+      List<File> rolledBackupLogDirectories) {
+    if (persistentBufferExtensionParameters.isV2MigrationEnabled()) {
+      loadTemporaryBackupV2Files(backupFilesManager);
+    }
     if (!rolledBackupFiles.isEmpty()) {
       rollBackupFiles(backupFilesManager, rolledBackupFiles);
     }
-
-    if (persistentBufferExtensionParameters.isEnabled()) {
-      enableLocalStorage(backupFilesManager);
+    if (!rolledBackupLogDirectories.isEmpty()) {
+      rollBackupLogDirectories(backupFilesManager, rolledBackupLogDirectories);
     }
   }
 
@@ -81,13 +122,23 @@ public class PersistentBufferExtension {
     backupMessagesLoader.clearTopicsAvailabilityCache();
   }
 
+  private void rollBackupLogDirectories(
+      BackupFilesManager backupFilesManager, List<File> rolledBackupLogDirectories) {
+    logger.info(
+        "Backup log directories were found. Number of directories: {}. Directories: {}",
+        rolledBackupLogDirectories.size(),
+        rolledBackupLogDirectories.stream().map(File::getName).collect(joining(", ")));
+    rolledBackupLogDirectories.forEach(d -> loadOldLogMessages(backupFilesManager, d));
+    backupMessagesLoader.clearTopicsAvailabilityCache();
+  }
+
   private void enableLocalStorage(BackupFilesManager backupFilesManager) {
     MessageRepository repository =
-        persistentBufferExtensionParameters.isSizeReportingEnabled()
-            ? new ChronicleMapMessageRepository(
-                backupFilesManager.getCurrentBackupFile(), entries, avgMessageSize, metricsFacade)
-            : new ChronicleMapMessageRepository(
-                backupFilesManager.getCurrentBackupFile(), entries, avgMessageSize);
+        switch (BackupStorageType.valueOf(
+            persistentBufferExtensionParameters.getStorageType().toUpperCase())) {
+          case CHRONICLE_MAP -> createChronicleMapRepository(backupFilesManager);
+          case LOG -> createLogRepository(backupFilesManager);
+        };
 
     BrokerListener brokerListener = new BrokerListener(repository);
 
@@ -96,6 +147,46 @@ public class PersistentBufferExtension {
     listeners.addTimeoutListener(brokerListener);
   }
 
+  private MessageRepository createChronicleMapRepository(BackupFilesManager backupFilesManager) {
+    return persistentBufferExtensionParameters.isSizeReportingEnabled()
+        ? new ChronicleMapMessageRepository(
+            backupFilesManager.getCurrentBackupFile(), entries, avgMessageSize, metricsFacade)
+        : new ChronicleMapMessageRepository(
+            backupFilesManager.getCurrentBackupFile(), entries, avgMessageSize);
+  }
+
+  private MessageRepository createLogRepository(BackupFilesManager backupFilesManager) {
+    long maxSizeBytes = logMaxSizeBytes();
+    return persistentBufferExtensionParameters.isSizeReportingEnabled()
+        ? new LogMessageRepository(
+            backupFilesManager.getCurrentBackupLogDirectory(),
+            persistentBufferExtensionParameters,
+            maxSizeBytes,
+            metricsFacade)
+        : new LogMessageRepository(
+            backupFilesManager.getCurrentBackupLogDirectory(),
+            persistentBufferExtensionParameters,
+            maxSizeBytes);
+  }
+
+  /**
+   * Live messages take at most buffered size bytes, as in ChronicleMap, but segments are compacted
+   * only when live messages take less than compaction threshold of them, so the log may need that
+   * many times more space, plus the active segment.
+   */
+  private long logMaxSizeBytes() {
+    double threshold = persistentBufferExtensionParameters.getLogCompactionThreshold();
+    if (threshold <= 0) {
+      return Long.MAX_VALUE;
+    }
+    double liveBytes = persistentBufferExtensionParameters.getBufferedSizeBytes();
+    return (long)
+        Math.min(
+            liveBytes / Math.min(threshold, 1.0)
+                + persistentBufferExtensionParameters.getLogSegmentSizeBytes(),
+            Long.MAX_VALUE);
+  }
+
   private void loadTemporaryBackupV2Messages(
       BackupFilesManager backupFilesManager, File temporaryBackup) {
     logger.info("Loading messages from temporary backup v2 file: {}", temporaryBackup.getName());
@@ -107,8 +198,17 @@ public class PersistentBufferExtension {
     logger.info("Loading messages from backup file: {}", oldBackup.getName());
     MessageRepository oldMessageRepository =
         new ChronicleMapMessageRepository(oldBackup, entries, avgMessageSize);
-    backupMessagesLoader.loadMessages(oldMessageRepository.findAll());
+    backupMessagesLoader.loadMessages(oldMessageRepository);
     oldMessageRepository.close();
     backupFilesManager.delete(oldBackup);
   }
+
+  private void loadOldLogMessages(BackupFilesManager backupFilesManager, File oldBackupDirectory) {
+    logger.info("Loading messages from backup log directory: {}", oldBackupDirectory.getName());
+    MessageRepository oldMessageRepository =
+        new LogMessageRepository(oldBackupDirectory, persistentBufferExtensionParameters);
+    backupMessagesLoader.loadMessages(oldMessageRepository);
+    oldMessageRepository.close();
+    backupFilesManager.delete(oldBackupDirectory);
+  }
 }
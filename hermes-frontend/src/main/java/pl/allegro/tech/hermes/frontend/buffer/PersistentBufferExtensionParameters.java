@@ -1,6 +1,8 @@
 package pl.allegro.tech.hermes.frontend.buffer;
 
-public interface PersistentBufferExtensionParameters {
+import pl.allegro.tech.hermes.frontend.buffer.log.LogMessageRepositoryParameters;
+
+public interface PersistentBufferExtensionParameters extends LogMessageRepositoryParameters {
 
   long getBufferedSizeBytes();
 
@@ -8,6 +10,8 @@ public interface PersistentBufferExtensionParameters {
 
   boolean isEnabled();
 
+  String getStorageType();
+
   String getDirectory();
 
   String getTemporaryDirectory();
@@ -15,4 +19,6 @@ public interface PersistentBufferExtensionParameters {
   int getAverageMessageSize();
 
   boolean isSizeReportingEnabled();
+
+  boolean isLoadingInBackgroundEnabled();
 }
@@ -4,9 +4,11 @@ import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ObjLongConsumer;
 import java.util.stream.Collectors;
 import net.openhft.chronicle.map.ChronicleMap;
 import net.openhft.chronicle.map.ChronicleMapBuilder;
@@ -93,6 +95,29 @@ public class ChronicleMapMessageRepository implements MessageRepository {
         .collect(Collectors.toList());
   }
 
+  @Override
+  public void forEach(ObjLongConsumer<BackupMessage> consumer) {
+    // entries are read straight from the mapped file, getUsing(null) makes copies which are not
+    // reused by the map when it moves to the next entry
+    map.forEachEntry(
+        entry ->
+            consumer.accept(
+                toBackupMessage(entry.key().getUsing(null), entry.value().getUsing(null)),
+                entry.value().size()));
+  }
+
+  @Override
+  public long count() {
+    return map.longSize();
+  }
+
+  @Override
+  public long sizeInBytes() {
+    LongAdder bytes = new LongAdder();
+    map.forEachEntry(entry -> bytes.add(entry.value().size()));
+    return bytes.sum();
+  }
+
   @Override
   public void close() {
     map.close();
@@ -0,0 +1,11 @@
+package pl.allegro.tech.hermes.frontend.buffer.log;
+
+/** When writes to the log are forced to disk. */
+public enum LogFsyncPolicy {
+  /** Never forced explicitly, flushing memory mapped segments is left to the operating system. */
+  NEVER,
+  /** Forced after every {@code fsyncBatchSize} writes or every {@code fsyncInterval}. */
+  BATCHED,
+  /** Forced after every write. */
+  EVERY_WRITE
+}
@@ -0,0 +1,495 @@
+package pl.allegro.tech.hermes.frontend.buffer.log;
+
+import static java.lang.String.format;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjLongConsumer;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.common.metric.MetricsFacade;
+import pl.allegro.tech.hermes.frontend.buffer.BackupMessage;
+import pl.allegro.tech.hermes.frontend.buffer.MessageRepository;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+
+/**
+ * Persistent buffer kept as an append-only log of memory mapped segment files in a directory.
+ *
+ * <p>Saving a message appends it to the last segment, deleting a saved message appends a
+ * tombstone, so every write is sequential and the number of buffered messages is limited only by
+ * disk space. Location of the latest record of every buffered message is kept in memory, deletes
+ * of messages which were never saved (i.e. acknowledgements of messages sent without problems) do
+ * not touch the log at all.
+ *
+ * <p>Segments are compacted in background, oldest first: when live records take less than {@code
+ * compactionThreshold} of the oldest segment, they are copied to a new segment appended to the log
+ * and the segment is deleted. As tombstones always follow the records they delete, tombstones of
+ * the oldest segment are not needed anymore and are dropped.
+ *
+ * <p>Total size of segment files is limited by {@code maxSizeBytes}: once a save would need a new
+ * segment beyond it, the save is rejected, and the oldest segment is compacted whenever it has any
+ * dead records, regardless of {@code compactionThreshold}. Tombstones and copies of live records
+ * are still written, as they are needed to free space, so the log may exceed the limit by a
+ * segment or two. Segments are sparse memory mapped files and writing to a mapped page of a full
+ * disk crashes the JVM, so the disk has to have room for the whole log.
+ *
+ * <p>On opening, segments are read in order to restore the index; reading of a segment stops at
+ * the first torn record.
+ */
+public class LogMessageRepository implements MessageRepository {
+
+  private static final Logger logger = LoggerFactory.getLogger(LogMessageRepository.class);
+
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String COMPACTED_SEGMENT_SUFFIX = ".compacted";
+
+  private final File directory;
+  private final long segmentSizeBytes;
+  private final long maxSizeBytes;
+  private final LogFsyncPolicy fsyncPolicy;
+  private final int fsyncBatchSize;
+  private final double compactionThreshold;
+  private final ScheduledExecutorService executor;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Deque<LogSegment> segments = new ArrayDeque<>();
+  private final Map<String, Location> index = new ConcurrentHashMap<>();
+
+  private int unforcedWrites = 0;
+  private boolean closed = false;
+
+  public LogMessageRepository(File directory, LogMessageRepositoryParameters parameters) {
+    this(directory, parameters, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param maxSizeBytes total size of segment files above which saves are rejected
+   */
+  public LogMessageRepository(
+      File directory, LogMessageRepositoryParameters parameters, long maxSizeBytes) {
+    logger.info(
+        "Creating log backup storage in path: {}, max size: {} bytes",
+        directory.getAbsolutePath(),
+        maxSizeBytes);
+    if (parameters.getLogSegmentSizeBytes() > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Log segment can not be larger than 2GB");
+    }
+    this.directory = directory;
+    this.segmentSizeBytes = parameters.getLogSegmentSizeBytes();
+    this.maxSizeBytes = maxSizeBytes;
+    this.fsyncPolicy = parameters.getLogFsyncPolicy();
+    this.fsyncBatchSize = parameters.getLogFsyncBatchSize();
+    this.compactionThreshold = parameters.getLogCompactionThreshold();
+
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new LogMessageRepositoryException(
+          "Failed to create log directory " + directory.getAbsolutePath());
+    }
+    recover();
+
+    this.executor =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("log-backup-storage-" + directory.getName())
+                .setDaemon(true)
+                .build());
+    long compactionIntervalMillis = parameters.getLogCompactionInterval().toMillis();
+    executor.scheduleWithFixedDelay(
+        this::compactSafely,
+        compactionIntervalMillis,
+        compactionIntervalMillis,
+        TimeUnit.MILLISECONDS);
+    if (fsyncPolicy == LogFsyncPolicy.BATCHED) {
+      Duration fsyncInterval = parameters.getLogFsyncInterval();
+      executor.scheduleWithFixedDelay(
+          this::forceSafely,
+          fsyncInterval.toMillis(),
+          fsyncInterval.toMillis(),
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  public LogMessageRepository(
+      File directory,
+      LogMessageRepositoryParameters parameters,
+      long maxSizeBytes,
+      MetricsFacade metricsFacade) {
+    this(directory, parameters, maxSizeBytes);
+    metricsFacade.persistentBuffer().registerBackupStorageSizeGauge(index, Map::size);
+  }
+
+  @Override
+  public void save(Message message, Topic topic) {
+    ByteBuffer record = LogRecords.put(message, topic);
+    lock.lock();
+    try {
+      if (closed) {
+        throw new LogMessageRepositoryException(
+            "Backup storage is closed. Unable to add new messages.");
+      }
+      Location location = append(record, true);
+      Location previous = index.put(message.getId(), location);
+      if (previous != null) {
+        release(previous);
+      }
+      writeCompleted();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void delete(String messageId) {
+    if (!index.containsKey(messageId)) {
+      return;
+    }
+    ByteBuffer tombstone = LogRecords.delete(messageId);
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      Location previous = index.remove(messageId);
+      if (previous != null) {
+        append(tombstone);
+        release(previous);
+        writeCompleted();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public List<BackupMessage> findAll() {
+    List<BackupMessage> messages = new ArrayList<>();
+    forEach((message, size) -> messages.add(message));
+    return messages;
+  }
+
+  /**
+   * Reads live messages in the order they were saved. Writes and compaction wait until reading is
+   * finished, so it is meant for repositories which are not used for buffering anymore.
+   */
+  @Override
+  public void forEach(ObjLongConsumer<BackupMessage> consumer) {
+    lock.lock();
+    try {
+      for (LogSegment segment : segments) {
+        segment.forEachRecord(
+            (position, size, body) -> {
+              if (isLive(segment, position, body)) {
+                consumer.accept(LogRecords.backupMessage(body), size);
+              }
+            });
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long count() {
+    return index.size();
+  }
+
+  @Override
+  public long sizeInBytes() {
+    lock.lock();
+    try {
+      return segments.stream().mapToLong(LogSegment::liveBytes).sum();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    lock.lock();
+    try {
+      if (!closed) {
+        closed = true;
+        segments.forEach(LogSegment::force);
+        logger.info("Closing log backup storage with {} messages.", index.size());
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Compacts oldest segments as long as they have few enough live records, or any dead records when
+   * the log has reached its maximum size.
+   */
+  void compact() {
+    while (true) {
+      LogSegment oldest;
+      lock.lock();
+      try {
+        if (closed || segments.size() < 2) {
+          return;
+        }
+        oldest = segments.peekFirst();
+        boolean reclaimable =
+            oldest.liveBytes() <= compactionThreshold * oldest.writtenBytes()
+                || (isFull() && oldest.liveBytes() < oldest.writtenBytes());
+        if (!reclaimable) {
+          return;
+        }
+      } finally {
+        lock.unlock();
+      }
+      compact(oldest);
+    }
+  }
+
+  /**
+   * Copies live records of the oldest segment to a new segment without holding the lock, as the
+   * oldest segment is not written anymore. Then, under the lock, the new segment is appended to the
+   * log and index entries are moved to the copies, unless messages were saved again or deleted in
+   * the meantime. Records written in the meantime precede the copies in the log, so they are
+   * repeated after them to keep the latest state of such messages on recovery.
+   */
+  private void compact(LogSegment oldest) {
+    List<Copy> copies = new ArrayList<>();
+    oldest.forEachRecord(
+        (position, size, body) -> {
+          if (isLive(oldest, position, body)) {
+            copies.add(new Copy(LogRecords.messageId(body), position, size));
+          }
+        });
+    LogSegment target = copies.isEmpty() ? null : copy(oldest, copies);
+
+    lock.lock();
+    try {
+      if (closed) {
+        if (target != null) {
+          target.delete();
+        }
+        return;
+      }
+      int moved = 0;
+      if (target != null) {
+        LogSegment active = segments.getLast();
+        if (fsyncPolicy != LogFsyncPolicy.NEVER) {
+          active.force();
+        }
+        target.moveTo(active.id() + 1, segmentFile(active.id() + 1));
+        segments.addLast(target);
+        for (Copy copy : copies) {
+          Location current = index.get(copy.messageId());
+          if (current == null) {
+            append(LogRecords.delete(copy.messageId()));
+          } else if (current.segment() == oldest && current.position() == copy.position()) {
+            target.retain(copy.size());
+            index.put(copy.messageId(), new Location(target, copy.targetPosition(), copy.size()));
+            release(current);
+            moved++;
+          } else {
+            ByteBuffer record = current.segment().record(current.position(), current.size());
+            index.put(copy.messageId(), append(record));
+            release(current);
+          }
+        }
+        // copies have to be durable before originals are gone
+        forceFrom(target);
+      }
+      segments.removeFirst();
+      oldest.delete();
+      logger.info(
+          "Compacted log segment {} of {}, moved {} live messages.",
+          oldest.id(),
+          directory.getAbsolutePath(),
+          moved);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private LogSegment copy(LogSegment source, List<Copy> copies) {
+    long size = copies.stream().mapToLong(Copy::size).sum();
+    File file = new File(directory, format("%020d%s", source.id(), COMPACTED_SEGMENT_SUFFIX));
+    LogSegment target = LogSegment.create(source.id(), file, Math.max(segmentSizeBytes, size));
+    for (int i = 0; i < copies.size(); i++) {
+      Copy copy = copies.get(i);
+      int position = target.append(source.record(copy.position(), copy.size()));
+      copies.set(i, copy.withTargetPosition(position));
+    }
+    target.force();
+    return target;
+  }
+
+  private void forceFrom(LogSegment first) {
+    Iterator<LogSegment> newestFirst = segments.descendingIterator();
+    LogSegment segment;
+    do {
+      segment = newestFirst.next();
+      segment.force();
+    } while (segment != first);
+  }
+
+  private void recover() {
+    // copies of a compaction interrupted before they were appended to the log
+    File[] compacted = directory.listFiles((dir, name) -> name.endsWith(COMPACTED_SEGMENT_SUFFIX));
+    Arrays.stream(compacted).forEach(FileUtils::deleteQuietly);
+
+    File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+    Arrays.sort(files, Comparator.comparing(File::getName));
+    for (File file : files) {
+      LogSegment segment = LogSegment.open(segmentId(file), file);
+      segments.addLast(segment);
+      segment.forEachRecord(
+          (position, size, body) -> {
+            Location previous;
+            if (LogRecords.type(body) == LogRecords.PUT) {
+              Location location = new Location(segment, position, size);
+              segment.retain(size);
+              previous = index.put(LogRecords.messageId(body), location);
+            } else {
+              previous = index.remove(LogRecords.messageId(body));
+            }
+            if (previous != null) {
+              previous.segment().release(previous.size());
+            }
+          });
+    }
+    if (segments.isEmpty()) {
+      segments.addLast(newSegment(0, segmentSizeBytes));
+    }
+    logger.info(
+        "Recovered {} messages from {} log segments in path: {}",
+        index.size(),
+        segments.size(),
+        directory.getAbsolutePath());
+  }
+
+  private Location append(ByteBuffer record) {
+    return append(record, false);
+  }
+
+  private Location append(ByteBuffer record, boolean limited) {
+    LogSegment active = segments.getLast();
+    int position = active.append(record);
+    if (position < 0) {
+      long size = Math.max(segmentSizeBytes, record.remaining());
+      if (limited && sizeOnDiskBytes() + size > maxSizeBytes) {
+        throw new LogMessageRepositoryException(
+            format(
+                "Backup storage %s reached its maximum size of %d bytes. "
+                    + "Unable to add new messages.",
+                directory.getAbsolutePath(), maxSizeBytes));
+      }
+      if (fsyncPolicy != LogFsyncPolicy.NEVER) {
+        active.force();
+      }
+      active = newSegment(active.id() + 1, size);
+      segments.addLast(active);
+      position = active.append(record);
+    }
+    Location location = new Location(active, position, record.remaining());
+    if (LogRecords.type(LogRecords.body(record, 0, record.remaining())) == LogRecords.PUT) {
+      active.retain(location.size());
+    }
+    return location;
+  }
+
+  private long sizeOnDiskBytes() {
+    return segments.stream().mapToLong(LogSegment::capacity).sum();
+  }
+
+  /** Whether there is no room for another segment below the maximum size. */
+  private boolean isFull() {
+    return sizeOnDiskBytes() + segmentSizeBytes > maxSizeBytes;
+  }
+
+  private void release(Location location) {
+    location.segment().release(location.size());
+  }
+
+  private void writeCompleted() {
+    switch (fsyncPolicy) {
+      case EVERY_WRITE -> segments.getLast().force();
+      case BATCHED -> {
+        if (++unforcedWrites >= fsyncBatchSize) {
+          segments.getLast().force();
+          unforcedWrites = 0;
+        }
+      }
+      case NEVER -> {}
+    }
+  }
+
+  private boolean isLive(LogSegment segment, int position, ByteBuffer body) {
+    if (LogRecords.type(body) != LogRecords.PUT) {
+      return false;
+    }
+    Location location = index.get(LogRecords.messageId(body));
+    return location != null && location.segment() == segment && location.position() == position;
+  }
+
+  private LogSegment newSegment(long id, long size) {
+    return LogSegment.create(id, segmentFile(id), size);
+  }
+
+  private File segmentFile(long id) {
+    return new File(directory, format("%020d%s", id, SEGMENT_SUFFIX));
+  }
+
+  private void compactSafely() {
+    try {
+      compact();
+    } catch (RuntimeException e) {
+      logger.error("Error while compacting log backup storage {}", directory, e);
+    }
+  }
+
+  private void forceSafely() {
+    lock.lock();
+    try {
+      if (!closed) {
+        segments.getLast().force();
+        unforcedWrites = 0;
+      }
+    } catch (RuntimeException e) {
+      logger.error("Error while forcing log backup storage {}", directory, e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static long segmentId(File file) {
+    String name = file.getName();
+    return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private record Location(LogSegment segment, int position, int size) {}
+
+  private record Copy(String messageId, int position, int size, int targetPosition) {
+
+    private Copy(String messageId, int position, int size) {
+      this(messageId, position, size, -1);
+    }
+
+    private Copy withTargetPosition(int targetPosition) {
+      return new Copy(messageId, position, size, targetPosition);
+    }
+  }
+}
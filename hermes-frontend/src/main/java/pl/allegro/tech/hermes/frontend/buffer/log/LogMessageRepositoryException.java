@@ -0,0 +1,12 @@
+package pl.allegro.tech.hermes.frontend.buffer.log;
+
+public class LogMessageRepositoryException extends RuntimeException {
+
+  public LogMessageRepositoryException(String message) {
+    super(message);
+  }
+
+  public LogMessageRepositoryException(String message, Exception e) {
+    super(message, e);
+  }
+}
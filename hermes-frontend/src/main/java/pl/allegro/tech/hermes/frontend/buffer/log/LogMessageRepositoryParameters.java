@@ -0,0 +1,18 @@
+package pl.allegro.tech.hermes.frontend.buffer.log;
+
+import java.time.Duration;
+
+public interface LogMessageRepositoryParameters {
+
+  long getLogSegmentSizeBytes();
+
+  LogFsyncPolicy getLogFsyncPolicy();
+
+  int getLogFsyncBatchSize();
+
+  Duration getLogFsyncInterval();
+
+  double getLogCompactionThreshold();
+
+  Duration getLogCompactionInterval();
+}
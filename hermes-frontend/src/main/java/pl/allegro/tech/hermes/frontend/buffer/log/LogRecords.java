@@ -0,0 +1,173 @@
+package pl.allegro.tech.hermes.frontend.buffer.log;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.buffer.BackupMessage;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+
+/**
+ * Binary format of log records.
+ *
+ * <p>Record starts with the length and CRC32 checksum of its body, so a record torn by a crash is
+ * detected and reading of the segment stops there. Unwritten part of a segment is zeroed, zero
+ * length marks the end of records. Body starts with the record type and message id.
+ */
+final class LogRecords {
+
+  static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+  static final byte PUT = 1;
+  static final byte DELETE = 2;
+
+  private static final int NULL = -1;
+
+  private LogRecords() {}
+
+  static ByteBuffer put(Message message, Topic topic) {
+    return record(
+        out -> {
+          out.writeByte(PUT);
+          writeString(out, message.getId());
+          out.writeLong(message.getTimestamp());
+          writeString(out, topic.getQualifiedName());
+          writeString(out, message.getPartitionKey());
+          writeInteger(
+              out, message.getCompiledSchema().map(v -> v.getVersion().value()).orElse(null));
+          writeInteger(out, message.getCompiledSchema().map(v -> v.getId().value()).orElse(null));
+          Map<String, String> headers = message.getHTTPHeaders();
+          out.writeInt(headers.size());
+          for (Map.Entry<String, String> header : headers.entrySet()) {
+            writeString(out, header.getKey());
+            writeString(out, header.getValue());
+          }
+          out.writeInt(message.getData().length);
+          out.write(message.getData());
+        });
+  }
+
+  static ByteBuffer delete(String messageId) {
+    return record(
+        out -> {
+          out.writeByte(DELETE);
+          writeString(out, messageId);
+        });
+  }
+
+  /** Size of the valid record starting at the position or -1 if there is none. */
+  static int recordSize(ByteBuffer segment, int position) {
+    if (position + HEADER_SIZE > segment.limit()) {
+      return -1;
+    }
+    int length = segment.getInt(position);
+    if (length <= 0 || position + HEADER_SIZE + length > segment.limit()) {
+      return -1;
+    }
+    CRC32 crc = new CRC32();
+    crc.update(segment.slice(position + HEADER_SIZE, length));
+    if ((int) crc.getValue() != segment.getInt(position + Integer.BYTES)) {
+      return -1;
+    }
+    return HEADER_SIZE + length;
+  }
+
+  /** Body of the record of the given size starting at the position. */
+  static ByteBuffer body(ByteBuffer segment, int position, int size) {
+    return segment.slice(position + HEADER_SIZE, size - HEADER_SIZE);
+  }
+
+  static byte type(ByteBuffer body) {
+    return body.get(0);
+  }
+
+  static String messageId(ByteBuffer body) {
+    return readString(body.duplicate().position(1));
+  }
+
+  static BackupMessage backupMessage(ByteBuffer body) {
+    ByteBuffer in = body.duplicate().position(1);
+    String messageId = readString(in);
+    long timestamp = in.getLong();
+    String qualifiedTopicName = readString(in);
+    String partitionKey = readString(in);
+    Integer schemaVersion = readInteger(in);
+    Integer schemaId = readInteger(in);
+    int headersCount = in.getInt();
+    Map<String, String> headers = new HashMap<>(headersCount);
+    for (int i = 0; i < headersCount; i++) {
+      headers.put(readString(in), readString(in));
+    }
+    byte[] data = new byte[in.getInt()];
+    in.get(data);
+    return new BackupMessage(
+        messageId,
+        data,
+        timestamp,
+        qualifiedTopicName,
+        partitionKey,
+        schemaVersion,
+        schemaId,
+        headers);
+  }
+
+  private static ByteBuffer record(BodyWriter writer) {
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(body)) {
+      writer.write(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    byte[] bytes = body.toByteArray();
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    return ByteBuffer.allocate(HEADER_SIZE + bytes.length)
+        .putInt(bytes.length)
+        .putInt((int) crc.getValue())
+        .put(bytes)
+        .flip();
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(NULL);
+    } else {
+      byte[] bytes = value.getBytes(UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+    out.writeBoolean(value != null);
+    out.writeInt(value == null ? 0 : value);
+  }
+
+  private static String readString(ByteBuffer in) {
+    int length = in.getInt();
+    if (length == NULL) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.get(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  private static Integer readInteger(ByteBuffer in) {
+    boolean present = in.get() != 0;
+    int value = in.getInt();
+    return present ? value : null;
+  }
+
+  @FunctionalInterface
+  private interface BodyWriter {
+    void write(DataOutputStream out) throws IOException;
+  }
+}
@@ -0,0 +1,197 @@
+package pl.allegro.tech.hermes.frontend.buffer.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Memory mapped file holding a part of the log. Records are appended until the segment is full,
+ * then the log continues in a new segment.
+ *
+ * <p>Segment keeps count of records and bytes still live, i.e. records of messages neither deleted
+ * nor saved again later. Segment without live records is no longer needed.
+ *
+ * <p>Not thread safe, writes are guarded by {@link LogMessageRepository}.
+ */
+class LogSegment {
+
+  private static final Logger logger = LoggerFactory.getLogger(LogSegment.class);
+
+  private static final Unmapper UNMAPPER = Unmapper.create();
+
+  private long id;
+  private File file;
+  private final MappedByteBuffer buffer;
+
+  private int writePosition = 0;
+  private boolean dirty = false;
+  private int liveRecords = 0;
+  private long liveBytes = 0;
+
+  private LogSegment(long id, File file, MappedByteBuffer buffer) {
+    this.id = id;
+    this.file = file;
+    this.buffer = buffer;
+  }
+
+  static LogSegment create(long id, File file, long size) {
+    return new LogSegment(id, file, map(file, size));
+  }
+
+  /** Maps an existing segment file and finds the end of its valid records. */
+  static LogSegment open(long id, File file) {
+    LogSegment segment = new LogSegment(id, file, map(file, file.length()));
+    int size;
+    while ((size = LogRecords.recordSize(segment.buffer, segment.writePosition)) > 0) {
+      segment.writePosition += size;
+    }
+    return segment;
+  }
+
+  long id() {
+    return id;
+  }
+
+  /** Appends the record and returns its position or -1 if there is not enough space left. */
+  int append(ByteBuffer record) {
+    int size = record.remaining();
+    if (writePosition + size > buffer.capacity()) {
+      return -1;
+    }
+    int position = writePosition;
+    buffer.put(position, record, record.position(), size);
+    writePosition += size;
+    dirty = true;
+    return position;
+  }
+
+  void forEachRecord(RecordConsumer consumer) {
+    ByteBuffer records = buffer.duplicate().limit(writePosition);
+    int position = 0;
+    while (position < writePosition) {
+      int size = LogRecords.recordSize(records, position);
+      consumer.accept(position, size, LogRecords.body(records, position, size));
+      position += size;
+    }
+  }
+
+  /** Copy of the record of the given size starting at the position. */
+  ByteBuffer record(int position, int size) {
+    return ByteBuffer.allocate(size).put(0, buffer, position, size);
+  }
+
+  void retain(int recordSize) {
+    liveRecords++;
+    liveBytes += recordSize;
+  }
+
+  void release(int recordSize) {
+    liveRecords--;
+    liveBytes -= recordSize;
+  }
+
+  int liveRecords() {
+    return liveRecords;
+  }
+
+  long liveBytes() {
+    return liveBytes;
+  }
+
+  int writtenBytes() {
+    return writePosition;
+  }
+
+  int capacity() {
+    return buffer.capacity();
+  }
+
+  void force() {
+    if (dirty) {
+      buffer.force(0, writePosition);
+      dirty = false;
+    }
+  }
+
+  /** Renames the segment file, so the segment takes the given place in the log. */
+  void moveTo(long id, File target) {
+    try {
+      Files.move(file.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new LogMessageRepositoryException(
+          "Failed to move log segment " + file.getAbsolutePath(), e);
+    }
+    this.id = id;
+    this.file = target;
+  }
+
+  /**
+   * Unmaps and deletes the segment file. Mapping would otherwise hold disk space of the deleted
+   * file until the buffer is garbage collected; the segment must not be used afterwards.
+   */
+  void delete() {
+    if (UNMAPPER != null) {
+      UNMAPPER.unmap(buffer);
+    }
+    FileUtils.deleteQuietly(file);
+  }
+
+  private static MappedByteBuffer map(File file, long size) {
+    try (FileChannel channel =
+        FileChannel.open(
+            file.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    } catch (IOException e) {
+      throw new LogMessageRepositoryException(
+          "Failed to map log segment " + file.getAbsolutePath(), e);
+    }
+  }
+
+  private static class Unmapper {
+    private final Object unsafe;
+    private final Method invokeCleaner;
+
+    private Unmapper() throws ReflectiveOperationException {
+      Class<?> clazz = Class.forName("sun.misc.Unsafe");
+      Field field = clazz.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      unsafe = field.get(null);
+      invokeCleaner = clazz.getMethod("invokeCleaner", ByteBuffer.class);
+    }
+
+    static Unmapper create() {
+      try {
+        return new Unmapper();
+      } catch (ReflectiveOperationException e) {
+        logger.warn("Unmapping of log segments is not supported", e);
+        return null;
+      }
+    }
+
+    void unmap(MappedByteBuffer buffer) {
+      try {
+        invokeCleaner.invoke(unsafe, buffer);
+      } catch (ReflectiveOperationException e) {
+        logger.warn("Unmapping of log segment failed", e);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  interface RecordConsumer {
+    void accept(int position, int size, ByteBuffer body);
+  }
+}
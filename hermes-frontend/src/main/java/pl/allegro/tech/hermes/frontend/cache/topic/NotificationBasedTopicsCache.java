@@ -27,6 +27,7 @@ public class NotificationBasedTopicsCache
 
   private final ConcurrentMap<String, CachedTopic> topicCache = new ConcurrentHashMap<>();
 
+  private final InternalNotificationsBus notificationsBus;
   private final GroupRepository groupRepository;
   private final TopicRepository topicRepository;
   private final MetricsFacade metricsFacade;
@@ -41,6 +42,7 @@ public class NotificationBasedTopicsCache
       MetricsFacade metricsFacade,
       ThroughputRegistry throughputRegistry,
       KafkaNamesMapper kafkaNamesMapper) {
+    this.notificationsBus = notificationsBus;
     this.groupRepository = groupRepository;
     this.topicRepository = topicRepository;
     this.metricsFacade = metricsFacade;
@@ -104,6 +106,11 @@ public class NotificationBasedTopicsCache
     topic.ifPresent(t -> topicCache.put(qualifiedTopicName, cachedTopic(t)));
   }
 
+  @Override
+  public boolean receivesExistingTopics() {
+    return true;
+  }
+
   @Override
   public Optional<CachedTopic> getTopic(String qualifiedTopicName) {
     return Optional.ofNullable(topicCache.get(qualifiedTopicName));
@@ -116,6 +123,10 @@ public class NotificationBasedTopicsCache
 
   @Override
   public void start() {
+    if (notificationsBus.replaysModelOnRegistration()) {
+      // all topics were already passed to the callback on registration
+      return;
+    }
     for (String groupName : groupRepository.listGroupNames()) {
       for (Topic topic : topicRepository.listTopics(groupName)) {
         topicCache.put(topic.getQualifiedName(), cachedTopic(topic));
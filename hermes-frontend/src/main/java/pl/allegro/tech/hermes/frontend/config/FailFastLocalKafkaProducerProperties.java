@@ -70,6 +70,8 @@ public class FailFastLocalKafkaProducerProperties implements KafkaProducerParame
 
   private boolean idempotenceEnabled = false;
 
+  private int poolSize = 1;
+
   @Override
   public Duration getMaxBlock() {
     return maxBlock;
@@ -203,4 +205,13 @@ public class FailFastLocalKafkaProducerProperties implements KafkaProducerParame
   public void setIdempotenceEnabled(boolean idempotenceEnabled) {
     this.idempotenceEnabled = idempotenceEnabled;
   }
+
+  @Override
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public void setPoolSize(int poolSize) {
+    this.poolSize = poolSize;
+  }
 }
@@ -38,6 +38,8 @@ public class FailFastRemoteKafkaProducerProperties implements KafkaProducerParam
 
   private boolean idempotenceEnabled = false;
 
+  private int poolSize = 1;
+
   @Override
   public Duration getMaxBlock() {
     return maxBlock;
@@ -172,4 +174,13 @@ public class FailFastRemoteKafkaProducerProperties implements KafkaProducerParam
   public void setIdempotenceEnabled(boolean idempotenceEnabled) {
     this.idempotenceEnabled = idempotenceEnabled;
   }
+
+  @Override
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public void setPoolSize(int poolSize) {
+    this.poolSize = poolSize;
+  }
 }
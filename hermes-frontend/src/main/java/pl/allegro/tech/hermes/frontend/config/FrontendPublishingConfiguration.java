@@ -6,19 +6,24 @@ import io.undertow.server.HttpHandler;
 import jakarta.inject.Named;
 import java.time.Clock;
 import java.util.Optional;
+import org.apache.curator.framework.CuratorFramework;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import pl.allegro.tech.hermes.common.message.wrapper.CompositeMessageContentWrapper;
 import pl.allegro.tech.hermes.common.metric.MetricsFacade;
+import pl.allegro.tech.hermes.common.util.InstanceIdResolver;
 import pl.allegro.tech.hermes.domain.topic.preview.MessagePreviewRepository;
 import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache;
 import pl.allegro.tech.hermes.frontend.listeners.BrokerListeners;
 import pl.allegro.tech.hermes.frontend.metric.ThroughputRegistry;
 import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.HandlersChainFactory;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.NodeThroughputRegistry;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiter;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiterFactory;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.ZookeeperNodeThroughputRegistry;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.end.DefaultTrackingHeaderExtractor;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageEndProcessor;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor;
@@ -33,6 +38,7 @@ import pl.allegro.tech.hermes.frontend.publishing.preview.MessagePreviewFactory;
 import pl.allegro.tech.hermes.frontend.publishing.preview.MessagePreviewLog;
 import pl.allegro.tech.hermes.frontend.server.auth.AuthenticationConfiguration;
 import pl.allegro.tech.hermes.frontend.validator.MessageValidators;
+import pl.allegro.tech.hermes.infrastructure.zookeeper.ZookeeperPaths;
 import pl.allegro.tech.hermes.schema.SchemaRepository;
 import pl.allegro.tech.hermes.tracker.frontend.Trackers;
 
@@ -46,7 +52,7 @@ import pl.allegro.tech.hermes.tracker.frontend.Trackers;
 public class FrontendPublishingConfiguration {
 
   @Bean
-  public HttpHandler httpHandler(
+  public HandlersChainFactory handlersChainFactory(
       TopicsCache topicsCache,
       MessageErrorProcessor messageErrorProcessor,
       MessageEndProcessor messageEndProcessor,
@@ -56,19 +62,30 @@ public class FrontendPublishingConfiguration {
       ThroughputLimiter throughputLimiter,
       Optional<AuthenticationConfiguration> authConfig,
       MessagePreviewProperties messagePreviewProperties,
-      HandlersChainProperties handlersChainProperties) {
+      HandlersChainProperties handlersChainProperties,
+      ObjectMapper objectMapper) {
     return new HandlersChainFactory(
-            topicsCache,
-            messageErrorProcessor,
-            messageEndProcessor,
-            messageFactory,
-            brokerMessageProducer,
-            messagePreviewLog,
-            throughputLimiter,
-            authConfig,
-            messagePreviewProperties.isEnabled(),
-            handlersChainProperties)
-        .provide();
+        topicsCache,
+        messageErrorProcessor,
+        messageEndProcessor,
+        messageFactory,
+        brokerMessageProducer,
+        messagePreviewLog,
+        throughputLimiter,
+        authConfig,
+        messagePreviewProperties.isEnabled(),
+        handlersChainProperties,
+        objectMapper);
+  }
+
+  @Bean
+  public HttpHandler httpHandler(HandlersChainFactory handlersChainFactory) {
+    return handlersChainFactory.provide();
+  }
+
+  @Bean
+  public HttpHandler batchHttpHandler(HandlersChainFactory handlersChainFactory) {
+    return handlersChainFactory.provideBatch();
   }
 
   @Bean
@@ -78,8 +95,23 @@ public class FrontendPublishingConfiguration {
 
   @Bean
   public ThroughputLimiter throughputLimiter(
-      ThroughputProperties throughputProperties, ThroughputRegistry throughputRegistry) {
-    return new ThroughputLimiterFactory(throughputProperties, throughputRegistry).provide();
+      ThroughputProperties throughputProperties,
+      ThroughputRegistry throughputRegistry,
+      Optional<NodeThroughputRegistry> nodeThroughputRegistry) {
+    return new ThroughputLimiterFactory(
+            throughputProperties, throughputRegistry, nodeThroughputRegistry)
+        .provide();
+  }
+
+  @Bean
+  @ConditionalOnProperty(value = "frontend.throughput.type", havingValue = "distributed")
+  public NodeThroughputRegistry nodeThroughputRegistry(
+      CuratorFramework zookeeper,
+      ObjectMapper objectMapper,
+      ZookeeperPaths zookeeperPaths,
+      InstanceIdResolver instanceIdResolver) {
+    return new ZookeeperNodeThroughputRegistry(
+        zookeeper, objectMapper, zookeeperPaths, instanceIdResolver.resolve());
   }
 
   @Bean
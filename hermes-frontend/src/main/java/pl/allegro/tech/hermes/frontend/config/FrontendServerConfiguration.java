@@ -2,6 +2,7 @@ package pl.allegro.tech.hermes.frontend.config;
 
 import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
 import io.undertow.server.HttpHandler;
+import jakarta.inject.Named;
 import java.util.Optional;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -32,7 +33,8 @@ public class FrontendServerConfiguration {
       HermesServerProperties hermesServerProperties,
       SslProperties sslProperties,
       MetricsFacade metricsFacade,
-      HttpHandler publishingHandler,
+      @Named("httpHandler") HttpHandler publishingHandler,
+      @Named("batchHttpHandler") HttpHandler batchPublishingHandler,
       HealthCheckService healthCheckService,
       ReadinessChecker readinessChecker,
       DefaultMessagePreviewPersister defaultMessagePreviewPersister,
@@ -44,6 +46,7 @@ public class FrontendServerConfiguration {
         hermesServerProperties,
         metricsFacade,
         publishingHandler,
+        batchPublishingHandler,
         healthCheckService,
         readinessChecker,
         defaultMessagePreviewPersister,
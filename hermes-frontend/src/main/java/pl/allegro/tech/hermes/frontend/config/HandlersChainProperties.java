@@ -38,6 +38,11 @@ public class HandlersChainProperties implements HandlersChainParameters {
     return forceTopicMaxMessageSize;
   }
 
+  @Override
+  public int getBatchMaxMessages() {
+    return batch.maxMessages;
+  }
+
   @Override
   public boolean isKeepAliveHeaderEnabled() {
     return keepAliveHeader.enabled;
@@ -75,6 +80,8 @@ public class HandlersChainProperties implements HandlersChainParameters {
 
   private KeepAliveHeaderProperties keepAliveHeader = new KeepAliveHeaderProperties();
 
+  private BatchProperties batch = new BatchProperties();
+
   public AuthenticationProperties getAuthentication() {
     return authentication;
   }
@@ -91,6 +98,14 @@ public class HandlersChainProperties implements HandlersChainParameters {
     this.keepAliveHeader = keepAliveHeader;
   }
 
+  public BatchProperties getBatch() {
+    return batch;
+  }
+
+  public void setBatch(BatchProperties batch) {
+    this.batch = batch;
+  }
+
   public static class AuthenticationProperties {
 
     private boolean enabled = false;
@@ -136,4 +151,17 @@ public class HandlersChainProperties implements HandlersChainParameters {
       this.timeout = timeout;
     }
   }
+
+  public static class BatchProperties {
+
+    private int maxMessages = 100;
+
+    public int getMaxMessages() {
+      return maxMessages;
+    }
+
+    public void setMaxMessages(int maxMessages) {
+      this.maxMessages = maxMessages;
+    }
+  }
 }
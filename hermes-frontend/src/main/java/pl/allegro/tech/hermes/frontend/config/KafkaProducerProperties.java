@@ -37,6 +37,8 @@ public class KafkaProducerProperties implements KafkaProducerParameters {
 
   private boolean idempotenceEnabled = false;
 
+  private int poolSize = 1;
+
   @Override
   public Duration getMaxBlock() {
     return maxBlock;
@@ -170,4 +172,13 @@ public class KafkaProducerProperties implements KafkaProducerParameters {
   public void setIdempotenceEnabled(boolean idempotenceEnabled) {
     this.idempotenceEnabled = idempotenceEnabled;
   }
+
+  @Override
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  public void setPoolSize(int poolSize) {
+    this.poolSize = poolSize;
+  }
 }
@@ -5,6 +5,7 @@ import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import pl.allegro.tech.hermes.frontend.buffer.BackupMessagesLoaderParameters;
 import pl.allegro.tech.hermes.frontend.buffer.PersistentBufferExtensionParameters;
+import pl.allegro.tech.hermes.frontend.buffer.log.LogFsyncPolicy;
 
 @ConfigurationProperties(prefix = "frontend.messages.local.storage")
 public class LocalMessageStorageProperties
@@ -16,6 +17,8 @@ public class LocalMessageStorageProperties
 
   private boolean enabled = false;
 
+  private String storageType = "chronicle_map";
+
   private String directory = Files.createTempDir().getAbsolutePath();
 
   private String temporaryDirectory = Files.createTempDir().getAbsolutePath();
@@ -30,8 +33,26 @@ public class LocalMessageStorageProperties
 
   private Duration loadingWaitForBrokerTopicInfo = Duration.ofSeconds(5);
 
+  private int loadingChunkSize = 1000;
+
+  private int loadingRateLimit = 10_000;
+
+  private boolean loadingInBackgroundEnabled = true;
+
   private boolean sizeReportingEnabled = true;
 
+  private long logSegmentSizeBytes = 64 * 1024 * 1024L;
+
+  private LogFsyncPolicy logFsyncPolicy = LogFsyncPolicy.BATCHED;
+
+  private int logFsyncBatchSize = 1000;
+
+  private Duration logFsyncInterval = Duration.ofMillis(100);
+
+  private double logCompactionThreshold = 0.5;
+
+  private Duration logCompactionInterval = Duration.ofSeconds(10);
+
   @Override
   public long getBufferedSizeBytes() {
     return bufferedSizeBytes;
@@ -59,6 +80,15 @@ public class LocalMessageStorageProperties
     this.enabled = enabled;
   }
 
+  @Override
+  public String getStorageType() {
+    return storageType;
+  }
+
+  public void setStorageType(String storageType) {
+    this.storageType = storageType;
+  }
+
   @Override
   public String getDirectory() {
     return directory;
@@ -122,6 +152,33 @@ public class LocalMessageStorageProperties
     this.loadingWaitForBrokerTopicInfo = loadingWaitForBrokerTopicInfo;
   }
 
+  @Override
+  public int getLoadingChunkSize() {
+    return loadingChunkSize;
+  }
+
+  public void setLoadingChunkSize(int loadingChunkSize) {
+    this.loadingChunkSize = loadingChunkSize;
+  }
+
+  @Override
+  public int getLoadingRateLimit() {
+    return loadingRateLimit;
+  }
+
+  public void setLoadingRateLimit(int loadingRateLimit) {
+    this.loadingRateLimit = loadingRateLimit;
+  }
+
+  @Override
+  public boolean isLoadingInBackgroundEnabled() {
+    return loadingInBackgroundEnabled;
+  }
+
+  public void setLoadingInBackgroundEnabled(boolean loadingInBackgroundEnabled) {
+    this.loadingInBackgroundEnabled = loadingInBackgroundEnabled;
+  }
+
   @Override
   public boolean isSizeReportingEnabled() {
     return sizeReportingEnabled;
@@ -130,4 +187,58 @@ public class LocalMessageStorageProperties
   public void setSizeReportingEnabled(boolean sizeReportingEnabled) {
     this.sizeReportingEnabled = sizeReportingEnabled;
   }
+
+  @Override
+  public long getLogSegmentSizeBytes() {
+    return logSegmentSizeBytes;
+  }
+
+  public void setLogSegmentSizeBytes(long logSegmentSizeBytes) {
+    this.logSegmentSizeBytes = logSegmentSizeBytes;
+  }
+
+  @Override
+  public LogFsyncPolicy getLogFsyncPolicy() {
+    return logFsyncPolicy;
+  }
+
+  public void setLogFsyncPolicy(LogFsyncPolicy logFsyncPolicy) {
+    this.logFsyncPolicy = logFsyncPolicy;
+  }
+
+  @Override
+  public int getLogFsyncBatchSize() {
+    return logFsyncBatchSize;
+  }
+
+  public void setLogFsyncBatchSize(int logFsyncBatchSize) {
+    this.logFsyncBatchSize = logFsyncBatchSize;
+  }
+
+  @Override
+  public Duration getLogFsyncInterval() {
+    return logFsyncInterval;
+  }
+
+  public void setLogFsyncInterval(Duration logFsyncInterval) {
+    this.logFsyncInterval = logFsyncInterval;
+  }
+
+  @Override
+  public double getLogCompactionThreshold() {
+    return logCompactionThreshold;
+  }
+
+  public void setLogCompactionThreshold(double logCompactionThreshold) {
+    this.logCompactionThreshold = logCompactionThreshold;
+  }
+
+  @Override
+  public Duration getLogCompactionInterval() {
+    return logCompactionInterval;
+  }
+
+  public void setLogCompactionInterval(Duration logCompactionInterval) {
+    this.logCompactionInterval = logCompactionInterval;
+  }
 }
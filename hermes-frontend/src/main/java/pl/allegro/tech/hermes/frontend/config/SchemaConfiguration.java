@@ -38,12 +38,15 @@ public class SchemaConfiguration {
 
   @Bean
   public CompiledSchemaRepository<Schema> avroCompiledSchemaRepository(
-      RawSchemaClient rawSchemaClient, SchemaProperties schemaProperties) {
+      RawSchemaClient rawSchemaClient,
+      SchemaProperties schemaProperties,
+      MetricsFacade metricsFacade) {
     return new AvroCompiledSchemaRepositoryFactory(
             rawSchemaClient,
             schemaProperties.getCache().getCompiledMaximumSize(),
             schemaProperties.getCache().getCompiledExpireAfterAccess(),
-            schemaProperties.getCache().isEnabled())
+            schemaProperties.getCache().isEnabled(),
+            metricsFacade)
         .provide();
   }
 
@@ -21,6 +21,14 @@ public class ThroughputProperties implements ThroughputParameters {
 
   private Duration dynamicCheckInterval = Duration.ofSeconds(30);
 
+  private long distributedTopicMax = Long.MAX_VALUE;
+
+  private long distributedOwnerMax = Long.MAX_VALUE;
+
+  private int distributedMaxReportedTopics = 1000;
+
+  private Duration distributedSyncInterval = Duration.ofSeconds(10);
+
   @Override
   public String getType() {
     return type;
@@ -83,4 +91,40 @@ public class ThroughputProperties implements ThroughputParameters {
   public void setDynamicCheckInterval(Duration dynamicCheckInterval) {
     this.dynamicCheckInterval = dynamicCheckInterval;
   }
+
+  @Override
+  public long getDistributedTopicMax() {
+    return distributedTopicMax;
+  }
+
+  public void setDistributedTopicMax(long distributedTopicMax) {
+    this.distributedTopicMax = distributedTopicMax;
+  }
+
+  @Override
+  public long getDistributedOwnerMax() {
+    return distributedOwnerMax;
+  }
+
+  public void setDistributedOwnerMax(long distributedOwnerMax) {
+    this.distributedOwnerMax = distributedOwnerMax;
+  }
+
+  @Override
+  public int getDistributedMaxReportedTopics() {
+    return distributedMaxReportedTopics;
+  }
+
+  public void setDistributedMaxReportedTopics(int distributedMaxReportedTopics) {
+    this.distributedMaxReportedTopics = distributedMaxReportedTopics;
+  }
+
+  @Override
+  public Duration getDistributedSyncInterval() {
+    return distributedSyncInterval;
+  }
+
+  public void setDistributedSyncInterval(Duration distributedSyncInterval) {
+    this.distributedSyncInterval = distributedSyncInterval;
+  }
 }
@@ -25,6 +25,8 @@ public class ZookeeperProperties implements ZookeeperParameters {
 
   private ZookeeperAuthorizationProperties authorization = new ZookeeperAuthorizationProperties();
 
+  private ZookeeperModelSnapshotProperties modelSnapshot = new ZookeeperModelSnapshotProperties();
+
   @Override
   public String getConnectionString() {
     return connectionString;
@@ -133,6 +135,29 @@ public class ZookeeperProperties implements ZookeeperParameters {
     this.authorization = authorization;
   }
 
+  @Override
+  public boolean isModelSnapshotEnabled() {
+    return modelSnapshot.enabled;
+  }
+
+  @Override
+  public String getModelSnapshotFile() {
+    return modelSnapshot.file;
+  }
+
+  @Override
+  public Duration getModelSnapshotMaxAge() {
+    return modelSnapshot.maxAge;
+  }
+
+  public ZookeeperModelSnapshotProperties getModelSnapshot() {
+    return modelSnapshot;
+  }
+
+  public void setModelSnapshot(ZookeeperModelSnapshotProperties modelSnapshot) {
+    this.modelSnapshot = modelSnapshot;
+  }
+
   public static class ZookeeperAuthorizationProperties {
 
     private boolean enabled = false;
@@ -175,4 +200,37 @@ public class ZookeeperProperties implements ZookeeperParameters {
       this.password = password;
     }
   }
+
+  public static class ZookeeperModelSnapshotProperties {
+
+    private boolean enabled = false;
+
+    private String file = null;
+
+    private Duration maxAge = Duration.ofHours(1);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public String getFile() {
+      return file;
+    }
+
+    public void setFile(String file) {
+      this.file = file;
+    }
+
+    public Duration getMaxAge() {
+      return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+      this.maxAge = maxAge;
+    }
+  }
 }
@@ -172,7 +172,8 @@ public class KafkaMessageSender<K, V> {
     }
   }
 
-  public void registerGauges(Topic.Ack ack, String sender) {
+  public void registerGauges(Topic.Ack ack, String sender, int producerIndex) {
+    String producerId = String.valueOf(producerIndex);
     MetricName bufferTotalBytes =
         producerMetricMame("buffer-total-bytes", "producer-metrics", "buffer total bytes");
     MetricName bufferAvailableBytes =
@@ -198,60 +199,60 @@ public class KafkaMessageSender<K, V> {
       metricsFacade
           .producer()
           .registerAckAllTotalBytesGauge(
-              producer, producerMetric(bufferTotalBytes), sender, datacenter);
+              producer, producerMetric(bufferTotalBytes), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckAllAvailableBytesGauge(
-              producer, producerMetric(bufferAvailableBytes), sender, datacenter);
+              producer, producerMetric(bufferAvailableBytes), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckAllCompressionRateGauge(
-              producer, producerMetric(compressionRate), sender, datacenter);
+              producer, producerMetric(compressionRate), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckAllFailedBatchesGauge(
-              producer, producerMetric(failedBatches), sender, datacenter);
+              producer, producerMetric(failedBatches), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckAllMetadataAgeGauge(
-              producer, producerMetric(metadataAge), sender, datacenter);
+              producer, producerMetric(metadataAge), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckAllRecordQueueTimeMaxGauge(
-              producer, producerMetric(queueTimeMax), sender, datacenter);
+              producer, producerMetric(queueTimeMax), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckAllRecordSendCounter(
-              producer, producerMetric(recordSendTotal), sender, datacenter);
+              producer, producerMetric(recordSendTotal), sender, datacenter, producerId);
     } else if (ack == Topic.Ack.LEADER) {
       metricsFacade
           .producer()
           .registerAckLeaderTotalBytesGauge(
-              producer, producerMetric(bufferTotalBytes), sender, datacenter);
+              producer, producerMetric(bufferTotalBytes), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckLeaderAvailableBytesGauge(
-              producer, producerMetric(bufferAvailableBytes), sender, datacenter);
+              producer, producerMetric(bufferAvailableBytes), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckLeaderCompressionRateGauge(
-              producer, producerMetric(compressionRate), sender, datacenter);
+              producer, producerMetric(compressionRate), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckLeaderFailedBatchesGauge(
-              producer, producerMetric(failedBatches), sender, datacenter);
+              producer, producerMetric(failedBatches), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckLeaderMetadataAgeGauge(
-              producer, producerMetric(metadataAge), sender, datacenter);
+              producer, producerMetric(metadataAge), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckLeaderRecordQueueTimeMaxGauge(
-              producer, producerMetric(queueTimeMax), sender, datacenter);
+              producer, producerMetric(queueTimeMax), sender, datacenter, producerId);
       metricsFacade
           .producer()
           .registerAckLeaderRecordSendCounter(
-              producer, producerMetric(recordSendTotal), sender, datacenter);
+              producer, producerMetric(recordSendTotal), sender, datacenter, producerId);
     }
   }
 
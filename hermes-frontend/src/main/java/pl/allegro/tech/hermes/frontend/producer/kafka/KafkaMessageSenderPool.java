@@ -0,0 +1,63 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * Kafka producers of a single ack level in a single datacenter.
+ *
+ * <p>Every producer has its own send buffer and I/O thread, so spreading records over a few of them
+ * removes contention on a single producer. Records are routed by topic-partition: records with
+ * explicit partition go to the producer of that partition and records with a key go to the
+ * producer of the key - the same key always maps to the same partition. Thanks to that all records
+ * of a single key are sent by one producer and keep their order. Records without key have no
+ * ordering guarantee, so they are spread randomly over all producers, otherwise all traffic of a
+ * topic published without partition keys would go through a single producer.
+ */
+class KafkaMessageSenderPool {
+
+  private final List<KafkaMessageSender<byte[], byte[]>> senders;
+
+  KafkaMessageSenderPool(List<KafkaMessageSender<byte[], byte[]>> senders) {
+    checkArgument(!senders.isEmpty(), "Pool requires at least one sender");
+    this.senders = List.copyOf(senders);
+  }
+
+  KafkaMessageSender<byte[], byte[]> get(ProducerRecord<byte[], byte[]> record) {
+    if (senders.size() == 1) {
+      return senders.get(0);
+    }
+    if (record.partition() == null && record.key() == null) {
+      return senders.get(ThreadLocalRandom.current().nextInt(senders.size()));
+    }
+    return senders.get(Utils.toPositive(routingHash(record)) % senders.size());
+  }
+
+  /** Returns producer used for topic metadata lookups. */
+  KafkaMessageSender<byte[], byte[]> first() {
+    return senders.get(0);
+  }
+
+  List<KafkaMessageSender<byte[], byte[]>> all() {
+    return senders;
+  }
+
+  String getDatacenter() {
+    return first().getDatacenter();
+  }
+
+  void close() {
+    senders.forEach(KafkaMessageSender::close);
+  }
+
+  private static int routingHash(ProducerRecord<byte[], byte[]> record) {
+    if (record.partition() != null) {
+      return 31 * record.topic().hashCode() + record.partition();
+    }
+    return Utils.murmur2(record.key());
+  }
+}
@@ -3,6 +3,7 @@ package pl.allegro.tech.hermes.frontend.producer.kafka;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.PartitionInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,11 +16,11 @@ public class KafkaMessageSenders {
 
   private static final Logger logger = LoggerFactory.getLogger(KafkaMessageSenders.class);
 
-  private final KafkaMessageSender<byte[], byte[]> ackLeader;
-  private final KafkaMessageSender<byte[], byte[]> ackAll;
+  private final KafkaMessageSenderPool ackLeader;
+  private final KafkaMessageSenderPool ackAll;
 
-  private final List<KafkaMessageSender<byte[], byte[]>> remoteAckLeader;
-  private final List<KafkaMessageSender<byte[], byte[]>> remoteAckAll;
+  private final List<KafkaMessageSenderPool> remoteAckLeader;
+  private final List<KafkaMessageSenderPool> remoteAckAll;
 
   private final MinInSyncReplicasLoader localMinInSyncReplicasLoader;
   private final TopicMetadataLoadingExecutor topicMetadataLoadingExecutor;
@@ -48,16 +49,27 @@ public class KafkaMessageSenders {
     this.datacenters =
         Stream.concat(Stream.of(localSenders), remoteSenders.stream())
             .map(tuple -> tuple.ackAll)
-            .map(KafkaMessageSender::getDatacenter)
+            .map(KafkaMessageSenderPool::getDatacenter)
             .toList();
   }
 
   KafkaMessageSender<byte[], byte[]> get(Topic topic) {
-    return topic.isReplicationConfirmRequired() ? ackAll : ackLeader;
+    return getPool(topic).first();
+  }
+
+  KafkaMessageSender<byte[], byte[]> get(Topic topic, ProducerRecord<byte[], byte[]> record) {
+    return getPool(topic).get(record);
   }
 
-  List<KafkaMessageSender<byte[], byte[]>> getRemote(Topic topic) {
-    return topic.isReplicationConfirmRequired() ? remoteAckAll : remoteAckLeader;
+  List<KafkaMessageSender<byte[], byte[]>> getRemote(
+      Topic topic, ProducerRecord<byte[], byte[]> record) {
+    List<KafkaMessageSenderPool> pools =
+        topic.isReplicationConfirmRequired() ? remoteAckAll : remoteAckLeader;
+    return pools.stream().map(pool -> pool.get(record)).toList();
+  }
+
+  private KafkaMessageSenderPool getPool(Topic topic) {
+    return topic.isReplicationConfirmRequired() ? ackAll : ackLeader;
   }
 
   List<String> getDatacenters() {
@@ -112,19 +124,32 @@ public class KafkaMessageSenders {
   }
 
   public void registerSenderMetrics(String name) {
-    ackLeader.registerGauges(Topic.Ack.LEADER, name);
-    ackAll.registerGauges(Topic.Ack.ALL, name);
-    remoteAckLeader.forEach(sender -> sender.registerGauges(Topic.Ack.LEADER, name));
-    remoteAckAll.forEach(sender -> sender.registerGauges(Topic.Ack.ALL, name));
+    registerGauges(ackLeader, Topic.Ack.LEADER, name);
+    registerGauges(ackAll, Topic.Ack.ALL, name);
+    remoteAckLeader.forEach(pool -> registerGauges(pool, Topic.Ack.LEADER, name));
+    remoteAckAll.forEach(pool -> registerGauges(pool, Topic.Ack.ALL, name));
+  }
+
+  private static void registerGauges(KafkaMessageSenderPool pool, Topic.Ack ack, String name) {
+    List<KafkaMessageSender<byte[], byte[]>> senders = pool.all();
+    for (int i = 0; i < senders.size(); i++) {
+      senders.get(i).registerGauges(ack, name, i);
+    }
   }
 
   static class Tuple {
-    private final KafkaMessageSender<byte[], byte[]> ackLeader;
-    private final KafkaMessageSender<byte[], byte[]> ackAll;
+    private final KafkaMessageSenderPool ackLeader;
+    private final KafkaMessageSenderPool ackAll;
 
     Tuple(KafkaMessageSender<byte[], byte[]> ackLeader, KafkaMessageSender<byte[], byte[]> ackAll) {
-      this.ackLeader = ackLeader;
-      this.ackAll = ackAll;
+      this(List.of(ackLeader), List.of(ackAll));
+    }
+
+    Tuple(
+        List<KafkaMessageSender<byte[], byte[]>> ackLeader,
+        List<KafkaMessageSender<byte[], byte[]>> ackAll) {
+      this.ackLeader = new KafkaMessageSenderPool(ackLeader);
+      this.ackAll = new KafkaMessageSenderPool(ackAll);
     }
   }
 
@@ -135,8 +160,8 @@ public class KafkaMessageSenders {
 
   private class KafkaProducerMetadataRefresher implements TopicMetadataLoader {
 
-    private final KafkaMessageSender<byte[], byte[]> ackLeader;
-    private final KafkaMessageSender<byte[], byte[]> ackAll;
+    private final KafkaMessageSenderPool ackLeader;
+    private final KafkaMessageSenderPool ackAll;
 
     KafkaProducerMetadataRefresher(Tuple tuple) {
       this.ackLeader = tuple.ackLeader;
@@ -146,20 +171,23 @@ public class KafkaMessageSenders {
     @Override
     public MetadataLoadingResult load(CachedTopic cachedTopic) {
       String kafkaTopicName = cachedTopic.getKafkaTopics().getPrimary().name().asString();
-      var sender = getSender(cachedTopic.getTopic());
-      var partitionInfos = sender.loadPartitionMetadataFor(kafkaTopicName);
-      if (anyPartitionWithoutLeader(partitionInfos)) {
-        logger.warn("Topic {} has partitions without a leader.", kafkaTopicName);
-        return MetadataLoadingResult.failure(cachedTopic.getTopicName(), sender.getDatacenter());
-      }
-      if (partitionInfos.isEmpty()) {
-        logger.warn("No information about partitions for topic {}", kafkaTopicName);
-        return MetadataLoadingResult.failure(cachedTopic.getTopicName(), sender.getDatacenter());
+      var pool = getPool(cachedTopic.getTopic());
+      // every producer keeps its own metadata, any of them may be chosen to send to the topic
+      for (KafkaMessageSender<byte[], byte[]> sender : pool.all()) {
+        var partitionInfos = sender.loadPartitionMetadataFor(kafkaTopicName);
+        if (anyPartitionWithoutLeader(partitionInfos)) {
+          logger.warn("Topic {} has partitions without a leader.", kafkaTopicName);
+          return MetadataLoadingResult.failure(cachedTopic.getTopicName(), pool.getDatacenter());
+        }
+        if (partitionInfos.isEmpty()) {
+          logger.warn("No information about partitions for topic {}", kafkaTopicName);
+          return MetadataLoadingResult.failure(cachedTopic.getTopicName(), pool.getDatacenter());
+        }
       }
-      return MetadataLoadingResult.success(cachedTopic.getTopicName(), sender.getDatacenter());
+      return MetadataLoadingResult.success(cachedTopic.getTopicName(), pool.getDatacenter());
     }
 
-    private KafkaMessageSender<byte[], byte[]> getSender(Topic topic) {
+    private KafkaMessageSenderPool getPool(Topic topic) {
       return topic.isReplicationConfirmRequired() ? ackAll : ackLeader;
     }
   }
@@ -1,5 +1,6 @@
 package pl.allegro.tech.hermes.frontend.producer.kafka;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static org.apache.kafka.clients.CommonClientConfigs.SECURITY_PROTOCOL_CONFIG;
 import static org.apache.kafka.clients.producer.ProducerConfig.ACKS_CONFIG;
 import static org.apache.kafka.clients.producer.ProducerConfig.BATCH_SIZE_CONFIG;
@@ -24,6 +25,7 @@ import static org.apache.kafka.common.config.SaslConfigs.SASL_JAAS_CONFIG;
 import static org.apache.kafka.common.config.SaslConfigs.SASL_MECHANISM;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -84,16 +86,16 @@ public class KafkaMessageSendersFactory {
       String senderName) {
     KafkaMessageSenders.Tuple localProducers =
         new KafkaMessageSenders.Tuple(
-            sender(kafkaParameters, localKafkaProducerParameters, ACK_LEADER),
-            sender(kafkaParameters, localKafkaProducerParameters, ACK_ALL));
+            senders(kafkaParameters, localKafkaProducerParameters, ACK_LEADER),
+            senders(kafkaParameters, localKafkaProducerParameters, ACK_ALL));
 
     List<KafkaMessageSenders.Tuple> remoteProducers =
         remoteKafkaParameters.stream()
             .map(
                 kafkaProperties ->
                     new KafkaMessageSenders.Tuple(
-                        sender(kafkaProperties, remoteKafkaProducerParameters, ACK_LEADER),
-                        sender(kafkaProperties, remoteKafkaProducerParameters, ACK_ALL)))
+                        senders(kafkaProperties, remoteKafkaProducerParameters, ACK_LEADER),
+                        senders(kafkaProperties, remoteKafkaProducerParameters, ACK_ALL)))
             .toList();
     KafkaMessageSenders senders =
         new KafkaMessageSenders(
@@ -105,15 +107,31 @@ public class KafkaMessageSendersFactory {
     return senders;
   }
 
-  private KafkaMessageSender<byte[], byte[]> sender(
+  private List<KafkaMessageSender<byte[], byte[]>> senders(
       KafkaParameters kafkaParameters,
       KafkaProducerParameters kafkaProducerParameters,
       String acks) {
+    int poolSize = kafkaProducerParameters.getPoolSize();
+    checkArgument(poolSize > 0, "Kafka producer pool size must be positive, was: %s", poolSize);
+    // producers of a pool split the buffer, so memory they use does not depend on pool size
+    long bufferMemory = bufferedSizeBytes / poolSize;
+    List<KafkaMessageSender<byte[], byte[]>> senders = new ArrayList<>(poolSize);
+    for (int i = 0; i < poolSize; i++) {
+      senders.add(sender(kafkaParameters, kafkaProducerParameters, acks, bufferMemory));
+    }
+    return senders;
+  }
+
+  private KafkaMessageSender<byte[], byte[]> sender(
+      KafkaParameters kafkaParameters,
+      KafkaProducerParameters kafkaProducerParameters,
+      String acks,
+      long bufferMemory) {
     Map<String, Object> props = new HashMap<>();
     props.put(BOOTSTRAP_SERVERS_CONFIG, kafkaParameters.getBrokerList());
     props.put(MAX_BLOCK_MS_CONFIG, (int) kafkaProducerParameters.getMaxBlock().toMillis());
     props.put(COMPRESSION_TYPE_CONFIG, kafkaProducerParameters.getCompressionCodec());
-    props.put(BUFFER_MEMORY_CONFIG, bufferedSizeBytes);
+    props.put(BUFFER_MEMORY_CONFIG, bufferMemory);
     props.put(
         REQUEST_TIMEOUT_MS_CONFIG, (int) kafkaProducerParameters.getRequestTimeout().toMillis());
     props.put(
@@ -28,7 +28,7 @@ public class LocalDatacenterMessageProducer implements BrokerMessageProducer {
         messageConverter.convertToProducerRecord(
             message, cachedTopic.getKafkaTopics().getPrimary().name());
 
-    var producer = kafkaMessageSenders.get(cachedTopic.getTopic());
+    var producer = kafkaMessageSenders.get(cachedTopic.getTopic(), producerRecord);
     Callback wrappedCallback =
         new SendCallback(message, cachedTopic, callback, producer.getDatacenter());
     producer.send(producerRecord, cachedTopic, message, wrappedCallback);
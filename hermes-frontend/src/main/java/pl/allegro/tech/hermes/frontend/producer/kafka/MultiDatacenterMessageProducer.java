@@ -60,8 +60,9 @@ public class MultiDatacenterMessageProducer implements BrokerMessageProducer {
             message, cachedTopic.getKafkaTopics().getPrimary().name());
 
     KafkaMessageSender<byte[], byte[]> localSender =
-        kafkaMessageSenders.get(cachedTopic.getTopic());
-    Optional<KafkaMessageSender<byte[], byte[]>> remoteSender = getRemoteSender(cachedTopic);
+        kafkaMessageSenders.get(cachedTopic.getTopic(), producerRecord);
+    Optional<KafkaMessageSender<byte[], byte[]>> remoteSender =
+        getRemoteSender(cachedTopic, producerRecord);
 
     Map<String, ChaosExperiment> experiments =
         createChaosExperimentsPerDatacenter(cachedTopic.getTopic());
@@ -227,8 +228,9 @@ public class MultiDatacenterMessageProducer implements BrokerMessageProducer {
     private static final ChaosExperiment DISABLED = new ChaosExperiment(false, false, 0);
   }
 
-  private Optional<KafkaMessageSender<byte[], byte[]>> getRemoteSender(CachedTopic cachedTopic) {
-    return kafkaMessageSenders.getRemote(cachedTopic.getTopic()).stream()
+  private Optional<KafkaMessageSender<byte[], byte[]>> getRemoteSender(
+      CachedTopic cachedTopic, ProducerRecord<byte[], byte[]> producerRecord) {
+    return kafkaMessageSenders.getRemote(cachedTopic.getTopic(), producerRecord).stream()
         .filter(producer -> adminReadinessService.isDatacenterReady(producer.getDatacenter()))
         .findFirst();
   }
@@ -0,0 +1,321 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import static java.lang.String.format;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+import static pl.allegro.tech.hermes.api.ErrorCode.INTERNAL_ERROR;
+import static pl.allegro.tech.hermes.api.ErrorCode.SENDING_TO_KAFKA_TIMEOUT;
+import static pl.allegro.tech.hermes.api.ErrorCode.VALIDATION_ERROR;
+import static pl.allegro.tech.hermes.api.ErrorDescription.error;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.StatusCodes;
+import java.util.List;
+import java.util.Optional;
+import pl.allegro.tech.hermes.api.ErrorDescription;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.metric.CachedTopic;
+import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer;
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageEndProcessor;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageFactory;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageIdGenerator;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageState;
+import pl.allegro.tech.hermes.frontend.publishing.preview.MessagePreviewLog;
+
+/**
+ * Publishes all messages of a batch request read by {@link MessageReadHandler}.
+ *
+ * <p>Every message is validated and wrapped by {@link MessageFactory} and handed to the producer
+ * like a message published on its own, so it gets the same delivery guarantees. Response contains
+ * result of every message: 201 when acknowledged by the broker, 202 when still buffered after the
+ * request timeout, or an error. Status of the response is the status shared by all messages, or
+ * 207 when they differ.
+ */
+class BatchPublishingHandler implements HttpHandler {
+
+  private final BrokerMessageProducer brokerMessageProducer;
+  private final MessageFactory messageFactory;
+  private final MessageErrorProcessor messageErrorProcessor;
+  private final MessageEndProcessor messageEndProcessor;
+  private final Optional<MessagePreviewLog> previewLog;
+  private final ObjectMapper objectMapper;
+  private final MessageBatchSplitter splitter;
+  private final boolean forceMaxMessageSizePerTopic;
+
+  BatchPublishingHandler(
+      BrokerMessageProducer brokerMessageProducer,
+      MessageFactory messageFactory,
+      MessageErrorProcessor messageErrorProcessor,
+      MessageEndProcessor messageEndProcessor,
+      Optional<MessagePreviewLog> previewLog,
+      ObjectMapper objectMapper,
+      int maxMessages,
+      boolean forceMaxMessageSizePerTopic) {
+    this.brokerMessageProducer = brokerMessageProducer;
+    this.messageFactory = messageFactory;
+    this.messageErrorProcessor = messageErrorProcessor;
+    this.messageEndProcessor = messageEndProcessor;
+    this.previewLog = previewLog;
+    this.objectMapper = objectMapper;
+    this.splitter = new MessageBatchSplitter(maxMessages);
+    this.forceMaxMessageSizePerTopic = forceMaxMessageSizePerTopic;
+  }
+
+  @Override
+  public void handleRequest(HttpServerExchange exchange) {
+    // change state of exchange to dispatched, see PublishingHandler
+    exchange.dispatch(
+        () -> {
+          try {
+            handle(exchange);
+          } catch (RuntimeException e) {
+            AttachmentContent attachment = exchange.getAttachment(AttachmentContent.KEY);
+            attachment.getMessageState().setErrorInSendingToKafka();
+            messageErrorProcessor.sendAndLog(
+                exchange, "Exception while publishing batch to a broker.", e);
+          }
+        });
+  }
+
+  private void handle(HttpServerExchange exchange) {
+    AttachmentContent attachment = exchange.getAttachment(AttachmentContent.KEY);
+    MessageState messageState = attachment.getMessageState();
+
+    List<byte[]> contents;
+    try {
+      contents = splitter.split(attachment.getMessageContent());
+    } catch (MessageBatchSplitter.InvalidBatchException e) {
+      attachment.removeTimeout();
+      messageErrorProcessor.sendAndLog(
+          exchange,
+          attachment.getTopic(),
+          attachment.getMessageId(),
+          error("Invalid batch: " + e.getMessage(), VALIDATION_ERROR));
+      return;
+    }
+
+    MessageBatch batch = new MessageBatch(contents.size());
+    exchange.putAttachment(MessageBatch.KEY, batch);
+    messageState.setSendingToKafkaProducerQueue();
+    for (int i = 0; i < contents.size(); i++) {
+      publish(exchange, attachment, batch, i, contents.get(i));
+    }
+
+    if (messageState.setSendingToKafka()
+        && !batch.isTimedOut()
+        && !attachment.getTopic().isFallbackToRemoteDatacenterEnabled()
+        && messageState.setDelayedProcessing()) {
+      // timeout elapsed before the batch was handed to the producer
+      attachment.getCachedTopic().markDelayedProcessing();
+      timeout(exchange, attachment, batch);
+    }
+    if (batch.release()) {
+      complete(exchange, attachment, batch);
+    }
+  }
+
+  private void publish(
+      HttpServerExchange exchange,
+      AttachmentContent attachment,
+      MessageBatch batch,
+      int index,
+      byte[] content) {
+    CachedTopic cachedTopic = attachment.getCachedTopic();
+    Topic topic = cachedTopic.getTopic();
+    String messageId = MessageIdGenerator.generate();
+
+    if (forceMaxMessageSizePerTopic && content.length > topic.getMaxMessageSize()) {
+      ErrorDescription error =
+          error(
+              format(
+                  "Message is larger than max on this topic [length:%s, max:%s].",
+                  content.length, topic.getMaxMessageSize()),
+              VALIDATION_ERROR);
+      fail(exchange, attachment, batch, index, messageId, error, null);
+      return;
+    }
+
+    Message message;
+    try {
+      message = messageFactory.create(exchange.getRequestHeaders(), topic, messageId, content);
+      cachedTopic.reportMessageContentSize(content.length);
+    } catch (Exception e) {
+      fail(exchange, attachment, batch, index, messageId, MessageCreateHandler.creationError(e), e);
+      return;
+    }
+    previewLog.ifPresent(log -> log.add(topic, message));
+
+    batch.submitted(index, message);
+    try {
+      brokerMessageProducer.send(
+          message, cachedTopic, new BatchPublishingCallback(exchange, attachment, batch, index));
+    } catch (RuntimeException e) {
+      fail(
+          exchange,
+          attachment,
+          batch,
+          index,
+          messageId,
+          error("Message not published. " + getRootCauseMessage(e), INTERNAL_ERROR),
+          e);
+      return;
+    }
+    if (batch.isTimedOut()) {
+      timeout(exchange, attachment, batch, index);
+    }
+  }
+
+  /** Resolves all messages already handed to the producer and not acknowledged yet. */
+  void timeout(HttpServerExchange exchange, AttachmentContent attachment, MessageBatch batch) {
+    batch.markTimedOut();
+    for (int i = 0; i < batch.size(); i++) {
+      timeout(exchange, attachment, batch, i);
+    }
+  }
+
+  private void timeout(
+      HttpServerExchange exchange, AttachmentContent attachment, MessageBatch batch, int index) {
+    Message message = batch.message(index);
+    if (message == null) {
+      return;
+    }
+    Topic topic = attachment.getTopic();
+    if (topic.isFallbackToRemoteDatacenterEnabled()) {
+      fail(
+          exchange,
+          attachment,
+          batch,
+          index,
+          message.getId(),
+          error(
+              format(
+                  "Timeout while sending to kafka message after %d milliseconds",
+                  attachment.getTimeoutHolder().getTimeout()),
+              SENDING_TO_KAFKA_TIMEOUT),
+          null);
+    } else if (batch.resolve(
+        index, new MessageBatch.Result(message.getId(), StatusCodes.ACCEPTED, null))) {
+      messageEndProcessor.buffered(exchange, topic, message);
+      if (batch.release()) {
+        complete(exchange, attachment, batch);
+      }
+    }
+  }
+
+  private void fail(
+      HttpServerExchange exchange,
+      AttachmentContent attachment,
+      MessageBatch batch,
+      int index,
+      String messageId,
+      ErrorDescription error,
+      Exception exception) {
+    MessageBatch.Result result =
+        new MessageBatch.Result(messageId, error.getCode().getHttpCode(), error);
+    if (batch.resolve(index, result)) {
+      messageErrorProcessor.log(exchange, attachment.getTopic(), messageId, error, exception);
+      if (batch.release()) {
+        complete(exchange, attachment, batch);
+      }
+    }
+  }
+
+  private void complete(
+      HttpServerExchange exchange, AttachmentContent attachment, MessageBatch batch) {
+    attachment.removeTimeout();
+    List<MessageBatch.Result> results = batch.results();
+    try {
+      messageEndProcessor.batchProcessed(
+          exchange,
+          attachment,
+          responseStatus(results),
+          objectMapper.writeValueAsString(new BatchResponse(results)));
+    } catch (JsonProcessingException e) {
+      messageErrorProcessor.sendAndLog(
+          exchange, attachment.getTopic(), attachment.getMessageId(), e);
+    }
+  }
+
+  private static int responseStatus(List<MessageBatch.Result> results) {
+    int status = results.get(0).status();
+    if (results.stream().allMatch(result -> result.status() == status)) {
+      return status;
+    }
+    // some messages were acknowledged and other are still buffered
+    boolean successful = results.stream().allMatch(result -> result.error() == null);
+    return successful ? StatusCodes.ACCEPTED : StatusCodes.MULTI_STATUS;
+  }
+
+  private class BatchPublishingCallback implements PublishingCallback {
+
+    private final HttpServerExchange exchange;
+    private final AttachmentContent attachment;
+    private final MessageBatch batch;
+    private final int index;
+
+    private BatchPublishingCallback(
+        HttpServerExchange exchange, AttachmentContent attachment, MessageBatch batch, int index) {
+      this.exchange = exchange;
+      this.attachment = attachment;
+      this.batch = batch;
+      this.index = index;
+    }
+
+    @Override
+    public void onPublished(Message message, Topic topic) {
+      exchange
+          .getConnection()
+          .getWorker()
+          .execute(
+              () -> {
+                MessageBatch.Result published =
+                    new MessageBatch.Result(message.getId(), StatusCodes.CREATED, null);
+                if (batch.resolve(index, published)) {
+                  if (batch.release()) {
+                    complete(exchange, attachment, batch);
+                  }
+                } else if (batch.result(index).status() == StatusCodes.ACCEPTED) {
+                  messageEndProcessor.delayedSent(attachment.getCachedTopic(), message);
+                }
+              });
+    }
+
+    @Override
+    public void onEachPublished(Message message, Topic topic, String datacenter) {
+      exchange
+          .getConnection()
+          .getWorker()
+          .execute(
+              () -> {
+                attachment.getCachedTopic().incrementPublished(datacenter);
+                messageEndProcessor.eachSent(exchange, topic, message.getId(), datacenter);
+              });
+    }
+
+    @Override
+    public void onUnpublished(Message message, Topic topic, Exception exception) {
+      exchange
+          .getConnection()
+          .getWorker()
+          .execute(
+              () ->
+                  fail(
+                      exchange,
+                      attachment,
+                      batch,
+                      index,
+                      message.getId(),
+                      error(
+                          "Message not published. " + getRootCauseMessage(exception),
+                          INTERNAL_ERROR),
+                      exception));
+    }
+  }
+
+  private record BatchResponse(List<MessageBatch.Result> messages) {}
+}
@@ -0,0 +1,50 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor;
+
+/**
+ * Handles timeout of a batch publish request. Until the batch is handed to {@link
+ * BatchPublishingHandler} the request is timed out like a single message, afterwards only the
+ * messages not acknowledged yet are resolved.
+ */
+class BatchTimeoutHandler implements HttpHandler {
+
+  private final HttpHandler messageTimeoutHandler;
+  private final BatchPublishingHandler batchPublishingHandler;
+  private final MessageErrorProcessor messageErrorProcessor;
+
+  BatchTimeoutHandler(
+      HttpHandler messageTimeoutHandler,
+      BatchPublishingHandler batchPublishingHandler,
+      MessageErrorProcessor messageErrorProcessor) {
+    this.messageTimeoutHandler = messageTimeoutHandler;
+    this.batchPublishingHandler = batchPublishingHandler;
+    this.messageErrorProcessor = messageErrorProcessor;
+  }
+
+  @Override
+  public void handleRequest(HttpServerExchange exchange) throws Exception {
+    MessageBatch batch = exchange.getAttachment(MessageBatch.KEY);
+    if (batch == null) {
+      messageTimeoutHandler.handleRequest(exchange);
+      return;
+    }
+
+    AttachmentContent attachment = exchange.getAttachment(AttachmentContent.KEY);
+    attachment.getMessageState().setTimeoutHasPassed();
+    exchange
+        .getConnection()
+        .getWorker()
+        .execute(
+            () -> {
+              try {
+                batchPublishingHandler.timeout(exchange, attachment, batch);
+              } catch (RuntimeException exception) {
+                messageErrorProcessor.sendAndLog(
+                    exchange, "Exception while handling batch timeout.", exception);
+              }
+            });
+  }
+}
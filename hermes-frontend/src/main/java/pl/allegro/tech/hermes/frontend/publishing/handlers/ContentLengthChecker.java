@@ -7,22 +7,31 @@ import io.undertow.util.HeaderMap;
 import io.undertow.util.HeaderValues;
 import io.undertow.util.Headers;
 import java.io.IOException;
+import java.util.function.ToIntFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.Topic;
 
 final class ContentLengthChecker {
   private static final Logger logger = LoggerFactory.getLogger(ContentLengthChecker.class);
 
   private final boolean forceMaxMessageSizePerTopic;
+  private final ToIntFunction<Topic> maxContentLength;
 
   ContentLengthChecker(boolean forceMaxMessageSizePerTopic) {
+    this(forceMaxMessageSizePerTopic, Topic::getMaxMessageSize);
+  }
+
+  ContentLengthChecker(
+      boolean forceMaxMessageSizePerTopic, ToIntFunction<Topic> maxContentLength) {
     this.forceMaxMessageSizePerTopic = forceMaxMessageSizePerTopic;
+    this.maxContentLength = maxContentLength;
   }
 
   void check(HttpServerExchange exchange, int contentLength, AttachmentContent attachment)
       throws InvalidContentLengthException, ContentTooLargeException {
 
-    int max = attachment.getCachedTopic().getTopic().getMaxMessageSize();
+    int max = maxContentLength.applyAsInt(attachment.getCachedTopic().getTopic());
     long expected = exchange.getRequestContentLength();
     if (expected != contentLength && !isChunked(exchange.getRequestHeaders(), expected)) {
       throw new InvalidContentLengthException(expected, contentLength);
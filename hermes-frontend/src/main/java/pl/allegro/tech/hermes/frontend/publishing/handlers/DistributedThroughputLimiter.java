@@ -0,0 +1,212 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiter.QuotaInsight.ownerQuotaViolation;
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiter.QuotaInsight.quotaConfirmed;
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiter.QuotaInsight.quotaViolation;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.OwnerId;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.metrics.HermesRateMeter;
+
+/**
+ * Enforces cluster wide per topic and per owner throughput budgets. Every node periodically reports
+ * its local rates to {@link NodeThroughputRegistry} and reads the rates reported by other nodes.
+ * Each node gets a share of the budget proportional to its local rate, but never less than what
+ * is left of the budget after subtracting rates of other nodes, so a single node may use the whole
+ * budget when it is the only one receiving traffic.
+ *
+ * <p>When an owner exceeds its share, the share is split between its topics proportionally to their
+ * local rates, and each topic is rejected only while its current rate is above its part, so the
+ * owner is throttled down to its budget instead of being blocked entirely.
+ *
+ * <p>Limits are recalculated once per sync interval, until the first sync a node allows the whole
+ * budget. Only the busiest topics are reported to other nodes to keep the reported state small.
+ */
+public class DistributedThroughputLimiter implements ThroughputLimiter, Runnable {
+
+  private static final Logger logger = LoggerFactory.getLogger(DistributedThroughputLimiter.class);
+
+  private final long topicMax;
+  private final long ownerMax;
+  private final double idleThreshold;
+  private final int maxReportedTopics;
+  private final NodeThroughputRegistry registry;
+
+  private final ScheduledExecutorService executor;
+  private final Duration syncInterval;
+
+  private final ConcurrentHashMap<TopicName, Throughput> users = new ConcurrentHashMap<>();
+
+  public DistributedThroughputLimiter(
+      long topicMax,
+      long ownerMax,
+      double idleThreshold,
+      int maxReportedTopics,
+      Duration syncInterval,
+      NodeThroughputRegistry registry,
+      ScheduledExecutorService executor) {
+    this.topicMax = topicMax;
+    this.ownerMax = ownerMax;
+    this.idleThreshold = idleThreshold;
+    this.maxReportedTopics = maxReportedTopics;
+    this.syncInterval = syncInterval;
+    this.registry = registry;
+    this.executor = executor;
+  }
+
+  @Override
+  public QuotaInsight checkQuota(TopicName topic, HermesRateMeter rate) {
+    return checkQuota(topic, null, rate);
+  }
+
+  @Override
+  public QuotaInsight checkQuota(Topic topic, HermesRateMeter rate) {
+    return checkQuota(topic.getName(), ownerKey(topic.getOwner()), rate);
+  }
+
+  private QuotaInsight checkQuota(TopicName topic, String owner, HermesRateMeter rate) {
+    Throughput throughput =
+        users.computeIfAbsent(topic, name -> new Throughput(rate, owner, topicMax));
+    if (owner != null && !owner.equals(throughput.owner)) {
+      throughput.owner = owner;
+    }
+    long value = throughput.getRoundedOneMinuteRate();
+    if (value > throughput.max) {
+      return quotaViolation(value, throughput.max);
+    }
+    if (value > throughput.ownerMax) {
+      return ownerQuotaViolation(throughput.owner, throughput.ownerMax);
+    }
+    return quotaConfirmed();
+  }
+
+  @Override
+  public void start() {
+    executor.scheduleAtFixedRate(
+        this, syncInterval.toMillis(), syncInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    executor.shutdown();
+  }
+
+  @Override
+  public void run() {
+    try {
+      sync();
+    } catch (Exception e) {
+      logger.error("Error while synchronizing throughput limits with other frontend nodes", e);
+    }
+  }
+
+  private void sync() {
+    users.entrySet().removeIf(entry -> entry.getValue().getOneMinuteRate() <= idleThreshold);
+
+    Map<TopicName, Double> localTopics = new HashMap<>();
+    Map<String, Double> localOwners = new HashMap<>();
+    users.forEach(
+        (topic, throughput) -> {
+          double rate = throughput.getOneMinuteRate();
+          localTopics.put(topic, rate);
+          if (throughput.owner != null) {
+            localOwners.merge(throughput.owner, rate, Double::sum);
+          }
+        });
+    registry.report(reported(localTopics, localOwners));
+
+    Map<String, Double> otherTopics = new HashMap<>();
+    Map<String, Double> otherOwners = new HashMap<>();
+    List<NodeThroughput> otherNodes = registry.readOtherNodes();
+    for (NodeThroughput node : otherNodes) {
+      node.topics().forEach((topic, rate) -> otherTopics.merge(topic, rate, Double::sum));
+      node.owners().forEach((owner, rate) -> otherOwners.merge(owner, rate, Double::sum));
+    }
+
+    Map<String, Long> ownerLimits = new HashMap<>();
+    localOwners.forEach(
+        (owner, rate) -> {
+          long limit = localShare(ownerMax, rate, otherOwners.getOrDefault(owner, 0d));
+          ownerLimits.put(owner, limit);
+        });
+
+    users.forEach(
+        (topic, throughput) -> {
+          double rate = localTopics.getOrDefault(topic, 0d);
+          throughput.max =
+              localShare(topicMax, rate, otherTopics.getOrDefault(topic.qualifiedName(), 0d));
+          throughput.ownerMax = ownerShare(throughput.owner, rate, localOwners, ownerLimits);
+        });
+  }
+
+  private NodeThroughput reported(Map<TopicName, Double> topics, Map<String, Double> owners) {
+    Map<String, Double> busiestTopics = new HashMap<>();
+    topics.entrySet().stream()
+        .sorted(Map.Entry.<TopicName, Double>comparingByValue(Comparator.reverseOrder()))
+        .limit(maxReportedTopics)
+        .forEach(entry -> busiestTopics.put(entry.getKey().qualifiedName(), entry.getValue()));
+    Map<String, Double> busiestOwners = new HashMap<>();
+    owners.entrySet().stream()
+        .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+        .limit(maxReportedTopics)
+        .forEach(entry -> busiestOwners.put(entry.getKey(), entry.getValue()));
+    return new NodeThroughput(busiestTopics, busiestOwners);
+  }
+
+  private static long ownerShare(
+      String owner,
+      double topicRate,
+      Map<String, Double> localOwners,
+      Map<String, Long> ownerLimits) {
+    Long limit = owner != null ? ownerLimits.get(owner) : null;
+    double ownerRate = owner != null ? localOwners.getOrDefault(owner, 0d) : 0d;
+    if (limit == null || ownerRate <= limit) {
+      return Long.MAX_VALUE;
+    }
+    return (long) (limit * topicRate / ownerRate);
+  }
+
+  private static long localShare(long budget, double localRate, double otherRate) {
+    if (otherRate <= 0) {
+      return budget;
+    }
+    double proportional = budget * localRate / (localRate + otherRate);
+    return (long) Math.max(budget - otherRate, proportional);
+  }
+
+  private static String ownerKey(OwnerId owner) {
+    return owner != null ? owner.getSource() + ":" + owner.getId() : null;
+  }
+
+  private static class Throughput {
+    final HermesRateMeter current;
+    volatile String owner;
+    volatile long max;
+    volatile long ownerMax = Long.MAX_VALUE;
+
+    Throughput(HermesRateMeter current, String owner, long max) {
+      this.current = current;
+      this.owner = owner;
+      this.max = max;
+    }
+
+    long getRoundedOneMinuteRate() {
+      return (long) Math.floor(current.getOneMinuteRate());
+    }
+
+    double getOneMinuteRate() {
+      return current.getOneMinuteRate();
+    }
+  }
+}
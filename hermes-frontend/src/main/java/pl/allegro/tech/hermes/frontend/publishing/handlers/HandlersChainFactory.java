@@ -1,5 +1,6 @@
 package pl.allegro.tech.hermes.frontend.publishing.handlers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.undertow.security.api.AuthenticationMode;
 import io.undertow.security.handlers.AuthenticationCallHandler;
 import io.undertow.security.handlers.AuthenticationMechanismsHandler;
@@ -31,6 +32,7 @@ public class HandlersChainFactory {
   private final ThroughputLimiter throughputLimiter;
   private final Optional<AuthenticationConfiguration> authenticationConfiguration;
   private final HandlersChainParameters handlersChainParameters;
+  private final ObjectMapper objectMapper;
 
   public HandlersChainFactory(
       TopicsCache topicsCache,
@@ -42,7 +44,8 @@ public class HandlersChainFactory {
       ThroughputLimiter throughputLimiter,
       Optional<AuthenticationConfiguration> authenticationConfiguration,
       boolean messagePreviewEnabled,
-      HandlersChainParameters handlersChainParameters) {
+      HandlersChainParameters handlersChainParameters,
+      ObjectMapper objectMapper) {
     this.topicsCache = topicsCache;
     this.messageErrorProcessor = messageErrorProcessor;
     this.messageEndProcessor = messageEndProcessor;
@@ -53,6 +56,7 @@ public class HandlersChainFactory {
     this.throughputLimiter = throughputLimiter;
     this.authenticationConfiguration = authenticationConfiguration;
     this.handlersChainParameters = handlersChainParameters;
+    this.objectMapper = objectMapper;
   }
 
   public HttpHandler provide() {
@@ -75,7 +79,43 @@ public class HandlersChainFactory {
             handlersChainParameters.getIdleTimeout(),
             handlersChainParameters.getLongIdleTimeout(),
             handlersChainParameters.getMaxPublishRequestDuration());
-    TopicHandler topicHandler = new TopicHandler(readHandler, topicsCache, messageErrorProcessor);
+    return withRootHandlers(new TopicHandler(readHandler, topicsCache, messageErrorProcessor));
+  }
+
+  /** Provides handlers chain publishing a JSON array of messages sent in a single request. */
+  public HttpHandler provideBatch() {
+    int maxMessages = handlersChainParameters.getBatchMaxMessages();
+    BatchPublishingHandler publishing =
+        new BatchPublishingHandler(
+            brokerMessageProducer,
+            messageFactory,
+            messageErrorProcessor,
+            messageEndProcessor,
+            previewEnabled ? Optional.of(previewLog) : Optional.empty(),
+            objectMapper,
+            maxMessages,
+            handlersChainParameters.isForceTopicMaxMessageSize());
+    HttpHandler timeoutHandler =
+        new BatchTimeoutHandler(
+            new TimeoutHandler(messageEndProcessor, messageErrorProcessor),
+            publishing,
+            messageErrorProcessor);
+    HttpHandler readHandler =
+        new MessageReadHandler(
+            publishing,
+            timeoutHandler,
+            messageErrorProcessor,
+            throughputLimiter,
+            // separators add a few bytes to every message, so the limit is not exact
+            new ContentLengthChecker(true, topic -> topic.getMaxMessageSize() * maxMessages),
+            false,
+            handlersChainParameters.getIdleTimeout(),
+            handlersChainParameters.getLongIdleTimeout(),
+            handlersChainParameters.getMaxPublishRequestDuration());
+    return withRootHandlers(new TopicHandler(readHandler, topicsCache, messageErrorProcessor));
+  }
+
+  private HttpHandler withRootHandlers(HttpHandler topicHandler) {
     boolean keepAliveHeaderEnabled = handlersChainParameters.isKeepAliveHeaderEnabled();
     HttpHandler rootPublishingHandler =
         keepAliveHeaderEnabled ? withKeepAliveHeaderHandler(topicHandler) : topicHandler;
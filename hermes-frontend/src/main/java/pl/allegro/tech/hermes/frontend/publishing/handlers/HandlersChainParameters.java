@@ -27,6 +27,9 @@ public interface HandlersChainParameters {
 
   boolean isForceTopicMaxMessageSize();
 
+  /** Maximum number of messages published in a single batch request. */
+  int getBatchMaxMessages();
+
   boolean isKeepAliveHeaderEnabled();
 
   Duration getKeepAliveHeaderTimeout();
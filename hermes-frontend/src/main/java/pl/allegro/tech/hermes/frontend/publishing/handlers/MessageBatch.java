@@ -0,0 +1,79 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.undertow.util.AttachmentKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import pl.allegro.tech.hermes.api.ErrorDescription;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+
+/**
+ * Tracks messages of a single batch publish request.
+ *
+ * <p>Every message is resolved exactly once: when it is acknowledged by the broker, rejected, or
+ * when the request times out. The batch is completed once all messages are resolved and the last
+ * of them has been handed to the producer.
+ */
+final class MessageBatch {
+
+  static final AttachmentKey<MessageBatch> KEY = AttachmentKey.create(MessageBatch.class);
+
+  private final AtomicReferenceArray<Message> submitted;
+  private final AtomicReferenceArray<Result> results;
+  // one additional unit is released when all messages have been submitted
+  private final AtomicInteger unresolved;
+  private volatile boolean timedOut = false;
+
+  MessageBatch(int size) {
+    this.submitted = new AtomicReferenceArray<>(size);
+    this.results = new AtomicReferenceArray<>(size);
+    this.unresolved = new AtomicInteger(size + 1);
+  }
+
+  int size() {
+    return results.length();
+  }
+
+  void submitted(int index, Message message) {
+    submitted.set(index, message);
+  }
+
+  Message message(int index) {
+    return submitted.get(index);
+  }
+
+  Result result(int index) {
+    return results.get(index);
+  }
+
+  /** Returns true when the result was set, i.e. the message was not resolved before. */
+  boolean resolve(int index, Result result) {
+    return results.compareAndSet(index, null, result);
+  }
+
+  /** Returns true when the batch is completed by the given resolution. */
+  boolean release() {
+    return unresolved.decrementAndGet() == 0;
+  }
+
+  void markTimedOut() {
+    timedOut = true;
+  }
+
+  boolean isTimedOut() {
+    return timedOut;
+  }
+
+  List<Result> results() {
+    List<Result> list = new ArrayList<>(results.length());
+    for (int i = 0; i < results.length(); i++) {
+      list.add(results.get(i));
+    }
+    return list;
+  }
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  record Result(String messageId, int status, ErrorDescription error) {}
+}
@@ -0,0 +1,71 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import static java.lang.String.format;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits body of a batch publish request, a JSON array of messages, into contents of separate
+ * messages.
+ *
+ * <p>Elements are located with a streaming parser and copied as raw bytes, so every message is
+ * then created exactly like one published on its own.
+ */
+final class MessageBatchSplitter {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final int maxMessages;
+
+  MessageBatchSplitter(int maxMessages) {
+    this.maxMessages = maxMessages;
+  }
+
+  List<byte[]> split(byte[] content) throws InvalidBatchException {
+    try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new InvalidBatchException("Batch should be a JSON array of messages");
+      }
+      List<byte[]> messages = new ArrayList<>();
+      for (JsonToken token = parser.nextToken();
+          token != JsonToken.END_ARRAY;
+          token = parser.nextToken()) {
+        if (token != JsonToken.START_OBJECT) {
+          throw new InvalidBatchException("Every message in batch should be a JSON object");
+        }
+        if (messages.size() == maxMessages) {
+          throw new InvalidBatchException(
+              format("Batch contains more than %d messages", maxMessages));
+        }
+        int start = (int) parser.currentTokenLocation().getByteOffset();
+        parser.skipChildren();
+        int end = (int) parser.currentLocation().getByteOffset();
+        messages.add(Arrays.copyOfRange(content, start, end));
+      }
+      if (parser.nextToken() != null) {
+        throw new InvalidBatchException("Unexpected content after the array of messages");
+      }
+      if (messages.isEmpty()) {
+        throw new InvalidBatchException("Batch does not contain any messages");
+      }
+      return messages;
+    } catch (JsonProcessingException e) {
+      throw new InvalidBatchException("Malformed JSON: " + e.getOriginalMessage());
+    } catch (IOException e) {
+      throw new InvalidBatchException("Malformed JSON: " + e.getMessage());
+    }
+  }
+
+  static final class InvalidBatchException extends Exception {
+    InvalidBatchException(String message) {
+      super(message);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import java.util.Arrays;
+
+/**
+ * Accumulates request body chunks into a single array, which is then passed on as message content
+ * without further copying.
+ *
+ * <p>Undertow hands every chunk in a fresh array, so a body received in a single chunk is used as
+ * is. Otherwise the array is allocated once with the size declared in {@code Content-Length} (but
+ * not larger than {@code maxPreallocatedSize}, so the header alone can't make us allocate huge
+ * arrays) and grows only when the body turns out to be larger than expected.
+ */
+final class MessageContentAccumulator {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final int expectedSize;
+
+  private byte[] content;
+  private int size;
+
+  MessageContentAccumulator(long expectedSize, int maxPreallocatedSize) {
+    this.expectedSize = (int) Math.max(0, Math.min(expectedSize, maxPreallocatedSize));
+  }
+
+  void append(byte[] chunk) {
+    if (chunk.length == 0) {
+      return;
+    }
+    if (content == null) {
+      if (chunk.length >= expectedSize) {
+        content = chunk;
+        size = chunk.length;
+        return;
+      }
+      content = new byte[expectedSize];
+    } else if (size + chunk.length > content.length) {
+      content = Arrays.copyOf(content, Math.max(size + chunk.length, content.length * 2));
+    }
+    System.arraycopy(chunk, 0, content, size, chunk.length);
+    size += chunk.length;
+  }
+
+  byte[] content() {
+    if (content == null) {
+      return EMPTY;
+    }
+    return size == content.length ? content : Arrays.copyOf(content, size);
+  }
+}
@@ -10,6 +10,7 @@ import static pl.allegro.tech.hermes.api.ErrorDescription.error;
 
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
+import pl.allegro.tech.hermes.api.ErrorDescription;
 import pl.allegro.tech.hermes.common.message.wrapper.AvroInvalidMetadataException;
 import pl.allegro.tech.hermes.common.message.wrapper.UnsupportedContentTypeException;
 import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor;
@@ -42,53 +43,37 @@ class MessageCreateHandler implements HttpHandler {
     try {
       attachment.setMessage(messageFactory.create(exchange.getRequestHeaders(), attachment));
       next.handleRequest(exchange);
-    } catch (InvalidMessageException
-        | AvroConversionException
-        | UnsupportedContentTypeException exception) {
-      attachment.removeTimeout();
-      messageErrorProcessor.sendAndLog(
-          exchange,
-          attachment.getTopic(),
-          attachment.getMessageId(),
-          error("Invalid message: " + exception.getMessage(), VALIDATION_ERROR),
-          exception);
-    } catch (CouldNotLoadSchemaException | SchemaNotFoundException exception) {
+    } catch (Exception exception) {
       attachment.removeTimeout();
       messageErrorProcessor.sendAndLog(
           exchange,
           attachment.getTopic(),
           attachment.getMessageId(),
-          error("Missing schema", SCHEMA_COULD_NOT_BE_LOADED),
+          creationError(exception),
           exception);
-    } catch (SchemaVersionDoesNotExistException exception) {
-      attachment.removeTimeout();
-      messageErrorProcessor.sendAndLog(
-          exchange,
-          attachment.getTopic(),
-          attachment.getMessageId(),
+    }
+  }
+
+  static ErrorDescription creationError(Exception exception) {
+    return switch (exception) {
+      case InvalidMessageException e -> invalidMessage(e);
+      case AvroConversionException e -> invalidMessage(e);
+      case UnsupportedContentTypeException e -> invalidMessage(e);
+      case CouldNotLoadSchemaException e -> error("Missing schema", SCHEMA_COULD_NOT_BE_LOADED);
+      case SchemaNotFoundException e -> error("Missing schema", SCHEMA_COULD_NOT_BE_LOADED);
+      case SchemaVersionDoesNotExistException e ->
           error(
-              format(
-                  "Given schema version '%s' does not exist", exception.getSchemaVersion().value()),
-              SCHEMA_VERSION_DOES_NOT_EXIST),
-          exception);
-    } catch (AvroInvalidMetadataException exception) {
-      attachment.removeTimeout();
-      messageErrorProcessor.sendAndLog(
-          exchange,
-          attachment.getTopic(),
-          attachment.getMessageId(),
+              format("Given schema version '%s' does not exist", e.getSchemaVersion().value()),
+              SCHEMA_VERSION_DOES_NOT_EXIST);
+      case AvroInvalidMetadataException e ->
           error(
               "Schema does not contain mandatory __metadata field for Hermes internal metadata. Please fix topic schema.",
-              AVRO_SCHEMA_INVALID_METADATA),
-          exception);
-    } catch (Exception exception) {
-      attachment.removeTimeout();
-      messageErrorProcessor.sendAndLog(
-          exchange,
-          attachment.getTopic(),
-          attachment.getMessageId(),
-          error("Exception caught while creating message", INTERNAL_ERROR),
-          exception);
-    }
+              AVRO_SCHEMA_INVALID_METADATA);
+      default -> error("Exception caught while creating message", INTERNAL_ERROR);
+    };
+  }
+
+  private static ErrorDescription invalidMessage(Exception exception) {
+    return error("Invalid message: " + exception.getMessage(), VALIDATION_ERROR);
   }
 }
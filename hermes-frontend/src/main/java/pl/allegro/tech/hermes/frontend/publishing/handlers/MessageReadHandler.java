@@ -11,7 +11,6 @@ import io.undertow.io.Receiver;
 import io.undertow.server.DefaultResponseListener;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
-import java.io.ByteArrayOutputStream;
 import java.time.Duration;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
@@ -31,6 +30,7 @@ class MessageReadHandler implements HttpHandler {
   private final Duration longAsyncTimeout;
   private final Duration maxPublishRequestDuration;
   private final ThroughputLimiter throughputLimiter;
+  private final boolean reportContentSize;
 
   MessageReadHandler(
       HttpHandler next,
@@ -41,10 +41,35 @@ class MessageReadHandler implements HttpHandler {
       Duration idleTime,
       Duration longIdleTime,
       Duration maxPublishRequestDuration) {
+    this(
+        next,
+        timeoutHandler,
+        messageErrorProcessor,
+        throughputLimiter,
+        new ContentLengthChecker(forceMaxMessageSizePerTopic),
+        true,
+        idleTime,
+        longIdleTime,
+        maxPublishRequestDuration);
+  }
+
+  // requests carrying many messages are checked against their own limit and handlers publishing
+  // them report sizes of separate messages, hence reportContentSize set to false
+  MessageReadHandler(
+      HttpHandler next,
+      HttpHandler timeoutHandler,
+      MessageErrorProcessor messageErrorProcessor,
+      ThroughputLimiter throughputLimiter,
+      ContentLengthChecker contentLengthChecker,
+      boolean reportContentSize,
+      Duration idleTime,
+      Duration longIdleTime,
+      Duration maxPublishRequestDuration) {
     this.next = next;
     this.timeoutHandler = timeoutHandler;
     this.messageErrorProcessor = messageErrorProcessor;
-    this.contentLengthChecker = new ContentLengthChecker(forceMaxMessageSizePerTopic);
+    this.contentLengthChecker = contentLengthChecker;
+    this.reportContentSize = reportContentSize;
     this.defaultAsyncTimeout = idleTime;
     this.longAsyncTimeout = longIdleTime;
     this.throughputLimiter = throughputLimiter;
@@ -69,7 +94,7 @@ class MessageReadHandler implements HttpHandler {
 
     ThroughputLimiter.QuotaInsight quotaInsight =
         throughputLimiter.checkQuota(
-            attachment.getCachedTopic().getTopicName(),
+            attachment.getCachedTopic().getTopic(),
             attachment.getCachedTopic().getThroughput());
     if (quotaInsight.hasQuota()) {
       readMessage(exchange, attachment);
@@ -99,7 +124,10 @@ class MessageReadHandler implements HttpHandler {
   }
 
   private void readMessage(HttpServerExchange exchange, AttachmentContent attachment) {
-    ByteArrayOutputStream messageContent = new ByteArrayOutputStream();
+    MessageContentAccumulator messageContent =
+        new MessageContentAccumulator(
+            exchange.getRequestContentLength(),
+            attachment.getCachedTopic().getTopic().getMaxMessageSize());
     MessageState state = attachment.getMessageState();
 
     Receiver receiver = exchange.getRequestReceiver();
@@ -121,17 +149,19 @@ class MessageReadHandler implements HttpHandler {
   }
 
   private Receiver.PartialBytesCallback partialMessageRead(
-      MessageState state, ByteArrayOutputStream messageContent, AttachmentContent attachment) {
+      MessageState state,
+      MessageContentAccumulator messageContent,
+      AttachmentContent attachment) {
     return (exchange, message, last) -> {
       if (state.isReadingTimeout()) {
         endWithoutDefaultResponse(exchange);
         return;
       }
-      messageContent.write(message, 0, message.length);
+      messageContent.append(message);
 
       if (last) {
         if (state.setFullyRead()) {
-          messageRead(exchange, messageContent.toByteArray(), attachment);
+          messageRead(exchange, messageContent.content(), attachment);
         } else {
           endWithoutDefaultResponse(exchange);
         }
@@ -163,10 +193,12 @@ class MessageReadHandler implements HttpHandler {
       HttpServerExchange exchange, byte[] messageContent, AttachmentContent attachment) {
     try {
       contentLengthChecker.check(exchange, messageContent.length, attachment);
-      attachment.getCachedTopic().reportMessageContentSize(messageContent.length);
+      if (reportContentSize) {
+        attachment.getCachedTopic().reportMessageContentSize(messageContent.length);
+      }
       ThroughputLimiter.QuotaInsight quotaCheck =
           throughputLimiter.checkQuota(
-              attachment.getCachedTopic().getTopicName(),
+              attachment.getCachedTopic().getTopic(),
               attachment.getCachedTopic().getThroughput());
       if (quotaCheck.hasQuota()) {
         finalizeMessageRead(exchange, messageContent, attachment);
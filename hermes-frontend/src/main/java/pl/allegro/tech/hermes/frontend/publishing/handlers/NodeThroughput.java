@@ -0,0 +1,12 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import java.util.Map;
+
+/**
+ * One minute publishing rates observed by a single frontend node, per qualified topic name and per
+ * topic owner.
+ */
+public record NodeThroughput(Map<String, Double> topics, Map<String, Double> owners) {
+
+  public static final NodeThroughput EMPTY = new NodeThroughput(Map.of(), Map.of());
+}
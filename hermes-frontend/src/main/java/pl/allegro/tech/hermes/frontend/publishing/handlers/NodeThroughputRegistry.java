@@ -0,0 +1,10 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import java.util.List;
+
+public interface NodeThroughputRegistry {
+
+  void report(NodeThroughput throughput);
+
+  List<NodeThroughput> readOtherNodes();
+}
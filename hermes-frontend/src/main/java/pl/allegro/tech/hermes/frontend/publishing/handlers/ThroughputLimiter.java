@@ -2,12 +2,17 @@ package pl.allegro.tech.hermes.frontend.publishing.handlers;
 
 import static java.lang.String.format;
 
+import pl.allegro.tech.hermes.api.Topic;
 import pl.allegro.tech.hermes.api.TopicName;
 import pl.allegro.tech.hermes.metrics.HermesRateMeter;
 
 public interface ThroughputLimiter {
   QuotaInsight checkQuota(TopicName topic, HermesRateMeter throughput);
 
+  default QuotaInsight checkQuota(Topic topic, HermesRateMeter throughput) {
+    return checkQuota(topic.getName(), throughput);
+  }
+
   default void start() {}
 
   default void stop() {}
@@ -46,6 +51,11 @@ public interface ThroughputLimiter {
           format("Current throughput exceeded limit [current:%s, limit:%s].", current, limit));
     }
 
+    public static QuotaInsight ownerQuotaViolation(String owner, long limit) {
+      return new QuotaInsight(
+          false, format("Throughput of owner %s exceeded limit [limit:%s].", owner, limit));
+    }
+
     public static QuotaInsight globalQuotaViolation() {
       return GLOBAL_VIOLATION;
     }
@@ -4,6 +4,7 @@ import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiter.QuotaInsight.quotaConfirmed;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import org.slf4j.Logger;
@@ -16,16 +17,22 @@ public class ThroughputLimiterFactory {
 
   private final ThroughputRegistry throughputRegistry;
 
+  private final Optional<NodeThroughputRegistry> nodeThroughputRegistry;
+
   private enum ThroughputLimiterType {
     UNLIMITED,
     FIXED,
-    DYNAMIC
+    DYNAMIC,
+    DISTRIBUTED
   }
 
   public ThroughputLimiterFactory(
-      ThroughputParameters throughputParameters, ThroughputRegistry throughputRegistry) {
+      ThroughputParameters throughputParameters,
+      ThroughputRegistry throughputRegistry,
+      Optional<NodeThroughputRegistry> nodeThroughputRegistry) {
     this.throughputParameters = throughputParameters;
     this.throughputRegistry = throughputRegistry;
+    this.nodeThroughputRegistry = nodeThroughputRegistry;
   }
 
   public ThroughputLimiter provide() {
@@ -43,6 +50,16 @@ public class ThroughputLimiterFactory {
             throughputParameters.getDynamicCheckInterval(),
             throughputRegistry::getGlobalThroughputOneMinuteRate,
             getExecutor());
+      case DISTRIBUTED:
+        return new DistributedThroughputLimiter(
+            throughputParameters.getDistributedTopicMax(),
+            throughputParameters.getDistributedOwnerMax(),
+            throughputParameters.getDynamicIdle(),
+            throughputParameters.getDistributedMaxReportedTopics(),
+            throughputParameters.getDistributedSyncInterval(),
+            nodeThroughputRegistry.orElseThrow(
+                () -> new IllegalStateException("Node throughput registry is not configured.")),
+            getExecutor());
       default:
         throw new IllegalArgumentException("Unknown throughput limiter type.");
     }
@@ -17,4 +17,12 @@ public interface ThroughputParameters {
   double getDynamicIdle();
 
   Duration getDynamicCheckInterval();
+
+  long getDistributedTopicMax();
+
+  long getDistributedOwnerMax();
+
+  int getDistributedMaxReportedTopics();
+
+  Duration getDistributedSyncInterval();
 }
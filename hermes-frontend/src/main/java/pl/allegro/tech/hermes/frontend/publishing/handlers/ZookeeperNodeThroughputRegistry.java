@@ -0,0 +1,110 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.infrastructure.zookeeper.ZookeeperPaths;
+
+/**
+ * Keeps throughput of every frontend node in an ephemeral node under {@link
+ * ZookeeperPaths#frontendThroughputPath()}, so it disappears together with the node session.
+ * Reports larger than {@link #MAX_REPORT_SIZE_BYTES} are not written, as ZooKeeper rejects nodes
+ * exceeding its buffer size.
+ */
+public class ZookeeperNodeThroughputRegistry implements NodeThroughputRegistry {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(ZookeeperNodeThroughputRegistry.class);
+
+  static final int MAX_REPORT_SIZE_BYTES = 512 * 1024;
+
+  private final CuratorFramework curator;
+  private final ObjectMapper objectMapper;
+  private final ZookeeperPaths zookeeperPaths;
+  private final String basePath;
+  private final String nodeId;
+  private final String currentNodePath;
+
+  public ZookeeperNodeThroughputRegistry(
+      CuratorFramework curator,
+      ObjectMapper objectMapper,
+      ZookeeperPaths zookeeperPaths,
+      String nodeId) {
+    this.curator = curator;
+    this.objectMapper = objectMapper;
+    this.zookeeperPaths = zookeeperPaths;
+    this.basePath = zookeeperPaths.frontendThroughputPath();
+    this.nodeId = nodeId;
+    this.currentNodePath = zookeeperPaths.join(basePath, nodeId);
+  }
+
+  @Override
+  public void report(NodeThroughput throughput) {
+    try {
+      byte[] encoded = objectMapper.writeValueAsBytes(throughput);
+      if (encoded.length > MAX_REPORT_SIZE_BYTES) {
+        logger.warn(
+            "Throughput of frontend node {} takes {} bytes, exceeding {} bytes, not reporting it",
+            nodeId,
+            encoded.length,
+            MAX_REPORT_SIZE_BYTES);
+        return;
+      }
+      persist(encoded);
+    } catch (Exception e) {
+      logger.error("Error while reporting throughput of frontend node {}", nodeId, e);
+    }
+  }
+
+  private void persist(byte[] encoded) throws Exception {
+    try {
+      curator.setData().forPath(currentNodePath, encoded);
+    } catch (KeeperException.NoNodeException e) {
+      try {
+        curator
+            .create()
+            .creatingParentContainersIfNeeded()
+            .withMode(CreateMode.EPHEMERAL)
+            .forPath(currentNodePath, encoded);
+      } catch (KeeperException.NodeExistsException ex) {
+        // ignore
+      }
+    }
+  }
+
+  @Override
+  public List<NodeThroughput> readOtherNodes() {
+    List<NodeThroughput> nodes = new ArrayList<>();
+    try {
+      if (curator.checkExists().forPath(basePath) == null) {
+        return nodes;
+      }
+      for (String node : curator.getChildren().forPath(basePath)) {
+        if (!node.equals(nodeId)) {
+          read(zookeeperPaths.join(basePath, node)).ifPresent(nodes::add);
+        }
+      }
+    } catch (Exception e) {
+      logger.warn("Could not read throughput of frontend nodes on path {}", basePath, e);
+    }
+    return nodes;
+  }
+
+  private Optional<NodeThroughput> read(String path) {
+    try {
+      byte[] bytes = curator.getData().forPath(path);
+      return Optional.of(objectMapper.readValue(bytes, NodeThroughput.class));
+    } catch (KeeperException.NoNodeException e) {
+      // node disappeared in the meantime
+    } catch (Exception e) {
+      logger.warn("Could not read throughput of frontend node on path {}", path, e);
+    }
+    return Optional.empty();
+  }
+}
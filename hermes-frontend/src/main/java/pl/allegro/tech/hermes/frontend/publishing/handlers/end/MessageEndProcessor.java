@@ -4,8 +4,11 @@ import static pl.allegro.tech.hermes.common.http.MessageMetadataHeaders.MESSAGE_
 import static pl.allegro.tech.hermes.frontend.publishing.handlers.end.RemoteHostReader.readHostAndPort;
 
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
 import io.undertow.util.StatusCodes;
+import jakarta.ws.rs.core.MediaType;
+import java.nio.charset.StandardCharsets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.api.Topic;
@@ -35,11 +38,16 @@ public class MessageEndProcessor {
 
   public void eachSent(
       HttpServerExchange exchange, AttachmentContent attachment, String datacenter) {
+    eachSent(exchange, attachment.getTopic(), attachment.getMessageId(), datacenter);
+  }
+
+  public void eachSent(
+      HttpServerExchange exchange, Topic topic, String messageId, String datacenter) {
     trackers
-        .get(attachment.getTopic())
+        .get(topic)
         .logPublished(
-            attachment.getMessageId(),
-            attachment.getTopic().getName(),
+            messageId,
+            topic.getName(),
             readHostAndPort(exchange),
             datacenter,
             trackingHeadersExtractor.extractHeadersToLog(exchange.getRequestHeaders()));
@@ -49,6 +57,23 @@ public class MessageEndProcessor {
     sendResponse(exchange, attachment, StatusCodes.CREATED);
   }
 
+  public void batchProcessed(
+      HttpServerExchange exchange,
+      AttachmentContent attachment,
+      int statusCode,
+      String responseBody) {
+    if (!exchange.isResponseStarted()) {
+      exchange.setStatusCode(statusCode);
+      exchange.getResponseHeaders().add(messageIdHeader, attachment.getMessageId());
+      exchange.getResponseHeaders().add(Headers.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+      exchange
+          .getResponseSender()
+          .send(responseBody, StandardCharsets.UTF_8, ResponseReadyIoCallback.INSTANCE);
+    } else {
+      sendResponse(exchange, attachment, statusCode);
+    }
+  }
+
   public void delayedSent(CachedTopic cachedTopic, Message message) {
     brokerListeners.onAcknowledge(message, cachedTopic.getTopic());
   }
@@ -61,16 +86,21 @@ public class MessageEndProcessor {
 
   public void bufferedButDelayed(HttpServerExchange exchange, AttachmentContent attachment) {
     Topic topic = attachment.getTopic();
-    brokerListeners.onTimeout(attachment.getMessage(), topic);
+    buffered(exchange, topic, attachment.getMessage());
+    handleRaceConditionBetweenAckAndTimeout(attachment, topic);
+    sendResponse(exchange, attachment, StatusCodes.ACCEPTED);
+  }
+
+  /** Tracks a message that was not acknowledged by the broker before the request timeout. */
+  public void buffered(HttpServerExchange exchange, Topic topic, Message message) {
+    brokerListeners.onTimeout(message, topic);
     trackers
         .get(topic)
         .logInflight(
-            attachment.getMessageId(),
+            message.getId(),
             topic.getName(),
             readHostAndPort(exchange),
             trackingHeadersExtractor.extractHeadersToLog(exchange.getRequestHeaders()));
-    handleRaceConditionBetweenAckAndTimeout(attachment, topic);
-    sendResponse(exchange, attachment, StatusCodes.ACCEPTED);
   }
 
   private void handleRaceConditionBetweenAckAndTimeout(AttachmentContent attachment, Topic topic) {
@@ -132,6 +132,31 @@ public class MessageErrorProcessor {
         trackingHeadersExtractor.extractHeadersToLog(exchange.getRequestHeaders()));
   }
 
+  public void log(
+      HttpServerExchange exchange, Topic topic, String messageId, ErrorDescription error) {
+    log(
+        error.getMessage(),
+        topic,
+        messageId,
+        readHostAndPort(exchange),
+        trackingHeadersExtractor.extractHeadersToLog(exchange.getRequestHeaders()));
+  }
+
+  public void log(
+      HttpServerExchange exchange,
+      Topic topic,
+      String messageId,
+      ErrorDescription error,
+      Exception exception) {
+    log(
+        error.getMessage(),
+        topic,
+        messageId,
+        readHostAndPort(exchange),
+        exception,
+        trackingHeadersExtractor.extractHeadersToLog(exchange.getRequestHeaders()));
+  }
+
   private void log(
       String errorMessage,
       Topic topic,
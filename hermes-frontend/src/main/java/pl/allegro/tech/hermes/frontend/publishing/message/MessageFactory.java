@@ -63,7 +63,7 @@ public class MessageFactory {
         attachment.getMessageContent());
   }
 
-  private Message create(
+  public Message create(
       HeaderMap headerMap, Topic topic, String messageId, byte[] messageContent) {
     long timestamp = clock.millis();
     switch (topic.getContentType()) {
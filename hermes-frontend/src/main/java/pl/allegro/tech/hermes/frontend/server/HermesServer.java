@@ -30,6 +30,7 @@ public class HermesServer {
   private final HermesServerParameters hermesServerParameters;
   private final SslParameters sslParameters;
   private final HttpHandler publishingHandler;
+  private final HttpHandler batchPublishingHandler;
   private final HealthCheckService healthCheckService;
   private final ReadinessChecker readinessChecker;
   private final MessagePreviewPersister messagePreviewPersister;
@@ -44,6 +45,7 @@ public class HermesServer {
       HermesServerParameters hermesServerParameters,
       MetricsFacade metricsFacade,
       HttpHandler publishingHandler,
+      HttpHandler batchPublishingHandler,
       HealthCheckService healthCheckService,
       ReadinessChecker readinessChecker,
       MessagePreviewPersister messagePreviewPersister,
@@ -55,6 +57,7 @@ public class HermesServer {
     this.hermesServerParameters = hermesServerParameters;
     this.metricsFacade = metricsFacade;
     this.publishingHandler = publishingHandler;
+    this.batchPublishingHandler = batchPublishingHandler;
     this.prometheusMeterRegistry = prometheusMeterRegistry;
     this.healthCheckService = healthCheckService;
     this.readinessChecker = readinessChecker;
@@ -136,6 +139,7 @@ public class HermesServer {
     RoutingHandler routingHandler =
         new RoutingHandler()
             .post("/topics/{qualifiedTopicName}", publishingHandler)
+            .post("/topics/{qualifiedTopicName}/batch", batchPublishingHandler)
             .get("/status/ping", healthCheckHandler)
             .get("/status/health", healthCheckHandler)
             .get("/status/ready", readinessHandler)
@@ -0,0 +1,66 @@
+package pl.allegro.tech.hermes.frontend.producer.kafka
+
+import org.apache.kafka.clients.producer.ProducerRecord
+import spock.lang.Specification
+
+class KafkaMessageSenderPoolTest extends Specification {
+
+    List<KafkaMessageSender> senders = (1..4).collect { Mock(KafkaMessageSender) }
+
+    KafkaMessageSenderPool pool = new KafkaMessageSenderPool(senders)
+
+    def "should route records with the same key to the same sender"() {
+        given:
+        def sender = pool.get(record("topic", null, "key"))
+
+        expect:
+        (1..100).every { pool.get(record("topic", null, "key")).is(sender) }
+    }
+
+    def "should route records of the same partition to the same sender"() {
+        given:
+        def sender = pool.get(record("topic", 2, "key"))
+
+        expect:
+        pool.get(record("topic", 2, "other-key")).is(sender)
+        pool.get(record("topic", 2, null)).is(sender)
+    }
+
+    def "should spread records of a topic without key over all senders"() {
+        when:
+        def used = (1..1000).collect { pool.get(record("topic", null, null)) }.toSet()
+
+        then:
+        used.size() == senders.size()
+    }
+
+    def "should spread records with different keys over all senders"() {
+        when:
+        def used = (1..1000).collect { pool.get(record("topic", null, "key-$it")) }.toSet()
+
+        then:
+        used.size() == senders.size()
+    }
+
+    def "should use the only sender of a single element pool"() {
+        given:
+        def sender = Mock(KafkaMessageSender)
+        def singlePool = new KafkaMessageSenderPool([sender])
+
+        expect:
+        singlePool.get(record("topic", null, "key")).is(sender)
+        singlePool.first().is(sender)
+    }
+
+    def "should not create empty pool"() {
+        when:
+        new KafkaMessageSenderPool([])
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private static ProducerRecord<byte[], byte[]> record(String topic, Integer partition, String key) {
+        return new ProducerRecord<byte[], byte[]>(topic, partition, key?.bytes, new byte[0])
+    }
+}
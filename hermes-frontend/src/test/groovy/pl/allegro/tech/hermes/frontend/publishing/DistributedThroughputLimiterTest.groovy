@@ -0,0 +1,157 @@
+package pl.allegro.tech.hermes.frontend.publishing
+
+import pl.allegro.tech.hermes.api.OwnerId
+import pl.allegro.tech.hermes.api.Topic
+import pl.allegro.tech.hermes.frontend.publishing.handlers.DistributedThroughputLimiter
+import pl.allegro.tech.hermes.frontend.publishing.handlers.NodeThroughput
+import pl.allegro.tech.hermes.frontend.publishing.handlers.NodeThroughputRegistry
+import pl.allegro.tech.hermes.metrics.HermesRateMeter
+import pl.allegro.tech.hermes.test.helper.builder.TopicBuilder
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.ScheduledExecutorService
+
+class DistributedThroughputLimiterTest extends Specification {
+
+    def topicMax = 1000
+    def ownerMax = 1500
+    def idleThreshold = 0.5
+
+    def owner = new OwnerId("Plaintext", "team")
+    def reported = []
+    def otherNodes = []
+    def registry = [
+            report        : { NodeThroughput throughput -> reported << throughput },
+            readOtherNodes: { otherNodes }
+    ] as NodeThroughputRegistry
+
+    def limiter = new DistributedThroughputLimiter(
+            topicMax, ownerMax, idleThreshold, 2, Duration.ofSeconds(1), registry, Mock(ScheduledExecutorService))
+
+    def "should grant whole budget when node is the only one publishing to topic"() {
+        given:
+        def topic = TopicBuilder.topic("group.topic").withOwner(owner).build()
+        def meter = meter(900)
+        limiter.checkQuota(topic, meter)
+
+        when:
+        limiter.run()
+
+        then:
+        limiter.checkQuota(topic, meter).hasQuota()
+        reported == [new NodeThroughput(["group.topic": 900d], ["Plaintext:team": 900d])]
+    }
+
+    def "should block topic when rate of all nodes exceeds topic budget"() {
+        given:
+        def topic = TopicBuilder.topic("group.topic").withOwner(owner).build()
+        def meter = meter(600)
+        limiter.checkQuota(topic, meter)
+        otherNodes = [new NodeThroughput(["group.topic": 600d], [:])]
+
+        when:
+        limiter.run()
+        def quota = limiter.checkQuota(topic, meter)
+
+        then:
+        !quota.hasQuota()
+        quota.getReason() == "Current throughput exceeded limit [current:600, limit:500]."
+    }
+
+    def "should leave unused budget of other nodes to local node"() {
+        given:
+        def topic = TopicBuilder.topic("group.topic").withOwner(owner).build()
+        def meter = meter(900)
+        limiter.checkQuota(topic, meter)
+        otherNodes = [new NodeThroughput(["group.topic": 100d], [:])]
+
+        when:
+        limiter.run()
+
+        then:
+        limiter.checkQuota(topic, meter).hasQuota()
+    }
+
+    def "should throttle topics of owner exceeding owner budget to their share of the budget"() {
+        given:
+        def first = TopicBuilder.topic("group.first").withOwner(owner).build()
+        def second = TopicBuilder.topic("group.second").withOwner(owner).build()
+        def other = TopicBuilder.topic("group.other").withOwner(new OwnerId("Plaintext", "other")).build()
+        double secondRate = 500
+        def secondMeter = [getOneMinuteRate: { secondRate }] as HermesRateMeter
+        limiter.checkQuota(first, meter(500))
+        limiter.checkQuota(second, secondMeter)
+        limiter.checkQuota(other, meter(500))
+        otherNodes = [new NodeThroughput([:], ["Plaintext:team": 1000d])]
+
+        when:
+        limiter.run()
+
+        then:
+        limiter.checkQuota(first, meter(500)).getReason() == "Throughput of owner Plaintext:team exceeded limit [limit:375]."
+        !limiter.checkQuota(second, secondMeter).hasQuota()
+        limiter.checkQuota(other, meter(500)).hasQuota()
+
+        when:
+        secondRate = 300
+
+        then:
+        limiter.checkQuota(second, secondMeter).hasQuota()
+        !limiter.checkQuota(first, meter(500)).hasQuota()
+    }
+
+    def "should follow change of topic owner"() {
+        given:
+        def topic = TopicBuilder.topic("group.topic").withOwner(owner).build()
+        def meter = meter(900)
+        limiter.checkQuota(topic, meter)
+
+        when:
+        limiter.checkQuota(TopicBuilder.topic("group.topic").withOwner(new OwnerId("Plaintext", "other")).build(), meter)
+        limiter.run()
+
+        then:
+        reported == [new NodeThroughput(["group.topic": 900d], ["Plaintext:other": 900d])]
+    }
+
+    def "should report only the busiest topics"() {
+        given:
+        [100, 300, 200].each {
+            limiter.checkQuota(TopicBuilder.topic("group.topic$it").withOwner(new OwnerId("Plaintext", "team$it")).build(), meter(it))
+        }
+
+        when:
+        limiter.run()
+
+        then:
+        reported == [new NodeThroughput(
+                ["group.topic300": 300d, "group.topic200": 200d],
+                ["Plaintext:team300": 300d, "Plaintext:team200": 200d])]
+    }
+
+    def "should forget idle topics"() {
+        given:
+        double rate = 2000
+        def meter = [getOneMinuteRate: { rate }] as HermesRateMeter
+        Topic topic = TopicBuilder.topic("group.topic").withOwner(owner).build()
+        limiter.checkQuota(topic, meter)
+        otherNodes = [new NodeThroughput(["group.topic": 2000d], ["Plaintext:team": 2000d])]
+        limiter.run()
+        assert !limiter.checkQuota(topic, meter).hasQuota()
+
+        when:
+        rate = 0.1
+        otherNodes = []
+        limiter.run()
+        rate = 900
+
+        then:
+        limiter.checkQuota(topic, meter).hasQuota()
+        reported.last() == new NodeThroughput([:], [:])
+    }
+
+    private HermesRateMeter meter(double rate) {
+        Mock(HermesRateMeter) { getOneMinuteRate() >> rate }
+    }
+}
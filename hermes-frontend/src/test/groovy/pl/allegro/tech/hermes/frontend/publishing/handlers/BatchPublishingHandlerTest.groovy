@@ -0,0 +1,288 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import groovy.json.JsonSlurper
+import io.undertow.Undertow
+import io.undertow.server.RoutingHandler
+import io.undertow.util.HeaderMap
+import pl.allegro.tech.hermes.api.Topic
+import pl.allegro.tech.hermes.frontend.cache.topic.TopicsCache
+import pl.allegro.tech.hermes.frontend.listeners.BrokerAcknowledgeListener
+import pl.allegro.tech.hermes.frontend.listeners.BrokerListeners
+import pl.allegro.tech.hermes.frontend.listeners.BrokerTimeoutListener
+import pl.allegro.tech.hermes.frontend.metric.CachedTopic
+import pl.allegro.tech.hermes.frontend.producer.BrokerMessageProducer
+import pl.allegro.tech.hermes.frontend.publishing.PublishingCallback
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.DefaultTrackingHeaderExtractor
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageEndProcessor
+import pl.allegro.tech.hermes.frontend.publishing.handlers.end.MessageErrorProcessor
+import pl.allegro.tech.hermes.frontend.publishing.message.JsonMessage
+import pl.allegro.tech.hermes.frontend.publishing.message.Message
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageFactory
+import pl.allegro.tech.hermes.frontend.validator.InvalidMessageException
+import pl.allegro.tech.hermes.tracker.frontend.Trackers
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.net.http.HttpClient
+import java.net.http.HttpRequest
+import java.net.http.HttpResponse
+import java.time.Duration
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+import static pl.allegro.tech.hermes.frontend.publishing.handlers.ThroughputLimiter.QuotaInsight.quotaConfirmed
+import static pl.allegro.tech.hermes.frontend.server.CachedTopicsTestHelper.cachedTopic
+import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic
+
+class BatchPublishingHandlerTest extends Specification {
+
+    static final Duration TIMEOUT = Duration.ofMillis(300)
+
+    ObjectMapper objectMapper = new ObjectMapper()
+    Trackers trackers = new Trackers([])
+    BrokerListeners brokerListeners = new BrokerListeners()
+    ControlledProducer producer = new ControlledProducer()
+    HttpClient httpClient = HttpClient.newHttpClient()
+    ScheduledExecutorService acknowledgements = Executors.newSingleThreadScheduledExecutor()
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    Queue<Message> timedOut = new ConcurrentLinkedQueue<>()
+    Queue<Message> acknowledgedAfterTimeout = new ConcurrentLinkedQueue<>()
+
+    MessageFactory messageFactory = Stub() {
+        create(_ as HeaderMap, _ as Topic, _ as String, _ as byte[]) >> { HeaderMap headers, Topic topic, String id, byte[] content ->
+            if (new String(content).contains('invalid')) {
+                throw new InvalidMessageException('invalid content', [])
+            }
+            new JsonMessage(id, content, 0L, null, [:])
+        }
+    }
+
+    Undertow server
+
+    def setup() {
+        brokerListeners.addTimeoutListener({ message, topic -> timedOut.add(message) } as BrokerTimeoutListener)
+        brokerListeners.addAcknowledgeListener({ message, topic -> acknowledgedAfterTimeout.add(message) } as BrokerAcknowledgeListener)
+    }
+
+    def cleanup() {
+        server?.stop()
+        acknowledgements.shutdownNow()
+    }
+
+    def "should respond with 201 when all messages of batch are acknowledged"() {
+        given:
+        startServer(topic('group.batch').build())
+
+        when:
+        def response = publishBatch('group.batch', '[{"ack":1},{"ack":2}]')
+
+        then:
+        response.statusCode() == 201
+        statuses(response) == [201, 201]
+        messages(response)*.messageId.every { it != null }
+    }
+
+    def "should respond with 202 when messages of batch are still buffered at timeout"() {
+        given:
+        startServer(topic('group.batch').build())
+
+        when:
+        def response = publishBatch('group.batch', '[{"wait":1},{"wait":2}]')
+
+        then:
+        response.statusCode() == 202
+        statuses(response) == [202, 202]
+        timedOut.size() == 2
+    }
+
+    def "should respond with 202 when some messages of batch are acknowledged and others buffered"() {
+        given:
+        startServer(topic('group.batch').build())
+
+        when:
+        def response = publishBatch('group.batch', '[{"ack":1},{"wait":2}]')
+
+        then:
+        response.statusCode() == 202
+        statuses(response) == [201, 202]
+    }
+
+    def "should respond with 207 and reject only invalid messages of batch"() {
+        given:
+        startServer(topic('group.batch').build())
+
+        when:
+        def response = publishBatch('group.batch', '[{"ack":1},{"invalid":2},{"ack":3}]')
+
+        then:
+        response.statusCode() == 207
+        statuses(response) == [201, 400, 201]
+        messages(response)[1].error.code == 'VALIDATION_ERROR'
+        producer.sent.size() == 2
+    }
+
+    def "should notify about acknowledgement of message which was buffered at timeout"() {
+        given:
+        startServer(topic('group.batch').build())
+
+        when:
+        def response = publishBatch('group.batch', '[{"wait":1}]')
+
+        then:
+        response.statusCode() == 202
+
+        when:
+        producer.acknowledgePending()
+
+        then:
+        conditions.eventually {
+            assert acknowledgedAfterTimeout*.id == [messages(response)[0].messageId]
+        }
+    }
+
+    def "should resolve every message of batch once when acknowledgements race with timeout"() {
+        given:
+        startServer(topic('group.batch').build())
+        producer.onSend = { Message message, CachedTopic topic, PublishingCallback callback ->
+            long delay = TIMEOUT.toMillis() + ThreadLocalRandom.current().nextLong(-20, 20)
+            acknowledgements.schedule({ callback.onPublished(message, topic.topic) } as Runnable, delay, TimeUnit.MILLISECONDS)
+        }
+        def buffered = new AtomicInteger()
+
+        when:
+        20.times {
+            def response = publishBatch('group.batch', '[{"id":1},{"id":2},{"id":3}]')
+            def statuses = statuses(response)
+            assert statuses.every { it in [201, 202] }
+            assert response.statusCode() == (statuses.every { it == 201 } ? 201 : 202)
+            buffered.addAndGet(statuses.count { it == 202 } as int)
+        }
+
+        then:
+        timedOut.size() == buffered.get()
+        conditions.eventually {
+            assert acknowledgedAfterTimeout.size() == buffered.get()
+        }
+    }
+
+    def "should fail messages of topic with fallback to remote datacenter not acknowledged before timeout"() {
+        given:
+        startServer(topic('group.fallback').withFallbackToRemoteDatacenterEnabled().build())
+
+        when:
+        def partiallyAcknowledged = publishBatch('group.fallback', '[{"ack":1},{"wait":2}]')
+        def notAcknowledged = publishBatch('group.fallback', '[{"wait":1}]')
+
+        then:
+        partiallyAcknowledged.statusCode() == 207
+        statuses(partiallyAcknowledged) == [201, 503]
+        messages(partiallyAcknowledged)[1].error.code == 'SENDING_TO_KAFKA_TIMEOUT'
+        notAcknowledged.statusCode() == 503
+        timedOut.isEmpty()
+    }
+
+    def "should reject request which is not a JSON array of messages"() {
+        given:
+        startServer(topic('group.batch').build())
+
+        when:
+        def response = publishBatch('group.batch', '{"ack":1}')
+
+        then:
+        response.statusCode() == 400
+        producer.sent.isEmpty()
+    }
+
+    private void startServer(Topic topic) {
+        CachedTopic cachedTopic = cachedTopic(topic)
+        TopicsCache topicsCache = Stub() {
+            getTopic(topic.qualifiedName) >> Optional.of(cachedTopic)
+        }
+        HandlersChainParameters parameters = Stub() {
+            getIdleTimeout() >> TIMEOUT
+            getLongIdleTimeout() >> TIMEOUT
+            getMaxPublishRequestDuration() >> TIMEOUT
+            getBatchMaxMessages() >> 10
+        }
+        ThroughputLimiter throughputLimiter = Stub() {
+            checkQuota(_, _) >> quotaConfirmed()
+        }
+        def headersExtractor = new DefaultTrackingHeaderExtractor()
+        def handler = new HandlersChainFactory(
+                topicsCache,
+                new MessageErrorProcessor(objectMapper, trackers, headersExtractor),
+                new MessageEndProcessor(trackers, brokerListeners, headersExtractor),
+                messageFactory,
+                producer,
+                null,
+                throughputLimiter,
+                Optional.empty(),
+                false,
+                parameters,
+                objectMapper
+        ).provideBatch()
+        server = Undertow.builder()
+                .addHttpListener(0, 'localhost')
+                .setHandler(new RoutingHandler().post('/topics/{qualifiedTopicName}/batch', handler))
+                .build()
+        server.start()
+    }
+
+    private HttpResponse<String> publishBatch(String qualifiedTopicName, String body) {
+        int port = ((InetSocketAddress) server.listenerInfo[0].address).port
+        def request = HttpRequest.newBuilder(URI.create("http://localhost:$port/topics/$qualifiedTopicName/batch"))
+                .header('Content-Type', 'application/json')
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build()
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString())
+    }
+
+    private static List<Map> messages(HttpResponse<String> response) {
+        return new JsonSlurper().parseText(response.body()).messages as List<Map>
+    }
+
+    private static List<Integer> statuses(HttpResponse<String> response) {
+        return messages(response)*.status
+    }
+
+    /** Acknowledges messages with "ack" in content right away and keeps the others pending. */
+    static class ControlledProducer implements BrokerMessageProducer {
+
+        final Queue<Message> sent = new ConcurrentLinkedQueue<>()
+        final Queue<Closure> pending = new ConcurrentLinkedQueue<>()
+
+        Closure onSend = { Message message, CachedTopic topic, PublishingCallback callback ->
+            if (new String(message.data).contains('ack')) {
+                callback.onPublished(message, topic.topic)
+            } else {
+                pending.add({ callback.onPublished(message, topic.topic) })
+            }
+        }
+
+        @Override
+        void send(Message message, CachedTopic topic, PublishingCallback callback) {
+            sent.add(message)
+            onSend(message, topic, callback)
+        }
+
+        void acknowledgePending() {
+            pending.each { it() }
+        }
+
+        @Override
+        boolean areAllTopicsAvailable() {
+            return true
+        }
+
+        @Override
+        boolean isTopicAvailable(CachedTopic cachedTopic) {
+            return true
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class MessageBatchSplitterTest extends Specification {
+
+    private MessageBatchSplitter splitter = new MessageBatchSplitter(3)
+
+    def "should split batch into raw contents of messages"() {
+        given:
+        def batch = '[{"id": 1, "nested": {"values": [1, 2]}} , {"id":"ą"},{}]'
+
+        when:
+        def messages = splitter.split(batch.getBytes('UTF-8'))
+
+        then:
+        messages.collect { new String(it, 'UTF-8') } == ['{"id": 1, "nested": {"values": [1, 2]}}', '{"id":"ą"}', '{}']
+    }
+
+    @Unroll
+    def "should reject invalid batch: #batch"() {
+        when:
+        splitter.split(batch.bytes)
+
+        then:
+        def exception = thrown(MessageBatchSplitter.InvalidBatchException)
+        exception.message.contains(message)
+
+        where:
+        batch                     || message
+        '{"id": 1}'               || 'JSON array'
+        '[]'                      || 'does not contain any messages'
+        '[{"id": 1}, 2]'          || 'JSON object'
+        '[{}, {}, {}, {}]'        || 'more than 3 messages'
+        '[{"id": 1}] {}'          || 'Unexpected content'
+        '[{"id": 1}'              || 'Malformed JSON'
+        ''                        || 'JSON array'
+    }
+}
@@ -0,0 +1,60 @@
+package pl.allegro.tech.hermes.frontend.publishing.handlers
+
+import spock.lang.Specification
+
+class MessageContentAccumulatorTest extends Specification {
+
+    def "should pass single chunk without copying"() {
+        given:
+        def accumulator = new MessageContentAccumulator(5, 1024)
+        byte[] chunk = "hello".bytes
+
+        when:
+        accumulator.append(chunk)
+
+        then:
+        accumulator.content().is(chunk)
+    }
+
+    def "should accumulate chunks into array of declared content length"() {
+        given:
+        def accumulator = new MessageContentAccumulator(11, 1024)
+
+        when:
+        accumulator.append("hello".bytes)
+        accumulator.append(" ".bytes)
+        accumulator.append("world".bytes)
+
+        then:
+        new String(accumulator.content()) == "hello world"
+    }
+
+    def "should accumulate chunks when content length is unknown"() {
+        given:
+        def accumulator = new MessageContentAccumulator(-1, 1024)
+
+        when:
+        (1..100).each { accumulator.append("chunk-$it;".bytes) }
+
+        then:
+        new String(accumulator.content()) == (1..100).collect { "chunk-$it;" }.join()
+    }
+
+    def "should not preallocate more than max size"() {
+        given:
+        def accumulator = new MessageContentAccumulator(Integer.MAX_VALUE, 4)
+
+        when:
+        accumulator.append("ab".bytes)
+        accumulator.append("cd".bytes)
+        accumulator.append("ef".bytes)
+
+        then:
+        new String(accumulator.content()) == "abcdef"
+    }
+
+    def "should return empty content when nothing was received"() {
+        expect:
+        new MessageContentAccumulator(0, 1024).content().length == 0
+    }
+}
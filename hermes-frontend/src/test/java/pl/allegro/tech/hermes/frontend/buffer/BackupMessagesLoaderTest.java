@@ -164,6 +164,43 @@ public class BackupMessagesLoaderTest {
         .onError(any(JsonMessage.class), eq(topic), any(Exception.class));
   }
 
+  @Test
+  public void shouldStreamMessagesFromRepositoryInChunks() {
+    // given
+    LocalMessageStorageProperties localMessageStorageProperties =
+        new LocalMessageStorageProperties();
+    localMessageStorageProperties.setMaxAge(Duration.ofHours(8));
+    localMessageStorageProperties.setLoadingChunkSize(2);
+
+    MessageRepository messageRepository =
+        new ChronicleMapMessageRepository(
+            new File(tempDir.getAbsoluteFile(), "messages.dat"), ENTRIES, AVERAGE_MESSAGE_SIZE);
+    BackupMessagesLoader backupMessagesLoader =
+        new BackupMessagesLoader(
+            producer,
+            producer,
+            listeners,
+            topicsCache,
+            schemaRepository,
+            schemaExistenceEnsurer,
+            trackers,
+            localMessageStorageProperties);
+
+    for (int i = 0; i < 5; i++) {
+      messageRepository.save(messageOfAge(1), topic);
+    }
+    messageRepository.save(messageOfAge(10), topic);
+
+    // when
+    backupMessagesLoader.loadMessages(messageRepository);
+
+    // then
+    verify(producer, times(5))
+        .send(any(JsonMessage.class), eq(cachedTopic), any(PublishingCallback.class));
+    assertThat(backupMessagesLoader.getRemainingMessages()).isZero();
+    assertThat(backupMessagesLoader.getRemainingBytes()).isZero();
+  }
+
   @Test
   public void shouldSendOnlyWhenBrokerTopicIsAvailable() {
     // given
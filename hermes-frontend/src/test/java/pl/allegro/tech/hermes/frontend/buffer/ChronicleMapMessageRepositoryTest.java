@@ -11,9 +11,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.Before;
 import org.junit.Test;
 import pl.allegro.tech.hermes.api.Topic;
@@ -92,6 +94,34 @@ public class ChronicleMapMessageRepositoryTest {
     assertThat(messageRepository.findAll()).contains(backupMessage(message2, qualifiedName));
   }
 
+  @Test
+  public void shouldIterateOverMessagesWithTheirSizes() {
+    // given
+    String qualifiedName = "groupName.topic";
+    Message message1 = generateJsonMessage();
+    Message message2 = generateJsonMessage();
+    Topic topic = topic(qualifiedName).build();
+    messageRepository.save(message1, topic);
+    messageRepository.save(message2, topic);
+
+    List<BackupMessage> messages = new ArrayList<>();
+    AtomicLong bytes = new AtomicLong();
+
+    // when
+    messageRepository.forEach(
+        (message, size) -> {
+          messages.add(message);
+          bytes.addAndGet(size);
+        });
+
+    // then
+    assertThat(messages)
+        .containsExactlyInAnyOrder(
+            backupMessage(message1, qualifiedName), backupMessage(message2, qualifiedName));
+    assertThat(messageRepository.count()).isEqualTo(2);
+    assertThat(bytes.get()).isPositive().isEqualTo(messageRepository.sizeInBytes());
+  }
+
   @Test
   public void shouldCreateRepositoryFromFile() throws IOException {
     // given
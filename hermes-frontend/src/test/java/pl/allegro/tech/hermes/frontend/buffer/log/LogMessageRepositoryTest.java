@@ -0,0 +1,306 @@
+package pl.allegro.tech.hermes.frontend.buffer.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.frontend.buffer.BackupMessage;
+import pl.allegro.tech.hermes.frontend.config.LocalMessageStorageProperties;
+import pl.allegro.tech.hermes.frontend.publishing.message.JsonMessage;
+import pl.allegro.tech.hermes.frontend.publishing.message.Message;
+import pl.allegro.tech.hermes.frontend.publishing.message.MessageIdGenerator;
+
+public class LogMessageRepositoryTest {
+
+  private static final String QUALIFIED_NAME = "groupName.topic";
+
+  private final Topic topic = topic(QUALIFIED_NAME).build();
+  private final LocalMessageStorageProperties parameters = new LocalMessageStorageProperties();
+
+  private File directory;
+  private LogMessageRepository repository;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("log_backup").toFile();
+    parameters.setLogSegmentSizeBytes(1024);
+    parameters.setLogFsyncPolicy(LogFsyncPolicy.EVERY_WRITE);
+    parameters.setLogCompactionInterval(Duration.ofHours(1));
+    repository = new LogMessageRepository(directory, parameters);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    repository.close();
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Test
+  public void shouldSaveFindAndDeleteMessage() {
+    // given
+    Message message = generateJsonMessage();
+
+    // when
+    repository.save(message, topic);
+
+    // then
+    assertThat(repository.findAll()).containsExactly(backupMessage(message));
+    assertThat(repository.count()).isEqualTo(1);
+
+    // when
+    repository.delete(message.getId());
+
+    // then
+    assertThat(repository.findAll()).isEmpty();
+    assertThat(repository.sizeInBytes()).isZero();
+  }
+
+  @Test
+  public void shouldKeepLatestRecordOfMessageSavedMultipleTimes() {
+    // given
+    Message message = generateJsonMessage();
+
+    // when
+    repository.save(message, topic);
+    repository.save(message, topic);
+
+    // then
+    assertThat(repository.findAll()).containsExactly(backupMessage(message));
+  }
+
+  @Test
+  public void shouldRecoverMessagesAfterReopening() {
+    // given
+    Message kept = generateJsonMessage();
+    Message deleted = generateJsonMessage();
+    repository.save(kept, topic);
+    repository.save(deleted, topic);
+    repository.delete(deleted.getId());
+    repository.close();
+
+    // when
+    repository = new LogMessageRepository(directory, parameters);
+
+    // then
+    assertThat(repository.findAll()).containsExactly(backupMessage(kept));
+  }
+
+  @Test
+  public void shouldContinueInNewSegmentWhenSegmentIsFull() {
+    // given
+    for (int i = 0; i < 20; i++) {
+      repository.save(generateJsonMessage(), topic);
+    }
+
+    // expect
+    assertThat(segmentFiles()).hasSizeGreaterThan(1);
+    assertThat(repository.findAll()).hasSize(20);
+  }
+
+  @Test
+  public void shouldCompactOldestSegmentsWithoutLiveMessages() {
+    // given
+    Message kept = generateJsonMessage();
+    repository.save(kept, topic);
+    for (int i = 0; i < 20; i++) {
+      Message message = generateJsonMessage();
+      repository.save(message, topic);
+      repository.delete(message.getId());
+    }
+    int segmentsBeforeCompaction = segmentFiles().length;
+
+    // when
+    repository.compact();
+
+    // then
+    assertThat(segmentFiles().length).isLessThan(segmentsBeforeCompaction);
+    assertThat(repository.findAll()).containsExactly(backupMessage(kept));
+
+    // when
+    repository.close();
+    repository = new LogMessageRepository(directory, parameters);
+
+    // then
+    assertThat(repository.findAll()).containsExactly(backupMessage(kept));
+  }
+
+  @Test
+  public void shouldKeepLatestStateOfMessagesSavedAndDeletedWhileCompacting() throws Exception {
+    // given
+    repository.close();
+    parameters.setLogFsyncPolicy(LogFsyncPolicy.NEVER);
+    repository = new LogMessageRepository(directory, parameters);
+    Map<String, Message> expected = new ConcurrentHashMap<>();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // when
+    Future<?> writes =
+        executor.submit(
+            () -> {
+              for (int i = 0; i < 1000; i++) {
+                Message message = generateJsonMessage();
+                repository.save(message, topic);
+                expected.put(message.getId(), message);
+                if (i % 3 != 0) {
+                  repository.delete(message.getId());
+                  expected.remove(message.getId());
+                }
+                if (i % 7 == 0) {
+                  Message savedAgain = expected.values().iterator().next();
+                  Message updated = generateJsonMessage(savedAgain.getId());
+                  repository.save(updated, topic);
+                  expected.put(updated.getId(), updated);
+                }
+              }
+            });
+    while (!writes.isDone()) {
+      repository.compact();
+    }
+    writes.get();
+    executor.shutdown();
+    repository.close();
+    repository = new LogMessageRepository(directory, parameters);
+
+    // then
+    assertThat(repository.findAll())
+        .containsExactlyInAnyOrderElementsOf(
+            expected.values().stream().map(LogMessageRepositoryTest::backupMessage).toList());
+  }
+
+  @Test
+  public void shouldRejectSavesOnceLogReachedMaximumSize() {
+    // given
+    repository.close();
+    repository = new LogMessageRepository(directory, parameters, 2048);
+
+    // when
+    List<Message> saved = saveUntilRejected();
+
+    // then
+    assertThat(segmentFiles()).hasSize(2);
+    assertThat(repository.count()).isEqualTo(saved.size());
+
+    // when
+    saved.forEach(message -> repository.delete(message.getId()));
+    repository.compact();
+
+    // then
+    repository.save(generateJsonMessage(), topic);
+    assertThat(repository.count()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldCompactMostlyLiveOldestSegmentOnceLogReachedMaximumSize() {
+    // given
+    repository.close();
+    repository = new LogMessageRepository(directory, parameters, 2048);
+    Message deleted = generateJsonMessage();
+    repository.save(deleted, topic);
+    repository.delete(deleted.getId());
+    List<Message> saved = saveUntilRejected();
+    File oldest = segmentFiles()[0];
+
+    // when
+    repository.compact();
+
+    // then
+    assertThat(oldest).doesNotExist();
+    assertThat(repository.findAll())
+        .containsExactlyInAnyOrderElementsOf(
+            saved.stream().map(LogMessageRepositoryTest::backupMessage).toList());
+  }
+
+  @Test
+  public void shouldIgnoreTornRecordAtTheEndOfSegment() throws IOException {
+    // given
+    Message message = generateJsonMessage();
+    Message torn = generateJsonMessage();
+    repository.save(message, topic);
+    repository.save(torn, topic);
+    repository.close();
+    corruptLastByteOfRecords(segmentFiles()[0]);
+
+    // when
+    repository = new LogMessageRepository(directory, parameters);
+
+    // then
+    assertThat(repository.findAll()).containsExactly(backupMessage(message));
+  }
+
+  private List<Message> saveUntilRejected() {
+    List<Message> saved = new ArrayList<>();
+    while (true) {
+      Message message = generateJsonMessage();
+      try {
+        repository.save(message, topic);
+      } catch (LogMessageRepositoryException e) {
+        return saved;
+      }
+      saved.add(message);
+    }
+  }
+
+  private File[] segmentFiles() {
+    File[] files = directory.listFiles((dir, name) -> name.endsWith(".log"));
+    Arrays.sort(files);
+    return files;
+  }
+
+  private static void corruptLastByteOfRecords(File segment) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      long position = file.length() - 1;
+      while (position > 0) {
+        file.seek(position);
+        if (file.read() != 0) {
+          break;
+        }
+        position--;
+      }
+      file.seek(position);
+      file.write(0);
+    }
+  }
+
+  private static Message generateJsonMessage() {
+    return generateJsonMessage(MessageIdGenerator.generate());
+  }
+
+  private static Message generateJsonMessage(String id) {
+    return new JsonMessage(
+        id,
+        UUID.randomUUID().toString().getBytes(),
+        System.currentTimeMillis(),
+        "partition-key",
+        Map.of("propagated-http-header", "value"));
+  }
+
+  private static BackupMessage backupMessage(Message message) {
+    return new BackupMessage(
+        message.getId(),
+        message.getData(),
+        message.getTimestamp(),
+        QUALIFIED_NAME,
+        message.getPartitionKey(),
+        null,
+        null,
+        message.getHTTPHeaders());
+  }
+}
@@ -19,11 +19,11 @@ import pl.allegro.tech.hermes.management.infrastructure.query.parser.json.JsonQu
 @Provider
 public class QueryBodyReader implements MessageBodyReader<Query> {
 
-  private final ObjectMapper objectMapper;
+  private final QueryParser parser;
 
   @Autowired
   public QueryBodyReader(ObjectMapper objectMapper) {
-    this.objectMapper = objectMapper;
+    this.parser = new JsonQueryParser(objectMapper);
   }
 
   @Override
@@ -46,7 +46,6 @@ public class QueryBodyReader implements MessageBodyReader<Query> {
     if (genericType instanceof ParameterizedType) {
       queryType = (Class<?>) ((ParameterizedType) genericType).getRawType();
     }
-    QueryParser parser = new JsonQueryParser(objectMapper);
     return parser.parse(entityStream, queryType);
   }
 }
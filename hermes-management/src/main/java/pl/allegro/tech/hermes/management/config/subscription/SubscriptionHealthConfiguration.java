@@ -1,9 +1,13 @@
 package pl.allegro.tech.hermes.management.config.subscription;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.Executors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,8 +20,10 @@ import pl.allegro.tech.hermes.management.domain.subscription.SubscriptionMetrics
 import pl.allegro.tech.hermes.management.domain.subscription.SubscriptionOwnerCache;
 import pl.allegro.tech.hermes.management.domain.subscription.SubscriptionRemover;
 import pl.allegro.tech.hermes.management.domain.subscription.SubscriptionService;
+import pl.allegro.tech.hermes.management.domain.subscription.health.FleetMetricsRepository;
 import pl.allegro.tech.hermes.management.domain.subscription.health.SubscriptionHealthChecker;
 import pl.allegro.tech.hermes.management.domain.subscription.health.SubscriptionHealthProblemIndicator;
+import pl.allegro.tech.hermes.management.domain.subscription.health.SubscriptionHealthSnapshotCache;
 import pl.allegro.tech.hermes.management.domain.subscription.health.problem.DisabledIndicator;
 import pl.allegro.tech.hermes.management.domain.subscription.health.problem.LaggingIndicator;
 import pl.allegro.tech.hermes.management.domain.subscription.health.problem.MalfunctioningIndicator;
@@ -98,7 +104,9 @@ public class SubscriptionHealthConfiguration {
       MultiDCAwareService multiDCAwareService,
       RepositoryManager repositoryManager,
       SubscriptionHealthProperties subscriptionHealthProperties,
-      SubscriptionRemover subscriptionRemover) {
+      SubscriptionProperties subscriptionProperties,
+      SubscriptionRemover subscriptionRemover,
+      Optional<SubscriptionHealthSnapshotCache> subscriptionHealthSnapshotCache) {
     return new SubscriptionService(
         subscriptionRepository,
         subscriptionOwnerCache,
@@ -117,7 +125,26 @@ public class SubscriptionHealthConfiguration {
                 .setNameFormat("subscription-health-check-executor-%d")
                 .build()),
         subscriptionHealthProperties.getTimeoutMillis(),
-        subscriptionRemover);
+        subscriptionRemover,
+        subscriptionProperties.isQueryOwnerIndexEnabled(),
+        subscriptionHealthSnapshotCache);
+  }
+
+  @Bean
+  @ConditionalOnProperty(value = "subscription-health.snapshot-enabled", havingValue = "true")
+  public SubscriptionHealthSnapshotCache subscriptionHealthSnapshotCache(
+      SubscriptionRepository subscriptionRepository,
+      FleetMetricsRepository fleetMetricsRepository,
+      SubscriptionHealthChecker subscriptionHealthChecker,
+      MeterRegistry meterRegistry,
+      Clock clock) {
+    return new SubscriptionHealthSnapshotCache(
+        subscriptionRepository,
+        fleetMetricsRepository,
+        subscriptionHealthChecker,
+        meterRegistry,
+        clock,
+        Duration.ofSeconds(subscriptionHealthProperties.getSnapshotRefreshIntervalSeconds()));
   }
 
   @Bean
@@ -17,6 +17,8 @@ public class SubscriptionHealthProperties {
   private boolean unreachableIndicatorEnabled = true;
   private long timeoutMillis = 8000;
   private int threads = 16;
+  private boolean snapshotEnabled = false;
+  private int snapshotRefreshIntervalSeconds = 30;
 
   public int getMaxLagInSeconds() {
     return maxLagInSeconds;
@@ -123,4 +125,20 @@ public class SubscriptionHealthProperties {
   public void setThreads(int threads) {
     this.threads = threads;
   }
+
+  public boolean isSnapshotEnabled() {
+    return snapshotEnabled;
+  }
+
+  public void setSnapshotEnabled(boolean snapshotEnabled) {
+    this.snapshotEnabled = snapshotEnabled;
+  }
+
+  public int getSnapshotRefreshIntervalSeconds() {
+    return snapshotRefreshIntervalSeconds;
+  }
+
+  public void setSnapshotRefreshIntervalSeconds(int snapshotRefreshIntervalSeconds) {
+    this.snapshotRefreshIntervalSeconds = snapshotRefreshIntervalSeconds;
+  }
 }
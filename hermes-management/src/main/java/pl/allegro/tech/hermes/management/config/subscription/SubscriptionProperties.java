@@ -17,6 +17,8 @@ public class SubscriptionProperties {
 
   private boolean createConsumerGroupManuallyEnabled = true;
 
+  private boolean queryOwnerIndexEnabled = false;
+
   public List<String> getAdditionalEndpointProtocols() {
     return additionalEndpointProtocols;
   }
@@ -51,6 +53,14 @@ public class SubscriptionProperties {
     this.createConsumerGroupManuallyEnabled = createConsumerGroupManuallyEnabled;
   }
 
+  public boolean isQueryOwnerIndexEnabled() {
+    return queryOwnerIndexEnabled;
+  }
+
+  public void setQueryOwnerIndexEnabled(boolean queryOwnerIndexEnabled) {
+    this.queryOwnerIndexEnabled = queryOwnerIndexEnabled;
+  }
+
   public List<SubscriberProperties> getSubscribersWithAccessToAnyTopic() {
     return subscribersWithAccessToAnyTopic;
   }
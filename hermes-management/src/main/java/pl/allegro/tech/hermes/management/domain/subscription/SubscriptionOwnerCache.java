@@ -5,6 +5,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -29,6 +30,8 @@ public class SubscriptionOwnerCache {
 
   private Multimap<OwnerId, SubscriptionName> cache =
       Multimaps.synchronizedMultimap(ArrayListMultimap.create());
+  private Multimap<String, SubscriptionName> ownerIdIndex =
+      Multimaps.synchronizedMultimap(ArrayListMultimap.create());
 
   public SubscriptionOwnerCache(
       SubscriptionRepository subscriptionRepository,
@@ -50,24 +53,34 @@ public class SubscriptionOwnerCache {
     return cache.get(ownerId);
   }
 
+  /** Subscriptions of owners with given id, regardless of the owner source. */
+  Collection<SubscriptionName> getByOwnerId(String id) {
+    Multimap<String, SubscriptionName> ownerIdIndex = this.ownerIdIndex;
+    synchronized (ownerIdIndex) {
+      return new ArrayList<>(ownerIdIndex.get(id));
+    }
+  }
+
   Collection<SubscriptionName> getAll() {
     return cache.values();
   }
 
   void onRemovedSubscription(String subscriptionName, TopicName topicName) {
-    cache
-        .entries()
-        .removeIf(
-            entry -> entry.getValue().equals(new SubscriptionName(subscriptionName, topicName)));
+    SubscriptionName removed = new SubscriptionName(subscriptionName, topicName);
+    cache.entries().removeIf(entry -> entry.getValue().equals(removed));
+    ownerIdIndex.entries().removeIf(entry -> entry.getValue().equals(removed));
   }
 
   void onCreatedSubscription(Subscription subscription) {
     cache.put(subscription.getOwner(), subscription.getQualifiedName());
+    ownerIdIndex.put(subscription.getOwner().getId(), subscription.getQualifiedName());
   }
 
   void onUpdatedSubscription(Subscription oldSubscription, Subscription newSubscription) {
     cache.remove(oldSubscription.getOwner(), oldSubscription.getQualifiedName());
     cache.put(newSubscription.getOwner(), newSubscription.getQualifiedName());
+    ownerIdIndex.remove(oldSubscription.getOwner().getId(), oldSubscription.getQualifiedName());
+    ownerIdIndex.put(newSubscription.getOwner().getId(), newSubscription.getQualifiedName());
   }
 
   private void refillCache() {
@@ -75,11 +88,16 @@ public class SubscriptionOwnerCache {
       logger.info("Starting filling SubscriptionOwnerCache");
       long start = System.currentTimeMillis();
       Multimap<OwnerId, SubscriptionName> cache = ArrayListMultimap.create();
+      Multimap<String, SubscriptionName> ownerIdIndex = ArrayListMultimap.create();
       subscriptionRepository
           .listAllSubscriptions()
           .forEach(
-              subscription -> cache.put(subscription.getOwner(), subscription.getQualifiedName()));
+              subscription -> {
+                cache.put(subscription.getOwner(), subscription.getQualifiedName());
+                ownerIdIndex.put(subscription.getOwner().getId(), subscription.getQualifiedName());
+              });
       this.cache = Multimaps.synchronizedMultimap(cache);
+      this.ownerIdIndex = Multimaps.synchronizedMultimap(ownerIdIndex);
       long end = System.currentTimeMillis();
       logger.info("SubscriptionOwnerCache filled. Took {}ms", end - start);
     } catch (Exception e) {
@@ -23,6 +23,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.api.ContentType;
 import pl.allegro.tech.hermes.api.MessageTrace;
+import pl.allegro.tech.hermes.api.MonitoringDetails;
 import pl.allegro.tech.hermes.api.OwnerId;
 import pl.allegro.tech.hermes.api.PatchData;
 import pl.allegro.tech.hermes.api.PersistentSubscriptionMetrics;
@@ -49,11 +50,14 @@ import pl.allegro.tech.hermes.management.domain.dc.RepositoryManager;
 import pl.allegro.tech.hermes.management.domain.subscription.commands.CreateSubscriptionRepositoryCommand;
 import pl.allegro.tech.hermes.management.domain.subscription.commands.UpdateSubscriptionRepositoryCommand;
 import pl.allegro.tech.hermes.management.domain.subscription.health.SubscriptionHealthChecker;
+import pl.allegro.tech.hermes.management.domain.subscription.health.SubscriptionHealthSnapshot;
+import pl.allegro.tech.hermes.management.domain.subscription.health.SubscriptionHealthSnapshotCache;
 import pl.allegro.tech.hermes.management.domain.subscription.validator.SubscriptionValidator;
 import pl.allegro.tech.hermes.management.domain.topic.TopicService;
 import pl.allegro.tech.hermes.management.infrastructure.kafka.MovingSubscriptionOffsetsValidationException;
 import pl.allegro.tech.hermes.management.infrastructure.kafka.MultiDCAwareService;
 import pl.allegro.tech.hermes.management.infrastructure.kafka.MultiDCOffsetChangeSummary;
+import pl.allegro.tech.hermes.management.infrastructure.query.MatcherQuery;
 import pl.allegro.tech.hermes.tracker.management.LogRepository;
 
 public class SubscriptionService {
@@ -61,6 +65,8 @@ public class SubscriptionService {
 
   private static final int LAST_MESSAGE_COUNT = 100;
 
+  private static final String OWNER_ID_ATTRIBUTE = "owner.id";
+
   private final SubscriptionRepository subscriptionRepository;
   private final SubscriptionOwnerCache subscriptionOwnerCache;
   private final TopicService topicService;
@@ -75,6 +81,8 @@ public class SubscriptionService {
   private final long subscriptionHealthCheckTimeoutMillis;
   private final ExecutorService subscriptionHealthCheckExecutorService;
   private final SubscriptionRemover subscriptionRemover;
+  private final boolean queryOwnerIndexEnabled;
+  private final Optional<SubscriptionHealthSnapshotCache> subscriptionHealthSnapshotCache;
 
   public SubscriptionService(
       SubscriptionRepository subscriptionRepository,
@@ -90,7 +98,9 @@ public class SubscriptionService {
       RepositoryManager repositoryManager,
       ExecutorService unhealthyGetExecutorService,
       long unhealthyGetTimeoutMillis,
-      SubscriptionRemover subscriptionRemover) {
+      SubscriptionRemover subscriptionRemover,
+      boolean queryOwnerIndexEnabled,
+      Optional<SubscriptionHealthSnapshotCache> subscriptionHealthSnapshotCache) {
     this.subscriptionRepository = subscriptionRepository;
     this.subscriptionOwnerCache = subscriptionOwnerCache;
     this.topicService = topicService;
@@ -105,6 +115,8 @@ public class SubscriptionService {
     this.subscriptionHealthCheckExecutorService = unhealthyGetExecutorService;
     this.subscriptionHealthCheckTimeoutMillis = unhealthyGetTimeoutMillis;
     this.subscriptionRemover = subscriptionRemover;
+    this.queryOwnerIndexEnabled = queryOwnerIndexEnabled;
+    this.subscriptionHealthSnapshotCache = subscriptionHealthSnapshotCache;
   }
 
   public List<String> listSubscriptionNames(TopicName topicName) {
@@ -294,7 +306,7 @@ public class SubscriptionService {
   }
 
   public List<Subscription> querySubscription(Query<Subscription> query) {
-    return query.filter(getAllSubscriptions()).collect(toList());
+    return query.filter(getSubscriptionsMatchingIndex(query)).collect(toList());
   }
 
   public List<SubscriptionNameWithMetrics> querySubscriptionsMetrics(
@@ -313,6 +325,20 @@ public class SubscriptionService {
         .collect(toList());
   }
 
+  private List<Subscription> getSubscriptionsMatchingIndex(Query<Subscription> query) {
+    if (queryOwnerIndexEnabled && query instanceof MatcherQuery<Subscription> matcherQuery) {
+      Optional<Object> ownerId = matcherQuery.requiredValue(OWNER_ID_ATTRIBUTE);
+      if (ownerId.isPresent()) {
+        Collection<SubscriptionName> subscriptionNames =
+            subscriptionOwnerCache.getByOwnerId(String.valueOf(ownerId.get()));
+        return subscriptionRepository.getSubscriptionDetails(subscriptionNames).stream()
+            .map(Subscription::anonymize)
+            .collect(toList());
+      }
+    }
+    return getAllSubscriptions();
+  }
+
   public List<Subscription> getForOwnerId(OwnerId ownerId) {
     Collection<SubscriptionName> subscriptionNames = subscriptionOwnerCache.get(ownerId);
     return subscriptionRepository.getSubscriptionDetails(subscriptionNames);
@@ -322,6 +348,14 @@ public class SubscriptionService {
       boolean respectMonitoringSeverity,
       List<String> subscriptionNames,
       List<String> qualifiedTopicNames) {
+    Optional<SubscriptionHealthSnapshot> snapshot = getHealthSnapshot();
+    if (snapshot.isPresent()) {
+      return filterUnhealthy(
+          snapshot.get().getUnhealthy(),
+          respectMonitoringSeverity,
+          subscriptionNames,
+          qualifiedTopicNames);
+    }
     return getUnhealthyList(
         subscriptionOwnerCache.getAll(),
         respectMonitoringSeverity,
@@ -334,6 +368,14 @@ public class SubscriptionService {
       boolean respectMonitoringSeverity,
       List<String> subscriptionNames,
       List<String> qualifiedTopicNames) {
+    Optional<SubscriptionHealthSnapshot> snapshot = getHealthSnapshot();
+    if (snapshot.isPresent()) {
+      return filterUnhealthy(
+          snapshot.get().getUnhealthy(ownerId),
+          respectMonitoringSeverity,
+          subscriptionNames,
+          qualifiedTopicNames);
+    }
     return getUnhealthyList(
         subscriptionOwnerCache.get(ownerId),
         respectMonitoringSeverity,
@@ -424,6 +466,35 @@ public class SubscriptionService {
         .collect(toList());
   }
 
+  private Optional<SubscriptionHealthSnapshot> getHealthSnapshot() {
+    return subscriptionHealthSnapshotCache.flatMap(SubscriptionHealthSnapshotCache::getSnapshot);
+  }
+
+  private List<UnhealthySubscription> filterUnhealthy(
+      List<UnhealthySubscription> unhealthySubscriptions,
+      boolean respectMonitoringSeverity,
+      List<String> subscriptionNames,
+      List<String> qualifiedTopicNames) {
+    boolean shouldFilterBySubscriptionNames = CollectionUtils.isNotEmpty(subscriptionNames);
+    boolean shouldFilterByQualifiedTopicNames = CollectionUtils.isNotEmpty(qualifiedTopicNames);
+
+    return unhealthySubscriptions.stream()
+        .filter(
+            s ->
+                filterBySeverityMonitorFlag(
+                    respectMonitoringSeverity,
+                    s.getSeverity() == MonitoringDetails.Severity.NON_IMPORTANT))
+        .filter(
+            s ->
+                !shouldFilterBySubscriptionNames
+                    || filterBySubscriptionNames(subscriptionNames, s.getName()))
+        .filter(
+            s ->
+                !shouldFilterByQualifiedTopicNames
+                    || filterByQualifiedTopicNames(qualifiedTopicNames, s.getQualifiedTopicName()))
+        .collect(toList());
+  }
+
   private boolean filterBySubscriptionNames(
       List<String> subscriptionNames, String subscriptionName) {
     return subscriptionNames.contains(subscriptionName);
@@ -0,0 +1,20 @@
+package pl.allegro.tech.hermes.management.domain.subscription.health;
+
+import pl.allegro.tech.hermes.api.SubscriptionMetrics;
+import pl.allegro.tech.hermes.api.SubscriptionName;
+import pl.allegro.tech.hermes.api.TopicMetrics;
+import pl.allegro.tech.hermes.api.TopicName;
+
+/** Loads metrics needed to evaluate health of all subscriptions at once. */
+public interface FleetMetricsRepository {
+
+  FleetMetrics loadMetrics();
+
+  interface FleetMetrics {
+    TopicMetrics topicMetrics(TopicName topicName);
+
+    SubscriptionMetrics subscriptionMetrics(SubscriptionName subscriptionName);
+
+    boolean hasUnavailableMetrics();
+  }
+}
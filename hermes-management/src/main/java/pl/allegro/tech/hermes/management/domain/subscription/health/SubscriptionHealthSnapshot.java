@@ -0,0 +1,34 @@
+package pl.allegro.tech.hermes.management.domain.subscription.health;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import pl.allegro.tech.hermes.api.OwnerId;
+import pl.allegro.tech.hermes.api.UnhealthySubscription;
+
+/** Unhealthy subscriptions of the whole fleet, indexed by owner, as of the time of creation. */
+public final class SubscriptionHealthSnapshot {
+
+  private final Instant createdAt;
+  private final Map<OwnerId, List<UnhealthySubscription>> unhealthyByOwner;
+  private final List<UnhealthySubscription> unhealthy;
+
+  SubscriptionHealthSnapshot(
+      Instant createdAt, Map<OwnerId, List<UnhealthySubscription>> unhealthyByOwner) {
+    this.createdAt = createdAt;
+    this.unhealthyByOwner = Map.copyOf(unhealthyByOwner);
+    this.unhealthy = unhealthyByOwner.values().stream().flatMap(List::stream).toList();
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public List<UnhealthySubscription> getUnhealthy() {
+    return unhealthy;
+  }
+
+  public List<UnhealthySubscription> getUnhealthy(OwnerId ownerId) {
+    return unhealthyByOwner.getOrDefault(ownerId, List.of());
+  }
+}
@@ -0,0 +1,133 @@
+package pl.allegro.tech.hermes.management.domain.subscription.health;
+
+import static pl.allegro.tech.hermes.api.SubscriptionHealth.Status.UNHEALTHY;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.api.OwnerId;
+import pl.allegro.tech.hermes.api.Subscription;
+import pl.allegro.tech.hermes.api.SubscriptionHealth;
+import pl.allegro.tech.hermes.api.UnhealthySubscription;
+import pl.allegro.tech.hermes.domain.subscription.SubscriptionRepository;
+import pl.allegro.tech.hermes.management.domain.subscription.health.FleetMetricsRepository.FleetMetrics;
+
+/**
+ * Keeps a {@link SubscriptionHealthSnapshot} of all subscriptions, refreshed in background, so
+ * listing unhealthy subscriptions does not query metrics of every subscription separately.
+ *
+ * <p>Every refresh loads metrics of the whole fleet with a few queries grouped by subscription and
+ * evaluates health of each subscription with {@link SubscriptionHealthChecker}. When some of the
+ * metrics can not be loaded, the previous snapshot is kept, so it is better to watch its staleness.
+ */
+public class SubscriptionHealthSnapshotCache {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(SubscriptionHealthSnapshotCache.class);
+
+  private final SubscriptionRepository subscriptionRepository;
+  private final FleetMetricsRepository fleetMetricsRepository;
+  private final SubscriptionHealthChecker subscriptionHealthChecker;
+  private final Clock clock;
+  private final Instant startedAt;
+  private final Timer refreshTimer;
+  private final ScheduledExecutorService scheduledExecutorService;
+
+  private volatile SubscriptionHealthSnapshot snapshot;
+
+  public SubscriptionHealthSnapshotCache(
+      SubscriptionRepository subscriptionRepository,
+      FleetMetricsRepository fleetMetricsRepository,
+      SubscriptionHealthChecker subscriptionHealthChecker,
+      MeterRegistry meterRegistry,
+      Clock clock,
+      Duration refreshInterval) {
+    this.subscriptionRepository = subscriptionRepository;
+    this.fleetMetricsRepository = fleetMetricsRepository;
+    this.subscriptionHealthChecker = subscriptionHealthChecker;
+    this.clock = clock;
+    this.startedAt = clock.instant();
+    this.refreshTimer = meterRegistry.timer("subscription-health-snapshot.refresh-duration");
+    meterRegistry.gauge(
+        "subscription-health-snapshot.staleness-seconds",
+        this,
+        SubscriptionHealthSnapshotCache::getStalenessSeconds);
+    scheduledExecutorService =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("subscription-health-snapshot-%d").build());
+    scheduledExecutorService.scheduleWithFixedDelay(
+        this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    scheduledExecutorService.shutdown();
+  }
+
+  /** Empty until the first refresh succeeds. */
+  public Optional<SubscriptionHealthSnapshot> getSnapshot() {
+    return Optional.ofNullable(snapshot);
+  }
+
+  private void refresh() {
+    try {
+      logger.info("Starting refreshing subscription health snapshot");
+      long start = System.currentTimeMillis();
+      Optional<SubscriptionHealthSnapshot> refreshed = refreshTimer.record(this::createSnapshot);
+      long end = System.currentTimeMillis();
+      if (refreshed.isPresent()) {
+        snapshot = refreshed.get();
+        logger.info(
+            "Subscription health snapshot refreshed, found {} unhealthy subscriptions. Took {}ms",
+            snapshot.getUnhealthy().size(),
+            end - start);
+      } else {
+        logger.warn("Metrics of subscriptions unavailable, keeping previous health snapshot");
+      }
+    } catch (Exception e) {
+      logger.error("Error while refreshing subscription health snapshot", e);
+    }
+  }
+
+  private Optional<SubscriptionHealthSnapshot> createSnapshot() {
+    Instant createdAt = clock.instant();
+    FleetMetrics metrics = fleetMetricsRepository.loadMetrics();
+    if (metrics.hasUnavailableMetrics()) {
+      return Optional.empty();
+    }
+    Map<OwnerId, List<UnhealthySubscription>> unhealthyByOwner = new HashMap<>();
+    for (Subscription subscription : subscriptionRepository.listAllSubscriptions()) {
+      SubscriptionHealth health =
+          subscriptionHealthChecker.checkHealth(
+              subscription,
+              metrics.topicMetrics(subscription.getTopicName()),
+              metrics.subscriptionMetrics(subscription.getQualifiedName()));
+      if (health.getStatus() == UNHEALTHY) {
+        unhealthyByOwner
+            .computeIfAbsent(subscription.getOwner(), ownerId -> new ArrayList<>())
+            .add(UnhealthySubscription.from(subscription, health));
+      }
+    }
+    return Optional.of(new SubscriptionHealthSnapshot(createdAt, unhealthyByOwner));
+  }
+
+  private double getStalenessSeconds() {
+    SubscriptionHealthSnapshot current = snapshot;
+    Instant refreshedAt = current != null ? current.getCreatedAt() : startedAt;
+    return Duration.between(refreshedAt, clock.instant()).toMillis() / 1000.0;
+  }
+}
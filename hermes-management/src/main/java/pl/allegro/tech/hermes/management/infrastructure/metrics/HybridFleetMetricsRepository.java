@@ -0,0 +1,73 @@
+package pl.allegro.tech.hermes.management.infrastructure.metrics;
+
+import org.springframework.stereotype.Component;
+import pl.allegro.tech.hermes.api.SubscriptionMetrics;
+import pl.allegro.tech.hermes.api.SubscriptionName;
+import pl.allegro.tech.hermes.api.TopicMetrics;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.management.domain.subscription.SubscriptionLagSource;
+import pl.allegro.tech.hermes.management.domain.subscription.health.FleetMetricsRepository;
+import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringFleetMetricsProvider.MonitoringFleetMetrics;
+import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringSubscriptionMetricsProvider.MonitoringSubscriptionMetrics;
+
+@Component
+public class HybridFleetMetricsRepository implements FleetMetricsRepository {
+
+  private final MonitoringFleetMetricsProvider monitoringFleetMetricsProvider;
+  private final SubscriptionLagSource lagSource;
+
+  public HybridFleetMetricsRepository(
+      MonitoringFleetMetricsProvider monitoringFleetMetricsProvider,
+      SubscriptionLagSource lagSource) {
+    this.monitoringFleetMetricsProvider = monitoringFleetMetricsProvider;
+    this.lagSource = lagSource;
+  }
+
+  @Override
+  public FleetMetrics loadMetrics() {
+    return new HybridFleetMetrics(monitoringFleetMetricsProvider.fleetMetrics());
+  }
+
+  private class HybridFleetMetrics implements FleetMetrics {
+
+    private final MonitoringFleetMetrics monitoringMetrics;
+
+    private HybridFleetMetrics(MonitoringFleetMetrics monitoringMetrics) {
+      this.monitoringMetrics = monitoringMetrics;
+    }
+
+    @Override
+    public TopicMetrics topicMetrics(TopicName topicName) {
+      MonitoringTopicMetricsProvider.MonitoringTopicMetrics metrics =
+          monitoringMetrics.topicMetrics(topicName);
+      return TopicMetrics.Builder.topicMetrics()
+          .withRate(metrics.rate())
+          .withDeliveryRate(metrics.deliveryRate())
+          .withThroughput(metrics.throughput())
+          .build();
+    }
+
+    @Override
+    public SubscriptionMetrics subscriptionMetrics(SubscriptionName subscriptionName) {
+      MonitoringSubscriptionMetrics metrics =
+          monitoringMetrics.subscriptionMetrics(subscriptionName);
+      return SubscriptionMetrics.Builder.subscriptionMetrics()
+          .withRate(metrics.rate())
+          .withCodes2xx(metrics.codes2xx())
+          .withCodes4xx(metrics.code4xx())
+          .withCodes5xx(metrics.code5xx())
+          .withRetries(metrics.retries())
+          .withTimeouts(metrics.timeouts())
+          .withOtherErrors(metrics.otherErrors())
+          .withThroughput(metrics.throughput())
+          .withBatchRate(metrics.metricPathBatchRate())
+          .withLag(lagSource.getLag(subscriptionName.getTopicName(), subscriptionName.getName()))
+          .build();
+    }
+
+    @Override
+    public boolean hasUnavailableMetrics() {
+      return monitoringMetrics.hasUnavailableMetrics();
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package pl.allegro.tech.hermes.management.infrastructure.metrics;
+
+import pl.allegro.tech.hermes.api.SubscriptionName;
+import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringSubscriptionMetricsProvider.MonitoringSubscriptionMetrics;
+import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringTopicMetricsProvider.MonitoringTopicMetrics;
+
+/**
+ * Reads metrics of all topics and subscriptions at once. Only metrics needed to evaluate
+ * subscription health are read, the others are unavailable.
+ */
+public interface MonitoringFleetMetricsProvider {
+  MonitoringFleetMetrics fleetMetrics();
+
+  interface MonitoringFleetMetrics {
+    MonitoringSubscriptionMetrics subscriptionMetrics(SubscriptionName subscriptionName);
+
+    MonitoringTopicMetrics topicMetrics(TopicName topicName);
+
+    boolean hasUnavailableMetrics();
+  }
+}
@@ -0,0 +1,42 @@
+package pl.allegro.tech.hermes.management.infrastructure.metrics;
+
+import java.util.Map;
+import pl.allegro.tech.hermes.api.MetricDecimalValue;
+
+/**
+ * Results of queries grouped by labels, e.g. one query returning series of all subscriptions. A
+ * series missing in the result of a successful query means there was no traffic, a failed query
+ * makes all of its series unavailable.
+ */
+public class MonitoringGroupedMetricsContainer {
+
+  private static final MetricDecimalValue DEFAULT_VALUE = MetricDecimalValue.of("0.0");
+
+  private final Map<String, Map<Map<String, String>, MetricDecimalValue>> metrics;
+
+  private MonitoringGroupedMetricsContainer(
+      Map<String, Map<Map<String, String>, MetricDecimalValue>> metrics) {
+    this.metrics = metrics;
+  }
+
+  public static MonitoringGroupedMetricsContainer initialized(
+      Map<String, Map<Map<String, String>, MetricDecimalValue>> metrics) {
+    return new MonitoringGroupedMetricsContainer(metrics);
+  }
+
+  public static MonitoringGroupedMetricsContainer unavailable() {
+    return new MonitoringGroupedMetricsContainer(Map.of());
+  }
+
+  public MetricDecimalValue metricValue(String query, Map<String, String> labels) {
+    Map<Map<String, String>, MetricDecimalValue> series = metrics.get(query);
+    if (series == null) {
+      return MetricDecimalValue.unavailable();
+    }
+    return series.getOrDefault(labels, DEFAULT_VALUE);
+  }
+
+  public boolean isAvailable(String query) {
+    return metrics.containsKey(query);
+  }
+}
@@ -8,6 +8,7 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
+import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringGroupedMetricsContainer;
 import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringMetricsContainer;
 
 public class CachingPrometheusClient implements PrometheusClient {
@@ -54,6 +55,13 @@ public class CachingPrometheusClient implements PrometheusClient {
     }
   }
 
+  @Override
+  public MonitoringGroupedMetricsContainer readGroupedMetrics(List<String> queries) {
+    // grouped queries are issued periodically by a single background job, caching would only delay
+    // fresh results
+    return underlyingPrometheusClient.readGroupedMetrics(queries);
+  }
+
   private class PrometheusMetricsCacheLoader
       extends CacheLoader<List<String>, MonitoringMetricsContainer> {
     @Override
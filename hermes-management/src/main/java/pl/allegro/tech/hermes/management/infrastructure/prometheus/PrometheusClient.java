@@ -3,6 +3,7 @@ package pl.allegro.tech.hermes.management.infrastructure.prometheus;
 import java.util.List;
 import pl.allegro.tech.hermes.api.SubscriptionName;
 import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringGroupedMetricsContainer;
 import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringMetricsContainer;
 
 public interface PrometheusClient {
@@ -17,12 +18,23 @@ public interface PrometheusClient {
   String TOPIC_QUERY_FORMAT =
       "sum by (group, topic) (irate({__name__='%s', group='%s', " + "topic='%s', %s}[1m]))";
 
+  String ALL_SUBSCRIPTIONS_QUERY_FORMAT =
+      "sum by (group, topic, subscription) (irate({__name__='%s', %s}[1m]))";
+
+  String ALL_SUBSCRIPTIONS_QUERY_FORMAT_STATUS_CODE =
+      "sum by (group, topic, subscription) (irate({__name__='%s', status_code=~'%s', %s}[1m]))";
+
+  String ALL_TOPICS_QUERY_FORMAT = "sum by (group, topic) (irate({__name__='%s', %s}[1m]))";
+
   default MonitoringMetricsContainer readMetrics(String... query) {
     return readMetrics(List.of(query));
   }
 
   MonitoringMetricsContainer readMetrics(List<String> queries);
 
+  /** Reads all series returned by the queries, keyed by their labels. */
+  MonitoringGroupedMetricsContainer readGroupedMetrics(List<String> queries);
+
   static String forSubscription(
       String name, SubscriptionName subscriptionName, String additionalFilters) {
     return String.format(
@@ -50,4 +62,17 @@ public interface PrometheusClient {
     return String.format(
         TOPIC_QUERY_FORMAT, name, topicName.getGroupName(), topicName.getName(), additionalFilters);
   }
+
+  static String forAllSubscriptions(String name, String additionalFilters) {
+    return String.format(ALL_SUBSCRIPTIONS_QUERY_FORMAT, name, additionalFilters);
+  }
+
+  static String forAllSubscriptionsStatusCode(String name, String regex, String additionalFilters) {
+    return String.format(
+        ALL_SUBSCRIPTIONS_QUERY_FORMAT_STATUS_CODE, name, regex, additionalFilters);
+  }
+
+  static String forAllTopics(String name, String additionalFilters) {
+    return String.format(ALL_TOPICS_QUERY_FORMAT, name, additionalFilters);
+  }
 }
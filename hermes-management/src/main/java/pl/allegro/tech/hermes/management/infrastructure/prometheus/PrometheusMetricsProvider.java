@@ -1,17 +1,27 @@
 package pl.allegro.tech.hermes.management.infrastructure.prometheus;
 
+import static pl.allegro.tech.hermes.management.infrastructure.prometheus.PrometheusClient.forAllSubscriptions;
+import static pl.allegro.tech.hermes.management.infrastructure.prometheus.PrometheusClient.forAllSubscriptionsStatusCode;
+import static pl.allegro.tech.hermes.management.infrastructure.prometheus.PrometheusClient.forAllTopics;
 import static pl.allegro.tech.hermes.management.infrastructure.prometheus.PrometheusClient.forSubscription;
 import static pl.allegro.tech.hermes.management.infrastructure.prometheus.PrometheusClient.forSubscriptionStatusCode;
 import static pl.allegro.tech.hermes.management.infrastructure.prometheus.PrometheusClient.forTopic;
 
+import java.util.List;
+import java.util.Map;
+import pl.allegro.tech.hermes.api.MetricDecimalValue;
 import pl.allegro.tech.hermes.api.SubscriptionName;
 import pl.allegro.tech.hermes.api.TopicName;
+import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringFleetMetricsProvider;
+import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringGroupedMetricsContainer;
 import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringMetricsContainer;
 import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringSubscriptionMetricsProvider;
 import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringTopicMetricsProvider;
 
 public class PrometheusMetricsProvider
-    implements MonitoringSubscriptionMetricsProvider, MonitoringTopicMetricsProvider {
+    implements MonitoringSubscriptionMetricsProvider,
+        MonitoringTopicMetricsProvider,
+        MonitoringFleetMetricsProvider {
 
   private static final String SUBSCRIPTION_DELIVERED = "subscription_delivered_total";
   private static final String SUBSCRIPTION_TIMEOUTS = "subscription_timeouts_total";
@@ -122,6 +132,22 @@ public class PrometheusMetricsProvider
         .build();
   }
 
+  @Override
+  public MonitoringFleetMetrics fleetMetrics() {
+    GroupedFleetMetricsQueries queries =
+        new GroupedFleetMetricsQueries(
+            forAllSubscriptions(consumerMetricName(SUBSCRIPTION_DELIVERED), additionalFilters),
+            forAllSubscriptions(consumerMetricName(SUBSCRIPTION_TIMEOUTS), additionalFilters),
+            forAllSubscriptions(consumerMetricName(SUBSCRIPTION_OTHER_ERRORS), additionalFilters),
+            forAllSubscriptions(consumerMetricName(SUBSCRIPTION_BATCHES), additionalFilters),
+            forAllSubscriptionsStatusCode(
+                consumerMetricName(SUBSCRIPTION_STATUS_CODES), "4.*", additionalFilters),
+            forAllSubscriptionsStatusCode(
+                consumerMetricName(SUBSCRIPTION_STATUS_CODES), "5.*", additionalFilters),
+            forAllTopics(frontendMetricName(TOPIC_RATE), additionalFilters));
+    return new GroupedFleetMetrics(queries, prometheusClient.readGroupedMetrics(queries.all()));
+  }
+
   private String consumerMetricName(String name) {
     return consumersMetricsPrefix + name;
   }
@@ -129,4 +155,69 @@ public class PrometheusMetricsProvider
   private String frontendMetricName(String name) {
     return frontendMetricsPrefix + name;
   }
+
+  private record GroupedFleetMetricsQueries(
+      String subscriptionDelivered,
+      String subscriptionTimeouts,
+      String subscriptionOtherErrors,
+      String subscriptionBatches,
+      String subscription4xx,
+      String subscription5xx,
+      String topicRate) {
+
+    List<String> all() {
+      return List.of(
+          subscriptionDelivered,
+          subscriptionTimeouts,
+          subscriptionOtherErrors,
+          subscriptionBatches,
+          subscription4xx,
+          subscription5xx,
+          topicRate);
+    }
+  }
+
+  private record GroupedFleetMetrics(
+      GroupedFleetMetricsQueries queries, MonitoringGroupedMetricsContainer container)
+      implements MonitoringFleetMetrics {
+
+    @Override
+    public MonitoringSubscriptionMetrics subscriptionMetrics(SubscriptionName subscriptionName) {
+      Map<String, String> labels =
+          Map.of(
+              "group",
+              subscriptionName.getTopicName().getGroupName(),
+              "topic",
+              subscriptionName.getTopicName().getName(),
+              "subscription",
+              subscriptionName.getName());
+      return MonitoringSubscriptionMetricsProvider.metricsBuilder()
+          .withRate(container.metricValue(queries.subscriptionDelivered(), labels))
+          .withTimeouts(container.metricValue(queries.subscriptionTimeouts(), labels))
+          .withThroughput(MetricDecimalValue.unavailable())
+          .withOtherErrors(container.metricValue(queries.subscriptionOtherErrors(), labels))
+          .withMetricPathBatchRate(container.metricValue(queries.subscriptionBatches(), labels))
+          .withCodes2xx(MetricDecimalValue.unavailable())
+          .withCode4xx(container.metricValue(queries.subscription4xx(), labels))
+          .withCode5xx(container.metricValue(queries.subscription5xx(), labels))
+          .withRetries(MetricDecimalValue.unavailable())
+          .build();
+    }
+
+    @Override
+    public MonitoringTopicMetrics topicMetrics(TopicName topicName) {
+      Map<String, String> labels =
+          Map.of("group", topicName.getGroupName(), "topic", topicName.getName());
+      return MonitoringTopicMetricsProvider.metricsBuilder()
+          .withRate(container.metricValue(queries.topicRate(), labels))
+          .withDeliveryRate(MetricDecimalValue.unavailable())
+          .withThroughput(MetricDecimalValue.unavailable())
+          .build();
+    }
+
+    @Override
+    public boolean hasUnavailableMetrics() {
+      return queries.all().stream().anyMatch(query -> !container.isAvailable(query));
+    }
+  }
 }
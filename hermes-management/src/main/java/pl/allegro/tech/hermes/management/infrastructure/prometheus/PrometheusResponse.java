@@ -3,6 +3,7 @@ package pl.allegro.tech.hermes.management.infrastructure.prometheus;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 record PrometheusResponse(@JsonProperty("status") String status, @JsonProperty("data") Data data) {
@@ -20,7 +21,9 @@ record PrometheusResponse(@JsonProperty("status") String status, @JsonProperty("
   }
 
   @JsonIgnoreProperties(ignoreUnknown = true)
-  record VectorResult(@JsonProperty("value") List<String> vector) {
+  record VectorResult(
+      @JsonProperty("metric") Map<String, String> labels,
+      @JsonProperty("value") List<String> vector) {
 
     private static final int VALID_VECTOR_LENGTH = 2;
     private static final int SCALAR_INDEX_VALUE = 1;
@@ -31,5 +34,9 @@ record PrometheusResponse(@JsonProperty("status") String status, @JsonProperty("
       }
       return Optional.of(Double.parseDouble(vector.get(SCALAR_INDEX_VALUE)));
     }
+
+    Map<String, String> getLabels() {
+      return labels == null ? Map.of() : labels;
+    }
   }
 }
@@ -7,8 +7,10 @@ import com.google.common.base.Preconditions;
 import io.micrometer.core.instrument.MeterRegistry;
 import java.net.URI;
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -21,6 +23,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import pl.allegro.tech.hermes.api.MetricDecimalValue;
+import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringGroupedMetricsContainer;
 import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringMetricsContainer;
 
 public class RestTemplatePrometheusClient implements PrometheusClient {
@@ -51,6 +54,38 @@ public class RestTemplatePrometheusClient implements PrometheusClient {
     return fetchInParallelFromPrometheus(queries);
   }
 
+  @Override
+  public MonitoringGroupedMetricsContainer readGroupedMetrics(List<String> queries) {
+    List<CompletableFuture<Pair<String, Optional<PrometheusResponse>>>> futures =
+        queries.stream()
+            .map(
+                query ->
+                    CompletableFuture.supplyAsync(
+                        () -> Pair.of(query, fetchFromPrometheus(query)), executorService))
+            .toList();
+
+    try {
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+          .get(fetchingTimeout.toMillis(), TimeUnit.MILLISECONDS);
+      Map<String, Map<Map<String, String>, MetricDecimalValue>> metrics = new HashMap<>();
+      for (CompletableFuture<Pair<String, Optional<PrometheusResponse>>> future : futures) {
+        Pair<String, Optional<PrometheusResponse>> result = future.join();
+        // failed queries are left out, so their series are unavailable
+        result
+            .getValue()
+            .ifPresent(response -> metrics.put(result.getKey(), parseGroupedResponse(response)));
+      }
+      return MonitoringGroupedMetricsContainer.initialized(metrics);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.warn("Prometheus fetching thread was interrupted...", e);
+      return MonitoringGroupedMetricsContainer.unavailable();
+    } catch (Exception ex) {
+      logger.warn("Unexpected exception during fetching grouped metrics from prometheus...", ex);
+      return MonitoringGroupedMetricsContainer.unavailable();
+    }
+  }
+
   private MonitoringMetricsContainer fetchInParallelFromPrometheus(List<String> queries) {
     CompletableFuture<Map<String, MetricDecimalValue>> aggregatedFuture =
         getAggregatedCompletableFuture(queries);
@@ -89,6 +124,14 @@ public class RestTemplatePrometheusClient implements PrometheusClient {
   }
 
   private Pair<String, MetricDecimalValue> queryPrometheus(String query) {
+    MetricDecimalValue result =
+        fetchFromPrometheus(query)
+            .map(this::parseResponse)
+            .orElse(MetricDecimalValue.unavailable());
+    return Pair.of(query, result);
+  }
+
+  private Optional<PrometheusResponse> fetchFromPrometheus(String query) {
     try {
       URI queryUri =
           URI.create(prometheusUri.toString() + "/api/v1/query?query=" + encode(query, UTF_8));
@@ -101,9 +144,8 @@ public class RestTemplatePrometheusClient implements PrometheusClient {
       Preconditions.checkState(
           response.isSuccess(), "Prometheus response does not contain valid data");
 
-      MetricDecimalValue result = parseResponse(response);
       meterRegistry.counter("read-metric-from-prometheus.success").increment();
-      return Pair.of(query, result);
+      return Optional.of(response);
     } catch (HttpStatusCodeException ex) {
       logger.warn(
           "Unable to read from Prometheus. Query: {}, Status code: {}. Response body: {}",
@@ -111,11 +153,11 @@ public class RestTemplatePrometheusClient implements PrometheusClient {
           ex.getStatusCode(),
           ex.getResponseBodyAsString(),
           ex);
-      return Pair.of(query, MetricDecimalValue.unavailable());
+      return Optional.empty();
     } catch (Exception ex) {
       logger.warn("Unable to read from Prometheus. Query: {}", query, ex);
       meterRegistry.counter("read-metric-from-prometheus.error").increment();
-      return Pair.of(query, MetricDecimalValue.unavailable());
+      return Optional.empty();
     }
   }
 
@@ -126,4 +168,16 @@ public class RestTemplatePrometheusClient implements PrometheusClient {
         .map(value -> MetricDecimalValue.of(value.toString()))
         .orElse(MetricDecimalValue.defaultValue());
   }
+
+  private Map<Map<String, String>, MetricDecimalValue> parseGroupedResponse(
+      PrometheusResponse response) {
+    Map<Map<String, String>, MetricDecimalValue> series = new HashMap<>();
+    for (PrometheusResponse.VectorResult result : response.data().results()) {
+      result
+          .getValue()
+          .ifPresent(
+              value -> series.put(result.getLabels(), MetricDecimalValue.of(value.toString())));
+    }
+    return series;
+  }
 }
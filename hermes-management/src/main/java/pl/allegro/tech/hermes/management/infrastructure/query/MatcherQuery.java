@@ -1,7 +1,6 @@
 package pl.allegro.tech.hermes.management.infrastructure.query;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.Map;
+import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
@@ -11,16 +10,18 @@ import pl.allegro.tech.hermes.management.infrastructure.query.matcher.Matcher;
 import pl.allegro.tech.hermes.management.infrastructure.query.matcher.MatcherException;
 import pl.allegro.tech.hermes.management.infrastructure.query.matcher.MatcherInputException;
 
+/**
+ * Query evaluated with a tree of matchers. Attribute paths of the matchers are compiled when the
+ * query is parsed, objects are navigated directly, without converting them to maps.
+ */
 public class MatcherQuery<T> implements Query<T> {
 
   private static final Logger logger = LoggerFactory.getLogger(MatcherQuery.class);
 
   private final Matcher matcher;
-  private final ObjectMapper objectMapper;
 
-  private MatcherQuery(Matcher matcher, ObjectMapper objectMapper) {
+  private MatcherQuery(Matcher matcher) {
     this.matcher = matcher;
-    this.objectMapper = objectMapper;
   }
 
   @Override
@@ -36,7 +37,7 @@ public class MatcherQuery<T> implements Query<T> {
   public Predicate<T> getPredicate() {
     return (value) -> {
       try {
-        return matcher.match(convertToMap(value));
+        return matcher.match(value);
       } catch (MatcherException e) {
         logger.info("Failed to match {}, skipping", value, e);
         return false;
@@ -50,7 +51,7 @@ public class MatcherQuery<T> implements Query<T> {
   public <K> Predicate<K> getSoftPredicate() {
     return (value) -> {
       try {
-        return matcher.match(convertToMap(value));
+        return matcher.match(value);
       } catch (MatcherException e) {
         logger.info("Failed to match {}, skipping", value, e);
         return false;
@@ -61,13 +62,15 @@ public class MatcherQuery<T> implements Query<T> {
     };
   }
 
-  @SuppressWarnings("unchecked")
-  // workaround for type which is not java bean
-  private <K> Map convertToMap(K value) {
-    return objectMapper.convertValue(value, Map.class);
+  /**
+   * Returns value which the attribute has to be equal to for an object to match the query, if the
+   * query requires it, so that candidate objects can be looked up in an index.
+   */
+  public Optional<Object> requiredValue(String attribute) {
+    return matcher.requiredValue(attribute);
   }
 
-  public static <T> Query<T> fromMatcher(Matcher matcher, ObjectMapper objectMapper) {
-    return new MatcherQuery<>(matcher, objectMapper);
+  public static <T> Query<T> fromMatcher(Matcher matcher) {
+    return new MatcherQuery<>(matcher);
   }
 }
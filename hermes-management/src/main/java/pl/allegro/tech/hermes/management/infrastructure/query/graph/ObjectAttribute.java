@@ -1,6 +1,14 @@
 package pl.allegro.tech.hermes.management.infrastructure.query.graph;
 
+import java.util.List;
+
 public interface ObjectAttribute {
 
-  Object value();
+  String path();
+
+  /**
+   * Returns values of the attribute, one for every element of collections on the path. When the
+   * attribute is missing a single {@code null} is returned.
+   */
+  List<Object> values(Object target);
 }
@@ -1,18 +1,144 @@
 package pl.allegro.tech.hermes.management.infrastructure.query.graph;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import pl.allegro.tech.hermes.management.infrastructure.query.matcher.MatcherException;
+
+/**
+ * Navigates objects by attribute paths as they are seen in the JSON representation of the objects,
+ * without converting whole objects to JSON.
+ *
+ * <p>Paths are split into property names once, when the attribute is created. Properties of beans
+ * are read with property writers of the serializer Jackson uses for the bean class, looked up once
+ * per class. Objects which are not plain beans (custom serializers, unknown or unwrapped
+ * properties) are converted to their JSON form before the lookup. Values other than strings,
+ * booleans and basic numbers are returned in their JSON form too, so they match the same way as in
+ * the serialized object. For collections the values found in all of their elements are returned.
+ */
 public class ObjectGraph {
 
-  private final Object target;
+  private static final Map<String, BeanPropertyWriter> NO_PROPERTIES = Map.of();
+
+  private final ObjectMapper objectMapper;
+  private final Map<Class<?>, Map<String, BeanPropertyWriter>> beanProperties =
+      new ConcurrentHashMap<>();
+
+  public ObjectGraph(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  public ObjectAttribute attribute(String path) {
+    return new PropertyPath(path, path.split("\\."));
+  }
+
+  private Object toJsonValue(Object value) {
+    if (value == null || isJsonScalar(value)) {
+      return value;
+    }
+    return objectMapper.convertValue(value, Object.class);
+  }
 
-  private ObjectGraph(Object target) {
-    this.target = target;
+  private Map<String, BeanPropertyWriter> propertiesOf(Class<?> type) {
+    return beanProperties.computeIfAbsent(type, this::findProperties);
   }
 
-  public ObjectAttribute navigate(String path) {
-    return new JXPathAttribute(target, path);
+  private Map<String, BeanPropertyWriter> findProperties(Class<?> type) {
+    JsonSerializer<Object> serializer;
+    try {
+      serializer = objectMapper.getSerializerProviderInstance().findValueSerializer(type);
+    } catch (JsonMappingException e) {
+      return NO_PROPERTIES;
+    }
+    if (!(serializer instanceof BeanSerializerBase beanSerializer)) {
+      return NO_PROPERTIES;
+    }
+    Map<String, BeanPropertyWriter> properties = new HashMap<>();
+    beanSerializer
+        .properties()
+        .forEachRemaining(
+            property -> {
+              if (property.getClass() == BeanPropertyWriter.class
+                  && property.getAnnotation(JsonSerialize.class) == null
+                  && property.getAnnotation(JsonFormat.class) == null) {
+                properties.put(property.getName(), (BeanPropertyWriter) property);
+              }
+            });
+    return properties;
   }
 
-  public static ObjectGraph from(Object target) {
-    return new ObjectGraph(target);
+  private static boolean isJsonScalar(Object value) {
+    return value instanceof String
+        || value instanceof Boolean
+        || value instanceof Integer
+        || value instanceof Long
+        || value instanceof Double;
+  }
+
+  private class PropertyPath implements ObjectAttribute {
+
+    private final String path;
+    private final String[] names;
+
+    private PropertyPath(String path, String[] names) {
+      this.path = path;
+      this.names = names;
+    }
+
+    @Override
+    public String path() {
+      return path;
+    }
+
+    @Override
+    public List<Object> values(Object target) {
+      try {
+        List<Object> values = new ArrayList<>(1);
+        navigate(target, 0, values);
+        return values.isEmpty() ? Collections.singletonList(null) : values;
+      } catch (Exception e) {
+        throw new MatcherException(
+            String.format("Could not navigate to specific path: '%s'", path), e);
+      }
+    }
+
+    private void navigate(Object target, int from, List<Object> values) throws Exception {
+      Object current = target;
+      int index = from;
+      while (index < names.length && current != null) {
+        if (current instanceof Collection<?> elements) {
+          for (Object element : elements) {
+            navigate(element, index, values);
+          }
+          return;
+        } else if (current instanceof Map<?, ?> map) {
+          current = map.get(names[index++]);
+        } else if (isJsonScalar(current)) {
+          return;
+        } else {
+          BeanPropertyWriter property = propertiesOf(current.getClass()).get(names[index]);
+          if (property != null) {
+            current = property.get(current);
+            index++;
+          } else {
+            current = toJsonValue(current);
+          }
+        }
+      }
+      if (current != null) {
+        values.add(toJsonValue(current));
+      }
+    }
   }
 }
@@ -1,6 +1,7 @@
 package pl.allegro.tech.hermes.management.infrastructure.query.matcher;
 
 import java.util.Collection;
+import java.util.Optional;
 
 public class AndMatcher implements Matcher {
 
@@ -18,4 +19,12 @@ public class AndMatcher implements Matcher {
             (match, matcher) -> match && matcher.match(value),
             (first, second) -> first && second);
   }
+
+  @Override
+  public Optional<Object> requiredValue(String attribute) {
+    return matchers.stream()
+        .map(matcher -> matcher.requiredValue(attribute))
+        .flatMap(Optional::stream)
+        .findFirst();
+  }
 }
@@ -2,19 +2,21 @@ package pl.allegro.tech.hermes.management.infrastructure.query.matcher;
 
 import static java.lang.Double.parseDouble;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import org.apache.commons.jxpath.JXPathException;
-import pl.allegro.tech.hermes.management.infrastructure.query.graph.ObjectGraph;
+import pl.allegro.tech.hermes.management.infrastructure.query.graph.ObjectAttribute;
 
 public class ComparisonMatcher implements Matcher {
 
-  private final String attribute;
+  private final ObjectAttribute attribute;
 
   private final Object rightSideValue;
 
   private final ComparisonOperator operator;
 
-  public ComparisonMatcher(String attribute, Object rightSideValue, ComparisonOperator operator) {
+  public ComparisonMatcher(
+      ObjectAttribute attribute, Object rightSideValue, ComparisonOperator operator) {
     this.attribute = attribute;
     this.rightSideValue = rightSideValue;
     this.operator = operator;
@@ -22,8 +24,10 @@ public class ComparisonMatcher implements Matcher {
 
   @Override
   public boolean match(Object object) {
-    Object leftSideValue = extractAttributeValue(object);
+    return extractAttributeValues(object).stream().anyMatch(this::matchValue);
+  }
 
+  private boolean matchValue(Object leftSideValue) {
     Optional<Double> leftSideValueAsNumber = tryParseNumber(leftSideValue);
     Optional<Double> rightSideValueAsNumber = tryParseNumber(rightSideValue);
 
@@ -36,19 +40,14 @@ public class ComparisonMatcher implements Matcher {
     return makeComparison(leftSideValueAsNumber.get(), rightSideValueAsNumber.get());
   }
 
-  private Object extractAttributeValue(Object object) {
-    try {
-      Object value = ObjectGraph.from(object).navigate(attribute).value();
+  private List<Object> extractAttributeValues(Object object) {
+    List<Object> values = attribute.values(object).stream().filter(Objects::nonNull).toList();
 
-      if (value == null) {
-        throw new MatcherInputException(
-            String.format("Cannot find '%s' attribute", this.attribute));
-      }
-      return value;
-    } catch (JXPathException e) {
-      throw new MatcherException(
-          String.format("Could not navigate to specific path: '%s'", attribute), e);
+    if (values.isEmpty()) {
+      throw new MatcherInputException(
+          String.format("Cannot find '%s' attribute", attribute.path()));
     }
+    return values;
   }
 
   private Optional<Double> tryParseNumber(Object value) {
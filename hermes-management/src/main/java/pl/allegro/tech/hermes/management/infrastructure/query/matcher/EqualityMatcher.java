@@ -1,31 +1,34 @@
 package pl.allegro.tech.hermes.management.infrastructure.query.matcher;
 
-import org.apache.commons.jxpath.JXPathException;
-import pl.allegro.tech.hermes.management.infrastructure.query.graph.ObjectGraph;
+import java.util.Optional;
+import pl.allegro.tech.hermes.management.infrastructure.query.graph.ObjectAttribute;
 
 public class EqualityMatcher implements Matcher {
 
-  private final String attribute;
+  private final ObjectAttribute attribute;
 
   private final Object expected;
 
-  public EqualityMatcher(String attribute, Object expected) {
+  public EqualityMatcher(ObjectAttribute attribute, Object expected) {
     this.attribute = attribute;
     this.expected = expected;
   }
 
   @Override
   public boolean match(Object value) {
-    try {
-      if (expected == null) {
-        return false;
-      }
-      Object actual = ObjectGraph.from(value).navigate(attribute).value();
-      return expected.equals(actual) || asString(expected).equals(asString(actual));
-    } catch (JXPathException e) {
-      throw new MatcherException(
-          String.format("Could not navigate to specific path: '%s'", attribute), e);
+    if (expected == null) {
+      return false;
     }
+    return attribute.values(value).stream()
+        .anyMatch(actual -> expected.equals(actual) || asString(expected).equals(asString(actual)));
+  }
+
+  @Override
+  public Optional<Object> requiredValue(String attribute) {
+    if (this.attribute.path().equals(attribute)) {
+      return Optional.ofNullable(expected);
+    }
+    return Optional.empty();
   }
 
   private static String asString(Object value) {
@@ -2,16 +2,15 @@ package pl.allegro.tech.hermes.management.infrastructure.query.matcher;
 
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
-import org.apache.commons.jxpath.JXPathException;
-import pl.allegro.tech.hermes.management.infrastructure.query.graph.ObjectGraph;
+import pl.allegro.tech.hermes.management.infrastructure.query.graph.ObjectAttribute;
 
 public class LikeMatcher implements Matcher {
 
-  private final String attribute;
+  private final ObjectAttribute attribute;
 
   private final Pattern expected;
 
-  public LikeMatcher(String attribute, Object expected) {
+  public LikeMatcher(ObjectAttribute attribute, Object expected) {
     this.attribute = attribute;
     try {
       this.expected = Pattern.compile(asString(expected));
@@ -23,13 +22,8 @@ public class LikeMatcher implements Matcher {
 
   @Override
   public boolean match(Object value) {
-    try {
-      Object actual = ObjectGraph.from(value).navigate(attribute).value();
-      return expected.matcher(asString(actual)).matches();
-    } catch (JXPathException e) {
-      throw new MatcherException(
-          String.format("Could not navigate to specific path: '%s'", attribute), e);
-    }
+    return attribute.values(value).stream()
+        .anyMatch(actual -> expected.matcher(asString(actual)).matches());
   }
 
   private static String asString(Object value) {
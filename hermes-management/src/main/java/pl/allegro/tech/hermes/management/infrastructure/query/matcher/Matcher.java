@@ -1,6 +1,16 @@
 package pl.allegro.tech.hermes.management.infrastructure.query.matcher;
 
+import java.util.Optional;
+
 public interface Matcher {
 
   boolean match(Object value);
+
+  /**
+   * Returns value which the attribute has to be equal to for an object to match, if the matcher
+   * requires it. Allows to narrow down matched objects using an index.
+   */
+  default Optional<Object> requiredValue(String attribute) {
+    return Optional.empty();
+  }
 }
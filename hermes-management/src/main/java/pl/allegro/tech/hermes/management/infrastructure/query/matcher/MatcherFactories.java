@@ -39,22 +39,35 @@ public class MatcherFactories {
   }
 
   private static void registerFactories() {
-    FACTORIES.put(EQ, (path, node, parser) -> new EqualityMatcher(path, parser.parseValue(node)));
+    FACTORIES.put(
+        EQ,
+        (path, node, parser) ->
+            new EqualityMatcher(parser.parseAttribute(path), parser.parseValue(node)));
     FACTORIES.put(
         NE,
-        (path, node, parser) -> new NotMatcher(new EqualityMatcher(path, parser.parseValue(node))));
-    FACTORIES.put(LIKE, (path, node, parser) -> new LikeMatcher(path, parser.parseValue(node)));
-    FACTORIES.put(IN, (path, node, parser) -> new InMatcher(path, parser.parseArrayValue(node)));
+        (path, node, parser) ->
+            new NotMatcher(
+                new EqualityMatcher(parser.parseAttribute(path), parser.parseValue(node))));
+    FACTORIES.put(
+        LIKE,
+        (path, node, parser) ->
+            new LikeMatcher(parser.parseAttribute(path), parser.parseValue(node)));
+    FACTORIES.put(
+        IN,
+        (path, node, parser) ->
+            new InMatcher(parser.parseAttribute(path), parser.parseArrayValue(node)));
     FACTORIES.put(NOT, (path, node, parser) -> new NotMatcher(parser.parseNode(node)));
     FACTORIES.put(AND, (path, node, parser) -> new AndMatcher(parser.parseArrayNodes(node)));
     FACTORIES.put(OR, (path, node, parser) -> new OrMatcher(parser.parseArrayNodes(node)));
     FACTORIES.put(
         GREATER_THAN,
         (path, node, parser) ->
-            new ComparisonMatcher(path, parser.parseValue(node), (a, b) -> a > b));
+            new ComparisonMatcher(
+                parser.parseAttribute(path), parser.parseValue(node), (a, b) -> a > b));
     FACTORIES.put(
         LOWER_THAN,
         (path, node, parser) ->
-            new ComparisonMatcher(path, parser.parseValue(node), (a, b) -> a < b));
+            new ComparisonMatcher(
+                parser.parseAttribute(path), parser.parseValue(node), (a, b) -> a < b));
   }
 }
@@ -2,6 +2,7 @@ package pl.allegro.tech.hermes.management.infrastructure.query.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import java.util.List;
+import pl.allegro.tech.hermes.management.infrastructure.query.graph.ObjectAttribute;
 import pl.allegro.tech.hermes.management.infrastructure.query.matcher.Matcher;
 
 public interface QueryParserContext {
@@ -13,4 +14,6 @@ public interface QueryParserContext {
   Object parseValue(JsonNode node);
 
   Object[] parseArrayValue(JsonNode node);
+
+  ObjectAttribute parseAttribute(String path);
 }
@@ -14,6 +14,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import pl.allegro.tech.hermes.api.Query;
+import pl.allegro.tech.hermes.management.infrastructure.query.graph.ObjectAttribute;
+import pl.allegro.tech.hermes.management.infrastructure.query.graph.ObjectGraph;
 import pl.allegro.tech.hermes.management.infrastructure.query.matcher.AndMatcher;
 import pl.allegro.tech.hermes.management.infrastructure.query.matcher.Matcher;
 import pl.allegro.tech.hermes.management.infrastructure.query.matcher.MatcherFactories;
@@ -29,8 +31,11 @@ public class JsonQueryParser implements QueryParser, QueryParserContext {
 
   private final ObjectMapper objectMapper;
 
+  private final ObjectGraph objectGraph;
+
   public JsonQueryParser(ObjectMapper objectMapper) {
     this.objectMapper = objectMapper;
+    this.objectGraph = new ObjectGraph(objectMapper);
   }
 
   @Override
@@ -86,13 +91,18 @@ public class JsonQueryParser implements QueryParser, QueryParserContext {
     return stream(node.spliterator(), false).map(this::parseValue).toArray();
   }
 
+  @Override
+  public ObjectAttribute parseAttribute(String path) {
+    return objectGraph.attribute(path);
+  }
+
   private <T> Query<T> parseDocument(JsonNode document) {
     validateDocument(document);
     return parseQuery(document.get(QUERY));
   }
 
   private <T> Query<T> parseQuery(JsonNode node) {
-    return fromMatcher(parseCompoundObject(node), objectMapper);
+    return fromMatcher(parseCompoundObject(node));
   }
 
   private Matcher parseCompoundObject(JsonNode node) {
@@ -0,0 +1,99 @@
+package pl.allegro.tech.hermes.management.domain.subscription
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import pl.allegro.tech.hermes.api.OwnerId
+import pl.allegro.tech.hermes.api.Subscription
+import pl.allegro.tech.hermes.api.SubscriptionName
+import pl.allegro.tech.hermes.domain.subscription.SubscriptionRepository
+import pl.allegro.tech.hermes.management.domain.subscription.health.FleetMetricsRepository
+import pl.allegro.tech.hermes.management.domain.subscription.health.SubscriptionHealthChecker
+import pl.allegro.tech.hermes.management.domain.subscription.health.SubscriptionHealthSnapshotCache
+import pl.allegro.tech.hermes.management.domain.subscription.health.problem.UnreachableIndicator
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.time.Clock
+import java.time.Duration
+
+import static pl.allegro.tech.hermes.api.MetricDecimalValue.of
+import static pl.allegro.tech.hermes.management.domain.subscription.SubscriptionHealthCheckerTest.otherwiseHealthySubscriptionMetrics
+import static pl.allegro.tech.hermes.management.domain.subscription.SubscriptionHealthCheckerTest.topicMetricsWithRate
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription
+
+class SubscriptionHealthSnapshotCacheTest extends Specification {
+
+    static final OwnerId FIRST_OWNER = new OwnerId("Plaintext", "first")
+    static final OwnerId SECOND_OWNER = new OwnerId("Plaintext", "second")
+
+    def subscriptionRepository = Stub(SubscriptionRepository)
+    def fleetMetricsRepository = Stub(FleetMetricsRepository)
+    def healthChecker = new SubscriptionHealthChecker([new UnreachableIndicator(0.5, 2.0)] as Set)
+    def meterRegistry = new SimpleMeterRegistry()
+    def conditions = new PollingConditions(timeout: 5)
+
+    SubscriptionHealthSnapshotCache cache
+
+    def cleanup() {
+        cache?.stop()
+    }
+
+    def "should index unhealthy subscriptions of all owners"() {
+        given:
+        subscriptionRepository.listAllSubscriptions() >> [
+                subscriptionOf(FIRST_OWNER, "healthy"),
+                subscriptionOf(FIRST_OWNER, "unreachable"),
+                subscriptionOf(SECOND_OWNER, "unreachable2")
+        ]
+        fleetMetricsRepository.loadMetrics() >> fleetMetrics(false)
+
+        when:
+        cache = startCache()
+
+        then:
+        conditions.eventually {
+            assert cache.snapshot.isPresent()
+        }
+        def snapshot = cache.snapshot.get()
+        snapshot.getUnhealthy()*.name as Set == ["unreachable", "unreachable2"] as Set
+        snapshot.getUnhealthy(FIRST_OWNER)*.name == ["unreachable"]
+        snapshot.getUnhealthy(SECOND_OWNER)*.name == ["unreachable2"]
+        snapshot.getUnhealthy(new OwnerId("Plaintext", "other")).isEmpty()
+    }
+
+    def "should not create snapshot when metrics are unavailable"() {
+        given:
+        subscriptionRepository.listAllSubscriptions() >> [subscriptionOf(FIRST_OWNER, "unreachable")]
+        fleetMetricsRepository.loadMetrics() >> fleetMetrics(true)
+
+        when:
+        cache = startCache()
+
+        then:
+        conditions.eventually {
+            assert meterRegistry.timer("subscription-health-snapshot.refresh-duration").count() > 0
+        }
+        cache.snapshot.isEmpty()
+        meterRegistry.get("subscription-health-snapshot.staleness-seconds").gauge().value() >= 0
+    }
+
+    private SubscriptionHealthSnapshotCache startCache() {
+        new SubscriptionHealthSnapshotCache(subscriptionRepository, fleetMetricsRepository, healthChecker,
+                meterRegistry, Clock.systemDefaultZone(), Duration.ofHours(1))
+    }
+
+    private FleetMetricsRepository.FleetMetrics fleetMetrics(boolean unavailable) {
+        Stub(FleetMetricsRepository.FleetMetrics) {
+            hasUnavailableMetrics() >> unavailable
+            topicMetrics(_) >> topicMetricsWithRate("100.0")
+            subscriptionMetrics(_) >> { SubscriptionName name ->
+                name.name.startsWith("unreachable")
+                        ? otherwiseHealthySubscriptionMetrics().withOtherErrors(of("60.0")).build()
+                        : otherwiseHealthySubscriptionMetrics().build()
+            }
+        }
+    }
+
+    private static Subscription subscriptionOf(OwnerId owner, String name) {
+        subscription("group.topic", name).withOwner(owner).build()
+    }
+}
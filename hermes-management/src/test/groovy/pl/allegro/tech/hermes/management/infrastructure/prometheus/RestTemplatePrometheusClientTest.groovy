@@ -13,6 +13,7 @@ import org.junit.Rule
 import org.springframework.http.client.ClientHttpRequestFactory
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory
 import org.springframework.web.client.RestTemplate
+import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringGroupedMetricsContainer
 import pl.allegro.tech.hermes.management.infrastructure.metrics.MonitoringMetricsContainer
 import pl.allegro.tech.hermes.test.helper.util.Ports
 import spock.lang.Specification
@@ -41,6 +42,9 @@ class RestTemplatePrometheusClientTest extends Specification {
     def subscription4xxStatusCodesQuery = "sum by (group, topic, subscription) (irate({__name__='hermes_consumers_subscription_http_status_codes_total', group='pl.allegro.tech.hermes', topic='Monitor', subscription='consumer1', status_code=~'4.*', service=~'hermes'}[1m]))"
     def subscription5xxStatusCodesQuery = "sum by (group, topic, subscription) (irate({__name__='hermes_consumers_subscription_http_status_codes_total', group='pl.allegro.tech.hermes', topic='Monitor', subscription='consumer1', status_code=~'5.*', service=~'hermes'}[1m]))"
 
+    def allSubscriptionsDeliveredQuery = "sum by (group, topic, subscription) (irate({__name__='hermes_consumers_subscription_delivered_total', service=~'hermes'}[1m]))"
+    def allSubscriptionsTimeoutsQuery = "sum by (group, topic, subscription) (irate({__name__='hermes_consumers_subscription_timeouts_total', service=~'hermes'}[1m]))"
+
     def queries = List.of(subscriptionDeliveredQuery, subscriptionTimeoutsQuery, subscriptionRetriesQuery, subscriptionThroughputQuery,
             subscriptionErrorsQuery, subscriptionBatchesQuery, subscription2xxStatusCodesQuery, subscription4xxStatusCodesQuery,
             subscription5xxStatusCodesQuery
@@ -154,6 +158,27 @@ class RestTemplatePrometheusClientTest extends Specification {
         metrics.metricValue(subscription5xxStatusCodesQuery) == unavailable()
     }
 
+    def "should get metrics of all subscriptions grouped by labels"() {
+        given:
+        mockPrometheus(List.of(new FileStub(allSubscriptionsDeliveredQuery, "all_subscriptions_delivered_total.json")))
+        mockPrometheusTimeout(List.of(allSubscriptionsTimeoutsQuery), Duration.ofSeconds(5))
+
+        when:
+        MonitoringGroupedMetricsContainer metrics = client.readGroupedMetrics(
+                List.of(allSubscriptionsDeliveredQuery, allSubscriptionsTimeoutsQuery))
+
+        then:
+        metrics.metricValue(allSubscriptionsDeliveredQuery, labels("consumer1")) == of("1.0")
+        metrics.metricValue(allSubscriptionsDeliveredQuery, labels("consumer2")) == of("2.0")
+        metrics.metricValue(allSubscriptionsDeliveredQuery, labels("consumer3")) == defaultValue()
+        metrics.metricValue(allSubscriptionsTimeoutsQuery, labels("consumer1")) == unavailable()
+        !metrics.isAvailable(allSubscriptionsTimeoutsQuery)
+    }
+
+    private static Map<String, String> labels(String subscription) {
+        return [group: "pl.allegro.tech.hermes", topic: "Monitor", subscription: subscription]
+    }
+
     private void mockPrometheus(List<FileStub> stubs) {
         stubs.forEach { s ->
             String encodedQuery = URLEncoder.encode(s.query, StandardCharsets.UTF_8)
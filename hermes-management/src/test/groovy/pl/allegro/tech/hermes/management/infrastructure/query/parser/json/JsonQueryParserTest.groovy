@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
 import pl.allegro.tech.hermes.api.Query
 import pl.allegro.tech.hermes.api.Topic
+import pl.allegro.tech.hermes.management.infrastructure.query.MatcherQuery
 import pl.allegro.tech.hermes.management.infrastructure.query.parser.ParseException
 import pl.allegro.tech.hermes.management.infrastructure.query.parser.QueryParser
 import spock.lang.Specification
@@ -408,6 +409,54 @@ class JsonQueryParserTest extends Specification {
         result == metrics
     }
 
+    def "should match value of object in collection"() {
+        given:
+        def query = "{\"query\": {\"items.field\": \"BMW\"}}"
+        def garages = [
+                new CollectionObject(items: [new SimpleObject(field: "Audi"), new SimpleObject(field: "BMW")]),
+                new CollectionObject(items: [new SimpleObject(field: "Mercedes")]),
+        ] as List<CollectionObject>
+
+        when:
+        def result = parse(query, CollectionObject)
+                .filter(garages)
+                .collect(Collectors.<CollectionObject>toList())
+
+        then:
+        result == [garages[0]]
+    }
+
+    def "should evaluate compiled query many times"() {
+        given:
+        def query = parse("{\"query\": {\"nested.field\": {\"like\": \"^M.*\"}}}", ComplexObject)
+
+        expect:
+        (1..3).each {
+            assert query.filter(cars).collect(Collectors.<ComplexObject>toList())*.nested*.field == ["Mercedes"]
+        }
+    }
+
+    def "should return value required by query"() {
+        given:
+        MatcherQuery<ComplexObject> query = parse(
+                "{\"query\": {\"and\": [{\"nested.field\": \"BMW\"}, {\"other\": {\"ne\": 1}}]}}",
+                ComplexObject)
+
+        expect:
+        query.requiredValue("nested.field") == Optional.of("BMW")
+        query.requiredValue("other") == Optional.empty()
+    }
+
+    def "should not return value required by alternative"() {
+        given:
+        MatcherQuery<ComplexObject> query = parse(
+                "{\"query\": {\"or\": [{\"nested.field\": \"BMW\"}, {\"nested.field\": \"Audi\"}]}}",
+                ComplexObject)
+
+        expect:
+        query.requiredValue("nested.field") == Optional.empty()
+    }
+
     private <T> Query<T> parse(String query, Class<T> object) {
         queryParser.parse(query, object)
     }
@@ -427,6 +476,11 @@ class JsonQueryParserTest extends Specification {
         SimpleObject nested
     }
 
+    class CollectionObject {
+
+        List<SimpleObject> items
+    }
+
     class StatefulObject {
 
         State state
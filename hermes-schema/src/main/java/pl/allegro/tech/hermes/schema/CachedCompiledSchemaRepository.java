@@ -1,48 +1,71 @@
 package pl.allegro.tech.hermes.schema;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.CacheStats;
 import java.time.Duration;
-import java.util.Objects;
-import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import pl.allegro.tech.hermes.api.Topic;
-
+import pl.allegro.tech.hermes.api.TopicName;
+
+/**
+ * Caches compiled schemas per subject, i.e. per topic name, so lookups hash only the topic name and
+ * all schemas of a topic are invalidated at once. Maximum size and expiration apply to subjects.
+ *
+ * <p>Each subject keeps at most {@link #MAX_SCHEMAS_PER_SUBJECT} most recently used versions and
+ * ids. Schemas are loaded outside of the cache, so a slow load of one schema does not block lookups
+ * of other schemas; concurrent misses of the same schema may load it more than once.
+ *
+ * <p>Compiled schemas are additionally interned by global schema id: a schema shared by many
+ * subjects is kept in memory once, no matter how many subjects and versions refer to it.
+ */
 public class CachedCompiledSchemaRepository<T> implements CompiledSchemaRepository<T> {
 
-  private final LoadingCache<TopicAndSchemaVersion, CompiledSchema<T>> topicVersionCache;
-  private final LoadingCache<TopicAndSchemaId, CompiledSchema<T>> topicIdCache;
+  static final int MAX_SCHEMAS_PER_SUBJECT = 64;
+
+  private final Cache<TopicName, SubjectSchemas<T>> subjects;
+  private final Cache<SchemaId, T> schemasById;
   private final CompiledSchemaRepository<T> compiledSchemaRepository;
 
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder loadSuccesses = new LongAdder();
+  private final LongAdder loadFailures = new LongAdder();
+  private final LongAdder totalLoadTime = new LongAdder();
+
   public CachedCompiledSchemaRepository(
       CompiledSchemaRepository<T> delegate, long maximumCacheSize, Duration expireAfterAccess) {
-    this.topicVersionCache =
-        CacheBuilder.newBuilder()
-            .maximumSize(maximumCacheSize)
-            .expireAfterAccess(expireAfterAccess.toMinutes(), TimeUnit.MINUTES)
-            .build(new CompiledSchemaByVersionLoader<>(delegate));
-
-    this.topicIdCache =
+    this.subjects =
         CacheBuilder.newBuilder()
             .maximumSize(maximumCacheSize)
             .expireAfterAccess(expireAfterAccess.toMinutes(), TimeUnit.MINUTES)
-            .build(new CompiledSchemaByIdLoader<>(delegate));
-
+            .recordStats()
+            .build();
+    this.schemasById = CacheBuilder.newBuilder().weakValues().build();
     this.compiledSchemaRepository = delegate;
   }
 
   @Override
   public CompiledSchema<T> getSchema(Topic topic, SchemaVersion version, boolean online) {
     try {
+      SubjectSchemas<T> schemas = subjectSchemas(topic);
       if (online) {
-        CompiledSchema<T> compiledSchema = compiledSchemaRepository.getSchema(topic, version);
-        topicVersionCache.put(new TopicAndSchemaVersion(topic, version), compiledSchema);
-        topicIdCache.put(new TopicAndSchemaId(topic, compiledSchema.getId()), compiledSchema);
+        CompiledSchema<T> compiledSchema =
+            load(() -> compiledSchemaRepository.getSchema(topic, version));
+        schemas.byVersion.put(version, compiledSchema);
+        schemas.byId.put(compiledSchema.getId(), compiledSchema);
         return compiledSchema;
       }
-      return topicVersionCache.get(new TopicAndSchemaVersion(topic, version));
+      CompiledSchema<T> cached = schemas.byVersion.getIfPresent(version);
+      if (cached != null) {
+        hits.increment();
+        return cached;
+      }
+      misses.increment();
+      CompiledSchema<T> loaded = load(() -> compiledSchemaRepository.getSchema(topic, version));
+      return putIfAbsent(schemas.byVersion, version, loaded);
     } catch (Exception e) {
       throw new CouldNotLoadSchemaException(e);
     }
@@ -51,110 +74,70 @@ public class CachedCompiledSchemaRepository<T> implements CompiledSchemaReposito
   @Override
   public CompiledSchema<T> getSchema(Topic topic, SchemaId id) {
     try {
-      return topicIdCache.get(new TopicAndSchemaId(topic, id));
+      SubjectSchemas<T> schemas = subjectSchemas(topic);
+      CompiledSchema<T> cached = schemas.byId.getIfPresent(id);
+      if (cached != null) {
+        hits.increment();
+        return cached;
+      }
+      misses.increment();
+      CompiledSchema<T> loaded = load(() -> compiledSchemaRepository.getSchema(topic, id));
+      return putIfAbsent(schemas.byId, id, loaded);
     } catch (Exception e) {
       throw new CouldNotLoadSchemaException(e);
     }
   }
 
   public void removeFromCache(Topic topic) {
-    Set<TopicAndSchemaVersion> topicWithSchemas =
-        topicVersionCache.asMap().keySet().stream()
-            .filter(topicWithSchema -> topicWithSchema.topic.equals(topic))
-            .collect(Collectors.toSet());
-
-    Set<TopicAndSchemaId> topicAndSchemaIds =
-        topicIdCache.asMap().keySet().stream()
-            .filter(topicAndSchemaId -> topicAndSchemaId.topic.equals(topic))
-            .collect(Collectors.toSet());
-
-    topicVersionCache.invalidateAll(topicWithSchemas);
-    topicIdCache.invalidateAll(topicAndSchemaIds);
+    subjects.invalidate(topic.getName());
   }
 
-  private static class CompiledSchemaByVersionLoader<T>
-      extends CacheLoader<TopicAndSchemaVersion, CompiledSchema<T>> {
-
-    private final CompiledSchemaRepository<T> delegate;
-
-    public CompiledSchemaByVersionLoader(CompiledSchemaRepository<T> delegate) {
-      this.delegate = delegate;
-    }
-
-    @Override
-    public CompiledSchema<T> load(TopicAndSchemaVersion key) {
-      return delegate.getSchema(key.topic, key.schemaVersion);
-    }
+  /** Statistics of schema lookups; load time covers loading and compiling schemas by delegate. */
+  public CacheStats stats() {
+    return new CacheStats(
+        hits.sum(),
+        misses.sum(),
+        loadSuccesses.sum(),
+        loadFailures.sum(),
+        totalLoadTime.sum(),
+        subjects.stats().evictionCount());
   }
 
-  private static class CompiledSchemaByIdLoader<T>
-      extends CacheLoader<TopicAndSchemaId, CompiledSchema<T>> {
-
-    private final CompiledSchemaRepository<T> delegate;
-
-    public CompiledSchemaByIdLoader(CompiledSchemaRepository<T> delegate) {
-      this.delegate = delegate;
-    }
-
-    @Override
-    public CompiledSchema<T> load(TopicAndSchemaId key) {
-      return delegate.getSchema(key.topic, key.schemaId);
-    }
+  private SubjectSchemas<T> subjectSchemas(Topic topic) throws Exception {
+    return subjects.get(topic.getName(), SubjectSchemas::new);
   }
 
-  private static class TopicAndSchemaVersion {
-
-    private final Topic topic;
-    private final SchemaVersion schemaVersion;
-
-    TopicAndSchemaVersion(Topic topic, SchemaVersion schemaVersion) {
-      this.topic = topic;
-      this.schemaVersion = schemaVersion;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) {
-        return true;
-      }
-      if (o == null || getClass() != o.getClass()) {
-        return false;
-      }
-      TopicAndSchemaVersion that = (TopicAndSchemaVersion) o;
-      return Objects.equals(schemaVersion, that.schemaVersion) && Objects.equals(topic, that.topic);
-    }
-
-    @Override
-    public int hashCode() {
-      return Objects.hash(topic, schemaVersion);
-    }
+  private static <K, V> V putIfAbsent(Cache<K, V> cache, K key, V value) {
+    V current = cache.asMap().putIfAbsent(key, value);
+    return current != null ? current : value;
   }
 
-  private static class TopicAndSchemaId {
-
-    private final Topic topic;
-    private final SchemaId schemaId;
-
-    TopicAndSchemaId(Topic topic, SchemaId schemaId) {
-      this.topic = topic;
-      this.schemaId = schemaId;
+  private CompiledSchema<T> load(Supplier<CompiledSchema<T>> loader) {
+    long start = System.nanoTime();
+    try {
+      CompiledSchema<T> compiledSchema = intern(loader.get());
+      loadSuccesses.increment();
+      return compiledSchema;
+    } catch (RuntimeException e) {
+      loadFailures.increment();
+      throw e;
+    } finally {
+      totalLoadTime.add(System.nanoTime() - start);
     }
+  }
 
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) {
-        return true;
-      }
-      if (o == null || getClass() != o.getClass()) {
-        return false;
-      }
-      TopicAndSchemaId that = (TopicAndSchemaId) o;
-      return Objects.equals(schemaId, that.schemaId) && Objects.equals(topic, that.topic);
+  private CompiledSchema<T> intern(CompiledSchema<T> compiledSchema) {
+    T schema = schemasById.asMap().putIfAbsent(compiledSchema.getId(), compiledSchema.getSchema());
+    if (schema == null || schema == compiledSchema.getSchema()) {
+      return compiledSchema;
     }
+    return new CompiledSchema<>(schema, compiledSchema.getId(), compiledSchema.getVersion());
+  }
 
-    @Override
-    public int hashCode() {
-      return Objects.hash(topic, schemaId);
-    }
+  private static class SubjectSchemas<T> {
+    private final Cache<SchemaVersion, CompiledSchema<T>> byVersion =
+        CacheBuilder.newBuilder().maximumSize(MAX_SCHEMAS_PER_SUBJECT).build();
+    private final Cache<SchemaId, CompiledSchema<T>> byId =
+        CacheBuilder.newBuilder().maximumSize(MAX_SCHEMAS_PER_SUBJECT).build();
   }
 }
@@ -1,5 +1,6 @@
 package pl.allegro.tech.hermes.schema
 
+import pl.allegro.tech.hermes.api.Topic
 import spock.lang.Specification
 
 import java.time.Duration
@@ -52,10 +53,9 @@ class CachedCompiledSchemaRepositoryTest extends Specification {
 
     def "should remove schema from cache on topic removal"() {
         given:
-        def id = SchemaId.valueOf(1)
         def version = SchemaVersion.valueOf(1)
-        def firstSchema = new CompiledSchema('stuff', id, version)
-        def secondSchema = new CompiledSchema('other stuff', id, version)
+        def firstSchema = new CompiledSchema('stuff', SchemaId.valueOf(1), version)
+        def secondSchema = new CompiledSchema('other stuff', SchemaId.valueOf(2), version)
 
         delegate.getSchema(topic, version) >>> [firstSchema, secondSchema]
 
@@ -69,4 +69,87 @@ class CachedCompiledSchemaRepositoryTest extends Specification {
         repository.getSchema(topic, version) == secondSchema
     }
 
+    def "should provide schema by id without reloading it"() {
+        given:
+        def id = SchemaId.valueOf(1)
+        def schema = new CompiledSchema('stuff', id, SchemaVersion.valueOf(1))
+        def delegate = Mock(CompiledSchemaRepository)
+        def repository = new CachedCompiledSchemaRepository(delegate, 100, Duration.ofHours(100))
+
+        when:
+        repository.getSchema(topic, id)
+        def result = repository.getSchema(topic, id)
+
+        then:
+        1 * delegate.getSchema(topic, id) >> schema
+        result == schema
+    }
+
+    def "should remove schemas of removed topic only"() {
+        given:
+        def otherTopic = topic("group", "other").build()
+        def version = SchemaVersion.valueOf(1)
+        def delegate = Mock(CompiledSchemaRepository)
+        def repository = new CachedCompiledSchemaRepository(delegate, 100, Duration.ofHours(100))
+        delegate.getSchema(_, version) >> new CompiledSchema('stuff', SchemaId.valueOf(1), version)
+        repository.getSchema(topic, version)
+        repository.getSchema(otherTopic, version)
+
+        when:
+        repository.removeFromCache(topic)
+        repository.getSchema(topic, version)
+        repository.getSchema(otherTopic, version)
+
+        then:
+        1 * delegate.getSchema(topic, version) >> new CompiledSchema('stuff', SchemaId.valueOf(1), version)
+        0 * delegate.getSchema(otherTopic, version)
+    }
+
+    def "should share compiled schema with the same id between topics"() {
+        given:
+        def otherTopic = topic("group", "other").build()
+        def id = SchemaId.valueOf(1)
+        def compiled = new StringBuilder('stuff')
+        delegate.getSchema(topic, SchemaVersion.valueOf(1)) >> new CompiledSchema(compiled, id, SchemaVersion.valueOf(1))
+        delegate.getSchema(otherTopic, SchemaVersion.valueOf(3)) >> new CompiledSchema(new StringBuilder('stuff'), id, SchemaVersion.valueOf(3))
+
+        when:
+        def first = repository.getSchema(topic, SchemaVersion.valueOf(1))
+        def second = repository.getSchema(otherTopic, SchemaVersion.valueOf(3))
+
+        then:
+        first.schema.is(compiled)
+        second.schema.is(compiled)
+        second.version == SchemaVersion.valueOf(3)
+    }
+
+    def "should keep limited number of schema versions per topic"() {
+        given:
+        def loads = 0
+        def versions = (1..CachedCompiledSchemaRepository.MAX_SCHEMAS_PER_SUBJECT * 2).collect { SchemaVersion.valueOf(it) }
+        delegate.getSchema(topic, _ as SchemaVersion) >> { Topic topic, SchemaVersion version ->
+            loads++
+            new CompiledSchema('stuff', SchemaId.valueOf(version.value()), version)
+        }
+
+        when:
+        2.times { versions.each { repository.getSchema(topic, it) } }
+
+        then:
+        loads > versions.size()
+    }
+
+    def "should record cache statistics"() {
+        given:
+        def version = SchemaVersion.valueOf(1)
+        delegate.getSchema(topic, version) >> new CompiledSchema('stuff', SchemaId.valueOf(1), version)
+
+        when:
+        3.times { repository.getSchema(topic, version) }
+
+        then:
+        repository.stats().hitCount() == 2
+        repository.stats().missCount() == 1
+        repository.stats().loadSuccessCount() == 1
+    }
 }
@@ -24,6 +24,7 @@ import reactor.core.publisher.Mono;
 public class FrontendTestClient {
 
   private static final String TOPIC_PATH = "/topics/{topicName}";
+  private static final String TOPIC_BATCH_PATH = "/topics/{topicName}/batch";
   private static final String STATUS_HEALTH_PATH = "/status/health";
   private static final String STATUS_READY_PATH = "/status/ready";
   private static final String STATUS_PING_PATH = "/status/ping";
@@ -142,6 +143,18 @@ public class FrontendTestClient {
         .exchange();
   }
 
+  public WebTestClient.ResponseSpec publishBatch(String topicQualifiedName, String body) {
+    return webTestClient
+        .post()
+        .uri(
+            UriBuilder.fromUri(frontendContainerUrl)
+                .path(TOPIC_BATCH_PATH)
+                .build(topicQualifiedName))
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(Mono.just(body), String.class)
+        .exchange();
+  }
+
   WebTestClient.ResponseSpec publishJSON(
       String topicQualifiedName, String body, MultiValueMap<String, String> headers) {
     return webTestClient
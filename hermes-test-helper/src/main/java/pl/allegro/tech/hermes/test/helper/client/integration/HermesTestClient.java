@@ -252,6 +252,10 @@ public class HermesTestClient {
     return frontendTestClient.publish(topicQualifiedName, body);
   }
 
+  public WebTestClient.ResponseSpec publishBatch(String topicQualifiedName, String body) {
+    return frontendTestClient.publishBatch(topicQualifiedName, body);
+  }
+
   public WebTestClient.ResponseSpec publishAvro(String topicQualifiedName, byte[] body) {
     return frontendTestClient.publishAvro(topicQualifiedName, body, new HttpHeaders());
   }
@@ -16,6 +16,10 @@ public class ElasticsearchDocument {
     return bytesReference;
   }
 
+  public int size() {
+    return bytesReference.length();
+  }
+
   public static ElasticsearchDocument build(Callable<XContentBuilder> builder) {
     try {
       return new ElasticsearchDocument(BytesReference.bytes(builder.call()));
@@ -0,0 +1,48 @@
+package pl.allegro.tech.hermes.tracker.elasticsearch;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.xcontent.XContentType;
+import pl.allegro.tech.hermes.tracker.TrackingSink;
+
+public class ElasticsearchTrackingSink implements TrackingSink<ElasticsearchDocument> {
+
+  private final Client client;
+  private final IndexFactory indexFactory;
+  private final String typeName;
+
+  public ElasticsearchTrackingSink(Client client, IndexFactory indexFactory, String typeName) {
+    this.client = client;
+    this.indexFactory = indexFactory;
+    this.typeName = typeName;
+  }
+
+  @Override
+  public CompletableFuture<Void> write(List<ElasticsearchDocument> batch) {
+    BulkRequestBuilder bulk = client.prepareBulk();
+    String index = indexFactory.createIndex();
+    batch.forEach(
+        entry ->
+            bulk.add(
+                client
+                    .prepareIndex(index, typeName)
+                    .setSource(entry.bytes(), XContentType.JSON)));
+    CompletableFuture<Void> result = new CompletableFuture<>();
+    bulk.execute(
+        ActionListener.wrap(
+            response -> {
+              if (response.hasFailures()) {
+                result.completeExceptionally(
+                    new ElasticsearchRepositoryException(
+                        new IllegalStateException(response.buildFailureMessage())));
+              } else {
+                result.complete(null);
+              }
+            },
+            result::completeExceptionally));
+    return result;
+  }
+}
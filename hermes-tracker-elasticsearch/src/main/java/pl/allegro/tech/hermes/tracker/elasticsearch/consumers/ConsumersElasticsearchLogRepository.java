@@ -9,7 +9,6 @@ import static pl.allegro.tech.hermes.api.SentMessageTraceStatus.SUCCESS;
 import static pl.allegro.tech.hermes.tracker.elasticsearch.ElasticsearchDocument.build;
 
 import java.io.IOException;
-import java.util.concurrent.BlockingQueue;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.xcontent.XContentBuilder;
@@ -17,10 +16,11 @@ import pl.allegro.tech.hermes.api.SentMessageTraceStatus;
 import pl.allegro.tech.hermes.common.metric.MetricsFacade;
 import pl.allegro.tech.hermes.common.metric.TrackerElasticSearchMetrics;
 import pl.allegro.tech.hermes.tracker.BatchingLogRepository;
+import pl.allegro.tech.hermes.tracker.BatchingParameters;
 import pl.allegro.tech.hermes.tracker.consumers.LogRepository;
 import pl.allegro.tech.hermes.tracker.consumers.MessageMetadata;
 import pl.allegro.tech.hermes.tracker.elasticsearch.ElasticsearchDocument;
-import pl.allegro.tech.hermes.tracker.elasticsearch.ElasticsearchQueueCommitter;
+import pl.allegro.tech.hermes.tracker.elasticsearch.ElasticsearchTrackingSink;
 import pl.allegro.tech.hermes.tracker.elasticsearch.IndexFactory;
 import pl.allegro.tech.hermes.tracker.elasticsearch.LogSchemaAware;
 import pl.allegro.tech.hermes.tracker.elasticsearch.SchemaManager;
@@ -36,19 +36,25 @@ public class ConsumersElasticsearchLogRepository
       Client elasticClient,
       String clusterName,
       String hostname,
-      int queueSize,
-      int commitInterval,
+      BatchingParameters batchingParameters,
       IndexFactory indexFactory,
       String typeName,
-      MetricsFacade metricsFacade) {
-    super(queueSize, clusterName, hostname);
+      TrackerElasticSearchMetrics trackerMetrics) {
+    super(
+        batchingParameters,
+        new ElasticsearchTrackingSink(elasticClient, indexFactory, typeName),
+        ElasticsearchDocument::size,
+        trackerMetrics.trackerElasticSearchDroppedCounter(),
+        trackerMetrics.trackerElasticSearchCommitLatencyTimer(),
+        clusterName,
+        hostname);
     this.elasticClient = elasticClient;
-    registerMetrics(commitInterval, indexFactory, typeName, metricsFacade.trackerElasticSearch());
+    registerMetrics(trackerMetrics);
   }
 
   @Override
   public void logSuccessful(MessageMetadata message, String hostname, long timestamp) {
-    queue.offer(
+    enqueue(
         build(
             () ->
                 notEndedDocument(message, timestamp, SUCCESS.toString())
@@ -58,7 +64,7 @@ public class ConsumersElasticsearchLogRepository
 
   @Override
   public void logFailed(MessageMetadata message, String hostname, long timestamp, String reason) {
-    queue.offer(
+    enqueue(
         build(
             () ->
                 notEndedDocument(message, timestamp, FAILED.toString())
@@ -69,21 +75,22 @@ public class ConsumersElasticsearchLogRepository
 
   @Override
   public void logDiscarded(MessageMetadata message, long timestamp, String reason) {
-    queue.offer(document(message, timestamp, DISCARDED, reason));
+    enqueue(document(message, timestamp, DISCARDED, reason));
   }
 
   @Override
   public void logInflight(MessageMetadata message, long timestamp) {
-    queue.offer(document(message, timestamp, INFLIGHT));
+    enqueue(document(message, timestamp, INFLIGHT));
   }
 
   @Override
   public void logFiltered(MessageMetadata message, long timestamp, String reason) {
-    queue.offer(document(message, timestamp, FILTERED, reason));
+    enqueue(document(message, timestamp, FILTERED, reason));
   }
 
   @Override
   public void close() {
+    flushAndStop();
     elasticClient.close();
   }
 
@@ -119,23 +126,13 @@ public class ConsumersElasticsearchLogRepository
         .field(SOURCE_HOSTNAME, hostname);
   }
 
-  private void registerMetrics(
-      int commitInterval,
-      IndexFactory indexFactory,
-      String typeName,
-      TrackerElasticSearchMetrics trackerMetrics) {
+  private void registerMetrics(TrackerElasticSearchMetrics trackerMetrics) {
     trackerMetrics.registerConsumerTrackerElasticSearchQueueSizeGauge(
-        this.queue, BlockingQueue::size);
+        this, BatchingLogRepository::queueSize);
     trackerMetrics.registerConsumerTrackerElasticSearchRemainingCapacity(
-        this.queue, BlockingQueue::size);
-
-    ElasticsearchQueueCommitter.scheduleCommitAtFixedRate(
-        this.queue,
-        indexFactory,
-        typeName,
-        elasticClient,
-        trackerMetrics.trackerElasticSearchCommitLatencyTimer(),
-        commitInterval);
+        this, BatchingLogRepository::remainingCapacity);
+    trackerMetrics.registerTrackerElasticSearchInflightBatchesGauge(
+        this, BatchingLogRepository::inflightBatches);
   }
 
   private long toSeconds(long millis) {
@@ -149,6 +146,8 @@ public class ConsumersElasticsearchLogRepository
     private String hostName = "unknown";
     private int queueSize = 1000;
     private int commitInterval = 100;
+    private int maxBatchBytes = 5 * 1024 * 1024;
+    private int maxInflightBatches = 4;
     private ConsumersIndexFactory indexFactory = new ConsumersDailyIndexFactory();
     private String typeName = SchemaManager.SENT_TYPE;
 
@@ -184,6 +183,16 @@ public class ConsumersElasticsearchLogRepository
       return this;
     }
 
+    public Builder withMaxBatchBytes(int maxBatchBytes) {
+      this.maxBatchBytes = maxBatchBytes;
+      return this;
+    }
+
+    public Builder withMaxInflightBatches(int maxInflightBatches) {
+      this.maxInflightBatches = maxInflightBatches;
+      return this;
+    }
+
     public Builder withTypeName(String typeName) {
       this.typeName = typeName;
       return this;
@@ -199,11 +208,10 @@ public class ConsumersElasticsearchLogRepository
           elasticClient,
           clusterName,
           hostName,
-          queueSize,
-          commitInterval,
+          new BatchingParameters(queueSize, commitInterval, maxBatchBytes, maxInflightBatches),
           indexFactory,
           typeName,
-          metricsFacade);
+          metricsFacade.trackerElasticSearch());
     }
   }
 }
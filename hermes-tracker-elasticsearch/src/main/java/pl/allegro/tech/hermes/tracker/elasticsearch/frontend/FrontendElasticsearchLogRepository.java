@@ -9,15 +9,15 @@ import static pl.allegro.tech.hermes.tracker.elasticsearch.ElasticsearchDocument
 
 import java.io.IOException;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import pl.allegro.tech.hermes.common.metric.MetricsFacade;
 import pl.allegro.tech.hermes.common.metric.TrackerElasticSearchMetrics;
 import pl.allegro.tech.hermes.tracker.BatchingLogRepository;
+import pl.allegro.tech.hermes.tracker.BatchingParameters;
 import pl.allegro.tech.hermes.tracker.elasticsearch.ElasticsearchDocument;
-import pl.allegro.tech.hermes.tracker.elasticsearch.ElasticsearchQueueCommitter;
+import pl.allegro.tech.hermes.tracker.elasticsearch.ElasticsearchTrackingSink;
 import pl.allegro.tech.hermes.tracker.elasticsearch.IndexFactory;
 import pl.allegro.tech.hermes.tracker.elasticsearch.LogSchemaAware;
 import pl.allegro.tech.hermes.tracker.elasticsearch.SchemaManager;
@@ -34,14 +34,20 @@ public class FrontendElasticsearchLogRepository extends BatchingLogRepository<El
       Client elasticClient,
       String clusterName,
       String hostname,
-      int queueSize,
-      int commitInterval,
+      BatchingParameters batchingParameters,
       IndexFactory indexFactory,
       String typeName,
-      MetricsFacade metricsFacade) {
-    super(queueSize, clusterName, hostname);
+      TrackerElasticSearchMetrics trackerMetrics) {
+    super(
+        batchingParameters,
+        new ElasticsearchTrackingSink(elasticClient, indexFactory, typeName),
+        ElasticsearchDocument::size,
+        trackerMetrics.trackerElasticSearchDroppedCounter(),
+        trackerMetrics.trackerElasticSearchCommitLatencyTimer(),
+        clusterName,
+        hostname);
     this.elasticClient = elasticClient;
-    registerMetrics(commitInterval, indexFactory, typeName, metricsFacade.trackerElasticSearch());
+    registerMetrics(trackerMetrics);
   }
 
   @Override
@@ -52,7 +58,7 @@ public class FrontendElasticsearchLogRepository extends BatchingLogRepository<El
       String hostname,
       String storageDatacenter,
       Map<String, String> extraRequestHeaders) {
-    queue.offer(
+    enqueue(
         build(
             () ->
                 success(
@@ -72,7 +78,7 @@ public class FrontendElasticsearchLogRepository extends BatchingLogRepository<El
       String reason,
       String hostname,
       Map<String, String> extraRequestHeaders) {
-    queue.offer(
+    enqueue(
         build(() -> error(messageId, timestamp, topicName, reason, hostname, extraRequestHeaders)));
   }
 
@@ -83,12 +89,12 @@ public class FrontendElasticsearchLogRepository extends BatchingLogRepository<El
       String topicName,
       String hostname,
       Map<String, String> extraRequestHeaders) {
-    queue.offer(
-        build(() -> inflight(messageId, timestamp, topicName, hostname, extraRequestHeaders)));
+    enqueue(build(() -> inflight(messageId, timestamp, topicName, hostname, extraRequestHeaders)));
   }
 
   @Override
   public void close() {
+    flushAndStop();
     this.elasticClient.close();
   }
 
@@ -155,23 +161,13 @@ public class FrontendElasticsearchLogRepository extends BatchingLogRepository<El
             extraRequestHeaders.entrySet().stream().collect(extraRequestHeadersCollector()));
   }
 
-  private void registerMetrics(
-      int commitInterval,
-      IndexFactory indexFactory,
-      String typeName,
-      TrackerElasticSearchMetrics trackerMetrics) {
+  private void registerMetrics(TrackerElasticSearchMetrics trackerMetrics) {
     trackerMetrics.registerProducerTrackerElasticSearchQueueSizeGauge(
-        this.queue, BlockingQueue::size);
+        this, BatchingLogRepository::queueSize);
     trackerMetrics.registerProducerTrackerElasticSearchRemainingCapacity(
-        this.queue, BlockingQueue::size);
-
-    ElasticsearchQueueCommitter.scheduleCommitAtFixedRate(
-        this.queue,
-        indexFactory,
-        typeName,
-        elasticClient,
-        trackerMetrics.trackerElasticSearchCommitLatencyTimer(),
-        commitInterval);
+        this, BatchingLogRepository::remainingCapacity);
+    trackerMetrics.registerTrackerElasticSearchInflightBatchesGauge(
+        this, BatchingLogRepository::inflightBatches);
   }
 
   private long toSeconds(long millis) {
@@ -185,6 +181,8 @@ public class FrontendElasticsearchLogRepository extends BatchingLogRepository<El
     private String hostName = "unknown";
     private int queueSize = 1000;
     private int commitInterval = 100;
+    private int maxBatchBytes = 5 * 1024 * 1024;
+    private int maxInflightBatches = 4;
     private FrontendIndexFactory indexFactory = new FrontendDailyIndexFactory();
     private String typeName = SchemaManager.PUBLISHED_TYPE;
 
@@ -220,6 +218,16 @@ public class FrontendElasticsearchLogRepository extends BatchingLogRepository<El
       return this;
     }
 
+    public Builder withMaxBatchBytes(int maxBatchBytes) {
+      this.maxBatchBytes = maxBatchBytes;
+      return this;
+    }
+
+    public Builder withMaxInflightBatches(int maxInflightBatches) {
+      this.maxInflightBatches = maxInflightBatches;
+      return this;
+    }
+
     public Builder withTypeName(String typeName) {
       this.typeName = typeName;
       return this;
@@ -235,11 +243,10 @@ public class FrontendElasticsearchLogRepository extends BatchingLogRepository<El
           elasticClient,
           clusterName,
           hostName,
-          queueSize,
-          commitInterval,
+          new BatchingParameters(queueSize, commitInterval, maxBatchBytes, maxInflightBatches),
           indexFactory,
           typeName,
-          metricsFacade);
+          metricsFacade.trackerElasticSearch());
     }
   }
 }
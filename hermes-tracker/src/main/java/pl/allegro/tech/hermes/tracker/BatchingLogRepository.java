@@ -1,17 +1,100 @@
 package pl.allegro.tech.hermes.tracker;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+import org.jctools.queues.MpscArrayQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pl.allegro.tech.hermes.metrics.HermesCounter;
+import pl.allegro.tech.hermes.metrics.HermesTimer;
+
+/**
+ * Base class of log repositories that store tracking entries in batches. Entries are put into a
+ * bounded lock-free queue, so logging never blocks the publishing or sending thread. When the queue
+ * is full, entries are dropped and counted. The queue is periodically drained by {@link
+ * QueueCommitter}, which writes batches to the given {@link TrackingSink}.
+ */
 public class BatchingLogRepository<T> {
+  private static final Logger logger = LoggerFactory.getLogger(BatchingLogRepository.class);
+
+  private static final AtomicInteger committerThreads = new AtomicInteger();
 
   protected final String clusterName;
   protected final String hostname;
-  protected BlockingQueue<T> queue;
 
-  public BatchingLogRepository(int queueSize, String clusterName, String hostname) {
-    this.queue = new LinkedBlockingQueue<>(queueSize);
+  private final MpscArrayQueue<T> queue;
+  private final QueueCommitter<T> committer;
+  private final HermesCounter droppedCounter;
+  private final ScheduledExecutorService executor;
+  private final int commitInterval;
+
+  public BatchingLogRepository(
+      BatchingParameters parameters,
+      TrackingSink<T> sink,
+      ToIntFunction<T> sizeInBytes,
+      HermesCounter droppedCounter,
+      HermesTimer commitTimer,
+      String clusterName,
+      String hostname) {
+    this.queue = new MpscArrayQueue<>(parameters.queueSize());
+    this.committer =
+        new QueueCommitter<>(
+            queue,
+            sink,
+            sizeInBytes,
+            parameters.maxBatchBytes(),
+            parameters.maxInflightBatches(),
+            commitTimer);
+    this.droppedCounter = droppedCounter;
+    this.commitInterval = parameters.commitInterval();
     this.clusterName = clusterName;
     this.hostname = hostname;
+    this.executor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable ->
+                new Thread(
+                    runnable, "tracker-queue-committer-" + committerThreads.getAndIncrement()));
+    executor.scheduleWithFixedDelay(committer, commitInterval, commitInterval, MILLISECONDS);
+  }
+
+  protected void enqueue(T entry) {
+    if (!queue.offer(entry)) {
+      droppedCounter.increment();
+    }
+  }
+
+  public int queueSize() {
+    return queue.size();
+  }
+
+  public int remainingCapacity() {
+    return queue.capacity() - queue.size();
+  }
+
+  public int inflightBatches() {
+    return committer.inflightBatches();
+  }
+
+  /** Stops scheduled commits and writes out entries that are still queued. */
+  protected void flushAndStop() {
+    executor.shutdown();
+    long timeout = commitInterval * 10L;
+    try {
+      // queue has a single consumer, so it is drained here only when the scheduled one is done
+      if (executor.awaitTermination(timeout, MILLISECONDS)) {
+        while (!queue.isEmpty() && committer.awaitInflightBatches(timeout, MILLISECONDS)) {
+          committer.run();
+        }
+      }
+      if (!committer.awaitInflightBatches(timeout, MILLISECONDS)) {
+        logger.warn("Tracking batches were still in flight when the repository was closed");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
   }
 }
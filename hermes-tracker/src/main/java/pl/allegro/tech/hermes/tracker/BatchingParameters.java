@@ -0,0 +1,11 @@
+package pl.allegro.tech.hermes.tracker;
+
+/**
+ * @param queueSize maximal number of entries waiting to be committed, entries logged over this
+ *     limit are dropped
+ * @param commitInterval interval between draining the queue in milliseconds
+ * @param maxBatchBytes maximal size of a single batch in bytes
+ * @param maxInflightBatches maximal number of batches written concurrently to the sink
+ */
+public record BatchingParameters(
+    int queueSize, int commitInterval, int maxBatchBytes, int maxInflightBatches) {}
@@ -0,0 +1,66 @@
+package pl.allegro.tech.hermes.tracker;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Appends tracking entries to a local file, one entry per line. Useful when tracking is needed
+ * without Elasticsearch, e.g. locally or in tests.
+ */
+public class FileTrackingSink<T> implements TrackingSink<T>, Closeable {
+
+  private static final byte NEW_LINE = '\n';
+
+  private final FileChannel channel;
+  private final Function<T, byte[]> serializer;
+
+  public FileTrackingSink(Path file, Function<T, byte[]> serializer) {
+    try {
+      this.channel = FileChannel.open(file, CREATE, WRITE, APPEND);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not open tracking file " + file, e);
+    }
+    this.serializer = serializer;
+  }
+
+  @Override
+  public CompletableFuture<Void> write(List<T> batch) {
+    int size = 0;
+    byte[][] entries = new byte[batch.size()][];
+    for (int i = 0; i < entries.length; i++) {
+      entries[i] = serializer.apply(batch.get(i));
+      size += entries[i].length + 1;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    for (byte[] entry : entries) {
+      buffer.put(entry).put(NEW_LINE);
+    }
+    buffer.flip();
+    try {
+      synchronized (channel) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+      return CompletableFuture.completedFuture(null);
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -2,43 +2,106 @@ package pl.allegro.tech.hermes.tracker;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+import org.jctools.queues.MessagePassingQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import pl.allegro.tech.hermes.metrics.HermesTimer;
 import pl.allegro.tech.hermes.metrics.HermesTimerContext;
 
-public abstract class QueueCommitter<T> implements Runnable {
+/**
+ * Drains the queue in batches limited by their size in bytes and writes them to {@link
+ * TrackingSink}. Every run sends as many batches as there are free in-flight slots, so a slow sink
+ * does not hold back draining until the limit of batches in flight is reached. Number of entries
+ * in a batch follows the size of entries, the expected count is only used to presize the batch.
+ */
+public class QueueCommitter<T> implements Runnable {
   private static final Logger LOGGER = LoggerFactory.getLogger(QueueCommitter.class);
 
-  private final BlockingQueue<T> queue;
+  private final MessagePassingQueue<T> queue;
+  private final TrackingSink<T> sink;
+  private final ToIntFunction<T> sizeInBytes;
+  private final int maxBatchBytes;
+  private final int maxInflightBatches;
+  private final Semaphore inflightBatches;
   private final HermesTimer timer;
 
-  public QueueCommitter(BlockingQueue<T> queue, HermesTimer timer) {
+  private int expectedBatchSize = 16;
+
+  public QueueCommitter(
+      MessagePassingQueue<T> queue,
+      TrackingSink<T> sink,
+      ToIntFunction<T> sizeInBytes,
+      int maxBatchBytes,
+      int maxInflightBatches,
+      HermesTimer timer) {
     this.queue = queue;
+    this.sink = sink;
+    this.sizeInBytes = sizeInBytes;
+    this.maxBatchBytes = maxBatchBytes;
+    this.maxInflightBatches = maxInflightBatches;
+    this.inflightBatches = new Semaphore(maxInflightBatches);
     this.timer = timer;
   }
 
   @Override
   public void run() {
     try {
-      if (!queue.isEmpty()) {
-        HermesTimerContext ctx = timer.time();
-        commit();
-        ctx.close();
+      while (!queue.isEmpty() && inflightBatches.tryAcquire()) {
+        List<T> batch = drainBatch();
+        if (batch.isEmpty()) {
+          inflightBatches.release();
+          return;
+        }
+        commit(batch);
       }
     } catch (Exception ex) {
       LOGGER.error("Could not commit batch.", ex);
     }
   }
 
-  private void commit() throws Exception {
-    List<T> batch = new ArrayList<>();
-    queue.drainTo(batch);
-    processBatch(batch);
+  public int inflightBatches() {
+    return maxInflightBatches - inflightBatches.availablePermits();
+  }
+
+  boolean awaitInflightBatches(long timeout, TimeUnit unit) throws InterruptedException {
+    if (inflightBatches.tryAcquire(maxInflightBatches, timeout, unit)) {
+      inflightBatches.release(maxInflightBatches);
+      return true;
+    }
+    return false;
   }
 
-  protected abstract void processBatch(List<T> batch)
-      throws ExecutionException, InterruptedException;
+  private List<T> drainBatch() {
+    List<T> batch = new ArrayList<>(expectedBatchSize);
+    long batchBytes = 0;
+    T entry;
+    while (batchBytes < maxBatchBytes && (entry = queue.relaxedPoll()) != null) {
+      batch.add(entry);
+      batchBytes += sizeInBytes.applyAsInt(entry);
+    }
+    expectedBatchSize = Math.max(batch.size(), 1);
+    return batch;
+  }
+
+  private void commit(List<T> batch) {
+    HermesTimerContext ctx = timer.time();
+    CompletableFuture<Void> result;
+    try {
+      result = sink.write(batch);
+    } catch (Exception ex) {
+      result = CompletableFuture.failedFuture(ex);
+    }
+    result.whenComplete(
+        (ignored, ex) -> {
+          ctx.close();
+          inflightBatches.release();
+          if (ex != null) {
+            LOGGER.error("Could not commit batch of {} entries.", batch.size(), ex);
+          }
+        });
+  }
 }
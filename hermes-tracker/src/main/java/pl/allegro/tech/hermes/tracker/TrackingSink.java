@@ -0,0 +1,14 @@
+package pl.allegro.tech.hermes.tracker;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Destination of tracking entries batched by {@link BatchingLogRepository}. Batches are written
+ * concurrently, up to the configured number of batches in flight, so implementations should not
+ * block until the batch is stored but complete the returned future instead.
+ */
+public interface TrackingSink<T> {
+
+  CompletableFuture<Void> write(List<T> batch);
+}
@@ -0,0 +1,160 @@
+package pl.allegro.tech.hermes.tracker;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pl.allegro.tech.hermes.metrics.HermesTimer;
+import pl.allegro.tech.hermes.metrics.counters.HermesCounters;
+
+public class BatchingLogRepositoryTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private Path file;
+  private FileTrackingSink<String> fileSink;
+
+  @Before
+  public void setup() throws IOException {
+    file = Files.createTempFile("tracking", ".log");
+    fileSink = new FileTrackingSink<>(file, entry -> entry.getBytes(UTF_8));
+  }
+
+  @After
+  public void cleanup() throws IOException {
+    fileSink.close();
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  public void shouldWriteLoggedEntriesToFile() {
+    // given
+    TestLogRepository repository = repository(fileSink, 100, 10, 64, 2);
+
+    // when
+    IntStream.range(0, 50).forEach(i -> repository.log("entry-" + i));
+
+    // then
+    await()
+        .atMost(Duration.ofSeconds(5))
+        .untilAsserted(
+            () ->
+                assertThat(Files.readAllLines(file))
+                    .containsExactlyElementsOf(
+                        IntStream.range(0, 50).mapToObj(i -> "entry-" + i).toList()));
+  }
+
+  @Test
+  public void shouldLimitBatchesBySize() {
+    // given
+    List<List<String>> batches = new CopyOnWriteArrayList<>();
+    TrackingSink<String> sink =
+        batch -> {
+          batches.add(batch);
+          return CompletableFuture.completedFuture(null);
+        };
+    TestLogRepository repository = repository(sink, 100, 60_000, 20, 1);
+
+    // when
+    IntStream.range(0, 10).forEach(i -> repository.log("0123456789"));
+    repository.flushAndStop();
+
+    // then
+    assertThat(batches).hasSize(5).allSatisfy(batch -> assertThat(batch).hasSize(2));
+  }
+
+  @Test
+  public void shouldLimitBatchesInFlight() {
+    // given
+    List<CompletableFuture<Void>> pending = new CopyOnWriteArrayList<>();
+    TrackingSink<String> sink =
+        batch -> {
+          CompletableFuture<Void> result = new CompletableFuture<>();
+          pending.add(result);
+          return result;
+        };
+    TestLogRepository repository = repository(sink, 100, 10, 1, 3);
+
+    // when
+    IntStream.range(0, 10).forEach(i -> repository.log("entry-" + i));
+
+    // then
+    await().atMost(Duration.ofSeconds(5)).until(() -> pending.size() == 3);
+    assertThat(repository.inflightBatches()).isEqualTo(3);
+    assertThat(repository.queueSize()).isEqualTo(7);
+
+    // when
+    pending.forEach(result -> result.complete(null));
+
+    // then
+    await().atMost(Duration.ofSeconds(5)).until(() -> pending.size() == 6);
+  }
+
+  @Test
+  public void shouldDropEntriesWhenQueueIsFull() {
+    // given
+    TestLogRepository repository = repository(fileSink, 8, 60_000, 64, 1);
+
+    // when
+    IntStream.range(0, 10).forEach(i -> repository.log("entry-" + i));
+
+    // then
+    assertThat(repository.queueSize()).isEqualTo(8);
+    assertThat(repository.remainingCapacity()).isZero();
+    assertThat(meterRegistry.counter("dropped").count()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldFlushQueuedEntriesWhenStopped() throws IOException {
+    // given
+    TestLogRepository repository = repository(fileSink, 100, 60_000, 16, 1);
+    IntStream.range(0, 20).forEach(i -> repository.log("entry-" + i));
+
+    // when
+    repository.flushAndStop();
+
+    // then
+    assertThat(Files.readAllLines(file)).hasSize(20);
+  }
+
+  private TestLogRepository repository(
+      TrackingSink<String> sink,
+      int queueSize,
+      int commitInterval,
+      int maxBatchBytes,
+      int maxInflightBatches) {
+    return new TestLogRepository(
+        new BatchingParameters(queueSize, commitInterval, maxBatchBytes, maxInflightBatches), sink);
+  }
+
+  private class TestLogRepository extends BatchingLogRepository<String> {
+
+    TestLogRepository(BatchingParameters parameters, TrackingSink<String> sink) {
+      super(
+          parameters,
+          sink,
+          String::length,
+          HermesCounters.from(meterRegistry.counter("dropped")),
+          HermesTimer.from(meterRegistry.timer("commit-latency")),
+          "primary",
+          "localhost");
+    }
+
+    void log(String entry) {
+      enqueue(entry);
+    }
+  }
+}
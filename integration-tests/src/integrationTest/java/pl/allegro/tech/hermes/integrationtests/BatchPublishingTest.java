@@ -0,0 +1,105 @@
+package pl.allegro.tech.hermes.integrationtests;
+
+import static org.awaitility.Awaitility.waitAtMost;
+import static pl.allegro.tech.hermes.api.ContentType.AVRO;
+import static pl.allegro.tech.hermes.api.TopicWithSchema.topicWithSchema;
+import static pl.allegro.tech.hermes.test.helper.builder.SubscriptionBuilder.subscription;
+import static pl.allegro.tech.hermes.test.helper.builder.TopicBuilder.topicWithRandomName;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import pl.allegro.tech.hermes.api.Topic;
+import pl.allegro.tech.hermes.integrationtests.setup.HermesExtension;
+import pl.allegro.tech.hermes.integrationtests.subscriber.TestSubscriber;
+import pl.allegro.tech.hermes.integrationtests.subscriber.TestSubscribersExtension;
+import pl.allegro.tech.hermes.test.helper.avro.AvroUser;
+import pl.allegro.tech.hermes.test.helper.message.TestMessage;
+
+public class BatchPublishingTest {
+
+  @RegisterExtension public static final HermesExtension hermes = new HermesExtension();
+
+  @RegisterExtension
+  public static final TestSubscribersExtension subscribers = new TestSubscribersExtension();
+
+  private static final AvroUser user = new AvroUser("Bob", 50, "blue");
+
+  @Test
+  public void shouldPublishAllMessagesOfBatch() {
+    // given
+    Topic topic = hermes.initHelper().createTopic(topicWithRandomName().build());
+    TestSubscriber subscriber = subscribers.createSubscriber();
+    hermes
+        .initHelper()
+        .createSubscription(
+            subscription(topic.getQualifiedName(), "subscription", subscriber.getEndpoint())
+                .build());
+    TestMessage first = TestMessage.of("message", "first");
+    TestMessage second = TestMessage.of("message", "second");
+
+    // when
+    waitAtMost(Duration.ofSeconds(10))
+        .untilAsserted(
+            () ->
+                hermes
+                    .api()
+                    .publishBatch(
+                        topic.getQualifiedName(),
+                        "[" + first.body() + "," + second.body() + "]")
+                    .expectStatus()
+                    .isCreated()
+                    .expectBody()
+                    .jsonPath("$.messages[*].status")
+                    .isEqualTo(List.of(201, 201)));
+
+    // then
+    subscriber.waitUntilReceived(first.body());
+    subscriber.waitUntilReceived(second.body());
+  }
+
+  @Test
+  public void shouldRejectOnlyInvalidMessagesOfBatch() {
+    // given
+    Topic topic =
+        hermes
+            .initHelper()
+            .createTopicWithSchema(
+                topicWithSchema(
+                    topicWithRandomName().withContentType(AVRO).build(),
+                    user.getSchemaAsString()));
+
+    // when
+    waitAtMost(Duration.ofSeconds(10))
+        .untilAsserted(
+            () ->
+                hermes
+                    .api()
+                    .publishBatch(
+                        topic.getQualifiedName(), "[" + user.asJson() + ",{\"name\":\"Alice\"}]")
+                    .expectStatus()
+                    .isEqualTo(207)
+                    .expectBody()
+                    .jsonPath("$.messages[*].status")
+                    .isEqualTo(List.of(201, 400))
+                    .jsonPath("$.messages[1].error.code")
+                    .isEqualTo("VALIDATION_ERROR"));
+  }
+
+  @Test
+  public void shouldRejectBatchWhichIsNotArrayOfMessages() {
+    // given
+    Topic topic = hermes.initHelper().createTopic(topicWithRandomName().build());
+
+    // when
+    waitAtMost(Duration.ofSeconds(10))
+        .untilAsserted(
+            () ->
+                hermes
+                    .api()
+                    .publishBatch(topic.getQualifiedName(), TestMessage.of("a", "b").body())
+                    .expectStatus()
+                    .isBadRequest());
+  }
+}